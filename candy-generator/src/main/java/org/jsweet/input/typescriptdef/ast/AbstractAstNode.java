@@ -64,6 +64,7 @@ public abstract class AbstractAstNode implements AstNode {
 	@Override
 	public void setHidden(boolean hidden) {
 		this.hidden = hidden;
+		DeclarationIndex.modified();
 	}
 
 }
@@ -76,6 +76,7 @@ public abstract class AbstractDeclaration extends AbstractAstNode implements Dec
 		} else {
 			this.name = name;
 		}
+		DeclarationIndex.modified();
 	}
 
 	@Override
@@ -51,6 +51,7 @@ public class ArrayTypeReference extends TypeReference {
 	}
 
 	public void setComponentType(TypeReference componentType) {
+		DeclarationIndex.typeModified(this.componentType, componentType);
 		this.componentType = componentType;
 	}
 
@@ -102,6 +103,7 @@ public class ArrayTypeReference extends TypeReference {
 	public boolean substituteTypeReference(TypeReference targetType, TypeReference newType) {
 		if (componentType == targetType) {
 			componentType = newType;
+			DeclarationIndex.typeModified(targetType, newType);
 			return true;
 		}
 		return false;
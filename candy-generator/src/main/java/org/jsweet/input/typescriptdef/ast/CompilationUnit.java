@@ -62,6 +62,7 @@ public class CompilationUnit implements Visitable, DeclarationContainer {
 
 	public void setDeclarations(Declaration[] declarations) {
 		this.declarations = declarations;
+		DeclarationIndex.modified();
 	}
 
 	@Override
@@ -97,6 +98,7 @@ public class CompilationUnit implements Visitable, DeclarationContainer {
 	@Override
 	public void clearMembers() {
 		declarations = new Declaration[0];
+		DeclarationIndex.modified();
 	}
 
 	@Override
@@ -107,6 +109,7 @@ public class CompilationUnit implements Visitable, DeclarationContainer {
 	@Override
 	public void setHidden(boolean hidden) {
 		this.hidden = hidden;
+		DeclarationIndex.modified();
 	}
 
 	@Override
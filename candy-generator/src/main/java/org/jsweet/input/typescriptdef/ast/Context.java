@@ -87,6 +87,8 @@ public class Context {
 
 	private Map<ModuleDeclaration, String> moduleNames = new HashMap<ModuleDeclaration, String>();
 
+	private DeclarationIndex declarationIndex = new DeclarationIndex(this);
+
 	public Map<DeclarationContainer, List<TypeDeclaration>> generatedObjectTypes = new HashMap<>();
 
 	/**
@@ -553,6 +555,13 @@ public class Context {
 	public <T extends Declaration> List<QualifiedDeclaration<T>> findDeclarations(Class<T> type, String declFullName,
 			CompilationUnit... compilationUnits) {
 
+		if (compilationUnits.length == 0) {
+			List<QualifiedDeclaration<T>> matches = declarationIndex.findDeclarations(type, declFullName);
+			if (matches != null) {
+				return matches;
+			}
+		}
+
 		final Pattern pattern = declFullName.contains("*")
 				? Pattern.compile(declFullName.replace(".", "\\.").replace("*", ".*")) : null;
 
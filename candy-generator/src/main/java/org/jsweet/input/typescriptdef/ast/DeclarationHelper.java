@@ -110,6 +110,7 @@ public abstract class DeclarationHelper {
 	}
 
 	public static Declaration[] addMember(DeclarationContainer container, Declaration declaration) {
+		DeclarationIndex.modified();
 		return ArrayUtils.add(container.getMembers(), declaration);
 	}
 
@@ -118,6 +119,7 @@ public abstract class DeclarationHelper {
 		int index = ArrayUtils.indexOf(container.getMembers(), existingDeclaration);
 		if (index >= 0) {
 			container.getMembers()[index] = withNewDeclaration;
+			DeclarationIndex.modified();
 		}
 		return container.getMembers();
 	}
@@ -127,6 +129,7 @@ public abstract class DeclarationHelper {
 		if (index < 0) {
 			return container.getMembers();
 		}
+		DeclarationIndex.modified();
 		return ArrayUtils.remove(container.getMembers(), index);
 	}
 
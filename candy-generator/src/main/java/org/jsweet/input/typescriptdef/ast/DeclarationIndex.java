@@ -0,0 +1,278 @@
+/*
+ * TypeScript definitions to Java translator - http://www.jsweet.org
+ * Copyright (C) 2015 CINCHEO SAS <renaud.pawlak@cincheo.fr>
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package org.jsweet.input.typescriptdef.ast;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * An index of the declarations found in the compilation units of a context,
+ * by qualified name, so that {@link Context#findDeclarations(Class, String)}
+ * does not need to scan the ASTs on each lookup.
+ *
+ * <p>
+ * The index is built by scanning the ASTs once, and holds the same qualified
+ * names and the same match order as a scan would. Exact names are looked up in
+ * a hash map, and wildcard expressions only test the names sharing their
+ * literal prefix (sorted map) or their last name segment.
+ *
+ * <p>
+ * Any modification of the ASTs that changes the declarations found by a scan
+ * (members added, removed or replaced, declarations renamed or hidden, types
+ * declaring members replaced) makes the indexes stale (see {@link #modified()}
+ * and {@link #typeModified(TypeReference, TypeReference)}). Since the AST
+ * nodes do not know their context, modifications are counted on a clock shared
+ * by all the contexts, and each index keeps the count it was built at: a
+ * modification in another context only costs a spurious rebuild. A stale index
+ * is rebuilt on the next
+ * wildcard lookup (which requires a full scan anyway), or after a series of
+ * exact lookups without further modifications. In between, exact lookups fall
+ * back to a (pruned) scan, so that passes that modify the AST between each
+ * lookup do not rebuild the index each time.
+ *
+ * @author Renaud Pawlak
+ */
+class DeclarationIndex {
+
+	/**
+	 * The minimal number of consecutive exact lookups on an unmodified AST
+	 * before a stale index is rebuilt.
+	 */
+	private static final int MIN_LOOKUPS_BEFORE_REBUILD = 16;
+
+	private static final AtomicLong MODIFICATION_COUNT = new AtomicLong();
+
+	/**
+	 * Must be called on any modification of an AST that changes the
+	 * declarations found by a scan (membership or names).
+	 */
+	static void modified() {
+		MODIFICATION_COUNT.incrementAndGet();
+	}
+
+	/**
+	 * Must be called when a type reference of an AST is replaced: the indexes
+	 * become stale only if the old or the new type declares members (object
+	 * types or functional type parameters).
+	 */
+	static void typeModified(TypeReference oldType, TypeReference newType) {
+		if (declaresMembers(oldType) || declaresMembers(newType)) {
+			modified();
+		}
+	}
+
+	/**
+	 * Same as {@link #typeModified(TypeReference, TypeReference)} for type
+	 * reference arrays.
+	 */
+	static void typesModified(TypeReference[] oldTypes, TypeReference[] newTypes) {
+		if (declaresMembers(oldTypes) || declaresMembers(newTypes)) {
+			modified();
+		}
+	}
+
+	private static boolean declaresMembers(TypeReference[] types) {
+		if (types != null) {
+			for (TypeReference type : types) {
+				if (declaresMembers(type)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	private static boolean declaresMembers(TypeReference type) {
+		if (type == null) {
+			return false;
+		}
+		if (type.getObjectType() != null || declaresMembers(type.getTypeArguments())) {
+			return true;
+		}
+		if (type instanceof FunctionalTypeReference) {
+			FunctionalTypeReference functionalType = (FunctionalTypeReference) type;
+			return (functionalType.getParameters() != null && functionalType.getParameters().length > 0)
+					|| declaresMembers(functionalType.getReturnType());
+		} else if (type instanceof UnionTypeReference) {
+			return declaresMembers(((UnionTypeReference) type).getLeftType())
+					|| declaresMembers(((UnionTypeReference) type).getRightType());
+		} else if (type instanceof ArrayTypeReference) {
+			return declaresMembers(((ArrayTypeReference) type).getComponentType());
+		}
+		return false;
+	}
+
+	private static class Entry {
+		final Declaration declaration;
+		final String name;
+		final int order;
+
+		Entry(Declaration declaration, String name, int order) {
+			this.declaration = declaration;
+			this.name = name;
+			this.order = order;
+		}
+	}
+
+	private final Context context;
+
+	private List<Entry> entries;
+	private Map<String, List<Entry>> entriesByName;
+	private NavigableMap<String, List<Entry>> sortedEntriesByName;
+	private Map<String, List<Entry>> entriesBySimpleName;
+	private List<CompilationUnit> indexedCompilationUnits;
+	private long indexedModificationCount = -1;
+
+	private long lastStaleLookupModificationCount = -1;
+	private int staleLookupCount = 0;
+
+	private final Map<String, Pattern> patterns = new HashMap<>();
+
+	public DeclarationIndex(Context context) {
+		this.context = context;
+	}
+
+	private boolean isUpToDate() {
+		if (indexedModificationCount != MODIFICATION_COUNT.get()
+				|| indexedCompilationUnits.size() != context.compilationUnits.size()) {
+			return false;
+		}
+		for (int i = 0; i < indexedCompilationUnits.size(); i++) {
+			if (indexedCompilationUnits.get(i) != context.compilationUnits.get(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void build() {
+		entries = new ArrayList<>();
+		entriesByName = new HashMap<>();
+		sortedEntriesByName = new TreeMap<>();
+		entriesBySimpleName = new HashMap<>();
+		indexedCompilationUnits = new ArrayList<>(context.compilationUnits);
+		indexedModificationCount = MODIFICATION_COUNT.get();
+		new Scanner(context) {
+			@Override
+			public void scan(Visitable visitable) {
+				if (visitable != null && !visitable.isHidden()) {
+					enter(visitable);
+					try {
+						if (visitable instanceof Declaration) {
+							add((Declaration) visitable, getCurrentDeclarationName());
+						}
+						visitable.accept(this);
+					} finally {
+						exit();
+					}
+				}
+			}
+		}.scan(indexedCompilationUnits);
+	}
+
+	private void add(Declaration declaration, String name) {
+		Entry entry = new Entry(declaration, name, entries.size());
+		entries.add(entry);
+		List<Entry> sameName = entriesByName.get(name);
+		if (sameName == null) {
+			sameName = new ArrayList<>(1);
+			entriesByName.put(name, sameName);
+			sortedEntriesByName.put(name, sameName);
+		}
+		sameName.add(entry);
+		entriesBySimpleName.computeIfAbsent(getSimpleName(name), n -> new ArrayList<>(1)).add(entry);
+	}
+
+	private static String getSimpleName(String name) {
+		return name.substring(name.lastIndexOf('.') + 1);
+	}
+
+	/**
+	 * Finds the declarations of the given type matching the given expression
+	 * (see {@link Context#findDeclarations(Class, String, CompilationUnit...)}
+	 * for the syntax), in all the compilation units of the context.
+	 *
+	 * @return the matching declarations in scan order, or null if the index is
+	 *         stale and the caller should scan the ASTs instead
+	 */
+	public <T extends Declaration> List<QualifiedDeclaration<T>> findDeclarations(Class<T> type,
+			String declFullName) {
+		boolean wildcard = declFullName.contains("*");
+		if (entries == null || !isUpToDate()) {
+			if (!wildcard) {
+				long modificationCount = MODIFICATION_COUNT.get();
+				if (lastStaleLookupModificationCount != modificationCount) {
+					lastStaleLookupModificationCount = modificationCount;
+					staleLookupCount = 0;
+				}
+				if (++staleLookupCount < Math.max(MIN_LOOKUPS_BEFORE_REBUILD,
+						entries == null ? 0 : entries.size() / 256)) {
+					return null;
+				}
+			}
+			build();
+		}
+
+		List<QualifiedDeclaration<T>> matches = new ArrayList<>();
+		if (!wildcard) {
+			for (Entry entry : entriesByName.getOrDefault(declFullName, Collections.emptyList())) {
+				if (type.isInstance(entry.declaration)) {
+					matches.add(new QualifiedDeclaration<T>(type.cast(entry.declaration), entry.name));
+				}
+			}
+			return matches;
+		}
+
+		Pattern pattern = patterns.computeIfAbsent(declFullName,
+				n -> Pattern.compile(n.replace(".", "\\.").replace("*", ".*")));
+		String prefix = declFullName.substring(0, declFullName.indexOf('*'));
+		String suffix = declFullName.substring(declFullName.lastIndexOf('*') + 1);
+		List<Entry> candidates;
+		if (!prefix.isEmpty()) {
+			candidates = new ArrayList<>();
+			for (Map.Entry<String, List<Entry>> e : sortedEntriesByName.tailMap(prefix, true).entrySet()) {
+				if (!e.getKey().startsWith(prefix)) {
+					break;
+				}
+				candidates.addAll(e.getValue());
+			}
+			candidates.sort((e1, e2) -> e1.order - e2.order);
+		} else if (suffix.contains(".")) {
+			// matching names end with the suffix, so they have the same last
+			// segment
+			candidates = entriesBySimpleName.getOrDefault(getSimpleName(suffix), Collections.emptyList());
+		} else {
+			candidates = entries;
+		}
+		for (Entry entry : candidates) {
+			if (type.isInstance(entry.declaration) && pattern.matcher(entry.name).matches()) {
+				matches.add(new QualifiedDeclaration<T>(type.cast(entry.declaration), entry.name));
+			}
+		}
+		return matches;
+	}
+
+}
@@ -87,6 +87,7 @@ public class FunctionDeclaration extends AbstractTypedDeclaration implements Typ
 
 	public void setParameters(ParameterDeclaration[] parameters) {
 		this.parameters = parameters;
+		DeclarationIndex.modified();
 	}
 
 	@Override
@@ -97,6 +98,7 @@ public class FunctionDeclaration extends AbstractTypedDeclaration implements Typ
 	@Override
 	public void setTypeParameters(TypeParameterDeclaration[] typeParameters) {
 		this.typeParameters = typeParameters;
+		DeclarationIndex.modified();
 	}
 
 	@Override
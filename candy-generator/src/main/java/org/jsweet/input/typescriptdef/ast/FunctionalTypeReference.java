@@ -62,6 +62,7 @@ public class FunctionalTypeReference extends TypeReference implements TypeParame
 
 	public void setParameters(ParameterDeclaration[] parameters) {
 		this.parameters = parameters;
+		DeclarationIndex.modified();
 	}
 
 	public TypeReference getReturnType() {
@@ -69,6 +70,7 @@ public class FunctionalTypeReference extends TypeReference implements TypeParame
 	}
 
 	public void setReturnType(TypeReference returnType) {
+		DeclarationIndex.typeModified(this.returnType, returnType);
 		this.returnType = returnType;
 	}
 
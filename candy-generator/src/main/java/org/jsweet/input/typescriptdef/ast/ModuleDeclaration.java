@@ -82,6 +82,7 @@ public class ModuleDeclaration extends AbstractDeclaration implements Declaratio
 	@Override
 	public void clearMembers() {
 		members = new Declaration[0];
+		DeclarationIndex.modified();
 	}
 
 	public FunctionDeclaration findFirstFunction(String name) {
@@ -96,6 +96,7 @@ public class TypeDeclaration extends AbstractDeclaration
 	@Override
 	public void clearMembers() {
 		members = new Declaration[0];
+		DeclarationIndex.modified();
 	}
 
 	public TypeReference[] getSuperTypes() {
@@ -103,6 +104,7 @@ public class TypeDeclaration extends AbstractDeclaration
 	}
 
 	public void setSuperTypes(TypeReference[] superTypes) {
+		DeclarationIndex.typesModified(this.superTypes, superTypes);
 		this.superTypes = superTypes;
 	}
 
@@ -114,6 +116,7 @@ public class TypeDeclaration extends AbstractDeclaration
 	@Override
 	public void setTypeParameters(TypeParameterDeclaration[] typeParameters) {
 		this.typeParameters = typeParameters;
+		DeclarationIndex.modified();
 	}
 
 	public FunctionDeclaration findFirstConstructor() {
@@ -251,6 +254,7 @@ public class TypeDeclaration extends AbstractDeclaration
 	}
 
 	public void setMergedSuperTypes(TypeReference[] mergedSuperTypes) {
+		DeclarationIndex.typesModified(this.mergedSuperTypes, mergedSuperTypes);
 		this.mergedSuperTypes = mergedSuperTypes;
 	}
 
@@ -260,6 +264,7 @@ public class TypeDeclaration extends AbstractDeclaration
 		} else {
 			this.mergedSuperTypes = ArrayUtils.add(mergedSuperTypes, mergedSuperType);
 		}
+		DeclarationIndex.typeModified(null, mergedSuperType);
 	}
 
 	public final String getOriginalKind() {
@@ -63,6 +63,7 @@ public class TypeMacroDeclaration extends TypeDeclaration implements TypedDeclar
 
 	@Override
 	public void setType(TypeReference type) {
+		DeclarationIndex.typeModified(this.type, type);
 		this.type = type;
 	}
 }
@@ -41,6 +41,7 @@ public class TypeParameterDeclaration extends AbstractDeclaration implements Typ
 	}
 
 	public void setUpperBound(TypeReference upperBound) {
+		DeclarationIndex.typeModified(this.upperBound, upperBound);
 		this.upperBound = upperBound;
 	}
 
@@ -53,6 +54,7 @@ public class TypeParameterDeclaration extends AbstractDeclaration implements Typ
 
 	@Override
 	public void setType(TypeReference type) {
+		DeclarationIndex.typeModified(upperBound, type);
 		upperBound = type;
 	}
 
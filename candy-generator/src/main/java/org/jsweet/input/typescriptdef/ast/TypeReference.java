@@ -96,6 +96,7 @@ public class TypeReference extends AbstractAstNode implements NamedElement {
 	}
 
 	public void setTypeArguments(TypeReference[] typeArguments) {
+		DeclarationIndex.typesModified(this.typeArguments, typeArguments);
 		this.typeArguments = typeArguments;
 	}
 
@@ -233,6 +234,7 @@ public class TypeReference extends AbstractAstNode implements NamedElement {
 			for (int i = 0; i < typeArguments.length; i++) {
 				if (typeArguments[i] == targetType) {
 					typeArguments[i] = newType;
+					DeclarationIndex.typeModified(targetType, newType);
 					return true;
 				}
 			}
@@ -67,6 +67,7 @@ public class UnionTypeReference extends TypeReference {
 	}
 
 	public void setLeftType(TypeReference leftType) {
+		DeclarationIndex.typeModified(this.leftType, leftType);
 		this.leftType = leftType;
 		if (leftType != null && leftType.getName() != null && leftType.getName().equals("void")) {
 			selected = Selected.RIGHT;
@@ -78,6 +79,7 @@ public class UnionTypeReference extends TypeReference {
 	}
 
 	public void setRightType(TypeReference rightType) {
+		DeclarationIndex.typeModified(this.rightType, rightType);
 		this.rightType = rightType;
 		if (rightType != null && rightType.getName() != null && rightType.getName().equals("void")) {
 			selected = Selected.LEFT;
@@ -119,6 +121,10 @@ public class UnionTypeReference extends TypeReference {
 	}
 
 	public void setSelected(Selected selected) {
+		if (this.selected != selected) {
+			// the selection changes the operands found by a scan
+			DeclarationIndex.typeModified(leftType, rightType);
+		}
 		this.selected = selected;
 	}
 
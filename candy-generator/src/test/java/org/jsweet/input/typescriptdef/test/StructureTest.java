@@ -6,9 +6,12 @@ import static org.junit.Assert.assertNotNull;
 import java.io.FileNotFoundException;
 
 import org.jsweet.input.typescriptdef.ast.Context;
+import org.jsweet.input.typescriptdef.ast.Declaration;
 import org.jsweet.input.typescriptdef.ast.FunctionDeclaration;
 import org.jsweet.input.typescriptdef.ast.ModuleDeclaration;
+import org.jsweet.input.typescriptdef.ast.ParameterDeclaration;
 import org.jsweet.input.typescriptdef.ast.TypeDeclaration;
+import org.jsweet.input.typescriptdef.ast.TypeReference;
 import org.jsweet.input.typescriptdef.ast.VariableDeclaration;
 import org.junit.Test;
 
@@ -44,4 +47,41 @@ public class StructureTest extends AbstractTest {
 		assertEquals(0, context.findDeclarations(VariableDeclaration.class, "def.structure.test.Globals.Math").size());
 	}
 
+	@Test
+	public void declarationIndexTest() throws FileNotFoundException {
+		Context context = parseAndTranslateTestFile("structure/globals-test");
+
+		assertEquals(1, context.findDeclarations(FunctionDeclaration.class, "*.m11.Globals.f111").size());
+		TypeDeclaration globals = context
+				.findFirstDeclaration(TypeDeclaration.class, "def.structure.m1.m11.Globals").getDeclaration();
+		FunctionDeclaration f112 = new FunctionDeclaration(null, "f112", new TypeReference(null, "void", null),
+				new ParameterDeclaration[0], null);
+		globals.addMember(f112);
+		assertEquals(1, context.findDeclarations(FunctionDeclaration.class, "def.structure.m1.m11.Globals.f112").size());
+		assertEquals(2, context.findDeclarations(FunctionDeclaration.class, "def.structure.m1.m11.Globals.*").size());
+
+		f112.setName("g112");
+		assertEquals(0, context.findDeclarations(FunctionDeclaration.class, "def.structure.m1.m11.Globals.f112").size());
+		assertEquals(1, context.findDeclarations(FunctionDeclaration.class, "*.g112").size());
+
+		globals.removeMember(f112);
+		assertEquals(0, context.findDeclarations(FunctionDeclaration.class, "*.g112").size());
+
+		globals.setHidden(true);
+		assertEquals(0, context.findDeclarations(FunctionDeclaration.class, "def.structure.m1.m11.Globals.f111").size());
+		globals.setHidden(false);
+		assertEquals(1, context.findDeclarations(FunctionDeclaration.class, "def.structure.m1.m11.Globals.f111").size());
+
+		// only the types declaring members change the index
+		VariableDeclaration v112 = new VariableDeclaration(null, "v112", new TypeReference(null, "string", null),
+				false, false);
+		globals.addMember(v112);
+		assertEquals(0, context.findDeclarations(VariableDeclaration.class, "*.m112").size());
+		v112.setType(new TypeReference(null, new Declaration[] {
+				new VariableDeclaration(null, "m112", new TypeReference(null, "string", null), false, false) }));
+		assertEquals(1, context.findDeclarations(VariableDeclaration.class, "*.m112").size());
+		v112.setType(new TypeReference(null, "number", null));
+		assertEquals(0, context.findDeclarations(VariableDeclaration.class, "*.m112").size());
+	}
+
 }
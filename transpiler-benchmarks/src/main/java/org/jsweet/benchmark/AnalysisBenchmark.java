@@ -0,0 +1,84 @@
+/*
+ * JSweet transpiler - http://www.jsweet.org
+ * Copyright (C) 2015 CINCHEO SAS <renaud.pawlak@cincheo.fr>
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package org.jsweet.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.jsweet.benchmark.BenchmarkSupport.CompiledUnits;
+import org.jsweet.transpiler.JSweetFactory;
+import org.jsweet.transpiler.OverloadScanner;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the scanners that run before printing: the before-translation
+ * scanner (which also analyzes the static initializers) and the
+ * {@link OverloadScanner}.
+ *
+ * <p>
+ * These scanners fill the context, so each measure scans freshly compiled
+ * units once.
+ *
+ * @author Renaud Pawlak
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 10)
+@Measurement(iterations = 20)
+public class AnalysisBenchmark {
+
+	/**
+	 * The analyzed fixture.
+	 */
+	@Param({ "source.blocksgame", "source.genericinterfaceperf", BenchmarkSupport.GENERATED_FIXTURE })
+	public String fixture;
+
+	private CompiledUnits units;
+
+	@Setup(Level.Iteration)
+	public void setUp() throws IOException {
+		units = BenchmarkSupport.compile(new JSweetFactory(), BenchmarkSupport.getFixtureFiles(fixture));
+		units.getContext().sourceFiles = units.sourceFiles;
+	}
+
+	@Benchmark
+	public void beforeTranslationScanner() {
+		units.factory.createBeforeTranslationScanner(units.handler, units.getContext())
+				.process(units.compilationUnits);
+	}
+
+	@Benchmark
+	public void overloadScanner() {
+		new OverloadScanner(units.handler, units.getContext()).process(units.compilationUnits);
+	}
+
+}
@@ -0,0 +1,136 @@
+/*
+ * JSweet transpiler - http://www.jsweet.org
+ * Copyright (C) 2015 CINCHEO SAS <renaud.pawlak@cincheo.fr>
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package org.jsweet.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.jsweet.JSweetConfig;
+import org.jsweet.benchmark.BenchmarkSupport.CompiledUnits;
+import org.jsweet.transpiler.JSweetContext;
+import org.jsweet.transpiler.JSweetFactory;
+import org.jsweet.transpiler.extension.AnnotationManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.sun.tools.javac.code.Symbol;
+import com.sun.tools.javac.tree.JCTree.JCClassDecl;
+import com.sun.tools.javac.tree.JCTree.JCCompilationUnit;
+import com.sun.tools.javac.tree.JCTree.JCMethodDecl;
+import com.sun.tools.javac.tree.JCTree.JCVariableDecl;
+import com.sun.tools.javac.tree.TreeScanner;
+
+/**
+ * Benchmarks {@link JSweetContext#hasAnnotationType(Symbol, String...)} on all
+ * the declarations of the fixtures, with a varying number of annotation
+ * filters (as configured in a <code>jsweetconfig.json</code> file), with and
+ * without the resolved annotations cache.
+ *
+ * @author Renaud Pawlak
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+public class AnnotationLookupBenchmark {
+
+	/**
+	 * The number of filters configured for the looked up annotation.
+	 */
+	@Param({ "0", "10", "100" })
+	public int filterCount;
+
+	// removing an annotation manager clears the resolved annotations
+	private static final AnnotationManager NO_MANAGER = new AnnotationManager() {
+		@Override
+		public Action manageAnnotation(javax.lang.model.element.Element element, String annotationType) {
+			return Action.VOID;
+		}
+	};
+
+	private JSweetContext context;
+	private Symbol[] symbols;
+
+	@Setup
+	public void setUp() throws IOException {
+		List<File> files = new ArrayList<>(BenchmarkSupport.getFixtureFiles("source.blocksgame"));
+		files.addAll(BenchmarkSupport.getFixtureFiles("source.genericinterfaceperf"));
+		CompiledUnits units = BenchmarkSupport.compile(new JSweetFactory(), files);
+		context = units.getContext();
+		for (int i = 0; i < filterCount; i++) {
+			// only the last filter matches (some methods of the fixtures)
+			context.addAnnotation("@" + JSweetConfig.ANNOTATION_ERASED,
+					i == filterCount - 1 ? "source.genericinterfaceperf.*.m*(..)" : "benchmark.Filter" + i + ".*");
+		}
+		List<Symbol> symbols = new ArrayList<>();
+		for (JCCompilationUnit cu : units.compilationUnits) {
+			new TreeScanner() {
+				@Override
+				public void visitClassDef(JCClassDecl classDecl) {
+					symbols.add(classDecl.sym);
+					super.visitClassDef(classDecl);
+				}
+
+				@Override
+				public void visitMethodDef(JCMethodDecl methodDecl) {
+					symbols.add(methodDecl.sym);
+					super.visitMethodDef(methodDecl);
+				}
+
+				@Override
+				public void visitVarDef(JCVariableDecl varDecl) {
+					symbols.add(varDecl.sym);
+					super.visitVarDef(varDecl);
+				}
+			}.scan(cu);
+		}
+		this.symbols = symbols.stream().filter(s -> s != null).toArray(Symbol[]::new);
+	}
+
+	@Benchmark
+	public void hasAnnotationType(Blackhole blackhole) {
+		for (Symbol symbol : symbols) {
+			blackhole.consume(context.hasAnnotationType(symbol, JSweetConfig.ANNOTATION_ERASED));
+		}
+	}
+
+	@Benchmark
+	public void hasAnnotationTypeUncached(Blackhole blackhole) {
+		context.removeAnnotationManager(NO_MANAGER);
+		for (Symbol symbol : symbols) {
+			blackhole.consume(context.hasAnnotationType(symbol, JSweetConfig.ANNOTATION_ERASED));
+		}
+	}
+
+}
@@ -0,0 +1,258 @@
+/*
+ * JSweet transpiler - http://www.jsweet.org
+ * Copyright (C) 2015 CINCHEO SAS <renaud.pawlak@cincheo.fr>
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package org.jsweet.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+import org.jsweet.transpiler.EcmaScriptComplianceLevel;
+import org.jsweet.transpiler.JSweetContext;
+import org.jsweet.transpiler.JSweetFactory;
+import org.jsweet.transpiler.JSweetTranspiler;
+import org.jsweet.transpiler.OverloadScanner;
+import org.jsweet.transpiler.SourceFile;
+import org.jsweet.transpiler.extension.PrinterAdapter;
+import org.jsweet.transpiler.util.ConsoleTranspilationHandler;
+import org.jsweet.transpiler.util.ErrorCountTranspilationHandler;
+import org.jsweet.transpiler.util.Util;
+
+import com.sun.tools.javac.tree.JCTree.JCCompilationUnit;
+
+/**
+ * Helpers shared by the benchmarks: access to the fixtures of the transpiler
+ * tests and creation of transpilers and compiled (attributed) compilation
+ * units.
+ *
+ * <p>
+ * The fixtures are read from the transpiler's test sources
+ * (<code>../transpiler/src/test/java</code> by default, see the
+ * <code>jsweet.benchmark.sources</code> system property), and are compiled
+ * against the benchmarks' classpath (see the
+ * <code>jsweet.benchmark.classpath</code> system property).
+ *
+ * @author Renaud Pawlak
+ */
+public class BenchmarkSupport {
+
+	/**
+	 * The directory holding the fixture sources.
+	 */
+	public static final File SOURCE_DIR = new File(
+			System.getProperty("jsweet.benchmark.sources", "../transpiler/src/test/java"));
+
+	/**
+	 * The classpath the fixtures are compiled against.
+	 */
+	public static final String CLASSPATH = System.getProperty("jsweet.benchmark.classpath",
+			System.getProperty("java.class.path"));
+
+	/**
+	 * The directory where the benchmarks write their files.
+	 */
+	public static final File OUTPUT_DIR = new File("target/benchmark-output");
+
+	/**
+	 * The name of the generated fixture (see {@link #generateFixture(int)}).
+	 */
+	public static final String GENERATED_FIXTURE = "generated";
+
+	/**
+	 * The number of classes of the generated fixture.
+	 */
+	public static final int GENERATED_CLASS_COUNT = Integer
+			.getInteger("jsweet.benchmark.generatedClassCount", 2000);
+
+	static {
+		// logging at the info level would dominate the measures
+		Logger.getLogger("org.jsweet").setLevel(Level.WARN);
+	}
+
+	/**
+	 * The result of compiling fixtures: the transpiler, its context (javac
+	 * attribution done) and the compilation units.
+	 */
+	public static class CompiledUnits {
+		public final JSweetFactory factory;
+		public final JSweetTranspiler transpiler;
+		public final ErrorCountTranspilationHandler handler;
+		public final SourceFile[] sourceFiles;
+		public final com.sun.tools.javac.util.List<JCCompilationUnit> compilationUnits;
+
+		private CompiledUnits(JSweetFactory factory, JSweetTranspiler transpiler,
+				ErrorCountTranspilationHandler handler, SourceFile[] sourceFiles,
+				com.sun.tools.javac.util.List<JCCompilationUnit> compilationUnits) {
+			this.factory = factory;
+			this.transpiler = transpiler;
+			this.handler = handler;
+			this.sourceFiles = sourceFiles;
+			this.compilationUnits = compilationUnits;
+		}
+
+		/**
+		 * The context of the compilation.
+		 */
+		public JSweetContext getContext() {
+			return transpiler.getContext();
+		}
+
+		/**
+		 * Runs the scanners that the transpiler runs before printing (the
+		 * before-translation scanner and the overload scanner).
+		 */
+		public CompiledUnits analyze() {
+			getContext().sourceFiles = sourceFiles;
+			factory.createBeforeTranslationScanner(handler, getContext()).process(compilationUnits);
+			new OverloadScanner(handler, getContext()).process(compilationUnits);
+			return this;
+		}
+
+		/**
+		 * Prints all the compilation units with the given adapter, as the
+		 * transpiler does (once {@link #analyze()} was called).
+		 *
+		 * @return the total length of the generated code
+		 */
+		public int print(PrinterAdapter adapter) {
+			int length = 0;
+			for (JCCompilationUnit cu : compilationUnits) {
+				try {
+					length += factory.createTranslator(adapter, handler, getContext(), cu, false).print(cu)
+							.getOutput().length();
+				} finally {
+					getContext().clearHeaders();
+					getContext().clearFooterStatements();
+				}
+			}
+			return length;
+		}
+	}
+
+	/**
+	 * Gets the Java files of the given fixture (a package of the test sources,
+	 * for instance <code>source.blocksgame</code>), including the sub-packages.
+	 * The {@link #GENERATED_FIXTURE} name gives the generated fixture.
+	 */
+	public static List<File> getFixtureFiles(String fixturePackage) throws IOException {
+		if (GENERATED_FIXTURE.equals(fixturePackage)) {
+			return generateFixture(GENERATED_CLASS_COUNT);
+		}
+		LinkedList<File> files = new LinkedList<>();
+		Util.addFiles(".java", new File(SOURCE_DIR, fixturePackage.replace('.', '/')), files);
+		if (files.isEmpty()) {
+			throw new IllegalStateException("no sources found for fixture " + fixturePackage + " in "
+					+ SOURCE_DIR.getAbsolutePath() + " (see the jsweet.benchmark.sources property)");
+		}
+		Collections.sort(files);
+		return new ArrayList<>(files);
+	}
+
+	/**
+	 * Gets the given Java files of a fixture package.
+	 */
+	public static List<File> getFixtureFiles(String fixturePackage, String... classNames) {
+		List<File> files = new ArrayList<>();
+		for (String className : classNames) {
+			files.add(new File(SOURCE_DIR, fixturePackage.replace('.', '/') + "/" + className + ".java"));
+		}
+		return files;
+	}
+
+	/**
+	 * Generates a fixture of the given number of classes in the
+	 * <code>bench.generated</code> package (in the benchmarks' output
+	 * directory). Each class holds fields, overloaded methods and invocations
+	 * that refer to the previous class.
+	 */
+	public static List<File> generateFixture(int classCount) throws IOException {
+		File dir = new File(OUTPUT_DIR, GENERATED_FIXTURE + "/src/bench/generated");
+		List<File> files = new ArrayList<>();
+		for (int i = 0; i < classCount; i++) {
+			StringBuilder sb = new StringBuilder();
+			sb.append("package bench.generated;\n\n");
+			sb.append("public class C").append(i).append(" {\n");
+			sb.append("\tint value = ").append(i).append(";\n");
+			if (i > 0) {
+				sb.append("\tC").append(i - 1).append(" previous = new C").append(i - 1).append("();\n");
+			}
+			sb.append("\tpublic int m(int i) {\n");
+			sb.append("\t\treturn ").append(i > 0 ? "previous.m(i) + value" : "i + value").append(";\n");
+			sb.append("\t}\n");
+			sb.append("\tpublic int m(String s) {\n");
+			sb.append("\t\treturn m(s.length());\n");
+			sb.append("\t}\n");
+			sb.append("\tpublic static C").append(i).append(" create() {\n");
+			sb.append("\t\treturn new C").append(i).append("();\n");
+			sb.append("\t}\n");
+			sb.append("}\n");
+			File file = new File(dir, "C" + i + ".java");
+			String content = sb.toString();
+			// do not touch the files that are already generated
+			if (!file.exists() || !content.equals(FileUtils.readFileToString(file, StandardCharsets.UTF_8))) {
+				FileUtils.write(file, content, StandardCharsets.UTF_8);
+			}
+			files.add(file);
+		}
+		return files;
+	}
+
+	/**
+	 * Creates a transpiler that writes to the benchmarks' output directory
+	 * (without launching tsc).
+	 */
+	public static JSweetTranspiler createTranspiler(JSweetFactory factory, String outputName) {
+		File outputDir = new File(OUTPUT_DIR, outputName);
+		JSweetTranspiler transpiler = new JSweetTranspiler(factory, new File(outputDir, ".jsweet"),
+				new File(outputDir, "ts"), null, new File(outputDir, "candies"), CLASSPATH);
+		transpiler.setEcmaTargetVersion(EcmaScriptComplianceLevel.ES5);
+		transpiler.setEncoding("UTF-8");
+		transpiler.setGenerateJsFiles(false);
+		transpiler.setGenerateSourceMaps(false);
+		return transpiler;
+	}
+
+	/**
+	 * Creates a handler that reports the problems on the console.
+	 */
+	public static ErrorCountTranspilationHandler createHandler() {
+		return new ErrorCountTranspilationHandler(new ConsoleTranspilationHandler());
+	}
+
+	/**
+	 * Parses and attributes the given files with a new transpiler.
+	 */
+	public static CompiledUnits compile(JSweetFactory factory, List<File> files) throws IOException {
+		JSweetTranspiler transpiler = createTranspiler(factory, "compile");
+		ErrorCountTranspilationHandler handler = createHandler();
+		com.sun.tools.javac.util.List<JCCompilationUnit> compilationUnits = transpiler.setupCompiler(files,
+				handler);
+		if (compilationUnits == null || handler.getErrorCount() > 0) {
+			throw new IllegalStateException("cannot compile the fixture files: " + files);
+		}
+		return new CompiledUnits(factory, transpiler, handler, SourceFile.toSourceFiles(files), compilationUnits);
+	}
+
+}
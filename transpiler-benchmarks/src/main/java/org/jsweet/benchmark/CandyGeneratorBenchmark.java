@@ -0,0 +1,120 @@
+/*
+ * JSweet transpiler - http://www.jsweet.org
+ * Copyright (C) 2015 CINCHEO SAS <renaud.pawlak@cincheo.fr>
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package org.jsweet.benchmark;
+
+import static java.util.Arrays.asList;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.jsweet.input.typescriptdef.TypescriptDef2Java;
+import org.jsweet.input.typescriptdef.ast.Context;
+import org.jsweet.input.typescriptdef.ast.QualifiedDeclaration;
+import org.jsweet.input.typescriptdef.ast.TypeDeclaration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks the candy generator on the lib.dom definitions: the full
+ * generation of the candy sources, and the declaration lookups of the
+ * generator's context once the AST is translated.
+ *
+ * @see TypescriptDef2Java#translate(List, List, File, File, boolean, boolean)
+ * @see Context#findDeclarations(Class, String,
+ *      org.jsweet.input.typescriptdef.ast.CompilationUnit...)
+ * @author Renaud Pawlak
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+public class CandyGeneratorBenchmark {
+
+	/**
+	 * The directory of the TypeScript definitions (holding the
+	 * <code>lib.core</code> definitions).
+	 */
+	public static final File TYPINGS_DIR = new File(
+			System.getProperty("jsweet.benchmark.typings", "../candy-generator/typings"));
+
+	private List<File> definitions;
+	private File outputDir;
+	private Context context;
+	private String[] typeNames;
+
+	@Setup
+	public void setUp() throws Throwable {
+		File libDir = new File(TYPINGS_DIR, TypescriptDef2Java.TS_CORE_LIB_DIR);
+		definitions = asList(new File(libDir, "lib.core.d.ts"), new File(libDir, "lib.core.ext.d.ts"),
+				new File(libDir, "lib.dom.d.ts"));
+		outputDir = Files.createTempDirectory("jsweet-candy-benchmark").toFile();
+		context = translateLibDom();
+		List<String> typeNames = new ArrayList<>();
+		for (QualifiedDeclaration<TypeDeclaration> type : context.findDeclarations(TypeDeclaration.class, "*")) {
+			typeNames.add(type.getQualifiedDeclarationName());
+		}
+		this.typeNames = typeNames.toArray(new String[0]);
+	}
+
+	private Context translateLibDom() throws Throwable {
+		return TypescriptDef2Java.translate(definitions, Collections.emptyList(), outputDir, null, false, false);
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.SingleShotTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	@Warmup(iterations = 2)
+	@Measurement(iterations = 5)
+	public Context generateLibDom() throws Throwable {
+		return translateLibDom();
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.AverageTime)
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	@Warmup(iterations = 5, time = 1)
+	@Measurement(iterations = 10, time = 1)
+	public void findDeclarations(Blackhole blackhole) {
+		for (String typeName : typeNames) {
+			blackhole.consume(context.findDeclarations(TypeDeclaration.class, typeName));
+		}
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.AverageTime)
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	@Warmup(iterations = 5, time = 1)
+	@Measurement(iterations = 10, time = 1)
+	public void findDeclarationsWildcard(Blackhole blackhole) {
+		blackhole.consume(context.findDeclarations(TypeDeclaration.class, "*.HTMLElement"));
+		blackhole.consume(context.findDeclarations(TypeDeclaration.class, "def.dom.*"));
+	}
+
+}
@@ -0,0 +1,114 @@
+/*
+ * JSweet transpiler - http://www.jsweet.org
+ * Copyright (C) 2015 CINCHEO SAS <renaud.pawlak@cincheo.fr>
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package org.jsweet.benchmark;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.jsweet.benchmark.BenchmarkSupport.CompiledUnits;
+import org.jsweet.transpiler.JSweetContext;
+import org.jsweet.transpiler.JSweetFactory;
+import org.jsweet.transpiler.util.Util;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.sun.tools.javac.code.Symbol;
+import com.sun.tools.javac.tree.JCTree;
+import com.sun.tools.javac.tree.JCTree.JCClassDecl;
+import com.sun.tools.javac.tree.JCTree.JCCompilationUnit;
+import com.sun.tools.javac.tree.JCTree.JCMethodDecl;
+import com.sun.tools.javac.tree.JCTree.JCVariableDecl;
+import com.sun.tools.javac.tree.TreeScanner;
+
+/**
+ * Benchmarks the declaration index of the context (the parallel scan of the
+ * attributed units) and the declaration lookups that use it.
+ *
+ * @see JSweetContext#indexDeclarations(JCCompilationUnit[])
+ * @see Util#lookupTree(JSweetContext, javax.lang.model.element.Element)
+ * @author Renaud Pawlak
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+public class DeclarationIndexBenchmark {
+
+	/**
+	 * The indexed fixture.
+	 */
+	@Param({ "source.blocksgame", BenchmarkSupport.GENERATED_FIXTURE })
+	public String fixture;
+
+	private JSweetContext context;
+	private JCCompilationUnit[] compilationUnits;
+	private Symbol[] symbols;
+
+	@Setup
+	public void setUp() throws IOException {
+		CompiledUnits units = BenchmarkSupport.compile(new JSweetFactory(), BenchmarkSupport.getFixtureFiles(fixture));
+		context = units.getContext();
+		compilationUnits = units.compilationUnits.toArray(new JCCompilationUnit[0]);
+		List<Symbol> symbols = new ArrayList<>();
+		TreeScanner scanner = new TreeScanner() {
+			@Override
+			public void scan(JCTree tree) {
+				if (tree instanceof JCClassDecl && ((JCClassDecl) tree).sym != null) {
+					symbols.add(((JCClassDecl) tree).sym);
+				} else if (tree instanceof JCMethodDecl && ((JCMethodDecl) tree).sym != null) {
+					symbols.add(((JCMethodDecl) tree).sym);
+				} else if (tree instanceof JCVariableDecl && ((JCVariableDecl) tree).sym != null) {
+					symbols.add(((JCVariableDecl) tree).sym);
+				}
+				super.scan(tree);
+			}
+		};
+		for (JCCompilationUnit cu : compilationUnits) {
+			scanner.scan(cu);
+		}
+		this.symbols = symbols.toArray(new Symbol[0]);
+	}
+
+	@Benchmark
+	public void indexDeclarations() {
+		context.indexDeclarations(compilationUnits);
+	}
+
+	@Benchmark
+	public void lookupTree(Blackhole blackhole) {
+		for (Symbol symbol : symbols) {
+			blackhole.consume(Util.lookupTree(context, symbol));
+		}
+	}
+
+}
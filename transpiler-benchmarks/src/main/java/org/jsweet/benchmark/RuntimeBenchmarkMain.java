@@ -0,0 +1,160 @@
+/*
+ * JSweet transpiler - http://www.jsweet.org
+ * Copyright (C) 2015 CINCHEO SAS <renaud.pawlak@cincheo.fr>
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package org.jsweet.benchmark;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.apache.commons.io.FileUtils;
+import org.jsweet.transpiler.JSweetTranspiler;
+import org.jsweet.transpiler.ModuleKind;
+import org.jsweet.transpiler.SourceFile;
+import org.jsweet.transpiler.extension.RemoveJavaDependenciesFactory;
+import org.jsweet.transpiler.util.ErrorCountTranspilationHandler;
+import org.jsweet.transpiler.util.EvaluationResult;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+
+/**
+ * Runs the JavaScript runtime benchmarks, which measure the code generated by
+ * the transpiler rather than the transpiler itself.
+ *
+ * <p>
+ * The fixtures are read from <code>src/runtime/java</code> (see the
+ * <code>jsweet.benchmark.runtimeSources</code> system property). Each fixture
+ * is transpiled with the {@link RemoveJavaDependenciesFactory} in one or
+ * several configurations, and evaluated with node. The fixtures measure their
+ * workloads themselves (see <code>bench.runtime.Measure</code>), and the
+ * results are written to <code>target/runtime-result.json</code>. The
+ * arguments, if any, select the fixtures to be run.
+ *
+ * @author Renaud Pawlak
+ */
+public class RuntimeBenchmarkMain {
+
+	/**
+	 * The directory holding the runtime fixture sources.
+	 */
+	public static final File RUNTIME_SOURCE_DIR = new File(
+			System.getProperty("jsweet.benchmark.runtimeSources", "src/runtime/java"));
+
+	/**
+	 * The file of the runtime benchmark results.
+	 */
+	public static final String DEFAULT_RESULT_FILE = "target/runtime-result.json";
+
+	private static final String FIXTURE_PACKAGE = "bench/runtime/";
+
+	/**
+	 * A fixture, with the transpiler options it is run with.
+	 */
+	private static class RuntimeBenchmark {
+		final String fixture;
+		final String configuration;
+		final Consumer<JSweetTranspiler> options;
+
+		RuntimeBenchmark(String fixture, String configuration, Consumer<JSweetTranspiler> options) {
+			this.fixture = fixture;
+			this.configuration = configuration;
+			this.options = options;
+		}
+
+		/**
+		 * Transpiles and evaluates the fixture, and returns the measured time
+		 * of each workload (in milliseconds).
+		 */
+		Map<String, Double> run() throws Exception {
+			JSweetTranspiler transpiler = BenchmarkSupport.createTranspiler(new RemoveJavaDependenciesFactory(),
+					"runtime/" + fixture + "-" + configuration);
+			transpiler.setGenerateJsFiles(true);
+			transpiler.setModuleKind(ModuleKind.none);
+			options.accept(transpiler);
+			SourceFile[] sourceFiles = SourceFile.toSourceFiles(
+					Arrays.asList(new File(RUNTIME_SOURCE_DIR, FIXTURE_PACKAGE + "Measure.java"),
+							new File(RUNTIME_SOURCE_DIR, FIXTURE_PACKAGE + fixture + ".java")));
+			ErrorCountTranspilationHandler handler = BenchmarkSupport.createHandler();
+			EvaluationResult result = transpiler.eval(handler, sourceFiles);
+			String results = result.get("results");
+			if (results == null) {
+				throw new IllegalStateException("no results exported by " + fixture);
+			}
+			return new Gson().fromJson(results, new TypeToken<LinkedHashMap<String, Double>>() {
+			}.getType());
+		}
+	}
+
+	private static final List<RuntimeBenchmark> BENCHMARKS = Arrays.asList( //
+			new RuntimeBenchmark("HashBenchmark", "default", transpiler -> {
+			}), //
+			new RuntimeBenchmark("CollectionBenchmark", "default", transpiler -> {
+			}), //
+			new RuntimeBenchmark("DispatchBenchmark", "default", transpiler -> {
+			}), //
+			new RuntimeBenchmark("DispatchBenchmark", "staticOverloadDispatch", transpiler -> {
+				transpiler.setStaticOverloadDispatch(true);
+			}), //
+			new RuntimeBenchmark("NumericCharsBenchmark", "default", transpiler -> {
+			}), //
+			new RuntimeBenchmark("NumericCharsBenchmark", "numericChars", transpiler -> {
+				transpiler.setNumericChars(true);
+			}), //
+			new RuntimeBenchmark("StringBuilderBenchmark", "default", transpiler -> {
+			}), //
+			new RuntimeBenchmark("ArrayBenchmark", "default", transpiler -> {
+			}), //
+			new RuntimeBenchmark("ArrayBenchmark", "typedArrays", transpiler -> {
+				transpiler.setTypedArrays(true);
+			}), //
+			new RuntimeBenchmark("DequeBenchmark", "default", transpiler -> {
+			}), //
+			new RuntimeBenchmark("DequeBenchmark", "ringBufferDeques", transpiler -> {
+				transpiler.setRingBufferDeques(true);
+			}));
+
+	public static void main(String[] args) throws Exception {
+		List<Map<String, Object>> results = new ArrayList<>();
+		for (RuntimeBenchmark benchmark : BENCHMARKS) {
+			if (args.length > 0 && Arrays.stream(args).noneMatch(benchmark.fixture::contains)) {
+				continue;
+			}
+			System.out.println("# " + benchmark.fixture + " (" + benchmark.configuration + ")");
+			for (Map.Entry<String, Double> measure : benchmark.run().entrySet()) {
+				System.out.println(String.format("%-40s %12.3f ms/op", measure.getKey(), measure.getValue()));
+				Map<String, Object> result = new LinkedHashMap<>();
+				result.put("benchmark", benchmark.fixture);
+				result.put("configuration", benchmark.configuration);
+				result.put("workload", measure.getKey());
+				result.put("score", measure.getValue());
+				result.put("scoreUnit", "ms/op");
+				results.add(result);
+			}
+		}
+		FileUtils.write(new File(DEFAULT_RESULT_FILE), new GsonBuilder().setPrettyPrinting().create().toJson(results),
+				StandardCharsets.UTF_8);
+	}
+
+}
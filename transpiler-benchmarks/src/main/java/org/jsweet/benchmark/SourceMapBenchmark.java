@@ -0,0 +1,113 @@
+/*
+ * JSweet transpiler - http://www.jsweet.org
+ * Copyright (C) 2015 CINCHEO SAS <renaud.pawlak@cincheo.fr>
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package org.jsweet.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.jsweet.transpiler.util.Position;
+import org.jsweet.transpiler.util.SourceMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks the construction of the {@link SourceMap} of a generated file and
+ * the lookups of the source-map rewriting pass.
+ *
+ * @author Renaud Pawlak
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+public class SourceMapBenchmark {
+
+	/**
+	 * The number of entries of the source map (about 4 per line).
+	 */
+	@Param({ "1000", "100000" })
+	public int entryCount;
+
+	private Position[] inputPositions;
+	private Position[] outputPositions;
+	private SourceMap sourceMap;
+	private int[] lookupLines;
+	private int[] lookupColumns;
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(42);
+		inputPositions = new Position[entryCount];
+		outputPositions = new Position[entryCount];
+		for (int i = 0; i < entryCount; i++) {
+			inputPositions[i] = new Position(i / 3 + 1, random.nextInt(80));
+			outputPositions[i] = new Position(i / 4 + 1, (i % 4) * 20 + random.nextInt(20));
+		}
+		sourceMap = build();
+		// one lookup per output line, as the rewriting pass does
+		int lineCount = entryCount / 4;
+		lookupLines = new int[lineCount];
+		lookupColumns = new int[lineCount];
+		for (int i = 0; i < lineCount; i++) {
+			lookupLines[i] = i + 1;
+			lookupColumns[i] = random.nextInt(80);
+		}
+	}
+
+	private SourceMap build() {
+		SourceMap sourceMap = new SourceMap();
+		for (int i = 0; i < entryCount; i++) {
+			sourceMap.addEntry(inputPositions[i], outputPositions[i]);
+		}
+		return sourceMap;
+	}
+
+	@Benchmark
+	public SourceMap buildSourceMap() {
+		return build();
+	}
+
+	@Benchmark
+	public void findInputPositions(Blackhole blackhole) {
+		for (int i = 0; i < lookupLines.length; i++) {
+			blackhole.consume(sourceMap.findInputPosition(lookupLines[i], lookupColumns[i]));
+		}
+	}
+
+	@Benchmark
+	public void buildAndFindInputPositions(Blackhole blackhole) {
+		SourceMap sourceMap = build();
+		for (int i = 0; i < lookupLines.length; i++) {
+			blackhole.consume(sourceMap.findInputPosition(lookupLines[i], lookupColumns[i]));
+		}
+	}
+
+}
@@ -0,0 +1,94 @@
+/*
+ * JSweet transpiler - http://www.jsweet.org
+ * Copyright (C) 2015 CINCHEO SAS <renaud.pawlak@cincheo.fr>
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package org.jsweet.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.jsweet.transpiler.JSweetFactory;
+import org.jsweet.transpiler.JSweetTranspiler;
+import org.jsweet.transpiler.SourceFile;
+import org.jsweet.transpiler.util.ErrorCountTranspilationHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks a full Java to TypeScript transpilation of a fixture (without
+ * tsc): parsing, attribution, analysis and printing.
+ *
+ * <p>
+ * The <code>warm</code> benchmark reuses the same transpiler (as the daemon
+ * does, with the candies already extracted and the unchanged outputs not
+ * written again), while the <code>cold</code> one creates a new transpiler
+ * for each transpilation (as the command line launcher does).
+ *
+ * @author Renaud Pawlak
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+public class TranspileBenchmark {
+
+	/**
+	 * The transpiled fixture.
+	 */
+	@Param({ "source.blocksgame", "source.genericinterfaceperf", BenchmarkSupport.GENERATED_FIXTURE })
+	public String fixture;
+
+	private SourceFile[] sourceFiles;
+	private JSweetTranspiler warmTranspiler;
+
+	@Setup
+	public void setUp() throws IOException {
+		sourceFiles = SourceFile.toSourceFiles(BenchmarkSupport.getFixtureFiles(fixture));
+		warmTranspiler = BenchmarkSupport.createTranspiler(new JSweetFactory(), "warm");
+	}
+
+	private static int transpile(JSweetTranspiler transpiler, SourceFile[] sourceFiles) throws Exception {
+		ErrorCountTranspilationHandler handler = BenchmarkSupport.createHandler();
+		transpiler.transpile(handler, sourceFiles);
+		if (handler.getErrorCount() > 0) {
+			throw new IllegalStateException("transpilation failed with " + handler.getErrorCount() + " error(s)");
+		}
+		return sourceFiles.length;
+	}
+
+	@Benchmark
+	public int cold() throws Exception {
+		return transpile(BenchmarkSupport.createTranspiler(new JSweetFactory(), "cold"), sourceFiles);
+	}
+
+	@Benchmark
+	public int warm() throws Exception {
+		return transpile(warmTranspiler, sourceFiles);
+	}
+
+}
@@ -0,0 +1,51 @@
+package bench.runtime;
+
+import java.util.Arrays;
+
+/**
+ * Benchmarks numeric array workloads (allocation, arithmetic and copies), with
+ * arrays represented as plain JavaScript arrays (default) or as typed arrays
+ * (<code>typedArrays</code> option).
+ */
+public class ArrayBenchmark {
+
+	static final int SIZE = 100000;
+
+	public static void main(String[] args) {
+		Measure.run("allocate", 20, () -> {
+			int[] ints = new int[SIZE];
+			double[] doubles = new double[SIZE];
+			Measure.sink += ints.length + doubles.length;
+		});
+
+		int[] values = new int[SIZE];
+		for (int i = 0; i < SIZE; i++) {
+			values[i] = (i * 7919) % SIZE;
+		}
+
+		Measure.run("prefixSums", 20, () -> {
+			double[] sums = new double[SIZE];
+			sums[0] = values[0];
+			for (int i = 1; i < SIZE; i++) {
+				sums[i] = sums[i - 1] + values[i] * 0.5;
+			}
+			Measure.sink += sums[SIZE - 1];
+		});
+
+		Measure.run("copyAndFill", 20, () -> {
+			int[] copy = new int[SIZE];
+			System.arraycopy(values, 0, copy, 0, SIZE);
+			System.arraycopy(copy, 0, copy, 1, SIZE - 1);
+			Arrays.fill(copy, 0, SIZE / 2, 1);
+			Measure.sink += copy[SIZE - 1];
+		});
+
+		Measure.run("copyOf", 20, () -> {
+			int[] copy = Arrays.copyOf(values, SIZE * 2);
+			Measure.sink += copy[SIZE - 1] + copy.length;
+		});
+
+		Measure.export();
+	}
+
+}
@@ -0,0 +1,136 @@
+package bench.runtime;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+class SetElement {
+	final int id;
+
+	public SetElement(int id) {
+		this.id = id;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		return obj instanceof SetElement && ((SetElement) obj).id == id;
+	}
+
+	@Override
+	public int hashCode() {
+		return id;
+	}
+}
+
+/**
+ * Benchmarks the hash set emulation on 100k-element collections (the lookups
+ * were linear scans with indexOf before the <code>__jsweet_set</code>
+ * runtime).
+ */
+public class CollectionBenchmark {
+
+	static final int SIZE = 100000;
+
+	public static void main(String[] args) {
+		List<SetElement> elements = new ArrayList<>();
+		List<Integer> numbers = new ArrayList<>();
+		List<Integer> shuffled = new ArrayList<>();
+		for (int i = 0; i < SIZE; i++) {
+			elements.add(new SetElement(i));
+			numbers.add(i);
+			shuffled.add((int) ((i * 7919L) % SIZE));
+		}
+
+		Measure.run("hashSet.numbers.addContains", 10, () -> {
+			Set<Integer> set = new HashSet<>();
+			for (int i = 0; i < SIZE; i++) {
+				set.add(numbers.get(i));
+			}
+			int count = 0;
+			for (int i = 0; i < SIZE; i++) {
+				if (set.contains(i * 2)) {
+					count++;
+				}
+			}
+			Measure.sink += count;
+		});
+
+		Measure.run("hashSet.valueObjects.addContains", 10, () -> {
+			Set<SetElement> set = new HashSet<>();
+			for (int i = 0; i < SIZE; i++) {
+				set.add(elements.get(i));
+			}
+			int count = 0;
+			for (int i = 0; i < SIZE; i++) {
+				if (set.contains(new SetElement(i * 2))) {
+					count++;
+				}
+			}
+			Measure.sink += count;
+		});
+
+		Measure.run("hashSet.valueObjects.copyRetainAll", 10, () -> {
+			Set<SetElement> set = new HashSet<>(elements);
+			set.retainAll(elements.subList(0, SIZE / 2));
+			Measure.sink += set.size();
+		});
+
+		Measure.run("hashSet.valueObjects.addRemove", 10, () -> {
+			Set<SetElement> set = new HashSet<>(elements);
+			for (int i = 0; i < SIZE; i++) {
+				set.remove(elements.get(i));
+			}
+			Measure.sink += set.size();
+		});
+
+		Measure.run("treeSet.numbers.addAscending", 10, () -> {
+			Set<Integer> set = new TreeSet<>();
+			for (int i = 0; i < SIZE; i++) {
+				set.add(numbers.get(i));
+			}
+			Measure.sink += set.size();
+		});
+
+		// single insertions shift the sorted array: the cost of a descending
+		// or random insertion grows with the size of the set
+		Measure.run("treeSet.numbers.addDescending", 3, () -> {
+			Set<Integer> set = new TreeSet<>();
+			for (int i = SIZE - 1; i >= 0; i--) {
+				set.add(numbers.get(i));
+			}
+			Measure.sink += set.size();
+		});
+
+		Measure.run("treeSet.numbers.addRandom", 3, () -> {
+			Set<Integer> set = new TreeSet<>();
+			for (int i = 0; i < SIZE; i++) {
+				set.add(shuffled.get(i));
+			}
+			Measure.sink += set.size();
+		});
+
+		Measure.run("treeSet.numbers.addAllRandom", 10, () -> {
+			Set<Integer> set = new TreeSet<>(shuffled);
+			Measure.sink += set.size();
+		});
+
+		Measure.run("treeSet.numbers.containsRemove", 10, () -> {
+			Set<Integer> set = new TreeSet<>(numbers);
+			int count = 0;
+			for (int i = 0; i < SIZE; i += 2) {
+				if (set.contains(i)) {
+					count++;
+				}
+			}
+			for (int i = SIZE - 1; i >= 0; i -= 2) {
+				set.remove(i);
+			}
+			Measure.sink += count + set.size();
+		});
+
+		Measure.export();
+	}
+
+}
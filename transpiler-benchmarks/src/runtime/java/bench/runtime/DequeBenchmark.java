@@ -0,0 +1,76 @@
+package bench.runtime;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedList;
+import java.util.Queue;
+
+/**
+ * Benchmarks queues and deques used as FIFOs and stacks, with the arrays
+ * emulation (default), where removing the head shifts the whole array, or
+ * the ring-buffer emulation (<code>ringBufferDeques</code> option).
+ */
+public class DequeBenchmark {
+
+	static final int SIZE = 100000;
+
+	public static void main(String[] args) {
+		Measure.run("queue.addPoll", 5, () -> {
+			Queue<Integer> queue = new LinkedList<>();
+			for (int i = 0; i < SIZE; i++) {
+				queue.add(i);
+			}
+			double total = 0;
+			while (!queue.isEmpty()) {
+				total += queue.poll();
+			}
+			Measure.sink += total;
+		});
+
+		Measure.run("queue.slidingWindow", 5, () -> {
+			Queue<Integer> queue = new ArrayDeque<>();
+			double total = 0;
+			for (int i = 0; i < SIZE; i++) {
+				queue.add(i);
+				if (queue.size() > 1000) {
+					total += queue.poll();
+				}
+			}
+			Measure.sink += total;
+		});
+
+		Measure.run("deque.bothEnds", 5, () -> {
+			Deque<Integer> deque = new ArrayDeque<>();
+			for (int i = 0; i < SIZE; i++) {
+				if (i % 2 == 0) {
+					deque.addFirst(i);
+				} else {
+					deque.addLast(i);
+				}
+			}
+			double total = 0;
+			while (!deque.isEmpty()) {
+				total += deque.pollFirst();
+				if (!deque.isEmpty()) {
+					total -= deque.pollLast();
+				}
+			}
+			Measure.sink += total;
+		});
+
+		Measure.run("deque.stack", 5, () -> {
+			Deque<Integer> stack = new ArrayDeque<>();
+			for (int i = 0; i < SIZE; i++) {
+				stack.push(i);
+			}
+			double total = 0;
+			while (!stack.isEmpty()) {
+				total += stack.pop();
+			}
+			Measure.sink += total;
+		});
+
+		Measure.export();
+	}
+
+}
@@ -0,0 +1,113 @@
+package bench.runtime;
+
+interface Weighted {
+	double weight();
+}
+
+class Item implements Weighted {
+	final double weight;
+
+	Item(double weight) {
+		this.weight = weight;
+	}
+
+	public double weight() {
+		return weight;
+	}
+}
+
+class Box implements Weighted {
+	public double weight() {
+		return 3;
+	}
+}
+
+/**
+ * Benchmarks the invocations of overloaded methods, which go through the
+ * generated typeof/instanceof dispatcher, unless the
+ * <code>staticOverloadDispatch</code> option calls the overload
+ * implementations directly (invocations without arguments and from inner
+ * classes).
+ */
+public class DispatchBenchmark {
+
+	static final int SIZE = 100000;
+
+	static final Item ITEM = new Item(2);
+
+	static final Weighted WEIGHTED = new Box();
+
+	double total;
+
+	void add() {
+		total += 1;
+	}
+
+	void add(double value) {
+		total += value;
+	}
+
+	void add(String value) {
+		total += value.length();
+	}
+
+	void add(Item item) {
+		total += item.weight;
+	}
+
+	void add(Weighted weighted) {
+		total += weighted.weight();
+	}
+
+	void addNoArgs() {
+		for (int i = 0; i < SIZE; i++) {
+			add();
+		}
+	}
+
+	void addArgs() {
+		for (int i = 0; i < SIZE; i++) {
+			add(i);
+			add("x");
+			add(ITEM);
+			add(WEIGHTED);
+		}
+	}
+
+	void addFromInnerClass() {
+		new Accumulator().accumulate();
+	}
+
+	class Accumulator {
+		void accumulate() {
+			for (int i = 0; i < SIZE; i++) {
+				add(i);
+				add("x");
+				add(ITEM);
+				add(WEIGHTED);
+			}
+		}
+	}
+
+	public static void main(String[] args) {
+		DispatchBenchmark benchmark = new DispatchBenchmark();
+		Measure.run("noArgs", 50, () -> {
+			benchmark.total = 0;
+			benchmark.addNoArgs();
+			Measure.sink += benchmark.total;
+		});
+		Measure.run("innerClass", 50, () -> {
+			benchmark.total = 0;
+			benchmark.addFromInnerClass();
+			Measure.sink += benchmark.total;
+		});
+		// already direct calls without the option (reference)
+		Measure.run("methodBody", 50, () -> {
+			benchmark.total = 0;
+			benchmark.addArgs();
+			Measure.sink += benchmark.total;
+		});
+		Measure.export();
+	}
+
+}
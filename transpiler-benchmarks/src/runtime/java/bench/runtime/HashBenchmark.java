@@ -0,0 +1,104 @@
+package bench.runtime;
+
+import java.util.HashMap;
+import java.util.Map;
+
+class HashKey {
+	final int x;
+	final int y;
+
+	public HashKey(int x, int y) {
+		this.x = x;
+		this.y = y;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		return obj instanceof HashKey && ((HashKey) obj).x == x && ((HashKey) obj).y == y;
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * x + y;
+	}
+}
+
+/**
+ * Benchmarks the hash map emulation for non-string keys: value objects (with
+ * equals and hashCode) and identity keys (hashed with the ids set by
+ * <code>__jsweet_hash</code>).
+ */
+public class HashBenchmark {
+
+	static final int SIZE = 10000;
+
+	static final int LARGE_SIZE = 100000;
+
+	public static void main(String[] args) {
+		HashKey[] keys = new HashKey[SIZE];
+		Object[] identityKeys = new Object[SIZE];
+		for (int i = 0; i < SIZE; i++) {
+			keys[i] = new HashKey(i % 100, i / 100);
+			identityKeys[i] = new Object();
+		}
+
+		Measure.run("valueKeys.putGet", 20, () -> {
+			Map<HashKey, Integer> map = new HashMap<>();
+			for (int i = 0; i < SIZE; i++) {
+				map.put(keys[i], i);
+			}
+			int sum = 0;
+			for (int i = 0; i < SIZE; i++) {
+				sum += map.get(new HashKey(i % 100, i / 100));
+			}
+			Measure.sink += sum;
+		});
+
+		Measure.run("identityKeys.putGet", 20, () -> {
+			Map<Object, Integer> map = new HashMap<>();
+			for (int i = 0; i < SIZE; i++) {
+				map.put(identityKeys[i], i);
+			}
+			int sum = 0;
+			for (int i = 0; i < SIZE; i++) {
+				sum += map.get(identityKeys[i]);
+			}
+			Measure.sink += sum;
+		});
+
+		Measure.run("valueKeys.containsRemove", 20, () -> {
+			Map<HashKey, Integer> map = new HashMap<>();
+			for (int i = 0; i < SIZE; i++) {
+				map.put(keys[i], i);
+			}
+			int count = 0;
+			for (int i = 0; i < SIZE; i += 2) {
+				if (map.containsKey(keys[i])) {
+					map.remove(keys[i]);
+					count++;
+				}
+			}
+			Measure.sink += count + map.size();
+		});
+
+		HashKey[] largeKeys = new HashKey[LARGE_SIZE];
+		for (int i = 0; i < LARGE_SIZE; i++) {
+			largeKeys[i] = new HashKey(i % 1000, i / 1000);
+		}
+
+		// removes in insertion order, which was the worst case of the entry scans
+		Measure.run("valueKeys.putRemoveAll100k", 5, () -> {
+			Map<HashKey, Integer> map = new HashMap<>();
+			for (int i = 0; i < LARGE_SIZE; i++) {
+				map.put(largeKeys[i], i);
+			}
+			for (int i = 0; i < LARGE_SIZE; i++) {
+				map.remove(largeKeys[i]);
+			}
+			Measure.sink += map.size();
+		});
+
+		Measure.export();
+	}
+
+}
@@ -0,0 +1,48 @@
+package bench.runtime;
+
+import static jsweet.util.Lang.$export;
+
+import def.js.Date;
+
+/**
+ * Measures the average time of workloads once transpiled to JavaScript, and
+ * exports the results (in milliseconds per run) to the runtime benchmarks
+ * runner.
+ */
+public class Measure {
+
+	private static final int WARMUP_RUNS = 5;
+
+	private static String results = "";
+
+	/**
+	 * Accumulates the values computed by the workloads, so that they cannot be
+	 * optimized away.
+	 */
+	public static double sink;
+
+	/**
+	 * Runs the given workload a few times to warm up, then measures the
+	 * average time of the given number of runs.
+	 */
+	public static void run(String name, int runs, Runnable workload) {
+		for (int i = 0; i < WARMUP_RUNS; i++) {
+			workload.run();
+		}
+		double start = Date.now();
+		for (int i = 0; i < runs; i++) {
+			workload.run();
+		}
+		double time = (Date.now() - start) / runs;
+		results += (results.length() == 0 ? "" : ",") + "\"" + name + "\":" + time;
+	}
+
+	/**
+	 * Exports the results of all the measured workloads (to be called once,
+	 * at the end of the benchmark).
+	 */
+	public static void export() {
+		$export("results", "{" + results + "}");
+	}
+
+}
@@ -0,0 +1,52 @@
+package bench.runtime;
+
+/**
+ * Benchmarks a char-heavy loop (a tokenizer), with chars represented as
+ * strings (default) or as numbers (<code>numericChars</code> option).
+ */
+public class NumericCharsBenchmark {
+
+	static final int LINES = 2000;
+
+	static int tokenize(String source) {
+		int tokens = 0;
+		int i = 0;
+		while (i < source.length()) {
+			char c = source.charAt(i);
+			if (c == ' ' || c == '\n') {
+				i++;
+			} else if (Character.isLetter(c) || c == '_') {
+				while (i < source.length()
+						&& (Character.isLetterOrDigit(source.charAt(i)) || source.charAt(i) == '_')) {
+					i++;
+				}
+				tokens++;
+			} else if (Character.isDigit(c)) {
+				int value = 0;
+				while (i < source.length() && Character.isDigit(source.charAt(i))) {
+					value = value * 10 + (source.charAt(i) - '0');
+					i++;
+				}
+				Measure.sink += value;
+				tokens++;
+			} else {
+				i++;
+				tokens++;
+			}
+		}
+		return tokens;
+	}
+
+	public static void main(String[] args) {
+		StringBuilder source = new StringBuilder();
+		for (int i = 0; i < LINES; i++) {
+			source.append("let value_").append(i).append(" = (x").append(i % 10).append(" + 42) * y;\n");
+		}
+		String text = source.toString();
+		Measure.run("tokenize", 20, () -> {
+			Measure.sink += tokenize(text);
+		});
+		Measure.export();
+	}
+
+}
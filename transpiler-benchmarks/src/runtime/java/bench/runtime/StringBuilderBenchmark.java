@@ -0,0 +1,48 @@
+package bench.runtime;
+
+/**
+ * Benchmarks the string builder emulation on outputs of growing sizes (up to
+ * a few megabytes): the time per run should grow linearly with the size.
+ */
+public class StringBuilderBenchmark {
+
+	static int csv(int rows) {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < rows; i++) {
+			sb.append(i).append(';').append("name").append(i % 100).append(';').append(i * 0.5).append('\n');
+		}
+		return sb.toString().length();
+	}
+
+	static int scan(int length) {
+		// reads the last characters while appending (like a code generator
+		// checking for the current indentation)
+		StringBuilder sb = new StringBuilder();
+		int newLines = 0;
+		for (int i = 0; i < length; i++) {
+			if (sb.length() > 0 && sb.charAt(sb.length() - 1) == '\n') {
+				newLines++;
+				sb.append("  ");
+			}
+			sb.append(i % 16 == 0 ? '\n' : 'x');
+		}
+		return sb.length() + newLines;
+	}
+
+	public static void main(String[] args) {
+		for (int rows = 10000; rows <= 1000000; rows *= 10) {
+			final int size = rows;
+			Measure.run("csv." + size, 5, () -> {
+				Measure.sink += csv(size);
+			});
+		}
+		for (int length = 10000; length <= 1000000; length *= 10) {
+			final int size = length;
+			Measure.run("appendCharAt." + size, 5, () -> {
+				Measure.sink += scan(size);
+			});
+		}
+		Measure.export();
+	}
+
+}
@@ -21,9 +21,14 @@ package org.jsweet;
 import static org.jsweet.transpiler.TranspilationHandler.OUTPUT_LOGGER;
 
 import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
@@ -60,7 +65,14 @@ import com.martiansoftware.jsap.stringparsers.FileStringParser;
 
   [-w|--watch]
         Start a process that watches the input directories for changes and
-        re-run transpilation on-the-fly.
+        re-run transpilation on-the-fly. The configuration file, the
+        definition input directories and the candy jars of the classpath are
+        also watched.
+
+  [--watchDebounceDelay <watchDebounceDelay>]
+        In watch mode, the time (in milliseconds) without file changes to wait
+        for before re-running the transpilation, so that bursts of changes
+        trigger a single transpilation. (default: 200)
 
   [-v|--verbose]
         Turn on all levels of logging.
@@ -185,8 +197,53 @@ import com.martiansoftware.jsap.stringparsers.FileStringParser;
 
   [--extraSystemPath <extraSystemPath>]
         Allow an extra path to be added to the system path.
+
+  [--incremental]
+        Only translate the Java files that changed since the last transpilation
+        (and the files that depend on them). Mostly useful in watch mode.
+        Ignored when generating bundles.
+
+  [--tscService]
+        Compile the TypeScript files with a long-lived node process that keeps
+        the parsed files in memory, instead of launching tsc for each
+        transpilation. Mostly useful in watch mode.
+
+  [--staticOverloadDispatch]
+        Always invoke the overloaded method selected by javac directly (under
+        its signature-mangled name), including for invocations without
+        arguments, instead of going through the method that dispatches on the
+        argument types at runtime.
+
+  [--interfaceTables]
+        Mark the generated classes with one prototype property per implemented
+        interface, so that instanceof checks on interfaces are a single
+        property lookup. All the implementations of the checked interfaces
+        must be generated with this option.
+
+  [--typedArrays]
+        Implement the int[], short[], byte[], float[] and double[] arrays with
+        the corresponding JavaScript typed arrays (Int32Array, Int16Array,
+        Int8Array, Float32Array and Float64Array).
+
+  [--numericChars]
+        Represent chars as numbers (UTF-16 code units) instead of one-character
+        strings, so that char arithmetic and comparisons need no conversion.
+
+  [--ringBufferDeques]
+        Emulate the deques and queues with circular buffers, so that the
+        operations at both ends take constant amortized time.
+
+  [--metricsReport <metricsReport>]
+        A file to write a JSON report of the transpilation metrics to (the
+        durations of the transpilation phases in milliseconds and the
+        transpiler's counters). The file is overwritten after each
+        transpilation.
  * </pre>
  * 
+ * <p>
+ * When the first argument is <code>daemon</code>, the launcher starts a
+ * long-lived {@link JSweetDaemon} instead.
+ * 
  * @author Renaud Pawlak
  */
 public class JSweetCommandLineLauncher {
@@ -210,6 +267,10 @@ public class JSweetCommandLineLauncher {
 	 * from Java, see {@link JSweetTranspiler}.
 	 */
 	public static void main(String[] args) {
+		if (args.length > 0 && JSweetDaemon.COMMAND.equals(args[0])) {
+			JSweetDaemon.main(Arrays.copyOfRange(args, 1, args.length));
+			return;
+		}
 		try {
 			JSAP jsapSpec = defineArgs();
 			JSAPResult jsapArgs = parseArgs(jsapSpec, args);
@@ -229,10 +290,11 @@ public class JSweetCommandLineLauncher {
 
 			JSweetConfig.initClassPath(jsapArgs.getString("jdkHome"));
 
-			JSweetTranspilationTask transpilationTask = new JSweetTranspilationTask(jsapArgs);
+			JSweetTranspilationTask transpilationTask = new JSweetTranspilationTask(jsapArgs,
+					jsapArgs.getBoolean("watch"));
 			transpilationTask.run();
 			if (jsapArgs.getBoolean("watch")) {
-				new JSweetFileWatcher(transpilationTask).execute();
+				new JSweetFileWatcher(transpilationTask, jsapArgs.getInt("watchDebounceDelay")).execute();
 			}
 
 		} catch (Throwable t) {
@@ -242,7 +304,7 @@ public class JSweetCommandLineLauncher {
 		System.exit(errorCount > 0 ? 1 : 0);
 	}
 
-	private static JSAP defineArgs() throws JSAPException {
+	static JSAP defineArgs() throws JSAPException {
 		// Verbose output
 		JSAP jsap = new JSAP();
 		Switch switchArg;
@@ -261,9 +323,18 @@ public class JSweetCommandLineLauncher {
 		switchArg.setLongFlag("watch");
 		switchArg.setDefault("false");
 		switchArg.setHelp(
-				"Start a process that watches the input directories for changes and re-run transpilation on-the-fly.");
+				"Start a process that watches the input directories for changes and re-run transpilation on-the-fly. The configuration file, the definition input directories and the candy jars of the classpath are also watched.");
 		jsap.registerParameter(switchArg);
 
+		// Watch debounce delay
+		optionArg = new FlaggedOption("watchDebounceDelay");
+		optionArg.setLongFlag("watchDebounceDelay");
+		optionArg.setStringParser(JSAP.INTEGER_PARSER);
+		optionArg.setDefault("" + JSweetFileWatcher.DEFAULT_DEBOUNCE_DELAY);
+		optionArg.setHelp(
+				"In watch mode, the time (in milliseconds) without file changes to wait for before re-running the transpilation, so that bursts of changes trigger a single transpilation.");
+		jsap.registerParameter(optionArg);
+
 		// Verbose
 		switchArg = new Switch("verbose");
 		switchArg.setLongFlag("verbose");
@@ -526,6 +597,71 @@ public class JSweetCommandLineLauncher {
 		optionArg.setRequired(false);
 		jsap.registerParameter(optionArg);
 
+		// Incremental
+		switchArg = new Switch(JSweetOptions.incremental);
+		switchArg.setLongFlag(JSweetOptions.incremental);
+		switchArg.setHelp(
+				"Only translate the Java files that changed since the last transpilation (and the files that depend on them). Mostly useful in watch mode. Ignored when generating bundles.");
+		switchArg.setDefault("false");
+		jsap.registerParameter(switchArg);
+
+		// Tsc service
+		switchArg = new Switch(JSweetOptions.tscService);
+		switchArg.setLongFlag(JSweetOptions.tscService);
+		switchArg.setHelp(
+				"Compile the TypeScript files with a long-lived node process that keeps the parsed files in memory, instead of launching tsc for each transpilation. Mostly useful in watch mode.");
+		switchArg.setDefault("false");
+		jsap.registerParameter(switchArg);
+
+		// Static overload dispatch
+		switchArg = new Switch(JSweetOptions.staticOverloadDispatch);
+		switchArg.setLongFlag(JSweetOptions.staticOverloadDispatch);
+		switchArg.setHelp(
+				"Always invoke the overloaded method selected by javac directly (under its signature-mangled name), including for invocations without arguments, instead of going through the method that dispatches on the argument types at runtime.");
+		switchArg.setDefault("false");
+		jsap.registerParameter(switchArg);
+
+		// Interface tables
+		switchArg = new Switch(JSweetOptions.interfaceTables);
+		switchArg.setLongFlag(JSweetOptions.interfaceTables);
+		switchArg.setHelp(
+				"Mark the generated classes with one prototype property per implemented interface, so that instanceof checks on interfaces are a single property lookup. All the implementations of the checked interfaces must be generated with this option.");
+		switchArg.setDefault("false");
+		jsap.registerParameter(switchArg);
+
+		// Typed arrays
+		switchArg = new Switch(JSweetOptions.typedArrays);
+		switchArg.setLongFlag(JSweetOptions.typedArrays);
+		switchArg.setHelp(
+				"Implement the int[], short[], byte[], float[] and double[] arrays with the corresponding JavaScript typed arrays (Int32Array, Int16Array, Int8Array, Float32Array and Float64Array).");
+		switchArg.setDefault("false");
+		jsap.registerParameter(switchArg);
+
+		// Numeric chars
+		switchArg = new Switch(JSweetOptions.numericChars);
+		switchArg.setLongFlag(JSweetOptions.numericChars);
+		switchArg.setHelp(
+				"Represent chars as numbers (UTF-16 code units) instead of one-character strings, so that char arithmetic and comparisons need no conversion.");
+		switchArg.setDefault("false");
+		jsap.registerParameter(switchArg);
+
+		// Ring buffer deques
+		switchArg = new Switch(JSweetOptions.ringBufferDeques);
+		switchArg.setLongFlag(JSweetOptions.ringBufferDeques);
+		switchArg.setHelp(
+				"Emulate the deques and queues with circular buffers, so that the operations at both ends take constant amortized time.");
+		switchArg.setDefault("false");
+		jsap.registerParameter(switchArg);
+
+		// Metrics report
+		optionArg = new FlaggedOption("metricsReport");
+		optionArg.setLongFlag("metricsReport");
+		optionArg.setHelp(
+				"A file to write a JSON report of the transpilation metrics to (the durations of the transpilation phases in milliseconds and the transpiler's counters). The file is overwritten after each transpilation.");
+		optionArg.setStringParser(FileStringParser.getParser());
+		optionArg.setRequired(false);
+		jsap.registerParameter(optionArg);
+
 		return jsap;
 	}
 
@@ -554,14 +690,29 @@ public class JSweetCommandLineLauncher {
 		System.out.println(jsapSpec.getHelp());
 	}
 
-	private static class JSweetTranspilationTask implements TranspilationTask {
+	static class JSweetTranspilationTask implements TranspilationTask {
 
 		private JSAPResult jsapArgs;
 		private List<File> inputDirList;
 		private LinkedList<File> javaInputFiles;
-
-		public JSweetTranspilationTask(JSAPResult jsapArgs) {
+		private JSweetTranspiler transpiler;
+		private String transpilerStamp;
+		private boolean keepTranspiler;
+		private Map<File, SourceFile> sourceFiles = new HashMap<>();
+
+		/**
+		 * Creates a task for the given command line arguments.
+		 * 
+		 * @param keepTranspiler
+		 *            true to create the transpiler once and reuse it for all
+		 *            the runs (watch and daemon modes), false to keep it only
+		 *            in incremental mode (in both cases, the transpiler is
+		 *            created again when the configuration file or the
+		 *            classpath changes)
+		 */
+		public JSweetTranspilationTask(JSAPResult jsapArgs, boolean keepTranspiler) {
 			this.jsapArgs = jsapArgs;
+			this.keepTranspiler = keepTranspiler;
 			inputDirList = Arrays.asList(jsapArgs.getFileArray("input"));
 			logger.info("input dirs: " + inputDirList);
 
@@ -572,14 +723,103 @@ public class JSweetCommandLineLauncher {
 			return inputDirList;
 		}
 
+		/**
+		 * Gets the configuration file, the definition input directories, and
+		 * the jars of the classpath (candies), which are watched along with the
+		 * input directories.
+		 */
 		@Override
-		public void run() throws Exception {
+		public List<File> getWatchedFiles() {
+			List<File> files = new ArrayList<>();
+			files.add(getConfigurationFile());
+			files.addAll(Arrays.asList(jsapArgs.getFileArray("defInput")));
 			String classPath = jsapArgs.getString("classpath");
-			logger.info("classpath: " + classPath);
+			if (classPath != null) {
+				for (String entry : classPath.split(File.pathSeparator)) {
+					if (entry.endsWith(".jar")) {
+						files.add(new File(entry));
+					}
+				}
+			}
+			return files;
+		}
+
+		@Override
+		public void run(Set<File> changedFiles) throws Exception {
+			if (changedFiles.stream().anyMatch(f -> isTranspilationInput(f) || f.isDirectory()
+					|| (!f.exists() && !f.getName().contains(".")))) {
+				run();
+			} else {
+				logger.info("no transpilation input changes: " + changedFiles);
+			}
+		}
+
+		/**
+		 * Tells if the given file is an input of the transpilation: a Java
+		 * source, the configuration file, a TypeScript definition or
+		 * auxiliary file, or a candy jar.
+		 */
+		private boolean isTranspilationInput(File file) {
+			String name = file.getName();
+			return name.endsWith(".java") || name.equals(JSweetConfig.CONFIGURATION_FILE_NAME) || name.endsWith(".ts")
+					|| name.endsWith(".jar");
+		}
 
+		@Override
+		public void run() throws Exception {
 			ErrorCountTranspilationHandler transpilationHandler = new ErrorCountTranspilationHandler(
 					new ConsoleTranspilationHandler());
 
+			transpile(transpilationHandler, null);
+
+			errorCount = transpilationHandler.getErrorCount();
+			if (errorCount > 0) {
+				OUTPUT_LOGGER.info("transpilation failed with " + errorCount + " error(s) and "
+						+ transpilationHandler.getWarningCount() + " warning(s)");
+			} else {
+				if (transpilationHandler.getWarningCount() > 0) {
+					OUTPUT_LOGGER.info(
+							"transpilation completed with " + transpilationHandler.getWarningCount() + " warning(s)");
+				} else {
+					OUTPUT_LOGGER.info("transpilation successfully completed with no errors and no warnings");
+				}
+			}
+
+		}
+
+		/**
+		 * Tells if the transpiler has already been created by a previous run
+		 * and kept for this one (it is not kept when the configuration file or
+		 * the classpath changed since then).
+		 */
+		public boolean isWarm() {
+			return transpiler != null && getTranspilerStamp(jsapArgs.getString("classpath")).equals(transpilerStamp);
+		}
+
+		/**
+		 * Gets the transpiler kept between the runs, if any.
+		 */
+		public JSweetTranspiler getTranspiler() {
+			return transpiler;
+		}
+
+		/**
+		 * Transpiles the given Java files.
+		 * 
+		 * @param transpilationHandler
+		 *            the handler that receives the problems
+		 * @param javaFiles
+		 *            the Java files to transpile, or null to transpile all the
+		 *            Java files found in the input directories
+		 * @return the transpiled source files (holding the generated file
+		 *         paths)
+		 */
+		public SourceFile[] transpile(ErrorCountTranspilationHandler transpilationHandler, List<File> javaFiles)
+				throws IOException {
+			String classPath = jsapArgs.getString("classpath");
+			logger.info("classpath: " + classPath);
+
+			SourceFile[] transpiledFiles = new SourceFile[0];
 			try {
 
 				String[] included = jsapArgs.getStringArray("includes");
@@ -595,165 +835,253 @@ public class JSweetCommandLineLauncher {
 
 				javaInputFiles = new LinkedList<File>();
 
-				for (File inputDir : inputDirList) {
-					Util.addFiles(f -> {
-						String path = inputDir.toURI().relativize(f.toURI()).getPath();
-						if (path.endsWith(".java")) {
-							if (includedPatterns == null || includedPatterns.isEmpty() || includedPatterns != null
-									&& includedPatterns.stream().anyMatch(p -> p.matcher(path).matches())) {
-								if (excludedPatterns != null && !excludedPatterns.isEmpty()
-										&& excludedPatterns.stream().anyMatch(p -> p.matcher(path).matches())) {
-									return false;
+				if (javaFiles != null) {
+					javaInputFiles.addAll(javaFiles);
+				} else {
+					for (File inputDir : inputDirList) {
+						Util.addFiles(f -> {
+							String path = inputDir.toURI().relativize(f.toURI()).getPath();
+							if (path.endsWith(".java")) {
+								if (includedPatterns == null || includedPatterns.isEmpty() || includedPatterns != null
+										&& includedPatterns.stream().anyMatch(p -> p.matcher(path).matches())) {
+									if (excludedPatterns != null && !excludedPatterns.isEmpty()
+											&& excludedPatterns.stream().anyMatch(p -> p.matcher(path).matches())) {
+										return false;
+									}
+									return true;
 								}
-								return true;
 							}
-						}
-						return false;
-					}, inputDir, javaInputFiles);
+							return false;
+						}, inputDir, javaInputFiles);
+					}
 				}
 
-				File tsOutputDir = null;
-				if (jsapArgs.userSpecified("tsout") && jsapArgs.getFile("tsout") != null) {
-					tsOutputDir = jsapArgs.getFile("tsout");
-					tsOutputDir.mkdirs();
+				String stamp = getTranspilerStamp(classPath);
+				if (this.transpiler != null && !stamp.equals(transpilerStamp)) {
+					// the configuration is only read when creating the
+					// transpiler, and javac caches the classpath contents
+					logger.info("configuration file or classpath changed: creating a new transpiler");
+					this.transpiler.setTscService(false);
+					this.transpiler = null;
+					sourceFiles.clear();
 				}
-				logger.info("ts output dir: " + tsOutputDir);
-
-				File jsOutputDir = null;
-				if (jsapArgs.userSpecified("jsout") && jsapArgs.getFile("jsout") != null) {
-					jsOutputDir = jsapArgs.getFile("jsout");
-					jsOutputDir.mkdirs();
+				JSweetTranspiler transpiler = this.transpiler;
+				if (transpiler == null) {
+					transpiler = createTranspiler(classPath);
+					if (keepTranspiler || transpiler.isIncremental()) {
+						// keep the transpiler and the source files for the
+						// next runs
+						this.transpiler = transpiler;
+						transpilerStamp = stamp;
+					}
 				}
-				logger.info("js output dir: " + jsOutputDir);
 
-				File dtsOutputDir = null;
-				if (jsapArgs.userSpecified("dtsout") && jsapArgs.getFile("dtsout") != null) {
-					dtsOutputDir = jsapArgs.getFile("dtsout");
+				if (transpiler.isIncremental()) {
+					transpiledFiles = getSourceFiles(javaInputFiles);
+				} else {
+					transpiledFiles = SourceFile.toSourceFiles(javaInputFiles);
 				}
-
-				File candiesJsOutputDir = null;
-				if (jsapArgs.userSpecified("candiesJsOut") && jsapArgs.getFile("candiesJsOut") != null) {
-					candiesJsOutputDir = jsapArgs.getFile("candiesJsOut");
+				transpiler.transpile(transpilationHandler, transpiledFiles);
+				if (jsapArgs.userSpecified("metricsReport")) {
+					transpiler.getMetrics().writeReport(jsapArgs.getFile("metricsReport"));
 				}
+			} catch (NoClassDefFoundError error) {
+				transpilationHandler.report(JSweetProblem.JAVA_COMPILER_NOT_FOUND, null,
+						JSweetProblem.JAVA_COMPILER_NOT_FOUND.getMessage());
+			}
+			return transpiledFiles;
+		}
 
-				File sourceRootDir = null;
-				if (jsapArgs.userSpecified("sourceRoot") && jsapArgs.getFile("sourceRoot") != null) {
-					sourceRootDir = jsapArgs.getFile("sourceRoot");
-				}
 
-				JSweetFactory factory = null;
-				String factoryClassName = jsapArgs.getString("factoryClassName");
+		/**
+		 * Gets a stamp of the files that are read when creating a transpiler
+		 * (the configuration file and the classpath entries), which changes
+		 * when one of these files is modified, created or deleted.
+		 */
+		private String getTranspilerStamp(String classPath) {
+			List<File> files = new ArrayList<>();
+			files.add(getConfigurationFile());
+			// the transpiler defaults to the JVM classpath
+			for (String entry : (classPath == null ? System.getProperty("java.class.path") : classPath)
+					.split(File.pathSeparator)) {
+				files.add(new File(entry));
+			}
+			StringBuilder stamp = new StringBuilder();
+			for (File file : files) {
+				stamp.append(file.getPath()).append(':').append(file.lastModified()).append(':')
+						.append(file.length()).append(File.pathSeparatorChar);
+			}
+			return stamp.toString();
+		}
 
-				if (factoryClassName != null) {
-					try {
-						factory = (JSweetFactory) Thread.currentThread().getContextClassLoader()
-								.loadClass(factoryClassName).newInstance();
-					} catch (Exception e) {
-						try {
-							// try forName just in case
-							factory = (JSweetFactory) Class.forName(factoryClassName).newInstance();
-						} catch (Exception e2) {
-							throw new RuntimeException(
-									"cannot find or instantiate factory class: " + factoryClassName
-											+ " (make sure the class is in the plugin's classpath and that it defines an empty public constructor)",
-									e2);
-						}
-					}
-				}
+		/**
+		 * Gets the configuration file read by the transpiler.
+		 */
+		public File getConfigurationFile() {
+			return new File(JSweetConfig.CONFIGURATION_FILE_NAME);
+		}
 
-				if (factory == null) {
-					factory = new JSweetFactory();
+		private SourceFile[] getSourceFiles(List<File> javaFiles) {
+			Map<File, SourceFile> previousSourceFiles = sourceFiles;
+			sourceFiles = new HashMap<>();
+			SourceFile[] result = new SourceFile[javaFiles.size()];
+			int i = 0;
+			for (File javaFile : javaFiles) {
+				SourceFile sourceFile = previousSourceFiles.get(javaFile);
+				if (sourceFile == null) {
+					sourceFile = new SourceFile(javaFile);
 				}
+				sourceFiles.put(javaFile, sourceFile);
+				result[i++] = sourceFile;
+			}
+			return result;
+		}
 
-				JSweetTranspiler transpiler = new JSweetTranspiler(factory, jsapArgs.getFile("workingDir"), tsOutputDir,
-						jsOutputDir, candiesJsOutputDir, classPath);
+		private JSweetTranspiler createTranspiler(String classPath) {
+			File tsOutputDir = null;
+			if (jsapArgs.userSpecified("tsout") && jsapArgs.getFile("tsout") != null) {
+				tsOutputDir = jsapArgs.getFile("tsout");
+				tsOutputDir.mkdirs();
+			}
+			logger.info("ts output dir: " + tsOutputDir);
 
-				if (jsapArgs.userSpecified("bundle")) {
-					transpiler.setBundle(jsapArgs.getBoolean("bundle"));
-				}
-				if (jsapArgs.userSpecified("noRootDirectories")) {
-					transpiler.setNoRootDirectories(jsapArgs.getBoolean("noRootDirectories"));
-				}
-				if (jsapArgs.userSpecified("sourceMap")) {
-					transpiler.setGenerateSourceMaps(jsapArgs.getBoolean("sourceMap"));
-				}
-				if (sourceRootDir != null) {
-					transpiler.setSourceRoot(sourceRootDir);
-				}
-				if (jsapArgs.userSpecified("module")) {
-					transpiler.setModuleKind(ModuleKind.valueOf(jsapArgs.getString("module")));
-				}
-				if (jsapArgs.userSpecified(JSweetOptions.moduleResolution)) {
-					transpiler.setModuleResolution(
-							ModuleResolution.valueOf(jsapArgs.getString(JSweetOptions.moduleResolution)));
-				}
-				if (jsapArgs.userSpecified("encoding")) {
-					transpiler.setEncoding(jsapArgs.getString("encoding"));
-				}
-				if (jsapArgs.userSpecified("enableAssertions")) {
-					transpiler.setIgnoreAssertions(!jsapArgs.getBoolean("enableAssertions"));
-				}
-				if (jsapArgs.userSpecified("declaration")) {
-					transpiler.setGenerateDeclarations(jsapArgs.getBoolean("declaration"));
-				}
-				if (jsapArgs.userSpecified("tsOnly")) {
-					transpiler.setGenerateJsFiles(!jsapArgs.getBoolean("tsOnly"));
-				}
-				if (jsapArgs.userSpecified("ignoreDefinitions")) {
-					transpiler.setGenerateDefinitions(!jsapArgs.getBoolean("ignoreDefinitions"));
-				}
-				if (jsapArgs.userSpecified("dtsOutputDir")) {
-					transpiler.setDeclarationsOutputDir(dtsOutputDir);
-				}
-				if (jsapArgs.userSpecified("header")) {
-					transpiler.setHeaderFile(jsapArgs.getFile("header"));
-				}
-				if (jsapArgs.userSpecified("targetVersion")) {
-					transpiler.setEcmaTargetVersion(
-							JSweetTranspiler.getEcmaTargetVersion(jsapArgs.getString("targetVersion")));
-				}
-				if (jsapArgs.userSpecified("disableSinglePrecisionFloats")) {
-					transpiler.setDisableSinglePrecisionFloats(jsapArgs.getBoolean("disableSinglePrecisionFloats"));
-				}
-				if (jsapArgs.userSpecified(JSweetOptions.extraSystemPath)) {
-					ProcessUtil.addExtraPath(jsapArgs.getString(JSweetOptions.extraSystemPath));
-				}
+			File jsOutputDir = null;
+			if (jsapArgs.userSpecified("jsout") && jsapArgs.getFile("jsout") != null) {
+				jsOutputDir = jsapArgs.getFile("jsout");
+				jsOutputDir.mkdirs();
+			}
+			logger.info("js output dir: " + jsOutputDir);
 
-				if (tsOutputDir != null) {
-					transpiler.setTsOutputDir(tsOutputDir);
-				}
-				if (jsOutputDir != null) {
-					transpiler.setJsOutputDir(jsOutputDir);
-				}
+			File dtsOutputDir = null;
+			if (jsapArgs.userSpecified("dtsout") && jsapArgs.getFile("dtsout") != null) {
+				dtsOutputDir = jsapArgs.getFile("dtsout");
+			}
+
+			File candiesJsOutputDir = null;
+			if (jsapArgs.userSpecified("candiesJsOut") && jsapArgs.getFile("candiesJsOut") != null) {
+				candiesJsOutputDir = jsapArgs.getFile("candiesJsOut");
+			}
 
-				// transpiler.setAdapters(Arrays.asList(jsapArgs.getStringArray("adapters")));
+			File sourceRootDir = null;
+			if (jsapArgs.userSpecified("sourceRoot") && jsapArgs.getFile("sourceRoot") != null) {
+				sourceRootDir = jsapArgs.getFile("sourceRoot");
+			}
 
-				List<File> files = Arrays.asList(jsapArgs.getFileArray("defInput"));
-				logger.info("definition input dirs: " + files);
+			JSweetFactory factory = null;
+			String factoryClassName = jsapArgs.getString("factoryClassName");
 
-				for (File f : files) {
-					transpiler.addTsDefDir(f);
+			if (factoryClassName != null) {
+				try {
+					factory = (JSweetFactory) Thread.currentThread().getContextClassLoader()
+							.loadClass(factoryClassName).newInstance();
+				} catch (Exception e) {
+					try {
+						// try forName just in case
+						factory = (JSweetFactory) Class.forName(factoryClassName).newInstance();
+					} catch (Exception e2) {
+						throw new RuntimeException(
+								"cannot find or instantiate factory class: " + factoryClassName
+										+ " (make sure the class is in the plugin's classpath and that it defines an empty public constructor)",
+								e2);
+					}
 				}
+			}
 
-				transpiler.transpile(transpilationHandler, SourceFile.toSourceFiles(javaInputFiles));
-			} catch (NoClassDefFoundError error) {
-				transpilationHandler.report(JSweetProblem.JAVA_COMPILER_NOT_FOUND, null,
-						JSweetProblem.JAVA_COMPILER_NOT_FOUND.getMessage());
+			if (factory == null) {
+				factory = new JSweetFactory();
 			}
 
-			errorCount = transpilationHandler.getErrorCount();
-			if (errorCount > 0) {
-				OUTPUT_LOGGER.info("transpilation failed with " + errorCount + " error(s) and "
-						+ transpilationHandler.getWarningCount() + " warning(s)");
-			} else {
-				if (transpilationHandler.getWarningCount() > 0) {
-					OUTPUT_LOGGER.info(
-							"transpilation completed with " + transpilationHandler.getWarningCount() + " warning(s)");
-				} else {
-					OUTPUT_LOGGER.info("transpilation successfully completed with no errors and no warnings");
-				}
+			JSweetTranspiler transpiler = new JSweetTranspiler(factory, jsapArgs.getFile("workingDir"), tsOutputDir,
+					jsOutputDir, candiesJsOutputDir, classPath);
+
+			if (jsapArgs.userSpecified("bundle")) {
+				transpiler.setBundle(jsapArgs.getBoolean("bundle"));
+			}
+			if (jsapArgs.userSpecified("noRootDirectories")) {
+				transpiler.setNoRootDirectories(jsapArgs.getBoolean("noRootDirectories"));
+			}
+			if (jsapArgs.userSpecified("sourceMap")) {
+				transpiler.setGenerateSourceMaps(jsapArgs.getBoolean("sourceMap"));
+			}
+			if (sourceRootDir != null) {
+				transpiler.setSourceRoot(sourceRootDir);
+			}
+			if (jsapArgs.userSpecified("module")) {
+				transpiler.setModuleKind(ModuleKind.valueOf(jsapArgs.getString("module")));
+			}
+			if (jsapArgs.userSpecified(JSweetOptions.moduleResolution)) {
+				transpiler.setModuleResolution(
+						ModuleResolution.valueOf(jsapArgs.getString(JSweetOptions.moduleResolution)));
+			}
+			if (jsapArgs.userSpecified("encoding")) {
+				transpiler.setEncoding(jsapArgs.getString("encoding"));
+			}
+			if (jsapArgs.userSpecified("enableAssertions")) {
+				transpiler.setIgnoreAssertions(!jsapArgs.getBoolean("enableAssertions"));
 			}
+			if (jsapArgs.userSpecified("declaration")) {
+				transpiler.setGenerateDeclarations(jsapArgs.getBoolean("declaration"));
+			}
+			if (jsapArgs.userSpecified("tsOnly")) {
+				transpiler.setGenerateJsFiles(!jsapArgs.getBoolean("tsOnly"));
+			}
+			if (jsapArgs.userSpecified("ignoreDefinitions")) {
+				transpiler.setGenerateDefinitions(!jsapArgs.getBoolean("ignoreDefinitions"));
+			}
+			if (jsapArgs.userSpecified("dtsOutputDir")) {
+				transpiler.setDeclarationsOutputDir(dtsOutputDir);
+			}
+			if (jsapArgs.userSpecified("header")) {
+				transpiler.setHeaderFile(jsapArgs.getFile("header"));
+			}
+			if (jsapArgs.userSpecified("targetVersion")) {
+				transpiler.setEcmaTargetVersion(
+						JSweetTranspiler.getEcmaTargetVersion(jsapArgs.getString("targetVersion")));
+			}
+			if (jsapArgs.userSpecified("disableSinglePrecisionFloats")) {
+				transpiler.setDisableSinglePrecisionFloats(jsapArgs.getBoolean("disableSinglePrecisionFloats"));
+			}
+			if (jsapArgs.userSpecified(JSweetOptions.extraSystemPath)) {
+				ProcessUtil.addExtraPath(jsapArgs.getString(JSweetOptions.extraSystemPath));
+			}
+			if (jsapArgs.userSpecified(JSweetOptions.incremental)) {
+				transpiler.setIncremental(jsapArgs.getBoolean(JSweetOptions.incremental));
+			}
+			if (jsapArgs.userSpecified(JSweetOptions.tscService)) {
+				transpiler.setTscService(jsapArgs.getBoolean(JSweetOptions.tscService));
+			}
+			if (jsapArgs.userSpecified(JSweetOptions.staticOverloadDispatch)) {
+				transpiler.setStaticOverloadDispatch(jsapArgs.getBoolean(JSweetOptions.staticOverloadDispatch));
+			}
+			if (jsapArgs.userSpecified(JSweetOptions.interfaceTables)) {
+				transpiler.setInterfaceTables(jsapArgs.getBoolean(JSweetOptions.interfaceTables));
+			}
+			if (jsapArgs.userSpecified(JSweetOptions.typedArrays)) {
+				transpiler.setTypedArrays(jsapArgs.getBoolean(JSweetOptions.typedArrays));
+			}
+			if (jsapArgs.userSpecified(JSweetOptions.numericChars)) {
+				transpiler.setNumericChars(jsapArgs.getBoolean(JSweetOptions.numericChars));
+			}
+			if (jsapArgs.userSpecified(JSweetOptions.ringBufferDeques)) {
+				transpiler.setRingBufferDeques(jsapArgs.getBoolean(JSweetOptions.ringBufferDeques));
+			}
+
+			if (tsOutputDir != null) {
+				transpiler.setTsOutputDir(tsOutputDir);
+			}
+			if (jsOutputDir != null) {
+				transpiler.setJsOutputDir(jsOutputDir);
+			}
+
+			// transpiler.setAdapters(Arrays.asList(jsapArgs.getStringArray("adapters")));
 
+			List<File> files = Arrays.asList(jsapArgs.getFileArray("defInput"));
+			logger.info("definition input dirs: " + files);
+
+			for (File f : files) {
+				transpiler.addTsDefDir(f);
+			}
+			return transpiler;
 		}
 
 	}
@@ -0,0 +1,645 @@
+/*
+ * JSweet transpiler - http://www.jsweet.org
+ * Copyright (C) 2015 CINCHEO SAS <renaud.pawlak@cincheo.fr>
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package org.jsweet;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.apache.log4j.Level;
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+import org.jsweet.JSweetCommandLineLauncher.JSweetTranspilationTask;
+import org.jsweet.transpiler.JSweetProblem;
+import org.jsweet.transpiler.JSweetTranspiler;
+import org.jsweet.transpiler.SourceFile;
+import org.jsweet.transpiler.SourcePosition;
+import org.jsweet.transpiler.TranspilationHandler;
+import org.jsweet.transpiler.util.ErrorCountTranspilationHandler;
+
+import com.google.gson.Gson;
+import com.martiansoftware.jsap.FlaggedOption;
+import com.martiansoftware.jsap.JSAP;
+import com.martiansoftware.jsap.JSAPResult;
+import com.martiansoftware.jsap.Switch;
+import com.martiansoftware.jsap.stringparsers.FileStringParser;
+
+/**
+ * A long-lived transpilation server, started with <code>jsweet daemon</code>.
+ * It keeps warmed-up transpilers (one per working directory and command line
+ * options), so that the builds (Maven, Gradle, IDEs) do not pay for the JVM
+ * warm-up, the transpiler configuration and the candies extraction at each
+ * transpilation.
+ *
+ * <p>
+ * The daemon listens on the loopback interface only. Each client connection
+ * sends requests as JSON objects, one per line, and receives one JSON response
+ * line per request:
+ *
+ * <pre>
+ * {"token": "...", "directory": "/my/project", "args": ["-i", "src/main/java", "--tsout", "target/ts"], "files": ["src/main/java/A.java"]}
+ * </pre>
+ *
+ * Each request must hold the token that the daemon writes at startup in a
+ * file only readable by the current user (<code>~/.jsweet/daemon.token</code>
+ * by default), so that the other users of the machine cannot use the daemon.
+ * The connection is closed after a request with an invalid token.
+ *
+ * The <code>args</code> are regular command line options (see
+ * {@link JSweetCommandLineLauncher}) and the <code>files</code> are the Java
+ * files to transpile (all the files of the input directories if omitted).
+ * Relative paths are resolved against the request's <code>directory</code>.
+ * The response holds the problems, the generated files and the timings of the
+ * request (in milliseconds). The <code>status</code> and
+ * <code>shutdown</code> commands are also supported (for instance
+ * <code>{"command": "status"}</code>).
+ *
+ * <p>
+ * Requests on different projects run concurrently, while the requests on the
+ * same project are queued. When more than the maximum number of projects are
+ * kept, the least recently used idle projects are evicted.
+ *
+ * @author Renaud Pawlak
+ */
+public class JSweetDaemon {
+
+	private static final Logger logger = Logger.getLogger(JSweetDaemon.class);
+
+	/**
+	 * The command line launcher command that starts the daemon.
+	 */
+	public static final String COMMAND = "daemon";
+
+	/**
+	 * The default port the daemon listens on.
+	 */
+	public static final int DEFAULT_PORT = 9779;
+
+	/**
+	 * The default maximum number of projects kept in memory.
+	 */
+	public static final int DEFAULT_MAX_PROJECTS = 4;
+
+	/**
+	 * The default file the daemon writes its token in.
+	 */
+	public static final File DEFAULT_TOKEN_FILE = new File(System.getProperty("user.home"),
+			".jsweet" + File.separator + "daemon.token");
+
+	/**
+	 * A daemon request.
+	 */
+	public static class Request {
+		/**
+		 * The command: <code>transpile</code> (default), <code>status</code>
+		 * or <code>shutdown</code>.
+		 */
+		public String command;
+		/**
+		 * The daemon's token (see {@link JSweetDaemon#getTokenFile()}).
+		 */
+		public String token;
+		/**
+		 * The directory to resolve the relative paths against.
+		 */
+		public String directory;
+		/**
+		 * The command line options.
+		 */
+		public String[] args;
+		/**
+		 * The Java files to be transpiled (all the files of the input
+		 * directories if null).
+		 */
+		public String[] files;
+	}
+
+	/**
+	 * A problem reported by the transpiler.
+	 */
+	public static class Problem {
+		public String severity;
+		public String message;
+		public String file;
+		public int line;
+		public int column;
+	}
+
+	/**
+	 * A daemon response.
+	 */
+	public static class Response {
+		/**
+		 * False if the request could not be processed (see the error).
+		 */
+		public boolean success = true;
+		public String error;
+		/**
+		 * True if the project's transpiler was already created by a previous
+		 * request.
+		 */
+		public boolean warm;
+		public int errorCount;
+		public int warningCount;
+		public List<Problem> problems = new ArrayList<>();
+		/**
+		 * The generated files.
+		 */
+		public List<String> outputFiles = new ArrayList<>();
+		/**
+		 * The generated files whose content changed (empty when nothing had to
+		 * be rebuilt).
+		 */
+		public List<String> changedOutputFiles = new ArrayList<>();
+		/**
+		 * The time waiting for the project's previous requests, the
+		 * transpilation time and the total time, in milliseconds.
+		 */
+		public Map<String, Long> timings = new LinkedHashMap<>();
+		/**
+		 * The projects kept by the daemon (status command).
+		 */
+		public List<String> projects;
+	}
+
+	private static class Project {
+		final String key;
+		final JSweetTranspilationTask task;
+		int activeRequests = 0;
+		int requestCount = 0;
+
+		Project(String key, JSweetTranspilationTask task) {
+			this.key = key;
+			this.task = task;
+		}
+
+		void dispose() {
+			JSweetTranspiler transpiler = task.getTranspiler();
+			if (transpiler != null) {
+				transpiler.setTscService(false);
+			}
+		}
+
+		@Override
+		public String toString() {
+			return key + " (" + requestCount + " request(s)" + (activeRequests > 0 ? ", active" : "") + ")";
+		}
+	}
+
+	private static class CollectingTranspilationHandler implements TranspilationHandler {
+		final List<Problem> problems = new ArrayList<>();
+		final List<String> changedOutputFiles = new ArrayList<>();
+
+		@Override
+		public synchronized void report(JSweetProblem problem, SourcePosition sourcePosition, String message) {
+			Problem p = new Problem();
+			p.severity = problem.getSeverity().name();
+			p.message = message;
+			if (sourcePosition != null && sourcePosition.getFile() != null) {
+				p.file = sourcePosition.getFile().getPath();
+				p.line = sourcePosition.getStartLine();
+				p.column = sourcePosition.getStartColumn();
+			}
+			problems.add(p);
+		}
+
+		@Override
+		public void onCompleted(JSweetTranspiler transpiler, boolean fullPass, SourceFile[] files) {
+		}
+
+		@Override
+		public synchronized void onCompleted(JSweetTranspiler transpiler, boolean fullPass, SourceFile[] files,
+				Set<File> changedOutputFiles) {
+			changedOutputFiles.forEach(file -> this.changedOutputFiles.add(file.getPath()));
+		}
+	}
+
+	private final int port;
+	private final int maxProjects;
+	private final File tokenFile;
+	private volatile String token;
+	private final JSAP jsap;
+	private final Gson gson = new Gson();
+	// access-ordered, so that the least recently used project comes first
+	private final LinkedHashMap<String, Project> projects = new LinkedHashMap<>(16, 0.75f, true);
+	private final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+		Thread thread = new Thread(runnable, "jsweet-daemon-request");
+		thread.setDaemon(true);
+		return thread;
+	});
+	private ServerSocket serverSocket;
+	private volatile boolean stopped = false;
+
+	/**
+	 * Creates a daemon.
+	 *
+	 * @param port
+	 *            the loopback port to listen on (0 for any free port)
+	 * @param maxProjects
+	 *            the maximum number of projects to be kept in memory
+	 * @param tokenFile
+	 *            the file to write the token in (the requests must hold this
+	 *            token)
+	 */
+	public JSweetDaemon(int port, int maxProjects, File tokenFile) throws Exception {
+		this.port = port;
+		this.maxProjects = maxProjects;
+		this.tokenFile = tokenFile;
+		this.jsap = JSweetCommandLineLauncher.defineArgs();
+	}
+
+	/**
+	 * Gets the port the daemon is listening on (once started).
+	 */
+	public int getPort() {
+		return serverSocket == null ? port : serverSocket.getLocalPort();
+	}
+
+	/**
+	 * Gets the file holding the token that the requests must hold (written
+	 * once started).
+	 */
+	public File getTokenFile() {
+		return tokenFile;
+	}
+
+	/**
+	 * Starts listening on the loopback interface and writes a new token in the
+	 * token file.
+	 */
+	public void start() throws IOException {
+		serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+		byte[] bytes = new byte[32];
+		new SecureRandom().nextBytes(bytes);
+		StringBuilder token = new StringBuilder();
+		for (byte b : bytes) {
+			token.append(String.format("%02x", b));
+		}
+		writeTokenFile(token.toString());
+		this.token = token.toString();
+		logger.info("JSweet daemon listening on " + serverSocket.getLocalSocketAddress() + " (token file: "
+				+ tokenFile + ")");
+	}
+
+	// writes the token in a file that only the current user can read
+	private void writeTokenFile(String token) throws IOException {
+		Path path = tokenFile.getAbsoluteFile().toPath();
+		Files.createDirectories(path.getParent());
+		Files.deleteIfExists(path);
+		if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+			Files.createFile(path, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+		} else {
+			Files.createFile(path);
+			File file = path.toFile();
+			file.setReadable(false, false);
+			file.setReadable(true, true);
+			file.setWritable(false, false);
+			file.setWritable(true, true);
+		}
+		Files.write(path, token.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private boolean isAuthorized(Request request) {
+		return token != null && request.token != null && MessageDigest
+				.isEqual(token.getBytes(StandardCharsets.UTF_8), request.token.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Starts the daemon (if not started) and serves the client connections
+	 * until the daemon is stopped.
+	 */
+	public void execute() throws IOException {
+		if (serverSocket == null) {
+			start();
+		}
+		try {
+			while (!stopped) {
+				Socket socket = serverSocket.accept();
+				executor.execute(() -> serve(socket));
+			}
+		} catch (SocketException e) {
+			if (!stopped) {
+				throw e;
+			}
+		} finally {
+			stop();
+		}
+	}
+
+	/**
+	 * Stops the daemon and disposes all the projects.
+	 */
+	public void stop() {
+		stopped = true;
+		try {
+			if (serverSocket != null) {
+				serverSocket.close();
+			}
+		} catch (IOException e) {
+			logger.warn("cannot close daemon socket", e);
+		}
+		executor.shutdownNow();
+		if (token != null) {
+			token = null;
+			tokenFile.delete();
+		}
+		synchronized (projects) {
+			for (Project project : projects.values()) {
+				project.dispose();
+			}
+			projects.clear();
+		}
+	}
+
+	private void serve(Socket socket) {
+		try (Socket s = socket;
+				BufferedReader in = new BufferedReader(
+						new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8));
+				Writer out = new OutputStreamWriter(s.getOutputStream(), StandardCharsets.UTF_8)) {
+			String line;
+			while ((line = in.readLine()) != null) {
+				if (line.trim().isEmpty()) {
+					continue;
+				}
+				Response response;
+				boolean authorized = true;
+				try {
+					Request request = gson.fromJson(line, Request.class);
+					authorized = isAuthorized(request);
+					response = handle(request);
+				} catch (Exception e) {
+					logger.error("cannot handle request: " + line, e);
+					response = new Response();
+					response.success = false;
+					response.error = e.toString();
+				}
+				out.write(gson.toJson(response));
+				out.write('\n');
+				out.flush();
+				if (stopped || !authorized) {
+					break;
+				}
+			}
+		} catch (IOException e) {
+			logger.warn("client connection error", e);
+		}
+	}
+
+	/**
+	 * Handles a daemon request.
+	 */
+	public Response handle(Request request) throws Exception {
+		Response response = new Response();
+		if (!isAuthorized(request)) {
+			logger.warn("rejected request with an invalid token");
+			response.success = false;
+			response.error = "invalid token";
+			return response;
+		}
+		if ("status".equals(request.command)) {
+			synchronized (projects) {
+				response.projects = projects.values().stream().map(Project::toString).collect(Collectors.toList());
+			}
+			return response;
+		}
+		if ("shutdown".equals(request.command)) {
+			logger.info("shutting down JSweet daemon");
+			stopped = true;
+			serverSocket.close();
+			return response;
+		}
+		if (request.command != null && !"transpile".equals(request.command)) {
+			response.success = false;
+			response.error = "unknown command: " + request.command;
+			return response;
+		}
+
+		long startTime = System.currentTimeMillis();
+		File directory = new File(request.directory == null ? "." : request.directory).getCanonicalFile();
+		String[] args = resolveFileArguments(directory, request.args == null ? new String[0] : request.args);
+		JSAPResult jsapArgs = jsap.parse(args);
+		if (!jsapArgs.success()) {
+			response.success = false;
+			List<String> errors = new ArrayList<>();
+			for (Iterator<?> i = jsapArgs.getErrorMessageIterator(); i.hasNext();) {
+				errors.add(String.valueOf(i.next()));
+			}
+			response.error = String.join("; ", errors);
+			return response;
+		}
+		List<File> javaFiles = request.files == null ? null
+				: Arrays.stream(request.files).map(f -> resolve(directory, f)).collect(Collectors.toList());
+
+		Project project = acquireProject(directory.getPath() + " " + String.join(" ", args), jsapArgs);
+		try {
+			synchronized (project) {
+				long transpilationStartTime = System.currentTimeMillis();
+				response.timings.put("queue", transpilationStartTime - startTime);
+				response.warm = project.task.isWarm();
+				CollectingTranspilationHandler problems = new CollectingTranspilationHandler();
+				ErrorCountTranspilationHandler transpilationHandler = new ErrorCountTranspilationHandler(problems);
+				SourceFile[] sourceFiles = project.task.transpile(transpilationHandler, javaFiles);
+				response.timings.put("transpilation", System.currentTimeMillis() - transpilationStartTime);
+				response.errorCount = transpilationHandler.getErrorCount();
+				response.warningCount = transpilationHandler.getWarningCount();
+				response.problems = problems.problems;
+				response.changedOutputFiles = problems.changedOutputFiles;
+				for (SourceFile sourceFile : sourceFiles) {
+					if (sourceFile.getTsFile() != null) {
+						response.outputFiles.add(sourceFile.getTsFile().getPath());
+					}
+					if (sourceFile.getJsFile() != null) {
+						response.outputFiles.add(sourceFile.getJsFile().getPath());
+					}
+				}
+			}
+		} finally {
+			releaseProject(project);
+		}
+		response.timings.put("total", System.currentTimeMillis() - startTime);
+		logger.info("request on " + project.key + ": " + response.errorCount + " error(s), timings: "
+				+ response.timings + (response.warm ? "" : " (cold)"));
+		return response;
+	}
+
+	private Project acquireProject(String key, JSAPResult jsapArgs) {
+		synchronized (projects) {
+			Project project = projects.get(key);
+			if (project == null) {
+				logger.info("new project: " + key);
+				project = new Project(key, new JSweetTranspilationTask(jsapArgs, true));
+				projects.put(key, project);
+				evictIdleProjects();
+			}
+			project.activeRequests++;
+			project.requestCount++;
+			return project;
+		}
+	}
+
+	private void releaseProject(Project project) {
+		synchronized (projects) {
+			project.activeRequests--;
+			evictIdleProjects();
+		}
+	}
+
+	// evicts the least recently used projects that are not processing a
+	// request, until the maximum number of projects is reached
+	private void evictIdleProjects() {
+		Iterator<Project> i = projects.values().iterator();
+		while (projects.size() > maxProjects && i.hasNext()) {
+			Project project = i.next();
+			if (project.activeRequests == 0) {
+				logger.info("evicting project: " + project.key);
+				i.remove();
+				project.dispose();
+			}
+		}
+	}
+
+	private static File resolve(File directory, String path) {
+		File file = new File(path);
+		return file.isAbsolute() ? file : new File(directory, path);
+	}
+
+	// resolves the values of the options that are files (or lists of files)
+	private String[] resolveFileArguments(File directory, String[] args) {
+		String[] resolvedArgs = args.clone();
+		for (int i = 0; i < args.length - 1; i++) {
+			Object option = null;
+			if (args[i].startsWith("--")) {
+				option = jsap.getByLongFlag(args[i].substring(2));
+			} else if (args[i].startsWith("-") && args[i].length() == 2) {
+				option = jsap.getByShortFlag(args[i].charAt(1));
+			}
+			if (option instanceof FlaggedOption
+					&& ((FlaggedOption) option).getStringParser() instanceof FileStringParser) {
+				FlaggedOption fileOption = (FlaggedOption) option;
+				String separator = "" + fileOption.getListSeparator();
+				List<String> paths = fileOption.isList() ? Arrays.asList(args[i + 1].split(Pattern.quote(separator)))
+						: Arrays.asList(args[i + 1]);
+				resolvedArgs[i + 1] = paths.stream().map(path -> resolve(directory, path).getPath())
+						.collect(Collectors.joining(separator));
+				i++;
+			}
+		}
+		return resolvedArgs;
+	}
+
+	/**
+	 * The daemon entry point (<code>jsweet daemon</code>).
+	 */
+	public static void main(String[] args) {
+		try {
+			JSAP jsap = new JSAP();
+
+			Switch switchArg = new Switch("help");
+			switchArg.setShortFlag('h');
+			switchArg.setLongFlag("help");
+			switchArg.setDefault("false");
+			jsap.registerParameter(switchArg);
+
+			switchArg = new Switch("verbose");
+			switchArg.setLongFlag("verbose");
+			switchArg.setShortFlag('v');
+			switchArg.setHelp("Turn on all levels of logging.");
+			switchArg.setDefault("false");
+			jsap.registerParameter(switchArg);
+
+			FlaggedOption optionArg = new FlaggedOption("port");
+			optionArg.setLongFlag("port");
+			optionArg.setStringParser(JSAP.INTEGER_PARSER);
+			optionArg.setDefault("" + DEFAULT_PORT);
+			optionArg.setHelp("The loopback port the daemon listens on (0 for any free port).");
+			jsap.registerParameter(optionArg);
+
+			optionArg = new FlaggedOption("maxProjects");
+			optionArg.setLongFlag("maxProjects");
+			optionArg.setStringParser(JSAP.INTEGER_PARSER);
+			optionArg.setDefault("" + DEFAULT_MAX_PROJECTS);
+			optionArg.setHelp(
+					"The maximum number of projects (working directory and options) kept in memory. The least recently used idle projects are evicted first.");
+			jsap.registerParameter(optionArg);
+
+			optionArg = new FlaggedOption("tokenFile");
+			optionArg.setLongFlag("tokenFile");
+			optionArg.setStringParser(FileStringParser.getParser());
+			optionArg.setDefault(DEFAULT_TOKEN_FILE.getPath());
+			optionArg.setHelp(
+					"The file the daemon writes its token in, at startup. This file is only readable by the current user and each request must hold its token.");
+			jsap.registerParameter(optionArg);
+
+			optionArg = new FlaggedOption("jdkHome");
+			optionArg.setLongFlag("jdkHome");
+			optionArg.setHelp(
+					"Set the JDK home directory to be used to find the Java compiler. If not set, the transpiler will try to use the JAVA_HOME environment variable. Note that the expected JDK version is greater or equals to version 8.");
+			optionArg.setStringParser(FileStringParser.getParser());
+			optionArg.setRequired(false);
+			jsap.registerParameter(optionArg);
+
+			JSAPResult jsapArgs = jsap.parse(args);
+			if (!jsapArgs.success() || jsapArgs.getBoolean("help")) {
+				for (Iterator<?> i = jsapArgs.getErrorMessageIterator(); i.hasNext();) {
+					System.out.println("Error: " + i.next());
+				}
+				System.out.println("Daemon options:");
+				System.out.println(jsap.getHelp());
+				System.exit(jsapArgs.success() ? 0 : -1);
+			}
+			if (jsapArgs.getBoolean("verbose")) {
+				LogManager.getLogger("org.jsweet").setLevel(Level.ALL);
+			}
+			JSweetConfig.initClassPath(jsapArgs.getString("jdkHome"));
+
+			new JSweetDaemon(jsapArgs.getInt("port"), jsapArgs.getInt("maxProjects"), jsapArgs.getFile("tokenFile"))
+					.execute();
+		} catch (Throwable t) {
+			t.printStackTrace();
+			System.exit(1);
+		}
+		System.exit(0);
+	}
+
+}
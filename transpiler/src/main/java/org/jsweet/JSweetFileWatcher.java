@@ -36,10 +36,13 @@ import java.nio.file.WatchKey;
 import java.nio.file.WatchService;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
-import java.util.LinkedList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.UUID;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.log4j.Logger;
 
@@ -48,6 +51,14 @@ import com.sun.nio.file.SensitivityWatchEventModifier;
 /**
  * A watch thread to recompile the project when changed.
  * 
+ * <p>
+ * File events are pushed to a blocking queue, which is consumed by a
+ * transpilation thread. The transpilation thread waits until no event occurs
+ * during the debounce delay, so that a burst of events (for instance a
+ * <code>git checkout</code>) triggers a single transpilation with all the
+ * changed files. Events are not merged for longer than the maximum delay, so
+ * that continuous writes cannot postpone the transpilation forever.
+ * 
  * @author EPOTH - ponthiaux.e@sfeir.com -/- ponthiaux.eric@gmail.com
  * @author Louis Grignon On the fly transpilation through maven
  * @author Renaud Pawlak adaptation to the command-line launcher
@@ -61,9 +72,22 @@ public class JSweetFileWatcher {
 
 	private static final SensitivityWatchEventModifier SENSITIVITY_WATCH_EVENT_MODIFIER = SensitivityWatchEventModifier.HIGH;
 
-	private static ReentrantLock __Lock = new ReentrantLock();
+	/**
+	 * The default debounce delay in milliseconds.
+	 */
+	public static final long DEFAULT_DEBOUNCE_DELAY = 200;
+
+	/**
+	 * The default maximum delay in milliseconds between the first file event
+	 * and the transpilation.
+	 */
+	public static final long DEFAULT_MAX_DELAY = 2000;
 
-	private static LinkedList<String> __RandomKeysTrigger = new LinkedList<>();
+	private final BlockingQueue<File> changedFiles = new LinkedBlockingQueue<>();
+
+	private final long debounceDelay;
+
+	private final long maxDelay;
 
 	/**
 	 * Holds the JSweet transpilation task, which is going to be executed when a
@@ -79,7 +103,41 @@ public class JSweetFileWatcher {
 	 *            the task to be executed when a file changes
 	 */
 	public JSweetFileWatcher(TranspilationTask transpilationTask) {
+		this(transpilationTask, DEFAULT_DEBOUNCE_DELAY);
+	}
+
+	/**
+	 * Creates a new watcher with a JSweet transpilation task, which is going to
+	 * be executed when watched files change.
+	 * 
+	 * @param transpilationTask
+	 *            the task to be executed when files change
+	 * @param debounceDelay
+	 *            the time (in milliseconds) without file events to wait for
+	 *            before running the task, so that bursts of events are merged
+	 */
+	public JSweetFileWatcher(TranspilationTask transpilationTask, long debounceDelay) {
+		this(transpilationTask, debounceDelay, Math.max(debounceDelay, DEFAULT_MAX_DELAY));
+	}
+
+	/**
+	 * Creates a new watcher with a JSweet transpilation task, which is going to
+	 * be executed when watched files change.
+	 * 
+	 * @param transpilationTask
+	 *            the task to be executed when files change
+	 * @param debounceDelay
+	 *            the time (in milliseconds) without file events to wait for
+	 *            before running the task, so that bursts of events are merged
+	 * @param maxDelay
+	 *            the maximum time (in milliseconds) to wait for after the
+	 *            first file event before running the task, even if events keep
+	 *            occurring
+	 */
+	public JSweetFileWatcher(TranspilationTask transpilationTask, long debounceDelay, long maxDelay) {
 		this.transpilationTask = transpilationTask;
+		this.debounceDelay = debounceDelay;
+		this.maxDelay = maxDelay;
 	}
 
 	/**
@@ -115,12 +173,30 @@ public class JSweetFileWatcher {
 					walkDirectoryTree(path, watchedPaths, watchService);
 				}
 
+				// in the directories of the other watched files, only the
+				// events on these files are kept
+				Set<Path> watchedFiles = new HashSet<>();
+				Set<Path> filteredDirectories = new HashSet<>();
+				for (File file : transpilationTask.getWatchedFiles()) {
+					Path path = file.toPath().toAbsolutePath().normalize();
+					if (Files.isDirectory(path)) {
+						walkDirectoryTree(path, watchedPaths, watchService);
+					} else if (path.getParent() != null && Files.isDirectory(path.getParent())) {
+						Path directory = path.getParent();
+						watchedFiles.add(path);
+						if (watchedPaths.stream().noneMatch(p -> p.toAbsolutePath().normalize().equals(directory))
+								&& filteredDirectories.add(directory)) {
+							register(directory, watchService);
+						}
+					}
+				}
+
 				logger.info("done registering source paths");
 
 				logger.info("listening for file change... ");
 
 				try {
-					watch(watchService);
+					watch(watchService, watchedFiles, filteredDirectories);
 				} catch (Exception exception) {
 					watchService.close();
 				}
@@ -145,7 +221,8 @@ public class JSweetFileWatcher {
 
 	}
 
-	private void watch(WatchService watchService) throws Exception {
+	private void watch(WatchService watchService, Set<Path> watchedFiles, Set<Path> filteredDirectories)
+			throws Exception {
 
 		for (;;) {
 
@@ -172,16 +249,19 @@ public class JSweetFileWatcher {
 				@SuppressWarnings("unchecked")
 				WatchEvent<Path> ev = (WatchEvent<Path>) event;
 
-				Path filename = ev.context();
+				Path filename = ((Path) key.watchable()).resolve(ev.context());
+				if (filteredDirectories.contains(key.watchable()) && !watchedFiles.contains(filename)) {
+					continue;
+				}
 				if (kind == ENTRY_MODIFY || kind == ENTRY_CREATE || kind == ENTRY_DELETE) {
 
-					logger.info("file change detected" + filename);
-
-					__Lock.lock();
+					logger.info("file change detected: " + filename);
 
-					__RandomKeysTrigger.add(UUID.randomUUID().toString());
+					if (kind == ENTRY_CREATE && Files.isDirectory(filename)) {
+						walkDirectoryTree(filename, new ArrayList<>(), watchService);
+					}
 
-					__Lock.unlock();
+					changedFiles.add(filename.toFile());
 
 				}
 
@@ -204,6 +284,12 @@ public class JSweetFileWatcher {
 		/* */
 	}
 
+	private static void register(Path directory, WatchService watchService) throws IOException {
+		directory.register(watchService, new WatchEvent.Kind[] { ENTRY_MODIFY, ENTRY_CREATE, ENTRY_DELETE, OVERFLOW },
+				SENSITIVITY_WATCH_EVENT_MODIFIER);
+		logger.info("added [" + directory.toString() + "]");
+	}
+
 	private static class RegisteringFileTreeScanner extends SimpleFileVisitor<Path> {
 
 		private List<Path> directories;
@@ -264,26 +350,43 @@ public class JSweetFileWatcher {
 	private class TranspilationThread extends Thread {
 
 		public TranspilationThread() {
-			setPriority(Thread.MAX_PRIORITY);
+			super("jsweet-transpilation");
+			setDaemon(true);
 		}
 
 		public void run() {
 
 			for (;;) {
 
-				if (__Lock.tryLock()) {
+				Set<File> files = new LinkedHashSet<>();
 
-					if (__RandomKeysTrigger.size() != 0) {
-						__RandomKeysTrigger.removeLast();
-						try {
-							transpilationTask.run();
-						} catch (Exception exception) {
-							logger.info(exception.getMessage());
-						}
+				try {
+
+					// blocks until a file changes
+					files.add(changedFiles.take());
+					long deadline = System.currentTimeMillis() + maxDelay;
+
+					// merges the events until nothing happens for the
+					// debounce delay, or until the maximum delay is reached
+					long remaining;
+					File file;
+					while ((remaining = deadline - System.currentTimeMillis()) > 0 && (file = changedFiles
+							.poll(Math.min(debounceDelay, remaining), TimeUnit.MILLISECONDS)) != null) {
+						files.add(file);
+						changedFiles.drainTo(files);
 					}
-					__Lock.unlock();
+
+				} catch (InterruptedException interruptedException) {
+					return;
+				}
+
+				logger.info(files.size() + " changed file(s)");
+
+				try {
+					transpilationTask.run(files);
+				} catch (Exception exception) {
+					logger.info(exception.getMessage());
 				}
-				yield();
 			}
 		}
 	}
@@ -19,7 +19,9 @@
 package org.jsweet;
 
 import java.io.File;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 
 /**
  * This interface generically defines an already-configured, ready-to-run
@@ -34,9 +36,30 @@ public interface TranspilationTask {
 	 */
 	void run() throws Exception;
 
+	/**
+	 * Runs the transpilation task after some files changed. By default, it
+	 * runs the entire task.
+	 * 
+	 * @param changedFiles
+	 *            the files (or directories) that were created, modified or
+	 *            deleted since the last run
+	 */
+	default void run(Set<File> changedFiles) throws Exception {
+		run();
+	}
+
 	/**
 	 * Gets the list of input directories this transpilation task works on.
 	 */
 	List<File> getInputDirList();
 
+	/**
+	 * Gets the other files and directories whose changes should trigger a run
+	 * of this transpilation task (for instance configuration files or
+	 * libraries). By default, there are none.
+	 */
+	default List<File> getWatchedFiles() {
+		return Collections.emptyList();
+	}
+
 }
@@ -0,0 +1,201 @@
+/*
+ * JSweet transpiler - http://www.jsweet.org
+ * Copyright (C) 2015 CINCHEO SAS <renaud.pawlak@cincheo.fr>
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package org.jsweet.transpiler;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+import com.sun.tools.javac.code.Symbol;
+import com.sun.tools.javac.code.Symbol.ClassSymbol;
+import com.sun.tools.javac.code.Symbol.PackageSymbol;
+import com.sun.tools.javac.code.Type;
+import com.sun.tools.javac.tree.JCTree;
+import com.sun.tools.javac.tree.JCTree.JCClassDecl;
+import com.sun.tools.javac.tree.JCTree.JCCompilationUnit;
+import com.sun.tools.javac.tree.TreeInfo;
+import com.sun.tools.javac.tree.TreeScanner;
+
+/**
+ * Holds the dependencies between the compilation units of a program, so that
+ * the transpiler can find out which units need to be translated again when some
+ * units change (incremental mode).
+ *
+ * <p>
+ * Compilation units are identified by their source file name. A unit depends
+ * on another one when it refers to a type declared in the other unit, or when
+ * one of its classes is a direct or indirect subtype of such a type.
+ * Dependencies are kept between transpilations, so that only the units that
+ * changed need to be scanned again.
+ *
+ * @see JSweetOptions#isIncremental()
+ * @author Renaud Pawlak
+ */
+public class CompilationUnitDependencies {
+
+	private Map<String, Set<String>> dependencies = new HashMap<>();
+
+	private static class DependencyScanner extends TreeScanner {
+		private final String unitName;
+		private final Set<String> dependencies = new HashSet<>();
+		private final Set<ClassSymbol> visitedSupertypes = new HashSet<>();
+
+		public DependencyScanner(JCCompilationUnit compilationUnit) {
+			this.unitName = compilationUnit.sourcefile.getName();
+		}
+
+		private void addDependency(Symbol symbol) {
+			if (symbol == null || symbol instanceof PackageSymbol) {
+				return;
+			}
+			// Symbol.outermostClass() fails on javac's synthetic symbols
+			// (array members, for instance)
+			ClassSymbol outermostClass = null;
+			for (Symbol owner = symbol; owner != null && !(owner instanceof PackageSymbol); owner = owner.owner) {
+				if (owner instanceof ClassSymbol) {
+					outermostClass = (ClassSymbol) owner;
+				}
+			}
+			if (outermostClass != null && outermostClass.sourcefile != null) {
+				String name = outermostClass.sourcefile.getName();
+				if (!unitName.equals(name)) {
+					dependencies.add(name);
+				}
+			}
+		}
+
+		private void addSupertypes(Type type) {
+			if (type == null || !(type.tsym instanceof ClassSymbol)) {
+				return;
+			}
+			ClassSymbol clazz = (ClassSymbol) type.tsym;
+			if (!visitedSupertypes.add(clazz)) {
+				return;
+			}
+			addDependency(clazz);
+			addSupertypes(clazz.getSuperclass());
+			for (Type interfaceType : clazz.getInterfaces()) {
+				addSupertypes(interfaceType);
+			}
+		}
+
+		@Override
+		public void scan(JCTree tree) {
+			if (tree == null) {
+				return;
+			}
+			if (tree.type != null) {
+				addDependency(tree.type.tsym);
+			}
+			addDependency(TreeInfo.symbol(tree));
+			super.scan(tree);
+		}
+
+		@Override
+		public void visitClassDef(JCClassDecl classdecl) {
+			if (classdecl.sym != null) {
+				addSupertypes(classdecl.sym.getSuperclass());
+				for (Type interfaceType : classdecl.sym.getInterfaces()) {
+					addSupertypes(interfaceType);
+				}
+			}
+			super.visitClassDef(classdecl);
+		}
+	}
+
+	/**
+	 * Scans the given (attributed) compilation unit and replaces its former
+	 * dependencies with the ones found.
+	 */
+	public void update(JCCompilationUnit compilationUnit) {
+		DependencyScanner scanner = new DependencyScanner(compilationUnit);
+		scanner.scan(compilationUnit);
+		dependencies.put(compilationUnit.sourcefile.getName(), scanner.dependencies);
+	}
+
+	/**
+	 * Tells if the dependencies of the given unit are known.
+	 */
+	public boolean contains(String unitName) {
+		return dependencies.containsKey(unitName);
+	}
+
+	/**
+	 * Removes all the units that are not in the given unit collection.
+	 *
+	 * @param unitNames
+	 *            the names of the units of the program being transpiled
+	 * @return the names of the remaining units that depended on a removed unit
+	 */
+	public Set<String> retainAll(Collection<String> unitNames) {
+		Set<String> removedUnits = new HashSet<>();
+		for (Iterator<String> it = dependencies.keySet().iterator(); it.hasNext();) {
+			String unitName = it.next();
+			if (!unitNames.contains(unitName)) {
+				removedUnits.add(unitName);
+				it.remove();
+			}
+		}
+		return getDependents(removedUnits);
+	}
+
+	/**
+	 * Gets the units that directly or transitively depend on any of the given
+	 * units (a unit may inherit members or inline constants through another
+	 * unit). The given units are not included unless they depend on each
+	 * other.
+	 */
+	public Set<String> getDependents(Collection<String> unitNames) {
+		Set<String> dependents = new HashSet<>();
+		Set<String> reached = new HashSet<>(unitNames);
+		Deque<String> pending = new ArrayDeque<>(unitNames);
+		while (!pending.isEmpty()) {
+			String unitName = pending.poll();
+			for (Map.Entry<String, Set<String>> entry : dependencies.entrySet()) {
+				if (entry.getValue().contains(unitName)) {
+					dependents.add(entry.getKey());
+					if (reached.add(entry.getKey())) {
+						pending.add(entry.getKey());
+					}
+				}
+			}
+		}
+		return dependents;
+	}
+
+	/**
+	 * Gets the units the given unit depends on (null if unknown).
+	 */
+	public Set<String> getDependencies(String unitName) {
+		return dependencies.get(unitName);
+	}
+
+	/**
+	 * Clears all the dependencies.
+	 */
+	public void clear() {
+		dependencies.clear();
+	}
+
+}
@@ -18,6 +18,7 @@
  */
 package org.jsweet.transpiler;
 
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -118,8 +119,8 @@ public class GlobalBeforeTranslationScanner extends AbstractTreeScanner {
 
 				if (!context.hasFieldNameMapping(var.sym)) {
 					VarSymbol clashingField = null;
-					clashingField = Util.findFieldDeclaration((ClassSymbol) classdecl.sym.getSuperclass().tsym,
-							var.name);
+					clashingField = context.getMemberResolutionCache()
+							.findFieldDeclaration((ClassSymbol) classdecl.sym.getSuperclass().tsym, var.name);
 					if (clashingField != null) {
 						if (clashingField.isPrivate() && !context.hasFieldNameMapping(clashingField)) {
 							context.addFieldNameMapping(var.sym, JSweetConfig.FIELD_METHOD_CLASH_RESOLVER_PREFIX
@@ -127,8 +128,8 @@ public class GlobalBeforeTranslationScanner extends AbstractTreeScanner {
 						}
 					}
 
-					MethodSymbol m = Util.findMethodDeclarationInType(context.types, classdecl.sym, var.name.toString(),
-							null);
+					MethodSymbol m = context.getMemberResolutionCache().findMethodDeclarationInType(classdecl.sym,
+							var.name.toString(), null);
 					if (m != null) {
 						context.addFieldNameMapping(var.sym,
 								JSweetConfig.FIELD_METHOD_CLASH_RESOLVER_PREFIX + var.name.toString());
@@ -185,12 +186,24 @@ public class GlobalBeforeTranslationScanner extends AbstractTreeScanner {
 		for (JCCompilationUnit compilationUnit : compilationUnits) {
 			scan(compilationUnit);
 		}
+		List<JCVariableDecl> candidates = new ArrayList<>();
 		for (JCVariableDecl var : lazyInitializedStaticCandidates) {
 			if (context.getStaticInitializerCount(var.sym.enclClass()) == 0 && var.init == null
 					|| var.init instanceof JCLiteral) {
 				continue;
 			}
-			context.lazyInitializedStatics.add(var.sym);
+			candidates.add(var);
+		}
+		// fields that do not depend on uninitialized statics are initialized
+		// eagerly, so that they are read without an accessor
+		StaticInitilializerAnalyzer staticInitializerAnalyzer = new StaticInitilializerAnalyzer(context);
+		staticInitializerAnalyzer.process(compilationUnits);
+		context.staticInitializerAnalyzer = staticInitializerAnalyzer;
+		Set<VarSymbol> eagerStatics = staticInitializerAnalyzer.findEagerlyInitializableStatics(candidates);
+		for (JCVariableDecl var : candidates) {
+			if (!eagerStatics.contains(var.sym)) {
+				context.lazyInitializedStatics.add(var.sym);
+			}
 		}
 	}
 
@@ -27,6 +27,7 @@ import java.lang.reflect.Array;
 import java.util.AbstractMap;
 import java.util.AbstractMap.SimpleEntry;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -36,9 +37,11 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiFunction;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 import javax.lang.model.element.AnnotationMirror;
 import javax.lang.model.element.AnnotationValue;
@@ -46,6 +49,7 @@ import javax.lang.model.element.Element;
 import javax.lang.model.element.ElementKind;
 import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.Modifier;
+import javax.lang.model.type.TypeKind;
 import javax.lang.model.type.TypeMirror;
 
 import org.apache.commons.lang3.ArrayUtils;
@@ -57,6 +61,8 @@ import org.jsweet.transpiler.extension.AnnotationManager;
 import org.jsweet.transpiler.extension.AnnotationManager.Action;
 import org.jsweet.transpiler.model.ExtendedElement;
 import org.jsweet.transpiler.util.DirectedGraph;
+import org.jsweet.transpiler.util.MemberResolutionCache;
+import org.jsweet.transpiler.util.TranspilationMetrics;
 import org.jsweet.transpiler.util.Util;
 
 import com.sun.tools.javac.code.Attribute;
@@ -83,6 +89,7 @@ import com.sun.tools.javac.tree.JCTree.JCNewClass;
 import com.sun.tools.javac.tree.JCTree.JCStatement;
 import com.sun.tools.javac.tree.JCTree.JCVariableDecl;
 import com.sun.tools.javac.tree.JCTree.JCWildcard;
+import com.sun.tools.javac.tree.TreeScanner;
 import com.sun.tools.javac.util.Context;
 import com.sun.tools.javac.util.Names;
 
@@ -115,6 +122,72 @@ public class JSweetContext extends Context {
 		}
 	}
 
+	/**
+	 * The filters of an annotation type, which are matched all at once with a
+	 * combined pattern: one alternative per descriptor, in declaration order,
+	 * each guarded by a negative look-ahead on the descriptor's exclusion
+	 * patterns.
+	 */
+	private static class AnnotationFilter {
+		private final List<AnnotationFilterDescriptor> descriptors = new ArrayList<>();
+		private Pattern pattern;
+
+		public synchronized void add(AnnotationFilterDescriptor descriptor) {
+			descriptors.add(descriptor);
+			pattern = null;
+		}
+
+		private static String union(Collection<Pattern> patterns) {
+			StringBuilder sb = new StringBuilder();
+			for (Pattern p : patterns) {
+				sb.append(sb.length() == 0 ? "" : "|").append("(?:").append(p.pattern()).append(")");
+			}
+			return sb.toString();
+		}
+
+		private synchronized Pattern getPattern() {
+			if (pattern == null) {
+				StringBuilder sb = new StringBuilder();
+				for (int i = 0; i < descriptors.size(); i++) {
+					AnnotationFilterDescriptor descriptor = descriptors.get(i);
+					if (descriptor.inclusionPatterns == null || descriptor.inclusionPatterns.isEmpty()) {
+						continue;
+					}
+					sb.append(sb.length() == 0 ? "" : "|").append("(?<d").append(i).append(">");
+					if (descriptor.exclusionPatterns != null && !descriptor.exclusionPatterns.isEmpty()) {
+						sb.append("(?!(?:").append(union(descriptor.exclusionPatterns)).append(")\\z)");
+					}
+					sb.append("(?:").append(union(descriptor.inclusionPatterns)).append("))");
+				}
+				pattern = Pattern.compile(sb.toString());
+			}
+			return pattern;
+		}
+
+		/**
+		 * Returns the first descriptor that includes and does not exclude the
+		 * given signature, or null if none.
+		 */
+		public AnnotationFilterDescriptor match(String signature) {
+			Matcher matcher = getPattern().matcher(signature);
+			if (matcher.matches()) {
+				for (int i = 0; i < descriptors.size(); i++) {
+					AnnotationFilterDescriptor descriptor = descriptors.get(i);
+					if (descriptor.inclusionPatterns != null && !descriptor.inclusionPatterns.isEmpty()
+							&& matcher.group("d" + i) != null) {
+						return descriptor;
+					}
+				}
+			}
+			return null;
+		}
+
+		@Override
+		public String toString() {
+			return descriptors.toString();
+		}
+	}
+
 	private Map<String, TypeMirror> jdkSubclasses = new HashMap<>();
 
 	/**
@@ -262,6 +335,7 @@ public class JSweetContext extends Context {
 	 */
 	public final void addAnnotationManager(AnnotationManager annotationManager) {
 		annotationManagers.add(annotationManager);
+		clearAnnotationCaches();
 	}
 
 	/**
@@ -272,6 +346,7 @@ public class JSweetContext extends Context {
 	 */
 	public final void removeAnnotationManager(AnnotationManager annotationManager) {
 		annotationManagers.remove(annotationManager);
+		clearAnnotationCaches();
 	}
 
 	private static boolean testStringAt(StringBuilder sb, int i, String string) {
@@ -329,15 +404,37 @@ public class JSweetContext extends Context {
 	}
 
 	private Pattern annotationWithParameterPattern = Pattern.compile("@([^(]*)\\((.*)\\)");
-	private Map<String, Collection<AnnotationFilterDescriptor>> annotationFilters = new HashMap<>();
+	private Map<String, AnnotationFilter> annotationFilters = new HashMap<>();
 
-	private Collection<AnnotationFilterDescriptor> getAnnotationFilterDescriptors(String annotationType) {
-		Collection<AnnotationFilterDescriptor> descrs = annotationFilters.get(annotationType);
-		if (descrs == null) {
-			descrs = new ArrayList<>();
-			annotationFilters.put(annotationType, descrs);
+	private AnnotationFilter getAnnotationFilter(String annotationType) {
+		AnnotationFilter filter = annotationFilters.get(annotationType);
+		if (filter == null) {
+			filter = new AnnotationFilter();
+			annotationFilters.put(annotationType, filter);
 		}
-		return descrs;
+		return filter;
+	}
+
+	private static final Object NULL_ANNOTATION_VALUE = new Object();
+
+	/**
+	 * Resolved annotations, per symbol (annotation types -&gt; presence).
+	 */
+	private Map<Symbol, Map<Object, Boolean>> annotationTypeCache = new ConcurrentHashMap<>();
+
+	/**
+	 * Resolved annotation values, per symbol (annotation type, property name,
+	 * property class and default value -&gt; value).
+	 */
+	private Map<Symbol, Map<List<Object>, Object>> annotationValueCache = new ConcurrentHashMap<>();
+
+	/**
+	 * Clears the resolved annotations, which must be done when annotation
+	 * managers or filters change.
+	 */
+	private void clearAnnotationCaches() {
+		annotationTypeCache.clear();
+		annotationValueCache.clear();
 	}
 
 	private boolean hasAnnotationFilters() {
@@ -357,7 +454,7 @@ public class JSweetContext extends Context {
 				addConfigurationEntry(entry);
 			}
 		}
-		for (Entry<String, Collection<AnnotationFilterDescriptor>> e : annotationFilters.entrySet()) {
+		for (Entry<String, AnnotationFilter> e : annotationFilters.entrySet()) {
 			logger.info("annotation filter descriptor: " + e);
 		}
 	}
@@ -492,7 +589,7 @@ public class JSweetContext extends Context {
 				}
 			}
 			Object include = entry.getValue().get("include");
-			Collection<AnnotationFilterDescriptor> filterDescriptors = getAnnotationFilterDescriptors(annotationType);
+			AnnotationFilter filter = getAnnotationFilter(annotationType);
 			Collection<Pattern> inclusionPatterns = null;
 			Collection<Pattern> exclusionPatterns = null;
 			if (include != null) {
@@ -534,7 +631,8 @@ public class JSweetContext extends Context {
 					}
 				}
 			}
-			filterDescriptors.add(new AnnotationFilterDescriptor(inclusionPatterns, exclusionPatterns, parameter));
+			filter.add(new AnnotationFilterDescriptor(inclusionPatterns, exclusionPatterns, parameter));
+			clearAnnotationCaches();
 
 		} else {
 			switch (untypedEntry.getKey()) {
@@ -668,6 +766,16 @@ public class JSweetContext extends Context {
 
 	public javax.lang.model.util.Types modelTypes;
 
+	private final MemberResolutionCache memberResolutionCache = new MemberResolutionCache(this);
+
+	/**
+	 * Gets the member lookup cache of this context, which should be preferred
+	 * to the {@link Util} lookup functions it memoizes.
+	 */
+	public MemberResolutionCache getMemberResolutionCache() {
+		return memberResolutionCache;
+	}
+
 	/**
 	 * A flag to tell if the transpiler is in module mode or not.
 	 */
@@ -690,6 +798,152 @@ public class JSweetContext extends Context {
 	 */
 	public JCCompilationUnit[] compilationUnits;
 
+	/**
+	 * The metrics of the current transpilation.
+	 */
+	public TranspilationMetrics metrics = new TranspilationMetrics();
+
+	private volatile Map<Symbol, JCTree> declarationTrees;
+
+	private volatile Map<String, JCCompilationUnit> compilationUnitsBySourcePath;
+
+	private volatile Map<JCCompilationUnit, List<JCClassDecl>> classDeclarations;
+
+	private volatile Map<JCClassDecl, JCClassDecl> enclosingClassDeclarations;
+
+	/**
+	 * The declarations found in a compilation unit by a single AST scan.
+	 */
+	private static class CompilationUnitDeclarations extends TreeScanner {
+		final JCCompilationUnit compilationUnit;
+		final Map<Symbol, JCTree> declarationTrees = new HashMap<>();
+		final List<JCClassDecl> classDeclarations = new ArrayList<>();
+		final Map<JCClassDecl, JCClassDecl> enclosingClassDeclarations = new HashMap<>();
+		private JCClassDecl currentClassDeclaration;
+
+		CompilationUnitDeclarations(JCCompilationUnit compilationUnit) {
+			this.compilationUnit = compilationUnit;
+			scan(compilationUnit);
+		}
+
+		@Override
+		public void visitClassDef(JCClassDecl tree) {
+			if (tree.sym != null) {
+				declarationTrees.put(tree.sym, tree);
+			}
+			classDeclarations.add(tree);
+			if (currentClassDeclaration != null) {
+				enclosingClassDeclarations.put(tree, currentClassDeclaration);
+			}
+			JCClassDecl enclosingClassDeclaration = currentClassDeclaration;
+			currentClassDeclaration = tree;
+			super.visitClassDef(tree);
+			currentClassDeclaration = enclosingClassDeclaration;
+		}
+
+		@Override
+		public void visitMethodDef(JCMethodDecl tree) {
+			if (tree.sym != null) {
+				declarationTrees.put(tree.sym, tree);
+			}
+			super.visitMethodDef(tree);
+		}
+
+		@Override
+		public void visitVarDef(JCVariableDecl tree) {
+			if (tree.sym != null) {
+				declarationTrees.put(tree.sym, tree);
+			}
+			super.visitVarDef(tree);
+		}
+	}
+
+	/**
+	 * Indexes the declarations (classes, methods and variables) of the given
+	 * compilation units, so that {@link #getDeclarationTree(Symbol)},
+	 * {@link #getCompilationUnit(String)} and
+	 * {@link #getClassDeclarations(JCCompilationUnit)} do not scan the ASTs.
+	 * The transpiler calls it once the compilation units are attributed.
+	 * 
+	 * <p>
+	 * This is the only full AST scan of the analysis phase: the units are
+	 * scanned in parallel (the attributed trees are only read) and the
+	 * per-unit results are merged in the order of the units.
+	 */
+	public void indexDeclarations(JCCompilationUnit[] compilationUnits) {
+		Map<Symbol, JCTree> declarationTrees = new HashMap<>();
+		Map<String, JCCompilationUnit> compilationUnitsBySourcePath = new HashMap<>();
+		Map<JCCompilationUnit, List<JCClassDecl>> classDeclarations = new HashMap<>();
+		Map<JCClassDecl, JCClassDecl> enclosingClassDeclarations = new HashMap<>();
+		if (compilationUnits != null) {
+			List<CompilationUnitDeclarations> unitDeclarations = Arrays.stream(compilationUnits).parallel()
+					.map(CompilationUnitDeclarations::new).collect(Collectors.toList());
+			for (CompilationUnitDeclarations declarations : unitDeclarations) {
+				compilationUnitsBySourcePath.put(declarations.compilationUnit.sourcefile.getName(),
+						declarations.compilationUnit);
+				declarationTrees.putAll(declarations.declarationTrees);
+				classDeclarations.put(declarations.compilationUnit, declarations.classDeclarations);
+				enclosingClassDeclarations.putAll(declarations.enclosingClassDeclarations);
+			}
+		}
+		this.declarationTrees = declarationTrees;
+		this.compilationUnitsBySourcePath = compilationUnitsBySourcePath;
+		this.classDeclarations = classDeclarations;
+		this.enclosingClassDeclarations = enclosingClassDeclarations;
+	}
+
+	/**
+	 * Gets all the class declarations of the given compilation unit
+	 * (including the inner, local and anonymous classes), in the order of a
+	 * tree scan.
+	 */
+	public List<JCClassDecl> getClassDeclarations(JCCompilationUnit compilationUnit) {
+		if (classDeclarations == null) {
+			indexDeclarations(compilationUnits);
+		}
+		List<JCClassDecl> result = classDeclarations.get(compilationUnit);
+		if (result == null) {
+			// unit that was not transpiled
+			CompilationUnitDeclarations declarations = new CompilationUnitDeclarations(compilationUnit);
+			classDeclarations.put(compilationUnit, declarations.classDeclarations);
+			enclosingClassDeclarations.putAll(declarations.enclosingClassDeclarations);
+			result = declarations.classDeclarations;
+		}
+		return result;
+	}
+
+	/**
+	 * Gets the class declaration that lexically encloses the given class
+	 * declaration, or null for a top-level class.
+	 * 
+	 * @see #getClassDeclarations(JCCompilationUnit)
+	 */
+	public JCClassDecl getEnclosingClassDeclaration(JCClassDecl classDeclaration) {
+		return enclosingClassDeclarations == null ? null : enclosingClassDeclarations.get(classDeclaration);
+	}
+
+	/**
+	 * Gets the tree that declares the given symbol, or null if the symbol is
+	 * not declared in the compilation units being transpiled.
+	 */
+	public JCTree getDeclarationTree(Symbol symbol) {
+		if (declarationTrees == null) {
+			indexDeclarations(compilationUnits);
+		}
+		return declarationTrees.get(symbol);
+	}
+
+	/**
+	 * Gets the compilation unit being transpiled for the given source file
+	 * path (as returned by the javac file objects).
+	 */
+	public JCCompilationUnit getCompilationUnit(String sourceFilePath) {
+		if (compilationUnitsBySourcePath == null) {
+			indexDeclarations(compilationUnits);
+		}
+		return compilationUnitsBySourcePath.get(sourceFilePath);
+	}
+
 	private List<String> usedModules = new ArrayList<>();
 
 	/**
@@ -703,6 +957,12 @@ public class JSweetContext extends Context {
 	 */
 	public Set<VarSymbol> lazyInitializedStatics = new HashSet<>();
 
+	/**
+	 * The static initializer dependency analysis of the transpiled compilation
+	 * units (built by the {@link GlobalBeforeTranslationScanner}).
+	 */
+	public StaticInitilializerAnalyzer staticInitializerAnalyzer;
+
 	private Map<ClassSymbol, Integer> staticInitializerCounts = new HashMap<>();
 
 	/**
@@ -1162,6 +1422,43 @@ public class JSweetContext extends Context {
 				&& libPackagePattern.matcher(symbol.getQualifiedName().toString()).matches());
 	}
 
+	/**
+	 * Gets the name of the JavaScript typed array class that implements the
+	 * given array type, when typed arrays are enabled (see
+	 * {@link JSweetOptions#isTypedArrays()}).
+	 * 
+	 * @return the typed array class name (as declared in <code>def.js</code>),
+	 *         or null if the given type is not implemented with a typed array
+	 */
+	public String getTypedArrayName(TypeMirror type) {
+		if (!options.isTypedArrays() || type == null || type.getKind() != TypeKind.ARRAY) {
+			return null;
+		}
+		switch (((javax.lang.model.type.ArrayType) type).getComponentType().getKind()) {
+		case INT:
+			return "Int32Array";
+		case SHORT:
+			return "Int16Array";
+		case BYTE:
+			return "Int8Array";
+		case FLOAT:
+			return "Float32Array";
+		case DOUBLE:
+			return "Float64Array";
+		default:
+			return null;
+		}
+	}
+
+	/**
+	 * Tells if the given type is a char (or a <code>Character</code>) that is
+	 * represented as a number (see {@link JSweetOptions#isNumericChars()}).
+	 */
+	public boolean isNumericChar(TypeMirror type) {
+		return options.isNumericChars() && type != null
+				&& (type.getKind() == TypeKind.CHAR || Character.class.getName().equals(type.toString()));
+	}
+
 	/**
 	 * Tells if the given type is a Java interface.
 	 */
@@ -1174,6 +1471,21 @@ public class JSweetContext extends Context {
 	 * types.
 	 */
 	public boolean hasAnnotationType(Symbol symbol, String... annotationTypes) {
+		Map<Object, Boolean> resolvedAnnotationTypes = annotationTypeCache.get(symbol);
+		if (resolvedAnnotationTypes == null) {
+			resolvedAnnotationTypes = new ConcurrentHashMap<>();
+			annotationTypeCache.put(symbol, resolvedAnnotationTypes);
+		}
+		Object key = annotationTypes.length == 1 ? annotationTypes[0] : Arrays.asList(annotationTypes);
+		Boolean result = resolvedAnnotationTypes.get(key);
+		if (result == null) {
+			result = resolveAnnotationType(symbol, annotationTypes);
+			resolvedAnnotationTypes.put(key, result);
+		}
+		return result;
+	}
+
+	private boolean resolveAnnotationType(Symbol symbol, String... annotationTypes) {
 		String[] types = annotationTypes;
 		for (AnnotationManager annotationIntrospector : annotationManagers) {
 			for (String annotationType : types) {
@@ -1192,30 +1504,9 @@ public class JSweetContext extends Context {
 				signature = symbol.getEnclosingElement().getQualifiedName().toString() + "." + signature;
 			}
 			for (String annotationType : annotationTypes) {
-				Collection<AnnotationFilterDescriptor> filterDescriptors = annotationFilters.get(annotationType);
-				if (filterDescriptors != null) {
-					for (AnnotationFilterDescriptor filterDescriptor : filterDescriptors) {
-						if (filterDescriptor.inclusionPatterns == null) {
-							logger.error("no inclusion patterns found for annotation filter: " + annotationType);
-						}
-						for (Pattern include : filterDescriptor.inclusionPatterns) {
-							if (include.matcher(signature).matches()) {
-								boolean excluded = false;
-								Collection<Pattern> excludePatterns = filterDescriptor.exclusionPatterns;
-								if (excludePatterns != null) {
-									for (Pattern exclude : excludePatterns) {
-										if (exclude.matcher(signature).matches()) {
-											excluded = true;
-											break;
-										}
-									}
-								}
-								if (!excluded) {
-									return true;
-								}
-							}
-						}
-					}
+				AnnotationFilter filter = annotationFilters.get(annotationType);
+				if (filter != null && filter.match(signature) != null) {
+					return true;
 				}
 			}
 		}
@@ -1387,8 +1678,30 @@ public class JSweetContext extends Context {
 	 * Gets the first value of the given property for the given annotation type
 	 * if found on the given symbol.
 	 */
+	@SuppressWarnings("unchecked")
 	public <T> T getAnnotationValue(Symbol symbol, String annotationType, String propertyName, Class<T> propertyClass,
 			T defaultValue) {
+		if (propertyClass.isArray()) {
+			// arrays are mutable and shall not be shared
+			return resolveAnnotationValue(symbol, annotationType, propertyName, propertyClass, defaultValue);
+		}
+		Map<List<Object>, Object> resolvedValues = annotationValueCache.get(symbol);
+		if (resolvedValues == null) {
+			resolvedValues = new ConcurrentHashMap<>();
+			annotationValueCache.put(symbol, resolvedValues);
+		}
+		List<Object> key = Arrays.asList(annotationType, propertyName, propertyClass, defaultValue);
+		Object value = resolvedValues.get(key);
+		if (value == null) {
+			value = resolveAnnotationValue(symbol, annotationType, propertyName, propertyClass, defaultValue);
+			resolvedValues.put(key, value == null ? NULL_ANNOTATION_VALUE : value);
+		}
+		return value == NULL_ANNOTATION_VALUE ? null : (T) value;
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T> T resolveAnnotationValue(Symbol symbol, String annotationType, String propertyName,
+			Class<T> propertyClass, T defaultValue) {
 		for (AnnotationManager annotationIntrospector : annotationManagers) {
 			T value = annotationIntrospector.getAnnotationValue(symbol, annotationType, propertyName, propertyClass,
 					defaultValue);
@@ -1397,39 +1710,22 @@ public class JSweetContext extends Context {
 			}
 		}
 		if (hasAnnotationFilters()) {
-			String signature = symbol.toString();
-			if (symbol.getEnclosingElement() != null) {
-				signature = symbol.getEnclosingElement().getQualifiedName().toString() + "." + signature;
-			}
-			Collection<AnnotationFilterDescriptor> filterDescriptors = annotationFilters.get(annotationType);
-			if (filterDescriptors != null) {
-				for (AnnotationFilterDescriptor filterDescriptor : filterDescriptors) {
-					for (Pattern include : filterDescriptor.inclusionPatterns) {
-						if (include.matcher(signature).matches()) {
-							boolean excluded = false;
-							Collection<Pattern> excludePatterns = filterDescriptor.exclusionPatterns;
-							if (excludePatterns != null) {
-								for (Pattern exclude : excludePatterns) {
-									if (exclude.matcher(signature).matches()) {
-										excluded = true;
-										break;
-									}
-								}
-							}
-							if (!excluded) {
-								if (filterDescriptor.parameter == null) {
-									return defaultValue;
-								} else if (filterDescriptor.parameter.startsWith("'")) {
-									return (T) filterDescriptor.parameter.substring(1,
-											filterDescriptor.parameter.length() - 1);
-								} else if (filterDescriptor.parameter.endsWith(".class")) {
-									return (T) filterDescriptor.parameter.substring(0,
-											filterDescriptor.parameter.length() - 6);
-								} else {
-									return (T) filterDescriptor.parameter;
-								}
-							}
-						}
+			AnnotationFilter filter = annotationFilters.get(annotationType);
+			if (filter != null) {
+				String signature = symbol.toString();
+				if (symbol.getEnclosingElement() != null) {
+					signature = symbol.getEnclosingElement().getQualifiedName().toString() + "." + signature;
+				}
+				AnnotationFilterDescriptor filterDescriptor = filter.match(signature);
+				if (filterDescriptor != null) {
+					if (filterDescriptor.parameter == null) {
+						return defaultValue;
+					} else if (filterDescriptor.parameter.startsWith("'")) {
+						return (T) filterDescriptor.parameter.substring(1, filterDescriptor.parameter.length() - 1);
+					} else if (filterDescriptor.parameter.endsWith(".class")) {
+						return (T) filterDescriptor.parameter.substring(0, filterDescriptor.parameter.length() - 6);
+					} else {
+						return (T) filterDescriptor.parameter;
 					}
 				}
 			}
@@ -103,13 +103,44 @@ public interface JSweetOptions {
 	 * Constant string for the 'extraSystemPath' option.
 	 */
 	String extraSystemPath = "extraSystemPath";
+	/**
+	 * Constant string for the 'incremental' option.
+	 */
+	String incremental = "incremental";
+	/**
+	 * Constant string for the 'tscService' option.
+	 */
+	String tscService = "tscService";
+	/**
+	 * Constant string for the 'staticOverloadDispatch' option.
+	 */
+	String staticOverloadDispatch = "staticOverloadDispatch";
+	/**
+	 * Constant string for the 'interfaceTables' option.
+	 */
+	String interfaceTables = "interfaceTables";
+	/**
+	 * Constant string for the 'typedArrays' option.
+	 */
+	String typedArrays = "typedArrays";
+	/**
+	 * Constant string for the 'numericChars' option.
+	 */
+	String numericChars = "numericChars";
+
+	/**
+	 * Constant string for the 'ringBufferDeques' option.
+	 */
+	String ringBufferDeques = "ringBufferDeques";
 
 	/**
 	 * All the supported options.
 	 */
 	String[] options = { bundle, noRootDirectories, sourceMap, module, encoding, enableAssertions, declaration, tsOnly,
 			ignoreDefinitions, header, disableSinglePrecisionFloats, targetVersion, tsout, dtsout, jsout, candiesJsOut,
-			moduleResolution, extraSystemPath };
+			moduleResolution, extraSystemPath, incremental, tscService,
+			staticOverloadDispatch, interfaceTables, typedArrays, numericChars,
+			ringBufferDeques };
 
 	/**
 	 * Returns the configuration from the configuration file.
@@ -292,5 +323,77 @@ public interface JSweetOptions {
 	 * <code>jsweetconfig.json</code> file in the current project.
 	 */
 	File getConfigurationFile();
-	
-}
\ No newline at end of file
+
+	/**
+	 * If true, the transpiler only translates the compilation units that
+	 * changed since the last transpilation, along with the units that depend on
+	 * them, and only writes the corresponding TypeScript files. This mode is
+	 * useful when the transpiler is invoked several times on the same source
+	 * files (for instance in watch mode). It does not apply to bundles.
+	 */
+	boolean isIncremental();
+
+	/**
+	 * If true, the TypeScript files are compiled by a long-lived
+	 * <code>node</code> process that uses the TypeScript language service,
+	 * instead of launching a <code>tsc</code> process for each transpilation.
+	 * The parsed files are kept in memory between transpilations. Ignored in
+	 * tsc watch mode.
+	 */
+	boolean isTscService();
+
+	/**
+	 * If true, the invocations of overloaded methods that cannot be
+	 * implemented with a single TypeScript method always call the overload
+	 * selected by javac (under its signature-mangled name), including
+	 * invocations without arguments and invocations outside of method bodies.
+	 * The dispatching method, which tests the arguments at runtime, is then
+	 * only used by reflective and external callers.
+	 */
+	boolean isStaticOverloadDispatch();
+
+	/**
+	 * If true, the generated classes (and object literals) are marked on
+	 * their prototype with one property per implemented interface, so that
+	 * <code>instanceof</code> on an interface is a single property check
+	 * instead of searches in the <code>__interfaces</code> arrays (which are
+	 * still generated for reflection). All the implementations checked
+	 * against an interface must then be generated with this option.
+	 */
+	boolean isInterfaceTables();
+
+	/**
+	 * If true, the <code>int[]</code>, <code>short[]</code>,
+	 * <code>byte[]</code>, <code>float[]</code> and <code>double[]</code>
+	 * arrays are implemented with the corresponding JavaScript typed arrays
+	 * (<code>Int32Array</code>, <code>Int16Array</code>,
+	 * <code>Int8Array</code>, <code>Float32Array</code> and
+	 * <code>Float64Array</code>) instead of untyped JavaScript arrays. Varargs
+	 * parameters remain untyped arrays.
+	 */
+	boolean isTypedArrays();
+
+	/**
+	 * If true, Java <code>char</code> values (and <code>Character</code>
+	 * objects) are represented as UTF-16 code unit numbers instead of
+	 * one-character strings, so that char arithmetic and comparisons need no
+	 * conversion. Chars are converted to strings only where a string is
+	 * expected (concatenations, <code>String.valueOf</code>,
+	 * <code>Character.toString</code>, string builders, ...). In this mode,
+	 * runtime overload dispatch cannot tell <code>char</code> and numeric
+	 * parameters apart.
+	 */
+	boolean isNumericChars();
+
+	/**
+	 * If true, the JDK deques and queues (<code>ArrayDeque</code> and
+	 * <code>LinkedList</code> instances assigned to a <code>Queue</code>,
+	 * <code>Deque</code> or <code>ArrayDeque</code> variable) are emulated
+	 * with a circular buffer, so that the operations at both ends take
+	 * constant amortized time instead of shifting arrays. Linked lists
+	 * assigned to <code>List</code> or <code>LinkedList</code> variables
+	 * remain arrays. The buffers are not arrays, so such deques should not be
+	 * cast to the <code>List</code> or <code>Collection</code> interfaces.
+	 */
+	boolean isRingBufferDeques();
+}
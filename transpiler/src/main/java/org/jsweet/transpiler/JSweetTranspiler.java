@@ -23,25 +23,27 @@ import static java.util.stream.Collectors.toList;
 import static org.jsweet.transpiler.util.Util.toJavaFileObjects;
 
 import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.io.UncheckedIOException;
 import java.lang.reflect.Field;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -64,10 +66,14 @@ import org.jsweet.transpiler.util.DirectedGraph;
 import org.jsweet.transpiler.util.DirectedGraph.Node;
 import org.jsweet.transpiler.util.ErrorCountTranspilationHandler;
 import org.jsweet.transpiler.util.EvaluationResult;
+import org.jsweet.transpiler.util.OutputManifest;
 import org.jsweet.transpiler.util.Position;
 import org.jsweet.transpiler.util.ProcessUtil;
 import org.jsweet.transpiler.util.SourceMap;
 import org.jsweet.transpiler.util.SourceMap.Entry;
+import org.jsweet.transpiler.util.TranspilationMetrics;
+import org.jsweet.transpiler.util.TranspilationMetrics.Phase;
+import org.jsweet.transpiler.util.TscService;
 import org.jsweet.transpiler.util.Util;
 
 import com.google.debugging.sourcemap.FilePosition;
@@ -82,6 +88,7 @@ import com.google.gson.Gson;
 import com.sun.tools.javac.code.Symbol;
 import com.sun.tools.javac.code.Symbol.MethodSymbol;
 import com.sun.tools.javac.code.Symbol.PackageSymbol;
+import com.sun.tools.javac.code.Symbol.VarSymbol;
 import com.sun.tools.javac.file.JavacFileManager;
 import com.sun.tools.javac.main.JavaCompiler;
 import com.sun.tools.javac.main.Option;
@@ -113,7 +120,10 @@ import com.sun.tools.javac.util.Options;
  * {@link Java2TypeScriptTranslator} AST visitor to print out the TypeScript
  * code. Before printing out the code, the transpiler first applies AST
  * visitors: {@link GlobalBeforeTranslationScanner},
- * {@link StaticInitilializerAnalyzer}, and {@link TypeChecker}. All external
+ * {@link StaticInitilializerAnalyzer}, and {@link TypeChecker}. The
+ * declarations of all the compilation units are first indexed in a single
+ * parallel scan (see {@link JSweetContext#indexDeclarations(JCCompilationUnit[])}),
+ * which the analysis passes reuse instead of scanning the ASTs again. All external
  * referenced classes must be in the classpath for this phase to succeed. Note
  * that this generation is fully customizable with the
  * {@link org.jsweet.transpiler.extension} API.
@@ -223,6 +233,16 @@ public class JSweetTranspiler implements JSweetOptions {
 	private boolean disableSingleFloatPrecision = false;
 	private ArrayList<String> adapters = new ArrayList<>();
 	private File configurationFile;
+	private boolean incremental = false;
+	private boolean tscService = false;
+	private TscService tscServiceInstance;
+	private boolean staticOverloadDispatch = false;
+	private boolean interfaceTables = false;
+	private boolean typedArrays = false;
+	private boolean numericChars = false;
+	private boolean ringBufferDeques = false;
+	private CompilationUnitDependencies compilationUnitDependencies = new CompilationUnitDependencies();
+	private Map<String, Set<String>> lazyInitializedStaticsByUnit = new HashMap<>();
 
 	/**
 	 * Manually sets the transpiler to use (or not use) a Java runtime.
@@ -363,6 +383,27 @@ public class JSweetTranspiler implements JSweetOptions {
 			if (options.containsKey(JSweetOptions.extraSystemPath)) {
 				ProcessUtil.addExtraPath(extraSystemPath);
 			}
+			if (options.containsKey(JSweetOptions.incremental)) {
+				setIncremental(getMapValue(options, JSweetOptions.incremental));
+			}
+			if (options.containsKey(JSweetOptions.tscService)) {
+				setTscService(getMapValue(options, JSweetOptions.tscService));
+			}
+			if (options.containsKey(JSweetOptions.staticOverloadDispatch)) {
+				setStaticOverloadDispatch(getMapValue(options, JSweetOptions.staticOverloadDispatch));
+			}
+			if (options.containsKey(JSweetOptions.interfaceTables)) {
+				setInterfaceTables(getMapValue(options, JSweetOptions.interfaceTables));
+			}
+			if (options.containsKey(JSweetOptions.typedArrays)) {
+				setTypedArrays(getMapValue(options, JSweetOptions.typedArrays));
+			}
+			if (options.containsKey(JSweetOptions.numericChars)) {
+				setNumericChars(getMapValue(options, JSweetOptions.numericChars));
+			}
+			if (options.containsKey(JSweetOptions.ringBufferDeques)) {
+				setRingBufferDeques(getMapValue(options, JSweetOptions.ringBufferDeques));
+			}
 		}
 
 	}
@@ -589,6 +630,7 @@ public class JSweetTranspiler implements JSweetOptions {
 
 	private void initJavac(final TranspilationHandler transpilationHandler) {
 		context = factory.createContext(this);
+		context.metrics = metrics;
 		context.setUsingJavaRuntime(forceJavaRuntime ? isUsingJavaRuntime
 				: (candiesProcessor == null ? false : candiesProcessor.isUsingJavaRuntime()));
 		adapter = factory.createAdapter(context);
@@ -909,19 +951,26 @@ public class JSweetTranspiler implements JSweetOptions {
 
 		logger.info("parsing: " + fileObjects);
 		transpilationHandler.setDisabled(isIgnoreJavaErrors());
+		startPhase(transpilationHandler, Phase.PARSING);
 		List<JCCompilationUnit> compilationUnits = compiler.enterTrees(compiler.parseFiles(fileObjects));
+		endPhase(transpilationHandler, Phase.PARSING);
 		context.compilationUnits = compilationUnits.toArray(new JCCompilationUnit[compilationUnits.size()]);
 		if (transpilationHandler.getErrorCount() > 0) {
 			logger.warn("errors during parse tree");
 			return null;
 		}
 		logger.info("attribution phase");
+		startPhase(transpilationHandler, Phase.ATTRIBUTION);
 		compiler.attribute(compiler.todo);
+		endPhase(transpilationHandler, Phase.ATTRIBUTION);
 		transpilationHandler.setDisabled(false);
 
 		if (transpilationHandler.getErrorCount() > 0) {
 			return null;
 		}
+		startPhase(transpilationHandler, Phase.ANALYSIS);
+		context.indexDeclarations(context.compilationUnits);
+		endPhase(transpilationHandler, Phase.ANALYSIS);
 		if (!generateTsFiles) {
 			return null;
 		}
@@ -938,6 +987,29 @@ public class JSweetTranspiler implements JSweetOptions {
 
 	private String ts2js(ErrorCountTranspilationHandler handler, String tsCode, String targetFileName)
 			throws IOException {
+		if (tscService) {
+			// the snippet and its output are kept in memory
+			File tsFile = new File(tsOutputDir, targetFileName + ".ts").getAbsoluteFile();
+			File jsFile = new File(jsOutputDir == null ? tsOutputDir : jsOutputDir, targetFileName + ".js")
+					.getAbsoluteFile();
+			TscService.Result result = runTscService(Collections.singletonMap(tsFile.getPath(), tsCode), true,
+					"--target", ecmaTargetVersion.name(), "--outFile", jsFile.getPath(), tsFile.getPath());
+			if (result != null) {
+				for (String line : result.getDiagnostics()) {
+					logger.info(line);
+					TscOutput output = parseTscOutput(line);
+					if (output.position != null && !isIgnoreTypeScriptErrors()) {
+						handler.report(JSweetProblem.INTERNAL_TSC_ERROR, output.position, output.message);
+					}
+				}
+				for (Map.Entry<String, String> output : result.getOutputs().entrySet()) {
+					if (output.getKey().endsWith(".js")) {
+						return output.getValue();
+					}
+				}
+				return null;
+			}
+		}
 		SourceFile sf = new SourceFile(null);
 		sf.setTsFile(File.createTempFile(targetFileName, ".ts", tsOutputDir));
 		sf.setJsFile(File.createTempFile(targetFileName, ".js", jsOutputDir));
@@ -971,6 +1043,8 @@ public class JSweetTranspiler implements JSweetOptions {
 	synchronized public void transpile(TranspilationHandler transpilationHandler, SourceFile... files)
 			throws IOException {
 		transpilationStartTimestamp = System.currentTimeMillis();
+		getOutputManifest().clearChangedFiles();
+		metrics = new TranspilationMetrics();
 
 		try {
 			initNode(transpilationHandler);
@@ -978,7 +1052,9 @@ public class JSweetTranspiler implements JSweetOptions {
 			logger.error(e.getMessage(), e);
 			return;
 		}
+		startPhase(transpilationHandler, Phase.CANDIES);
 		candiesProcessor.processCandies(transpilationHandler);
+		endPhase(transpilationHandler, Phase.CANDIES);
 
 		addTsDefDir(candiesProcessor.getCandiesTsdefsDir());
 
@@ -993,12 +1069,27 @@ public class JSweetTranspiler implements JSweetOptions {
 			ts2js(errorHandler, tsSources.toArray(new SourceFile[0]));
 		}
 
+		getOutputManifest().save();
 		if (!generateJsFiles || !generateTsFiles) {
-			transpilationHandler.onCompleted(this, !isTscWatchMode(), files);
+			transpilationHandler.onCompleted(this, !isTscWatchMode(), files, getOutputManifest().getChangedFiles());
 		}
 
 		logger.info("transpilation process finished in " + (System.currentTimeMillis() - transpilationStartTimestamp)
 				+ " ms");
+		logger.debug("transpilation metrics: " + metrics);
+		transpilationHandler.onMetrics(this, metrics);
+	}
+
+	private void startPhase(TranspilationHandler transpilationHandler, Phase phase) {
+		metrics.startPhase(phase);
+		transpilationHandler.onPhaseStarted(this, phase);
+	}
+
+	private void endPhase(TranspilationHandler transpilationHandler, Phase phase) {
+		long duration = metrics.endPhase(phase);
+		if (duration >= 0) {
+			transpilationHandler.onPhaseCompleted(this, phase, duration);
+		}
 	}
 
 	private void java2ts(ErrorCountTranspilationHandler transpilationHandler, SourceFile[] files) throws IOException {
@@ -1020,7 +1111,9 @@ public class JSweetTranspiler implements JSweetOptions {
 		}
 
 		context.sourceFiles = files;
+		startPhase(transpilationHandler, Phase.ANALYSIS);
 		factory.createBeforeTranslationScanner(transpilationHandler, context).process(compilationUnits);
+		endPhase(transpilationHandler, Phase.ANALYSIS);
 
 		if (context.useModules) {
 			generateTsFiles(transpilationHandler, files, compilationUnits);
@@ -1042,75 +1135,147 @@ public class JSweetTranspiler implements JSweetOptions {
 				out.append(line.substring(3));
 			}
 		}
-		FileUtils.write(new File(tsOutputDir, "module_defs.d.ts"), out, false);
+		getOutputManifest().write(new File(tsOutputDir, "module_defs.d.ts"), out.toString());
 	}
 
 	private void generateTsFiles(ErrorCountTranspilationHandler transpilationHandler, SourceFile[] files,
 			List<JCCompilationUnit> compilationUnits) throws IOException {
 		// regular file-to-file generation
+		startPhase(transpilationHandler, Phase.ANALYSIS);
 		new OverloadScanner(transpilationHandler, context).process(compilationUnits);
+		Set<String> unitsToTranslate = incremental ? getCompilationUnitsToTranslate(files, compilationUnits) : null;
+		endPhase(transpilationHandler, Phase.ANALYSIS);
+		startPhase(transpilationHandler, Phase.PRINTING);
 		String[] headerLines = getHeaderLines();
 		for (int i = 0; i < compilationUnits.length(); i++) {
-			try {
-				JCCompilationUnit cu = compilationUnits.get(i);
-				if (isModuleDefsFile(cu)) {
-					if (context.useModules) {
-						generateModuleDefs(cu);
-					}
-					continue;
+			JCCompilationUnit cu = compilationUnits.get(i);
+			if (isModuleDefsFile(cu)) {
+				if (context.useModules) {
+					generateModuleDefs(cu);
 				}
+				continue;
+			}
+			if (unitsToTranslate != null && !unitsToTranslate.contains(cu.sourcefile.getName())) {
+				logger.info("up to date: " + cu.sourcefile.getName());
+				continue;
+			}
+			try {
 				logger.info("scanning " + cu.sourcefile.getName() + "...");
 				AbstractTreePrinter printer = factory.createTranslator(adapter, transpilationHandler, context, cu,
 						generateSourceMaps);
 				printer.print(cu);
-				if (StringUtils.isWhitespace(printer.getResult())) {
-					continue;
-				}
-				String[] s = cu.getSourceFile().getName().split(File.separator.equals("\\") ? "\\\\" : File.separator);
-				String cuName = s[s.length - 1];
-				s = cuName.split("\\.");
-				cuName = s[0];
-				String javaSourceFileRelativeFullName = (cu.packge.getQualifiedName().toString().replace(".",
-						File.separator) + File.separator + cuName + ".java");
-				files[i].javaSourceDirRelativeFile = new File(javaSourceFileRelativeFullName);
-				files[i].javaSourceDir = new File(cu.getSourceFile().getName().substring(0,
-						cu.getSourceFile().getName().length() - javaSourceFileRelativeFullName.length()));
-				String packageName = isNoRootDirectories() ? context.getRootRelativeJavaName(cu.packge)
-						: cu.packge.getQualifiedName().toString();
-				String outputFileRelativePathNoExt = packageName.replace(".", File.separator) + File.separator + cuName;
-				String outputFileRelativePath = outputFileRelativePathNoExt
-						+ (cu.packge.fullname.toString().startsWith("def.") ? ".d.ts" : ".ts");
-				logger.info("output file: " + outputFileRelativePath);
-				File outputFile = new File(tsOutputDir, outputFileRelativePath);
-				outputFile.getParentFile().mkdirs();
-				String outputFilePath = outputFile.getPath();
-				PrintWriter out = new PrintWriter(outputFilePath);
-				String headers = context.getHeaders();
-				int headersLineCount = StringUtils.countMatches(headers, "\n");
-				try {
-					for (String line : headerLines) {
-						out.println(line);
-					}
-					out.print(headers);
-					out.println(printer.getResult());
-					out.print(context.getGlobalsMappingString());
-					out.print(context.getFooterStatements());
-				} finally {
-					out.close();
-				}
-				files[i].tsFile = outputFile;
-				files[i].javaFileLastTranspiled = files[i].getJavaFile().lastModified();
-				printer.sourceMap.shiftOutputPositions(headerLines.length + headersLineCount);
-				files[i].setSourceMap(printer.sourceMap);
-				if (generateSourceMaps && !generateJsFiles) {
-					generateTypeScriptSourceMapFile(files[i]);
-				}
-				logger.info("created " + outputFilePath);
+				metrics.increment(TranspilationMetrics.Counter.UNITS_PRINTED);
+				writeTsFile(files[i], cu, printer, headerLines);
 			} finally {
 				context.clearHeaders();
 				context.clearFooterStatements();
 			}
 		}
+		endPhase(transpilationHandler, Phase.PRINTING);
+	}
+
+	private void writeTsFile(SourceFile file, JCCompilationUnit cu, AbstractTreePrinter printer,
+			String[] headerLines) throws IOException {
+		if (StringUtils.isWhitespace(printer.getResult())) {
+			return;
+		}
+		String[] s = cu.getSourceFile().getName().split(File.separator.equals("\\") ? "\\\\" : File.separator);
+		String cuName = s[s.length - 1];
+		s = cuName.split("\\.");
+		cuName = s[0];
+		String javaSourceFileRelativeFullName = (cu.packge.getQualifiedName().toString().replace(".", File.separator)
+				+ File.separator + cuName + ".java");
+		file.javaSourceDirRelativeFile = new File(javaSourceFileRelativeFullName);
+		file.javaSourceDir = new File(cu.getSourceFile().getName().substring(0,
+				cu.getSourceFile().getName().length() - javaSourceFileRelativeFullName.length()));
+		String packageName = isNoRootDirectories() ? context.getRootRelativeJavaName(cu.packge)
+				: cu.packge.getQualifiedName().toString();
+		String outputFileRelativePathNoExt = packageName.replace(".", File.separator) + File.separator + cuName;
+		String outputFileRelativePath = outputFileRelativePathNoExt
+				+ (cu.packge.fullname.toString().startsWith("def.") ? ".d.ts" : ".ts");
+		logger.info("output file: " + outputFileRelativePath);
+		File outputFile = new File(tsOutputDir, outputFileRelativePath);
+		String outputFilePath = outputFile.getPath();
+		StringWriter content = new StringWriter();
+		PrintWriter out = new PrintWriter(content);
+		String headers = context.getHeaders();
+		int headersLineCount = StringUtils.countMatches(headers, "\n");
+		try {
+			for (String line : headerLines) {
+				out.println(line);
+			}
+			out.print(headers);
+			out.println(printer.getResult());
+			out.print(context.getGlobalsMappingString());
+			out.print(context.getFooterStatements());
+		} finally {
+			out.close();
+		}
+		if (!getOutputManifest().write(outputFile, content.toString())) {
+			logger.info("unchanged " + outputFilePath);
+		}
+		file.tsFile = outputFile;
+		file.javaFileLastTranspiled = file.getJavaFile().lastModified();
+		printer.sourceMap.shiftOutputPositions(headerLines.length + headersLineCount);
+		file.setSourceMap(printer.sourceMap);
+		if (generateSourceMaps && !generateJsFiles) {
+			generateTypeScriptSourceMapFile(file);
+		}
+		logger.info("created " + outputFilePath);
+	}
+
+	private boolean isOutdated(SourceFile file) {
+		return file.tsFile == null || !file.tsFile.exists()
+				|| file.getJavaFile().lastModified() != file.javaFileLastTranspiled;
+	}
+
+	/**
+	 * Gets the names of the compilation units that changed since the last
+	 * transpilation (or that were never transpiled), along with the names of
+	 * the compilation units that depend on them. The dependencies of the
+	 * changed units are updated.
+	 */
+	private Set<String> getCompilationUnitsToTranslate(SourceFile[] files, List<JCCompilationUnit> compilationUnits) {
+		Map<String, JCCompilationUnit> units = new HashMap<>();
+		Set<String> changedUnits = new HashSet<>();
+		for (int i = 0; i < compilationUnits.length(); i++) {
+			JCCompilationUnit cu = compilationUnits.get(i);
+			String name = cu.sourcefile.getName();
+			units.put(name, cu);
+			if (isOutdated(files[i]) || !compilationUnitDependencies.contains(name)) {
+				changedUnits.add(name);
+			}
+		}
+		Set<String> unitsToTranslate = compilationUnitDependencies.retainAll(units.keySet());
+		for (String name : changedUnits) {
+			compilationUnitDependencies.update(units.get(name));
+		}
+		unitsToTranslate.addAll(changedUnits);
+		unitsToTranslate.addAll(compilationUnitDependencies.getDependents(changedUnits));
+		// the units that read the static fields switching between lazy and
+		// eager initialization must be translated again
+		Map<String, Set<String>> currentLazyInitializedStatics = new HashMap<>();
+		if (context.staticInitializerAnalyzer != null) {
+			for (VarSymbol var : context.lazyInitializedStatics) {
+				JCCompilationUnit cu = context.staticInitializerAnalyzer.typesToCompilationUnits.get(var.enclClass());
+				if (cu != null) {
+					currentLazyInitializedStatics.computeIfAbsent(cu.sourcefile.getName(), name -> new HashSet<>())
+							.add(var.enclClass().getQualifiedName() + "." + var.name);
+				}
+			}
+		}
+		Set<String> initializationChangedUnits = new HashSet<>();
+		for (String name : units.keySet()) {
+			if (!Objects.equals(lazyInitializedStaticsByUnit.get(name), currentLazyInitializedStatics.get(name))) {
+				initializationChangedUnits.add(name);
+			}
+		}
+		lazyInitializedStaticsByUnit = currentLazyInitializedStatics;
+		unitsToTranslate.addAll(initializationChangedUnits);
+		unitsToTranslate.addAll(compilationUnitDependencies.getDependents(initializationChangedUnits));
+		logger.info("incremental mode: " + changedUnits.size() + " changed unit(s), " + unitsToTranslate.size() + "/"
+				+ units.size() + " unit(s) to translate");
+		return unitsToTranslate;
 	}
 
 	private void generateTypeScriptSourceMapFile(SourceFile sourceFile) throws IOException {
@@ -1132,8 +1297,10 @@ public class JSweetTranspiler implements JSweetOptions {
 					new FilePosition(entry.getOutputPosition().getLine(), entry.getOutputPosition().getColumn() + 1));
 		}
 		File outputFile = new File(sourceFile.getTsFile().getPath() + ".map");
-		try (FileWriter writer = new FileWriter(outputFile, false)) {
-			generator.appendTo(writer, sourceFile.getTsFile().getName());
+		try {
+			StringBuilder content = new StringBuilder();
+			generator.appendTo(content, sourceFile.getTsFile().getName());
+			getOutputManifest().write(outputFile, content.toString());
 		} catch (Exception ex) {
 			ex.printStackTrace();
 		}
@@ -1150,8 +1317,12 @@ public class JSweetTranspiler implements JSweetOptions {
 		if (context.useModules) {
 			return;
 		}
-		StaticInitilializerAnalyzer analizer = new StaticInitilializerAnalyzer(context);
-		analizer.process(compilationUnits);
+		startPhase(transpilationHandler, Phase.ANALYSIS);
+		StaticInitilializerAnalyzer analizer = context.staticInitializerAnalyzer;
+		if (analizer == null) {
+			analizer = new StaticInitilializerAnalyzer(context);
+			analizer.process(compilationUnits);
+		}
 		ArrayList<Node<JCCompilationUnit>> sourcesInCycle = new ArrayList<>();
 		java.util.List<JCCompilationUnit> orderedCompilationUnits = analizer.globalStaticInitializersDependencies
 				.topologicalSort(n -> {
@@ -1164,10 +1335,12 @@ public class JSweetTranspiler implements JSweetOptions {
 
 			DirectedGraph.dumpCycles(sourcesInCycle, u -> u.sourcefile.getName());
 
+			endPhase(transpilationHandler, Phase.ANALYSIS);
 			return;
 		}
 
 		new OverloadScanner(transpilationHandler, context).process(orderedCompilationUnits);
+		endPhase(transpilationHandler, Phase.ANALYSIS);
 
 		logger.debug("ordered compilation units: " + orderedCompilationUnits.stream().map(cu -> {
 			return cu.sourcefile.getName();
@@ -1181,10 +1354,12 @@ public class JSweetTranspiler implements JSweetOptions {
 			permutationString.append("" + i + "=" + permutation[i] + ";");
 		}
 		logger.debug("permutation: " + permutationString.toString());
+		startPhase(transpilationHandler, Phase.PRINTING);
 		createBundle(transpilationHandler, files, permutation, orderedCompilationUnits, false);
 		if (isGenerateDefinitions()) {
 			createBundle(transpilationHandler, files, permutation, orderedCompilationUnits, true);
 		}
+		endPhase(transpilationHandler, Phase.PRINTING);
 	}
 
 	private void initSourceFileJavaPaths(SourceFile file, JCCompilationUnit cu) {
@@ -1202,7 +1377,7 @@ public class JSweetTranspiler implements JSweetOptions {
 
 	private void createBundle(ErrorCountTranspilationHandler transpilationHandler, SourceFile[] files,
 			int[] permutation, java.util.List<JCCompilationUnit> orderedCompilationUnits, boolean definitionBundle)
-			throws FileNotFoundException {
+			throws IOException {
 		context.bundleMode = true;
 		StringBuilder sb = new StringBuilder();
 		int lineCount = 0;
@@ -1210,6 +1385,8 @@ public class JSweetTranspiler implements JSweetOptions {
 			sb.append(line).append("\n");
 			lineCount++;
 		}
+		int headersIndex = sb.length();
+		java.util.List<SourceMap> sourceMaps = new ArrayList<>();
 		for (int i = 0; i < orderedCompilationUnits.size(); i++) {
 			JCCompilationUnit cu = orderedCompilationUnits.get(i);
 			if (isModuleDefsFile(cu)) {
@@ -1228,8 +1405,10 @@ public class JSweetTranspiler implements JSweetOptions {
 			AbstractTreePrinter printer = factory.createTranslator(adapter, transpilationHandler, context, cu,
 					generateSourceMaps);
 			printer.print(cu);
+			metrics.increment(TranspilationMetrics.Counter.UNITS_PRINTED);
 			printer.sourceMap.shiftOutputPositions(lineCount);
 			files[permutation[i]].setSourceMap(printer.sourceMap);
+			sourceMaps.add(printer.sourceMap);
 
 			sb.append(printer.getOutput());
 			lineCount += (printer.getCurrentLine() - 1);
@@ -1237,6 +1416,18 @@ public class JSweetTranspiler implements JSweetOptions {
 			initSourceFileJavaPaths(files[permutation[i]], cu);
 		}
 
+		// the headers of all the units are merged at the beginning of the
+		// bundle
+		String headers = context.getHeaders();
+		context.clearHeaders();
+		int headersLineCount = StringUtils.countMatches(headers, "\n");
+		if (headersLineCount > 0) {
+			sb.insert(headersIndex, headers);
+			for (SourceMap sourceMap : sourceMaps) {
+				sourceMap.shiftOutputPositions(headersLineCount);
+			}
+		}
+
 		context.bundleMode = false;
 
 		File bundleDirectory = tsOutputDir;
@@ -1248,9 +1439,9 @@ public class JSweetTranspiler implements JSweetOptions {
 		File outputFile = new File(bundleDirectory, bundleName);
 
 		logger.info("creating bundle file: " + outputFile);
-		outputFile.getParentFile().mkdirs();
 		String outputFilePath = outputFile.getPath();
-		PrintWriter out = new PrintWriter(outputFilePath);
+		StringWriter content = new StringWriter();
+		PrintWriter out = new PrintWriter(content);
 		try {
 			out.println(sb.toString());
 			if (!definitionBundle) {
@@ -1284,6 +1475,9 @@ public class JSweetTranspiler implements JSweetOptions {
 		} finally {
 			out.close();
 		}
+		if (!getOutputManifest().write(outputFile, content.toString())) {
+			logger.info("unchanged " + outputFilePath);
+		}
 		for (int i = 0; i < orderedCompilationUnits.size(); i++) {
 			JCCompilationUnit cu = orderedCompilationUnits.get(i);
 			if (cu.packge.fullname.toString().startsWith("def.")) {
@@ -1345,6 +1539,33 @@ public class JSweetTranspiler implements JSweetOptions {
 
 	private Process tsCompilationProcess;
 	private SourceFile[] watchedFiles;
+	private OutputManifest outputManifest;
+	private String pendingTscKey;
+	private Map<File, String> pendingSourceMapOutputs;
+
+	/**
+	 * Gets the manifest of the generated files' content hashes, which is used
+	 * to skip the writes (and the tsc compilations) that would not change
+	 * anything. It is stored in the working directory.
+	 */
+	public OutputManifest getOutputManifest() {
+		if (outputManifest == null) {
+			outputManifest = new OutputManifest(new File(workingDir, OutputManifest.FILE_NAME));
+		}
+		return outputManifest;
+	}
+
+	private TranspilationMetrics metrics = new TranspilationMetrics();
+
+	/**
+	 * Gets the metrics of the last transpilation (phase durations and
+	 * counters).
+	 * 
+	 * @see TranspilationHandler#onMetrics(JSweetTranspiler, TranspilationMetrics)
+	 */
+	public TranspilationMetrics getMetrics() {
+		return metrics;
+	}
 
 	private File extractedCandyJavascriptDir;
 
@@ -1397,6 +1618,7 @@ public class JSweetTranspiler implements JSweetOptions {
 			watchedFiles = files;
 		}
 
+		startPhase(transpilationHandler, Phase.TSC);
 		logger.debug("ts2js: " + Arrays.asList(files));
 		LinkedList<String> args = new LinkedList<>();
 		if (System.getProperty("os.name").startsWith("Windows")) {
@@ -1458,14 +1680,34 @@ public class JSweetTranspiler implements JSweetOptions {
 
 		System.out.println(args);
 
+		// the key changes when the options or the inputs that are not generated
+		// by the transpiler change
+		StringBuilder tscKey = new StringBuilder(String.join(" ", args));
+		for (File f : auxiliaryTsModuleFiles) {
+			tscKey.append(" ").append(f.lastModified());
+		}
 		for (File dir : tsDefDirs) {
 			LinkedList<File> tsDefFiles = new LinkedList<>();
 			Util.addFiles(".d.ts", dir, tsDefFiles);
 			for (File f : tsDefFiles) {
 				args.add(relativizeTsFile(f).toString());
+				tscKey.append(" ").append(f.getPath()).append(":").append(f.lastModified());
 			}
 		}
 
+		OutputManifest manifest = getOutputManifest();
+		String tscKeyHash = OutputManifest.hash(tscKey.toString().getBytes(StandardCharsets.UTF_8));
+		if (!isTscWatchMode() && tscKeyHash.equals(manifest.getTscKey())
+				&& manifest.getChangedFiles().stream().noneMatch(f -> f.getName().endsWith(".ts"))
+				&& areJsFilesRecorded(files)) {
+			logger.info("no TypeScript changes: skipping tsc");
+			onTsTranspilationSkipped(transpilationHandler, files);
+			return;
+		}
+		// the key is recorded again once tsc succeeds
+		manifest.setTscKey(null);
+		pendingTscKey = tscKeyHash;
+
 		try {
 			logger.info("launching tsc...");
 			runTSC(transpilationHandler, files, args.toArray(new String[0]));
@@ -1481,14 +1723,22 @@ public class JSweetTranspiler implements JSweetOptions {
 			args = ArrayUtils.addAll(args, "--skipDefaultLibCheck", "--skipLibCheck");
 		}
 
-		tsCompilationProcess = ProcessUtil.runCommand("tsc", getTsOutputDir(), isTscWatchMode(), line -> {
+		Map<String, SourceFile[]> tsFileIndex = SourceFile.indexByTsFile(Arrays.asList(files));
+
+		Consumer<String> tscOutputConsumer = line -> {
+			metrics.increment(TranspilationMetrics.Counter.TSC_LINES);
 			logger.info(line);
 			TscOutput output = parseTscOutput(line);
 			if (output.position != null) {
 				if (isIgnoreTypeScriptErrors()) {
 					return;
 				}
-				SourcePosition position = SourceFile.findOriginPosition(output.position, Arrays.asList(files));
+				// tsc reports paths relatively to its working directory
+				SourcePosition position = SourceFile.findOriginPosition(output.position.getFile().isAbsolute()
+						? output.position
+						: new SourcePosition(new File(getTsOutputDir(), output.position.getFile().getPath()), null,
+								output.position.getStartPosition()),
+						tsFileIndex);
 				if (position == null) {
 					transpilationHandler.report(JSweetProblem.INTERNAL_TSC_ERROR, output.position, output.message);
 				} else {
@@ -1506,15 +1756,56 @@ public class JSweetTranspiler implements JSweetOptions {
 					// targeting 'ES6' or higher.
 				}
 			}
-		}, process -> {
-			tsCompilationProcess = null;
-			onTsTranspilationCompleted(fullPass[0], transpilationHandler, files);
-			fullPass[0] = false;
-		}, () -> {
+		};
+		Runnable tscErrorHandler = () -> {
 			if (!ignoreTypeScriptErrors && transpilationHandler.getProblemCount() == 0) {
 				transpilationHandler.report(JSweetProblem.INTERNAL_TSC_ERROR, null, "Unknown tsc error");
 			}
-		}, args);
+		};
+
+		if (tscService && !isTscWatchMode()) {
+			// outputs are kept in memory, so that only the changed files are
+			// written
+			TscService.Result result = runTscService(null, true, args);
+			if (result != null) {
+				result.getDiagnostics().forEach(tscOutputConsumer);
+				pendingSourceMapOutputs = new HashMap<>();
+				for (Map.Entry<String, String> output : result.getOutputs().entrySet()) {
+					File outputFile = new File(output.getKey());
+					if (!outputFile.isAbsolute()) {
+						outputFile = new File(getTsOutputDir(), output.getKey());
+					}
+					if (generateSourceMaps && output.getKey().endsWith(".js.map")) {
+						// written once redirected to the Java sources
+						pendingSourceMapOutputs.put(outputFile.getAbsoluteFile(), output.getValue());
+					} else {
+						try {
+							getOutputManifest().write(outputFile, output.getValue());
+						} catch (IOException e) {
+							logger.error("cannot write " + outputFile, e);
+						}
+					}
+				}
+				if (result.getErrorCount() == 0 && !result.isEmitSkipped()) {
+					getOutputManifest().setTscKey(pendingTscKey);
+				}
+				onTsTranspilationCompleted(fullPass[0], transpilationHandler, files);
+				if (result.getErrorCount() > 0) {
+					tscErrorHandler.run();
+				}
+				return;
+			}
+		}
+
+		tsCompilationProcess = ProcessUtil.runCommand("tsc", getTsOutputDir(), isTscWatchMode(), tscOutputConsumer,
+				process -> {
+					tsCompilationProcess = null;
+					if (!isTscWatchMode() && process.exitValue() == 0 && transpilationHandler.getErrorCount() == 0) {
+						getOutputManifest().setTscKey(pendingTscKey);
+					}
+					onTsTranspilationCompleted(fullPass[0], transpilationHandler, files);
+					fullPass[0] = false;
+				}, tscErrorHandler, args);
 
 		// tsCompilationProcess.waitFor();
 		// if (tsCompilationProcess != null &&
@@ -1524,8 +1815,30 @@ public class JSweetTranspiler implements JSweetOptions {
 		// }
 	}
 
+	/**
+	 * Runs the given tsc command line with the tsc service.
+	 * 
+	 * @return the result, or null if the service failed (in which case it is
+	 *         disabled and the caller should fall back to the tsc command)
+	 */
+	private TscService.Result runTscService(Map<String, String> sources, boolean inMemoryOutput, String... args) {
+		try {
+			if (tscServiceInstance == null) {
+				tscServiceInstance = new TscService(workingDir);
+			}
+			logger.info("compiling with the tsc service...");
+			return tscServiceInstance.compile(getTsOutputDir(), sources, inMemoryOutput, args);
+		} catch (Exception e) {
+			logger.warn("tsc service failed, falling back to the tsc command: " + e.getMessage(), e);
+			tscService = false;
+			return null;
+		}
+	}
+
 	private void onTsTranspilationCompleted(boolean fullPass, ErrorCountTranspilationHandler handler,
 			SourceFile[] files) {
+		endPhase(handler, Phase.TSC);
+		startPhase(handler, Phase.SOURCE_MAPS);
 		try {
 			if (isGenerateDeclarations()) {
 				if (getDeclarationsOutputDir() != null) {
@@ -1551,25 +1864,33 @@ public class JSweetTranspiler implements JSweetOptions {
 			}
 			if (handler.getErrorCount() == 0) {
 				Set<File> handledFiles = new HashSet<>();
+				Map<String, SourceFile[]> tsFileIndex = SourceFile.indexByTsFile(Arrays.asList(files));
+				Map<File, String> relativeJavaSourcePaths = new HashMap<>();
 				for (SourceFile sourceFile : files) {
 					if (!sourceFile.getTsFile().getAbsolutePath().startsWith(tsOutputDir.getAbsolutePath())) {
 						throw new RuntimeException("ts directory isn't configured properly, please use setTsDir: "
 								+ sourceFile.getTsFile().getAbsolutePath() + " != " + tsOutputDir.getAbsolutePath());
 					}
-					String outputFileRelativePath = sourceFile.getTsFile().getAbsolutePath()
-							.substring(tsOutputDir.getAbsolutePath().length());
-					File outputFile = new File(jsOutputDir == null ? tsOutputDir : jsOutputDir,
-							Util.removeExtension(outputFileRelativePath) + ".js");
+					File outputFile = getJsOutputFile(sourceFile);
 					sourceFile.jsFile = outputFile;
-					if (outputFile.lastModified() > sourceFile.jsFileLastTranspiled) {
+					File mapFile = new File(outputFile.getAbsolutePath() + ".map");
+					// unchanged js files are not rewritten, but their source
+					// maps still need to be redirected
+					String mapContents = pendingSourceMapOutputs == null ? null
+							: pendingSourceMapOutputs.remove(mapFile.getAbsoluteFile());
+					if (outputFile.lastModified() > sourceFile.jsFileLastTranspiled || mapContents != null) {
 						if (handledFiles.contains(outputFile)) {
 							continue;
 						}
 						handledFiles.add(outputFile);
 						logger.info("js output file: " + outputFile);
-						File mapFile = new File(outputFile.getAbsolutePath() + ".map");
+						if (pendingSourceMapOutputs == null) {
+							// written by the tsc command
+							getOutputManifest().update(outputFile);
+							getOutputManifest().update(mapFile);
+						}
 
-						if (mapFile.exists() && generateSourceMaps) {
+						if ((mapContents != null || mapFile.exists()) && generateSourceMaps) {
 
 							SourceMapGeneratorV3 generator = (SourceMapGeneratorV3) SourceMapGeneratorFactory
 									.getInstance(SourceMapFormat.V3);
@@ -1581,9 +1902,10 @@ public class JSweetTranspiler implements JSweetOptions {
 
 							sourceFile.jsMapFile = mapFile;
 							logger.info("redirecting map file: " + mapFile);
-							String contents = FileUtils.readFileToString(mapFile);
+							String contents = mapContents != null ? mapContents : FileUtils.readFileToString(mapFile);
 							SourceMapping mapping = SourceMapConsumerFactory.parse(contents);
 
+							SourceFile[] tsSourceFiles = tsFileIndex.get(sourceFile.tsFile.getAbsolutePath());
 							int line = 1;
 							int columnIndex = 0;
 							for (String lineContent : FileUtils.readLines(outputFile, (Charset) null)) {
@@ -1594,32 +1916,39 @@ public class JSweetTranspiler implements JSweetOptions {
 								}
 
 								OriginalMapping originalMapping = mapping.getMappingForLine(line, columnIndex + 1);
-								if (originalMapping != null) {
-									// TODO: this is quite slow and should be
-									// optimized
-									SourcePosition originPosition = SourceFile.findOriginPosition(new SourcePosition(
-											sourceFile.tsFile, null, new Position(originalMapping.getLineNumber(),
-													originalMapping.getColumnPosition())),
-											files);
-									if (originPosition != null) {
-										// as a first approximation, we only map
-										// line numbers (ignore columns)
-										generator.addMapping(
-												javaSourcePath
-														.relativize(
-																originPosition.getFile().getCanonicalFile().toPath())
-														.toString(),
-												null, new FilePosition(originPosition.getStartLine() - 1, 0),
-												new FilePosition(line - 1, 0),
-												new FilePosition(line - 1, lineContent.length() - 1));
+								if (originalMapping != null && tsSourceFiles != null) {
+									for (SourceFile tsSourceFile : tsSourceFiles) {
+										if (tsSourceFile.getSourceMap() == null) {
+											continue;
+										}
+										Position originPosition = tsSourceFile.getSourceMap().findInputPosition(
+												originalMapping.getLineNumber(), originalMapping.getColumnPosition());
+										if (originPosition != null) {
+											String javaFilePath = relativeJavaSourcePaths.get(tsSourceFile.getJavaFile());
+											if (javaFilePath == null) {
+												javaFilePath = javaSourcePath
+														.relativize(tsSourceFile.getJavaFile().getCanonicalFile().toPath())
+														.toString();
+												relativeJavaSourcePaths.put(tsSourceFile.getJavaFile(), javaFilePath);
+											}
+											// as a first approximation, we only
+											// map line numbers (ignore columns)
+											generator.addMapping(javaFilePath, null,
+													new FilePosition(originPosition.getLine() - 1, 0),
+													new FilePosition(line - 1, 0),
+													new FilePosition(line - 1, lineContent.length() - 1));
+											break;
+										}
 									}
 								}
 
 								line++;
 							}
 
-							try (FileWriter writer = new FileWriter(mapFile, false)) {
-								generator.appendTo(writer, outputFile.getName());
+							try {
+								StringBuilder mapContent = new StringBuilder();
+								generator.appendTo(mapContent, outputFile.getName());
+								getOutputManifest().write(mapFile, mapContent.toString());
 							} catch (Exception ex) {
 								ex.printStackTrace();
 							}
@@ -1627,13 +1956,60 @@ public class JSweetTranspiler implements JSweetOptions {
 					}
 				}
 			}
+			if (pendingSourceMapOutputs != null) {
+				// source maps that were not redirected
+				for (Map.Entry<File, String> output : pendingSourceMapOutputs.entrySet()) {
+					getOutputManifest().write(output.getKey(), output.getValue());
+				}
+			}
 		} catch (Exception e) {
 			e.printStackTrace();
 		} finally {
-			handler.onCompleted(this, fullPass, files);
+			pendingSourceMapOutputs = null;
+			endPhase(handler, Phase.SOURCE_MAPS);
+			getOutputManifest().save();
+			handler.onCompleted(this, fullPass, files, getOutputManifest().getChangedFiles());
 		}
 	}
 
+	private File getJsOutputFile(SourceFile sourceFile) {
+		String outputFileRelativePath = sourceFile.getTsFile().getAbsolutePath()
+				.substring(tsOutputDir.getAbsolutePath().length());
+		return new File(jsOutputDir == null ? tsOutputDir : jsOutputDir,
+				Util.removeExtension(outputFileRelativePath) + ".js");
+	}
+
+	// tells if the JavaScript files of the given TypeScript files exist and
+	// were recorded in the output manifest
+	private boolean areJsFilesRecorded(SourceFile[] files) {
+		for (SourceFile sourceFile : files) {
+			if (sourceFile.getTsFile().getName().endsWith(".d.ts")) {
+				continue;
+			}
+			if (!sourceFile.getTsFile().getAbsolutePath().startsWith(tsOutputDir.getAbsolutePath())
+					|| !getOutputManifest().isRecorded(getJsOutputFile(sourceFile))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void onTsTranspilationSkipped(ErrorCountTranspilationHandler handler, SourceFile[] files) {
+		endPhase(handler, Phase.TSC);
+		for (SourceFile sourceFile : files) {
+			if (sourceFile.getTsFile().getName().endsWith(".d.ts")) {
+				continue;
+			}
+			sourceFile.jsFile = getJsOutputFile(sourceFile);
+			File mapFile = new File(sourceFile.jsFile.getAbsolutePath() + ".map");
+			if (generateSourceMaps && mapFile.exists()) {
+				sourceFile.jsMapFile = mapFile;
+			}
+		}
+		getOutputManifest().save();
+		handler.onCompleted(this, true, files, getOutputManifest().getChangedFiles());
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -2128,4 +2504,114 @@ public class JSweetTranspiler implements JSweetOptions {
 		return configurationFile;
 	}
 
+	@Override
+	public boolean isIncremental() {
+		return incremental;
+	}
+
+	/**
+	 * Sets the transpiler in incremental mode.
+	 * 
+	 * @see JSweetOptions#isIncremental()
+	 */
+	public void setIncremental(boolean incremental) {
+		this.incremental = incremental;
+		if (!incremental) {
+			compilationUnitDependencies.clear();
+			lazyInitializedStaticsByUnit.clear();
+		}
+	}
+
+	@Override
+	public boolean isTscService() {
+		return tscService;
+	}
+
+	/**
+	 * Turns on or off the use of a long-lived tsc compiler service. Turning it
+	 * off stops the running service, if any.
+	 * 
+	 * @see JSweetOptions#isTscService()
+	 */
+	synchronized public void setTscService(boolean tscService) {
+		this.tscService = tscService;
+		if (!tscService && tscServiceInstance != null) {
+			tscServiceInstance.stop();
+			tscServiceInstance = null;
+		}
+	}
+
+	@Override
+	public boolean isStaticOverloadDispatch() {
+		return staticOverloadDispatch;
+	}
+
+	/**
+	 * Turns on or off the static dispatch of all the invocations of overloaded
+	 * methods.
+	 * 
+	 * @see JSweetOptions#isStaticOverloadDispatch()
+	 */
+	public void setStaticOverloadDispatch(boolean staticOverloadDispatch) {
+		this.staticOverloadDispatch = staticOverloadDispatch;
+	}
+
+	@Override
+	public boolean isInterfaceTables() {
+		return interfaceTables;
+	}
+
+	/**
+	 * Turns on or off the generation of interface lookup tables for
+	 * constant-time <code>instanceof</code> checks on interfaces.
+	 * 
+	 * @see JSweetOptions#isInterfaceTables()
+	 */
+	public void setInterfaceTables(boolean interfaceTables) {
+		this.interfaceTables = interfaceTables;
+	}
+
+	@Override
+	public boolean isTypedArrays() {
+		return typedArrays;
+	}
+
+	/**
+	 * Turns on or off the implementation of the numeric primitive arrays with
+	 * JavaScript typed arrays.
+	 * 
+	 * @see JSweetOptions#isTypedArrays()
+	 */
+	public void setTypedArrays(boolean typedArrays) {
+		this.typedArrays = typedArrays;
+	}
+
+	@Override
+	public boolean isNumericChars() {
+		return numericChars;
+	}
+
+	/**
+	 * Turns on or off the representation of chars as numbers.
+	 * 
+	 * @see JSweetOptions#isNumericChars()
+	 */
+	public void setNumericChars(boolean numericChars) {
+		this.numericChars = numericChars;
+	}
+
+	@Override
+	public boolean isRingBufferDeques() {
+		return ringBufferDeques;
+	}
+
+	/**
+	 * Turns on or off the circular buffer emulation of deques.
+	 * 
+	 * @see JSweetOptions#isRingBufferDeques()
+	 */
+	public void setRingBufferDeques(boolean ringBufferDeques) {
+		this.ringBufferDeques = ringBufferDeques;
+	}
+
 }
@@ -77,6 +77,7 @@ import org.jsweet.transpiler.model.support.NewClassElementSupport;
 import org.jsweet.transpiler.model.support.UnaryOperatorElementSupport;
 import org.jsweet.transpiler.util.AbstractTreePrinter;
 import org.jsweet.transpiler.util.JSDoc;
+import org.jsweet.transpiler.util.TranspilationMetrics;
 import org.jsweet.transpiler.util.Util;
 
 import com.sun.source.tree.Tree.Kind;
@@ -165,6 +166,12 @@ public class Java2TypeScriptTranslator extends AbstractTreePrinter {
 	 * the generated TypeScript code (for <code>instanceof</code> operator).
 	 */
 	public static final String INTERFACES_FIELD_NAME = "__interfaces";
+	/**
+	 * The prefix of the properties marking the prototypes of the classes
+	 * implementing a given interface, when the interface tables are enabled
+	 * (see {@link JSweetOptions#isInterfaceTables()}).
+	 */
+	public static final String INTERFACE_MARKER_PREFIX = "__implements$";
 	/**
 	 * The suffix added to static field initialization methods (for Java
 	 * semantics).
@@ -1212,6 +1219,10 @@ public class Java2TypeScriptTranslator extends AbstractTreePrinter {
 			}
 		} else {
 			if (typeTree instanceof JCArrayTypeTree) {
+				String typedArrayName = context.getTypedArrayName(typeTree.type);
+				if (typedArrayName != null) {
+					return print(typedArrayName);
+				}
 				return substituteAndPrintType(((JCArrayTypeTree) typeTree).elemtype, true, inTypeParameters,
 						completeRawTypes, disableSubstitution).print("[]");
 			}
@@ -1487,7 +1498,7 @@ public class Java2TypeScriptTranslator extends AbstractTreePrinter {
 				if (!(entry.getValue().type instanceof MethodType)) {
 					continue;
 				}
-				MethodSymbol s = Util.findMethodDeclarationInType(context.types, classdecl.sym,
+				MethodSymbol s = context.getMemberResolutionCache().findMethodDeclarationInType(classdecl.sym,
 						entry.getValue().getName().toString(), (MethodType) entry.getValue().type);
 				if (s == null || s == entry.getValue().sym) {
 					getAdapter().typeVariablesToErase
@@ -1605,7 +1616,7 @@ public class Java2TypeScriptTranslator extends AbstractTreePrinter {
 					if (getScope().generatedMethodNames.contains(meth.name.toString())) {
 						continue;
 					}
-					MethodSymbol s = Util.findMethodDeclarationInType(getContext().types, classdecl.sym,
+					MethodSymbol s = getContext().getMemberResolutionCache().findMethodDeclarationInType(classdecl.sym,
 							meth.getSimpleName().toString(), (MethodType) meth.type, true);
 					if (Object.class.getName().equals(s.getEnclosingElement().toString())) {
 						s = null;
@@ -1727,15 +1738,21 @@ public class Java2TypeScriptTranslator extends AbstractTreePrinter {
 				Set<String> interfaces = new HashSet<>();
 				context.grabSupportedInterfaceNames(interfaces, classdecl.sym);
 				if (!interfaces.isEmpty()) {
-					println().printIndent()
-							.print(getScope().enumWrapperClassScope ? classdecl.sym.getSimpleName().toString() : name)
-							.print("[\"" + INTERFACES_FIELD_NAME + "\"] = ");
+					String className = getScope().enumWrapperClassScope ? classdecl.sym.getSimpleName().toString()
+							: name;
+					println().printIndent().print(className).print("[\"" + INTERFACES_FIELD_NAME + "\"] = ");
 					print("[");
 					for (String itf : interfaces) {
 						print("\"").print(itf).print("\",");
 					}
 					removeLastChar();
 					print("];").println();
+					// enum values are numbers (no prototype)
+					if (context.options.isInterfaceTables() && !getScope().enumWrapperClassScope) {
+						printIndent().print("Object.defineProperties(").print(className).print(".prototype, ");
+						printInterfaceMarkers(interfaces);
+						print(");").println();
+					}
 				}
 				if (!getScope().enumWrapperClassScope) {
 					println();
@@ -2016,8 +2033,9 @@ public class Java2TypeScriptTranslator extends AbstractTreePrinter {
 											|| !context.types.isSubtype(parent.sym.type,
 													overload.coreMethod.sym.getEnclosingElement().type));
 							if (!overload.printed && !addCoreMethod && overload.coreMethod.type instanceof MethodType) {
-								addCoreMethod = Util.findMethodDeclarationInType(context.types, parent.sym,
-										methodDecl.getName().toString(), (MethodType) overload.coreMethod.type) == null;
+								addCoreMethod = context.getMemberResolutionCache().findMethodDeclarationInType(
+										parent.sym, methodDecl.getName().toString(),
+										(MethodType) overload.coreMethod.type) == null;
 							}
 							if (addCoreMethod) {
 								visitMethodDef(overload.coreMethod);
@@ -2104,7 +2122,7 @@ public class Java2TypeScriptTranslator extends AbstractTreePrinter {
 			report(methodDecl, methodDecl.name, JSweetProblem.CONSTRUCTOR_MEMBER);
 		}
 		if (parent != null) {
-			VarSymbol v = Util.findFieldDeclaration(parent.sym, methodDecl.name);
+			VarSymbol v = context.getMemberResolutionCache().findFieldDeclaration(parent.sym, methodDecl.name);
 			if (v != null && context.getFieldNameMapping(v) == null) {
 				if (isDefinitionScope) {
 					return;
@@ -2445,11 +2463,11 @@ public class Java2TypeScriptTranslator extends AbstractTreePrinter {
 		} else if (var.init == null) {
 			if (doesMemberNameRequireQuotes(name)) {
 				printIndent().print("if(").print("this['").print(name).print("']").print("===undefined) ")
-						.print("this['").print(name).print("'] = ").print(Util.getTypeInitialValue(var.type)).print(";")
+						.print("this['").print(name).print("'] = ").print(getTypeInitialValue(var.type)).print(";")
 						.println();
 			} else {
 				printIndent().print("if(").print("this.").print(name).print("===undefined) this.").print(name)
-						.print(" = ").print(Util.getTypeInitialValue(var.type)).print(";").println();
+						.print(" = ").print(getTypeInitialValue(var.type)).print(";").println();
 			}
 		}
 	}
@@ -2526,7 +2544,7 @@ public class Java2TypeScriptTranslator extends AbstractTreePrinter {
 				skipFirst = true;
 				JCMethodInvocation inv = (JCMethodInvocation) ((JCExpressionStatement) method.getBody().stats
 						.get(0)).expr;
-				MethodSymbol ms = Util.findMethodDeclarationInType(context.types,
+				MethodSymbol ms = context.getMemberResolutionCache().findMethodDeclarationInType(
 						(TypeSymbol) overload.coreMethod.sym.getEnclosingElement(), inv);
 				for (JCMethodDecl md : overload.methods) {
 					if (md.sym.equals(ms)) {
@@ -2596,7 +2614,7 @@ public class Java2TypeScriptTranslator extends AbstractTreePrinter {
 				printIndent().print(replacedBody).println();
 			}
 		} else {
-			String returnValue = Util.getTypeInitialValue(method.sym.getReturnType());
+			String returnValue = getTypeInitialValue(method.sym.getReturnType());
 			if (returnValue != null) {
 				print(" return ").print(returnValue).print("; ");
 			}
@@ -2615,7 +2633,7 @@ public class Java2TypeScriptTranslator extends AbstractTreePrinter {
 						name = context.getFieldNameMapping(field.sym);
 					}
 					printIndent().print("if(").print("this.").print(name).print("===undefined) ").print("this.")
-							.print(name).print(" = ").print(Util.getTypeInitialValue(field.type)).print(";").println();
+							.print(name).print(" = ").print(getTypeInitialValue(field.type)).print(";").println();
 				}
 			}
 		}
@@ -2716,6 +2734,28 @@ public class Java2TypeScriptTranslator extends AbstractTreePrinter {
 		println();
 	}
 
+	/**
+	 * Tells if an invocation of the given method shall directly call the
+	 * overload selected by javac (signature-mangled name) rather than the
+	 * method that dispatches on the arguments at runtime.
+	 */
+	private boolean isStaticallyDispatchedOverload(MethodSymbol method) {
+		if (!context.isInvalidOverload(method) || Util.hasTypeParameters(method) || Util.hasVarargs(method)) {
+			return false;
+		}
+		JCMethodDecl parentMethod = getParent(JCMethodDecl.class);
+		if (parentMethod != null && parentMethod.sym.isDefault()) {
+			return false;
+		}
+		if (context.options.isStaticOverloadDispatch()) {
+			// interfaces only declare mangled names for overloads with
+			// parameters
+			return !method.getParameters().isEmpty()
+					|| !context.isInterface((TypeSymbol) method.getEnclosingElement());
+		}
+		return !method.getParameters().isEmpty() && parentMethod != null;
+	}
+
 	private String getOverloadMethodName(MethodSymbol method) {
 		if (method.isConstructor()) {
 			return "constructor";
@@ -2862,8 +2902,8 @@ public class Java2TypeScriptTranslator extends AbstractTreePrinter {
 			boolean confictInDefinitionScope = false;
 
 			if (parent instanceof JCClassDecl) {
-				MethodSymbol m = Util.findMethodDeclarationInType(context.types, ((JCClassDecl) parent).sym, name,
-						null);
+				MethodSymbol m = context.getMemberResolutionCache()
+						.findMethodDeclarationInType(((JCClassDecl) parent).sym, name, null);
 				if (m != null) {
 					if (!isDefinitionScope) {
 						report(varDecl, varDecl.name, JSweetProblem.FIELD_CONFLICTS_METHOD, name, m.owner);
@@ -3000,6 +3040,10 @@ public class Java2TypeScriptTranslator extends AbstractTreePrinter {
 								print(context.getAnnotationValue(varDecl.vartype.type.tsym, ANNOTATION_STRING_TYPE,
 										String.class, varDecl.vartype.type.tsym.name.toString()).toString());
 								print("\"");
+							} else if (Util.isVarargs(varDecl)
+									&& context.getTypedArrayName(varDecl.vartype.type) != null) {
+								// rest parameters are untyped arrays
+								substituteAndPrintType(((JCArrayTypeTree) varDecl.vartype).elemtype).print("[]");
 							} else {
 								substituteAndPrintType(varDecl.vartype);
 							}
@@ -3075,7 +3119,7 @@ public class Java2TypeScriptTranslator extends AbstractTreePrinter {
 				// var initialization is not allowed in definition
 				if (!isDefinitionScope && !(ambient || (isTopLevelScope() && isDefinitionScope))
 						&& varDecl.sym.isStatic() && varDecl.init == null) {
-					print(" = ").print(Util.getTypeInitialValue(varDecl.sym.type));
+					print(" = ").print(getTypeInitialValue(varDecl.sym.type));
 				}
 			}
 		}
@@ -3169,13 +3213,13 @@ public class Java2TypeScriptTranslator extends AbstractTreePrinter {
 		print("this.");
 		JCClassDecl parent = getParent(JCClassDecl.class);
 		int level = 0;
-		boolean foundInParent = Util.findFirstDeclarationInClassAndSuperClasses(parent.sym, accessedElementName,
-				kind) != null;
+		boolean foundInParent = context.getMemberResolutionCache()
+				.findFirstDeclarationInClassAndSuperClasses(parent.sym, accessedElementName, kind) != null;
 		if (!foundInParent) {
 			while (getScope(level++).innerClassNotStatic) {
 				parent = getParent(JCClassDecl.class, parent);
-				if (parent != null && Util.findFirstDeclarationInClassAndSuperClasses(parent.sym, accessedElementName,
-						kind) != null) {
+				if (parent != null && context.getMemberResolutionCache()
+						.findFirstDeclarationInClassAndSuperClasses(parent.sym, accessedElementName, kind) != null) {
 					foundInParent = true;
 					break;
 				}
@@ -3196,7 +3240,7 @@ public class Java2TypeScriptTranslator extends AbstractTreePrinter {
 	 */
 	@Override
 	public void visitSelect(JCFieldAccess fieldAccess) {
-		if (!getAdapter().substitute(ExtendedElementFactory.INSTANCE.create(fieldAccess))) {
+		if (!substituted(getAdapter().substitute(ExtendedElementFactory.INSTANCE.create(fieldAccess)))) {
 			if (fieldAccess.selected.type.tsym instanceof PackageSymbol) {
 				if (context.isRootPackage(fieldAccess.selected.type.tsym)) {
 					if (fieldAccess.type != null && fieldAccess.type.tsym != null) {
@@ -3332,6 +3376,7 @@ public class Java2TypeScriptTranslator extends AbstractTreePrinter {
 			print("__debug_result(yield ");
 		}
 		getAdapter().substituteMethodInvocation(new MethodInvocationElementSupport(inv));
+		substituted(!defaultPrintedTrees.remove(inv));
 		if (debugMode) {
 			print(")");
 		}
@@ -3342,6 +3387,7 @@ public class Java2TypeScriptTranslator extends AbstractTreePrinter {
 	 * Prints a method invocation tree (default behavior).
 	 */
 	public void printDefaultMethodInvocation(JCMethodInvocation inv) {
+		defaultPrintedTrees.add(inv);
 		String meth = inv.meth.toString();
 		String methName = meth.substring(meth.lastIndexOf('.') + 1);
 		if (methName.equals("super") && getScope().removedSuperclass) {
@@ -3361,13 +3407,15 @@ public class Java2TypeScriptTranslator extends AbstractTreePrinter {
 
 		MethodType type = inv.meth.type instanceof MethodType ? (MethodType) inv.meth.type : null;
 		MethodSymbol methSym = null;
+		MethodSymbol outerMethSym = null;
 		String methodName = null;
 		boolean keywordHandled = false;
 		if (targetIsThisOrStaticImported) {
 			JCImport staticImport = getStaticGlobalImport(methName);
 			if (staticImport == null) {
 				JCClassDecl p = getParent(JCClassDecl.class);
-				methSym = p == null ? null : Util.findMethodDeclarationInType(context.types, p.sym, methName, type);
+				methSym = p == null ? null
+						: context.getMemberResolutionCache().findMethodDeclarationInType(p.sym, methName, type);
 				if (methSym != null) {
 					typeChecker.checkApply(inv, methSym);
 					if (!methSym.isStatic()) {
@@ -3412,13 +3460,14 @@ public class Java2TypeScriptTranslator extends AbstractTreePrinter {
 						if (parent != null) {
 							while (getScope(level++).innerClass) {
 								parent = getParent(JCClassDecl.class, parent);
-								if ((method = Util.findMethodDeclarationInType(context.types, parent.sym, methName,
-										type)) != null) {
+								if ((method = context.getMemberResolutionCache()
+										.findMethodDeclarationInType(parent.sym, methName, type)) != null) {
 									break;
 								}
 							}
 						}
 						if (method != null) {
+							outerMethSym = method;
 							if (method.isStatic()) {
 								print(method.getEnclosingElement().getSimpleName().toString() + ".");
 							} else {
@@ -3438,8 +3487,8 @@ public class Java2TypeScriptTranslator extends AbstractTreePrinter {
 				}
 			} else {
 				JCFieldAccess staticFieldAccess = (JCFieldAccess) staticImport.qualid;
-				methSym = Util.findMethodDeclarationInType(context.types, staticFieldAccess.selected.type.tsym,
-						methName, type);
+				methSym = context.getMemberResolutionCache()
+						.findMethodDeclarationInType(staticFieldAccess.selected.type.tsym, methName, type);
 				if (methSym != null) {
 					Map<String, VarSymbol> vars = new HashMap<>();
 					Util.fillAllVariablesInScope(vars, getStack(), inv, getParent(JCMethodDecl.class));
@@ -3473,7 +3522,8 @@ public class Java2TypeScriptTranslator extends AbstractTreePrinter {
 				if (context.isFunctionalType(selected.type.tsym)) {
 					anonymous = true;
 				}
-				methSym = Util.findMethodDeclarationInType(context.types, selected.type.tsym, methName, type);
+				methSym = context.getMemberResolutionCache().findMethodDeclarationInType(selected.type.tsym, methName,
+						type);
 				if (methSym != null) {
 					typeChecker.checkApply(inv, methSym);
 				}
@@ -3554,10 +3604,7 @@ public class Java2TypeScriptTranslator extends AbstractTreePrinter {
 						}
 					}
 					if (methSym != null) {
-						if (context.isInvalidOverload(methSym) && !methSym.getParameters().isEmpty()
-								&& !Util.hasTypeParameters(methSym) && !Util.hasVarargs(methSym)
-								&& getParent(JCMethodDecl.class) != null
-								&& !getParent(JCMethodDecl.class).sym.isDefault()) {
+						if (isStaticallyDispatchedOverload(methSym)) {
 							if (context.isInterface((TypeSymbol) methSym.getEnclosingElement())) {
 								removeLastChar('.');
 								print("['" + getOverloadMethodName(methSym) + "']");
@@ -3567,6 +3614,9 @@ public class Java2TypeScriptTranslator extends AbstractTreePrinter {
 						} else {
 							print(getTSMemberAccess(context.getActualName(methSym), removeLastChar('.')));
 						}
+					} else if (outerMethSym != null && context.options.isStaticOverloadDispatch()
+							&& isStaticallyDispatchedOverload(outerMethSym)) {
+						print(getOverloadMethodName(outerMethSym));
 					} else {
 						print(inv.meth);
 					}
@@ -3640,7 +3690,8 @@ public class Java2TypeScriptTranslator extends AbstractTreePrinter {
 
 		if ("super".equals(methName)) {
 			JCClassDecl p = getParent(JCClassDecl.class);
-			methSym = p == null ? null : Util.findMethodDeclarationInType(context.types, p.sym, "this", type);
+			methSym = p == null ? null
+					: context.getMemberResolutionCache().findMethodDeclarationInType(p.sym, "this", type);
 		}
 		for (int i = 0; i < argsLength; i++) {
 			JCExpression arg = inv.args.get(i);
@@ -3750,7 +3801,7 @@ public class Java2TypeScriptTranslator extends AbstractTreePrinter {
 			}
 		}
 
-		if (!getAdapter().substitute(ExtendedElementFactory.INSTANCE.create(ident))) {
+		if (!substituted(getAdapter().substitute(ExtendedElementFactory.INSTANCE.create(ident)))) {
 			boolean lazyInitializedStatic = false;
 			// add this of class name if ident is a field
 			if (ident.sym instanceof VarSymbol && !ident.sym.name.equals(context.names._this)
@@ -3943,7 +3994,7 @@ public class Java2TypeScriptTranslator extends AbstractTreePrinter {
 				Set<String> interfaces = new HashSet<>();
 				context.grabSupportedInterfaceNames(interfaces, clazz);
 				if (!interfaces.isEmpty()) {
-					print("Object.defineProperty(");
+					print(context.options.isInterfaceTables() ? "Object.defineProperties(" : "Object.defineProperty(");
 				}
 				print("{").println().startIndent();
 				boolean statementPrinted = false;
@@ -3960,10 +4011,12 @@ public class Java2TypeScriptTranslator extends AbstractTreePrinter {
 									JCAssign assignment = (JCAssign) ((JCExpressionStatement) s).expr;
 									VarSymbol var = null;
 									if (assignment.lhs instanceof JCFieldAccess) {
-										var = Util.findFieldDeclaration(clazz, ((JCFieldAccess) assignment.lhs).name);
+										var = context.getMemberResolutionCache().findFieldDeclaration(clazz,
+												((JCFieldAccess) assignment.lhs).name);
 										printIndent().print(var.getSimpleName().toString());
 									} else if (assignment.lhs instanceof JCIdent) {
-										var = Util.findFieldDeclaration(clazz, ((JCIdent) assignment.lhs).name);
+										var = context.getMemberResolutionCache().findFieldDeclaration(clazz,
+												((JCIdent) assignment.lhs).name);
 										printIndent().print(assignment.lhs.toString());
 									} else {
 										continue;
@@ -4042,14 +4095,21 @@ public class Java2TypeScriptTranslator extends AbstractTreePrinter {
 
 				println().endIndent().printIndent().print("}");
 				if (!interfaces.isEmpty()) {
-					print(", '" + INTERFACES_FIELD_NAME + "', { configurable: true, value: ");
+					if (context.options.isInterfaceTables()) {
+						print(", ");
+						printInterfaceMarkers(interfaces);
+						removeLastChars(2);
+						print(", '" + INTERFACES_FIELD_NAME + "': { configurable: true, value: ");
+					} else {
+						print(", '" + INTERFACES_FIELD_NAME + "', { configurable: true, value: ");
+					}
 					print("[");
 					for (String i : interfaces) {
 						print("\"").print(i).print("\",");
 					}
 					removeLastChar();
 					print("]");
-					print(" })");
+					print(context.options.isInterfaceTables() ? " } })" : " })");
 				}
 			} else {
 
@@ -4069,7 +4129,8 @@ public class Java2TypeScriptTranslator extends AbstractTreePrinter {
 								JCAssign assignment = (JCAssign) ((JCExpressionStatement) s).expr;
 								VarSymbol var = null;
 								if (assignment.lhs instanceof JCFieldAccess) {
-									var = Util.findFieldDeclaration(clazz, ((JCFieldAccess) assignment.lhs).name);
+									var = context.getMemberResolutionCache().findFieldDeclaration(clazz,
+											((JCFieldAccess) assignment.lhs).name);
 									printIndent().print("target['").print(var.getSimpleName().toString()).print("']");
 								} else if (assignment.lhs instanceof JCIdent) {
 									printIndent().print("target['").print(assignment.lhs.toString()).print("']");
@@ -4113,6 +4174,7 @@ public class Java2TypeScriptTranslator extends AbstractTreePrinter {
 				print("{}");
 			} else {
 				getAdapter().substituteNewClass(new NewClassElementSupport(newClass));
+				substituted(!defaultPrintedTrees.remove(newClass));
 			}
 		}
 
@@ -4122,6 +4184,7 @@ public class Java2TypeScriptTranslator extends AbstractTreePrinter {
 	 * Prints a new-class expression tree (default behavior).
 	 */
 	public void printDefaultNewClass(JCNewClass newClass) {
+		defaultPrintedTrees.add(newClass);
 		String mappedType = context.getTypeMappingTarget(newClass.clazz.type.toString());
 		if (typeChecker.checkType(newClass, null, newClass.clazz)) {
 
@@ -4252,6 +4315,11 @@ public class Java2TypeScriptTranslator extends AbstractTreePrinter {
 				s = s.substring(0, s.length() - 1);
 			}
 			break;
+		case CHAR:
+			if (context.options.isNumericChars()) {
+				s = literal.value + " /* " + s + " */";
+			}
+			break;
 		default:
 		}
 		print(s);
@@ -4262,7 +4330,7 @@ public class Java2TypeScriptTranslator extends AbstractTreePrinter {
 	 */
 	@Override
 	public void visitIndexed(JCArrayAccess arrayAccess) {
-		if (!getAdapter().substituteArrayAccess(new ArrayAccessElementSupport(arrayAccess))) {
+		if (!substituted(getAdapter().substituteArrayAccess(new ArrayAccessElementSupport(arrayAccess)))) {
 			print(arrayAccess.indexed).print("[")
 					.substituteAndPrintAssignedExpression(context.symtab.intType, arrayAccess.index).print("]");
 		}
@@ -4285,8 +4353,8 @@ public class Java2TypeScriptTranslator extends AbstractTreePrinter {
 			}
 			return true;
 		});
-		if (!getAdapter().substituteForEachLoop(new ForeachLoopElementSupport(foreachLoop), hasLength[0],
-				indexVarName)) {
+		if (!substituted(getAdapter().substituteForEachLoop(new ForeachLoopElementSupport(foreachLoop), hasLength[0],
+				indexVarName))) {
 			boolean noVariable = foreachLoop.expr instanceof JCIdent || foreachLoop.expr instanceof JCFieldAccess;
 			if (noVariable) {
 				print("for(" + VAR_DECL_KEYWORD + " " + indexVarName + "=0; " + indexVarName + " < ")
@@ -4331,6 +4399,13 @@ public class Java2TypeScriptTranslator extends AbstractTreePrinter {
 		}
 	}
 
+	private String getTypeInitialValue(Type type) {
+		if (type != null && type.getKind() == TypeKind.CHAR && context.isNumericChar(type)) {
+			return "0";
+		}
+		return Util.getTypeInitialValue(type);
+	}
+
 	private boolean singlePrecisionFloats() {
 		return !context.options.isDisableSinglePrecisionFloats()
 				&& context.options.getEcmaTargetVersion().higherThan(EcmaScriptComplianceLevel.ES3);
@@ -4341,7 +4416,7 @@ public class Java2TypeScriptTranslator extends AbstractTreePrinter {
 	 */
 	@Override
 	public void visitBinary(JCBinary binary) {
-		if (!getAdapter().substituteBinaryOperator(new BinaryOperatorElementSupport(binary))) {
+		if (!substituted(getAdapter().substituteBinaryOperator(new BinaryOperatorElementSupport(binary)))) {
 			String op = binary.operator.name.toString();
 			boolean forceParens = false;
 			boolean booleanOp = false;
@@ -4372,8 +4447,11 @@ public class Java2TypeScriptTranslator extends AbstractTreePrinter {
 				print("(<any>Math).fround(");
 				closeParen = true;
 			}
-			boolean charWrapping = Util.isArithmeticOrLogicalOperator(binary.getKind())
-					|| Util.isComparisonOperator(binary.getKind());
+			boolean charWrapping = !context.options.isNumericChars()
+					&& (Util.isArithmeticOrLogicalOperator(binary.getKind())
+							|| Util.isComparisonOperator(binary.getKind()));
+			boolean charConcatenation = binary.getKind() == Kind.PLUS
+					&& binary.type.tsym == context.symtab.stringType.tsym;
 			boolean actualCharWrapping = false;
 			if (charWrapping
 					&& context.types.isSameType(context.symtab.charType,
@@ -4385,6 +4463,8 @@ public class Java2TypeScriptTranslator extends AbstractTreePrinter {
 				} else {
 					print("(c => c.charCodeAt==null?<any>c:c.charCodeAt(0))(").print(binary.lhs).print(")");
 				}
+			} else if (charConcatenation && context.isNumericChar(binary.lhs.type)) {
+				print("String.fromCharCode(").print(binary.lhs).print(")");
 			} else {
 				if (forceParens) {
 					print("(");
@@ -4437,6 +4517,8 @@ public class Java2TypeScriptTranslator extends AbstractTreePrinter {
 				} else {
 					print("(c => c.charCodeAt==null?<any>c:c.charCodeAt(0))(").print(binary.rhs).print(")");
 				}
+			} else if (charConcatenation && context.isNumericChar(binary.rhs.type)) {
+				print("String.fromCharCode(").print(binary.rhs).print(")");
 			} else {
 				if (forceParens) {
 					print("(");
@@ -4512,6 +4594,20 @@ public class Java2TypeScriptTranslator extends AbstractTreePrinter {
 
 	private boolean staticInitializedAssignment = false;
 
+	// the invocations and instantiations printed by default (i.e. not
+	// substituted by the adapters)
+	private final Set<JCTree> defaultPrintedTrees = new HashSet<>();
+
+	/**
+	 * Counts the given adapter substitution in the metrics.
+	 */
+	private boolean substituted(boolean substituted) {
+		if (substituted) {
+			context.metrics.increment(TranspilationMetrics.Counter.ADAPTER_SUBSTITUTIONS);
+		}
+		return substituted;
+	}
+
 	private VarSymbol getStaticInitializedField(JCTree expr) {
 		if (expr instanceof JCIdent) {
 			return context.lazyInitializedStatics.contains(((JCIdent) expr).sym) ? (VarSymbol) ((JCIdent) expr).sym
@@ -4530,7 +4626,7 @@ public class Java2TypeScriptTranslator extends AbstractTreePrinter {
 	@Override
 	public void visitAssignop(JCAssignOp assignOp) {
 		boolean expand = staticInitializedAssignment = (getStaticInitializedField(assignOp.lhs) != null);
-		boolean expandChar = context.types.isSameType(context.symtab.charType,
+		boolean expandChar = !context.options.isNumericChars() && context.types.isSameType(context.symtab.charType,
 				context.types.unboxedTypeOrType(assignOp.lhs.type));
 		print(assignOp.lhs);
 		staticInitializedAssignment = false;
@@ -4555,7 +4651,11 @@ public class Java2TypeScriptTranslator extends AbstractTreePrinter {
 			return;
 		}
 		print(" " + op + "= ");
-		print(assignOp.rhs);
+		if (assignOp.lhs.type.tsym == context.symtab.stringType.tsym && context.isNumericChar(assignOp.rhs.type)) {
+			print("String.fromCharCode(").print(assignOp.rhs).print(")");
+		} else {
+			print(assignOp.rhs);
+		}
 	}
 
 	/**
@@ -4655,7 +4755,12 @@ public class Java2TypeScriptTranslator extends AbstractTreePrinter {
 	 */
 	@Override
 	public void visitTypeArray(JCArrayTypeTree arrayType) {
-		print(arrayType.elemtype).print("[]");
+		String typedArrayName = context.getTypedArrayName(arrayType.type);
+		if (typedArrayName != null) {
+			print(typedArrayName);
+		} else {
+			print(arrayType.elemtype).print("[]");
+		}
 	}
 
 	/**
@@ -4667,12 +4772,18 @@ public class Java2TypeScriptTranslator extends AbstractTreePrinter {
 			typeChecker.checkType(newArray, null, newArray.elemtype);
 		}
 		if (newArray.dims != null && !newArray.dims.isEmpty()) {
-			if (newArray.dims.size() == 1) {
+			// type of the innermost allocated arrays
+			String typedArrayName = context
+					.getTypedArrayName(context.types.makeArrayType(newArray.elemtype.type));
+			if (newArray.dims.size() == 1 && typedArrayName != null) {
+				// typed arrays are initialized with zeros
+				print("new " + typedArrayName + "(").print(newArray.dims.head).print(")");
+			} else if (newArray.dims.size() == 1) {
 				if (newArray.dims.head instanceof JCLiteral && ((int) ((JCLiteral) newArray.dims.head).value) <= 10) {
 					boolean hasElements = false;
 					print("[");
 					for (int i = 0; i < (int) ((JCLiteral) newArray.dims.head).value; i++) {
-						print(Util.getTypeInitialValue(newArray.elemtype.type) + ", ");
+						print(getTypeInitialValue(newArray.elemtype.type) + ", ");
 						hasElements = true;
 					}
 					if (hasElements) {
@@ -4680,13 +4791,21 @@ public class Java2TypeScriptTranslator extends AbstractTreePrinter {
 					}
 					print("]");
 				} else {
-					print("(s => { let a=[]; while(s-->0) a.push(" + Util.getTypeInitialValue(newArray.elemtype.type)
+					print("(s => { let a=[]; while(s-->0) a.push(" + getTypeInitialValue(newArray.elemtype.type)
 							+ "); return a; })(").print(newArray.dims.head).print(")");
 				}
+			} else if (typedArrayName != null) {
+				print("<any> (function(dims) { " + VAR_DECL_KEYWORD
+						+ " allocate = function(dims) { if(dims.length==1) { return new " + typedArrayName
+						+ "(dims[0]); } else { " + VAR_DECL_KEYWORD + " array = []; for(" + VAR_DECL_KEYWORD
+						+ " i = 0; i < dims[0]; i++) { array.push(allocate(dims.slice(1))); } return array; }}; return allocate(dims);})");
+				print("([");
+				printArgList(null, newArray.dims);
+				print("])");
 			} else {
 				print("<any> (function(dims) { " + VAR_DECL_KEYWORD
 						+ " allocate = function(dims) { if(dims.length==0) { return "
-						+ Util.getTypeInitialValue(newArray.elemtype.type) + "; } else { " + VAR_DECL_KEYWORD
+						+ getTypeInitialValue(newArray.elemtype.type) + "; } else { " + VAR_DECL_KEYWORD
 						+ " array = []; for(" + VAR_DECL_KEYWORD
 						+ " i = 0; i < dims[0]; i++) { array.push(allocate(dims.slice(1))); } return array; }}; return allocate(dims);})");
 				print("([");
@@ -4694,6 +4813,10 @@ public class Java2TypeScriptTranslator extends AbstractTreePrinter {
 				print("])");
 			}
 		} else {
+			String typedArrayName = context.getTypedArrayName(newArray.type);
+			if (typedArrayName != null) {
+				print("new " + typedArrayName + "(");
+			}
 			print("[");
 			if (newArray.elems != null && !newArray.elems.isEmpty()) {
 				for (JCExpression e : newArray.elems) {
@@ -4712,6 +4835,9 @@ public class Java2TypeScriptTranslator extends AbstractTreePrinter {
 				}
 			}
 			print("]");
+			if (typedArrayName != null) {
+				print(")");
+			}
 		}
 	}
 
@@ -4722,7 +4848,7 @@ public class Java2TypeScriptTranslator extends AbstractTreePrinter {
 	 */
 	@Override
 	public void visitUnary(JCUnary unary) {
-		if (!getAdapter().substituteUnaryOperator(new UnaryOperatorElementSupport(unary))) {
+		if (!substituted(getAdapter().substituteUnaryOperator(new UnaryOperatorElementSupport(unary)))) {
 			if (!inRollback) {
 				JCStatement statement = null;
 				VarSymbol[] staticInitializedField = { null };
@@ -4779,7 +4905,8 @@ public class Java2TypeScriptTranslator extends AbstractTreePrinter {
 		print("switch(");
 		print(switchStatement.selector);
 		if (context.types.isSameType(context.symtab.charType,
-				context.types.unboxedTypeOrType(switchStatement.selector.type))) {
+				context.types.unboxedTypeOrType(switchStatement.selector.type))
+				&& !context.options.isNumericChars()) {
 			print(".charCodeAt(0)");
 		}
 		print(") {").println();
@@ -4800,8 +4927,8 @@ public class Java2TypeScriptTranslator extends AbstractTreePrinter {
 	public void visitCase(JCCase caseStatement) {
 		if (caseStatement.pat != null) {
 			print("case ");
-			if (!getAdapter().substituteCaseStatementPattern(new CaseElementSupport(caseStatement),
-					ExtendedElementFactory.INSTANCE.create(caseStatement.pat))) {
+			if (!substituted(getAdapter().substituteCaseStatementPattern(new CaseElementSupport(caseStatement),
+					ExtendedElementFactory.INSTANCE.create(caseStatement.pat)))) {
 				if (caseStatement.pat.type.isPrimitive()
 						|| context.types.isSameType(context.symtab.stringType, caseStatement.pat.type)) {
 					if (caseStatement.pat instanceof JCIdent) {
@@ -4846,6 +4973,12 @@ public class Java2TypeScriptTranslator extends AbstractTreePrinter {
 		if (substituteAssignedExpression(cast.type, cast.expr)) {
 			return;
 		}
+		if (cast.type.getKind() == TypeKind.CHAR && cast.expr.type.getKind() != TypeKind.CHAR
+				&& context.isNumericChar(cast.type)) {
+			// keeps the 16 lower bits
+			print("(").print(cast.expr).print(" & 0xFFFF)");
+			return;
+		}
 		if (Util.isIntegral(cast.type)) {
 			if (cast.type.getKind() == TypeKind.LONG) {
 				print("(n => n<0?Math.ceil(n):Math.floor(n))(");
@@ -4909,7 +5042,7 @@ public class Java2TypeScriptTranslator extends AbstractTreePrinter {
 	 */
 	@Override
 	public void visitAssign(JCAssign assign) {
-		if (!getAdapter().substituteAssignment(new AssignmentElementSupport(assign))) {
+		if (!substituted(getAdapter().substituteAssignment(new AssignmentElementSupport(assign)))) {
 			staticInitializedAssignment = getStaticInitializedField(assign.lhs) != null;
 			print(assign.lhs).print(isAnnotationScope ? ": " : " = ");
 			if (!substituteAssignedExpression(assign.lhs.type, assign.rhs)) {
@@ -5131,6 +5264,20 @@ public class Java2TypeScriptTranslator extends AbstractTreePrinter {
 		}
 	}
 
+	/**
+	 * Prints the property descriptors that mark an object or a prototype as an
+	 * implementation of the given interfaces (see
+	 * {@link JSweetOptions#isInterfaceTables()}).
+	 */
+	private void printInterfaceMarkers(Set<String> interfaces) {
+		print("{ ");
+		for (String itf : interfaces) {
+			print("'" + INTERFACE_MARKER_PREFIX + itf + "': { value: true }, ");
+		}
+		removeLastChars(2);
+		print(" }");
+	}
+
 	private void printInstanceOf(String exprStr, JCTree expr, Type type) {
 		printInstanceOf(exprStr, expr, type, false);
 	}
@@ -5140,13 +5287,15 @@ public class Java2TypeScriptTranslator extends AbstractTreePrinter {
 			print("(");
 		}
 		if (checkFirstArrayElement
-				|| !getAdapter().substituteInstanceof(exprStr, ExtendedElementFactory.INSTANCE.create(expr), type)) {
+				|| !substituted(
+						getAdapter().substituteInstanceof(exprStr, ExtendedElementFactory.INSTANCE.create(expr), type))) {
 			if (TYPE_MAPPING.containsKey(type.toString())) {
 				print("typeof ");
 				print(exprStr, expr);
 				if (checkFirstArrayElement)
 					print("[0]");
-				print(" === ").print("'" + TYPE_MAPPING.get(type.toString()).toLowerCase() + "'");
+				print(" === ").print("'" + (context.isNumericChar(type) ? "number"
+						: TYPE_MAPPING.get(type.toString()).toLowerCase()) + "'");
 			} else if (type.tsym.isEnum()) {
 				print("typeof ");
 				print(exprStr, expr);
@@ -5174,7 +5323,22 @@ public class Java2TypeScriptTranslator extends AbstractTreePrinter {
 				print(exprStr, expr);
 				if (checkFirstArrayElement)
 					print("[0]");
-				if (context.isInterface(type.tsym)) {
+				if (context.isInterface(type.tsym) && context.options.isInterfaceTables()) {
+					print(" != null && ");
+					print("(");
+					print(exprStr, expr);
+					if (checkFirstArrayElement)
+						print("[0]");
+					print("[\"" + INTERFACE_MARKER_PREFIX + type.tsym.getQualifiedName().toString() + "\"] === true");
+					if (CharSequence.class.getName().equals(type.tsym.getQualifiedName().toString())) {
+						print(" || typeof ");
+						print(exprStr, expr);
+						if (checkFirstArrayElement)
+							print("[0]");
+						print(" === \"string\"");
+					}
+					print(")");
+				} else if (context.isInterface(type.tsym)) {
 					print(" != null && ");
 					print("(");
 					print(exprStr, expr);
@@ -5223,12 +5387,15 @@ public class Java2TypeScriptTranslator extends AbstractTreePrinter {
 							print(exprStr, expr);
 							if (checkFirstArrayElement)
 								print("[0]");
-							if (qualifiedName.startsWith(JSweetConfig.LIBS_PACKAGE + ".")) {
+							String typedArrayName = context.getTypedArrayName(type);
+							if (typedArrayName != null) {
+								print(" instanceof ").print(typedArrayName);
+							} else if (qualifiedName.startsWith(JSweetConfig.LIBS_PACKAGE + ".")) {
 								print(" instanceof ").print(qualifiedName);
 							} else {
 								print(" instanceof <any>").print(qualifiedName);
 							}
-							if (type instanceof ArrayType) {
+							if (type instanceof ArrayType && typedArrayName == null) {
 								ArrayType t = (ArrayType) type;
 								print(" && (");
 								print(exprStr, expr);
@@ -5239,7 +5406,8 @@ public class Java2TypeScriptTranslator extends AbstractTreePrinter {
 								print("[0] == null ||");
 								if (t.elemtype instanceof ArrayType) {
 									print(exprStr, expr);
-									print("[0] instanceof Array");
+									String elementTypedArrayName = context.getTypedArrayName(t.elemtype);
+									print("[0] instanceof " + (elementTypedArrayName != null ? elementTypedArrayName : "Array"));
 								} else {
 									printInstanceOf(exprStr, expr, t.elemtype, true);
 								}
@@ -5332,7 +5500,11 @@ public class Java2TypeScriptTranslator extends AbstractTreePrinter {
 			rootArrayAssignedTypes.push(((ArrayType) assignedType).elemtype);
 			return false;
 		}
-		if (assignedType.getTag() == TypeTag.CHAR && expression.type.getTag() != TypeTag.CHAR) {
+		if (context.options.isNumericChars()
+				&& (assignedType.getTag() == TypeTag.CHAR || expression.type.getTag() == TypeTag.CHAR)) {
+			// numeric chars need no conversion
+			return false;
+		} else if (assignedType.getTag() == TypeTag.CHAR && expression.type.getTag() != TypeTag.CHAR) {
 			print("String.fromCharCode(").print(expression).print(")");
 			return true;
 		} else if (Util.isNumber(assignedType) && expression.type.getTag() == TypeTag.CHAR) {
@@ -20,8 +20,10 @@ package org.jsweet.transpiler;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import javax.lang.model.element.Modifier;
 
@@ -387,14 +389,25 @@ public class OverloadScanner extends AbstractTreeScanner {
 		}
 	}
 
+	private boolean isIgnored(JCClassDecl classdecl) {
+		ClassSymbol clazz = classdecl.sym;
+		return clazz.getQualifiedName().toString().startsWith(JSweetConfig.LIBS_PACKAGE + ".")
+				|| context.hasAnnotationType(clazz, JSweetConfig.ANNOTATION_ERASED, JSweetConfig.ANNOTATION_AMBIENT);
+	}
+
 	@Override
 	public void visitClassDef(JCClassDecl classdecl) {
-		ClassSymbol clazz = classdecl.sym;
-		if (clazz.getQualifiedName().toString().startsWith(JSweetConfig.LIBS_PACKAGE + ".")
-				|| context.hasAnnotationType(clazz, JSweetConfig.ANNOTATION_ERASED, JSweetConfig.ANNOTATION_AMBIENT)) {
+		if (isIgnored(classdecl)) {
 			return;
 		}
+		inspectMethods(classdecl);
+		// scan all AST because of anonymous classes that may appear everywhere
+		// (including in field initializers)
+		super.visitClassDef(classdecl);
+	}
 
+	private void inspectMethods(JCClassDecl classdecl) {
+		ClassSymbol clazz = classdecl.sym;
 		for (JCTree member : classdecl.defs) {
 			if (member instanceof JCMethodDecl) {
 				if (context.hasAnnotationType(((JCMethodDecl) member).sym, JSweetConfig.ANNOTATION_ERASED,
@@ -412,9 +425,6 @@ public class OverloadScanner extends AbstractTreeScanner {
 				}
 			}
 		}
-		// scan all AST because of anonymous classes that may appear everywhere
-		// (including in field initializers)
-		super.visitClassDef(classdecl);
 	}
 
 	@Override
@@ -424,16 +434,38 @@ public class OverloadScanner extends AbstractTreeScanner {
 		setCompilationUnit(null);
 	}
 
+	private void inspectClasses(JCCompilationUnit cu) {
+		setCompilationUnit(cu);
+		Set<JCClassDecl> ignoredClasses = new HashSet<>();
+		for (JCClassDecl classdecl : context.getClassDeclarations(cu)) {
+			// classes nested in an ignored class are ignored too
+			if (ignoredClasses.contains(context.getEnclosingClassDeclaration(classdecl)) || isIgnored(classdecl)) {
+				ignoredClasses.add(classdecl);
+			} else {
+				try {
+					inspectMethods(classdecl);
+				} catch (Exception e) {
+					report(classdecl, JSweetProblem.INTERNAL_TRANSPILER_ERROR);
+					e.printStackTrace();
+				}
+			}
+		}
+		setCompilationUnit(null);
+	}
+
 	/**
 	 * Processes all the overload of a given compilation unit list.
 	 */
 	public void process(List<JCCompilationUnit> cuList) {
+		// the passes iterate over the class declarations indexed by the
+		// context (including the anonymous classes), instead of scanning the
+		// ASTs again
 		for (JCCompilationUnit cu : cuList) {
-			scan(cu);
+			inspectClasses(cu);
 		}
 		pass++;
 		for (JCCompilationUnit cu : cuList) {
-			scan(cu);
+			inspectClasses(cu);
 		}
 		for (Overload overload : context.getAllOverloads()) {
 			overload.calculate(types, context.symtab);
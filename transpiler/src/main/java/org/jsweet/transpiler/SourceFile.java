@@ -21,9 +21,13 @@ package org.jsweet.transpiler;
 import static java.util.Arrays.asList;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
 
 import org.jsweet.transpiler.util.Position;
 import org.jsweet.transpiler.util.SourceMap;
@@ -140,16 +144,77 @@ public class SourceFile {
 	 * @param sourceFiles
 	 *            the origin source files
 	 * @return the origin position
+	 * @see #findOriginPosition(SourcePosition, Map)
 	 */
 	public static SourcePosition findOriginPosition(SourcePosition position, Collection<SourceFile> sourceFiles) {
 		for (SourceFile sourceFile : sourceFiles) {
 			if (sourceFile.tsFile != null
 					&& sourceFile.tsFile.getAbsolutePath().endsWith(position.getFile().getPath())) {
-				if (sourceFile.getSourceMap() != null) {
-					Position inputPosition = sourceFile.getSourceMap().findInputPosition(position.getStartLine(),
-							position.getStartColumn());
-					if (inputPosition != null) {
-						return new SourcePosition(sourceFile.getJavaFile(), null, inputPosition);
+				SourcePosition originPosition = sourceFile.findOriginPosition(position);
+				if (originPosition != null) {
+					return originPosition;
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Indexes the given source files by the absolute path of their TypeScript
+	 * file. Several source files may share the same TypeScript file when
+	 * generating a bundle.
+	 * 
+	 * @param sourceFiles
+	 *            the source files to be indexed (files that have not been
+	 *            transpiled yet are ignored)
+	 * @return an index to be passed to
+	 *         {@link #findOriginPosition(SourcePosition, Map)}
+	 */
+	public static Map<String, SourceFile[]> indexByTsFile(Collection<SourceFile> sourceFiles) {
+		Map<String, List<SourceFile>> lists = new HashMap<>();
+		for (SourceFile sourceFile : sourceFiles) {
+			if (sourceFile.tsFile != null) {
+				lists.computeIfAbsent(sourceFile.tsFile.getAbsolutePath(), path -> new ArrayList<>(1))
+						.add(sourceFile);
+			}
+		}
+		Map<String, SourceFile[]> index = new HashMap<>(lists.size() * 2);
+		for (Map.Entry<String, List<SourceFile>> e : lists.entrySet()) {
+			index.put(e.getKey(), e.getValue().toArray(new SourceFile[e.getValue().size()]));
+		}
+		return index;
+	}
+
+	/**
+	 * Finds the mapped position in one of the origin Java source file, using
+	 * an index of the source files. The position's file is looked up by
+	 * absolute path first, and, if not found, by path suffix.
+	 * 
+	 * @param position
+	 *            the position in one of the generated TypeScript file
+	 * @param tsFileIndex
+	 *            the source files, as indexed by
+	 *            {@link #indexByTsFile(Collection)}
+	 * @return the origin position
+	 */
+	public static SourcePosition findOriginPosition(SourcePosition position, Map<String, SourceFile[]> tsFileIndex) {
+		SourceFile[] sourceFiles = tsFileIndex.get(position.getFile().getAbsolutePath());
+		if (sourceFiles != null) {
+			for (SourceFile sourceFile : sourceFiles) {
+				SourcePosition originPosition = sourceFile.findOriginPosition(position);
+				if (originPosition != null) {
+					return originPosition;
+				}
+			}
+			return null;
+		}
+		String path = position.getFile().getPath();
+		for (Map.Entry<String, SourceFile[]> e : tsFileIndex.entrySet()) {
+			if (e.getKey().endsWith(path)) {
+				for (SourceFile sourceFile : e.getValue()) {
+					SourcePosition originPosition = sourceFile.findOriginPosition(position);
+					if (originPosition != null) {
+						return originPosition;
 					}
 				}
 			}
@@ -157,6 +222,16 @@ public class SourceFile {
 		return null;
 	}
 
+	private SourcePosition findOriginPosition(SourcePosition position) {
+		if (sourceMap != null) {
+			Position inputPosition = sourceMap.findInputPosition(position.getStartLine(), position.getStartColumn());
+			if (inputPosition != null) {
+				return new SourcePosition(javaFile, null, inputPosition);
+			}
+		}
+		return null;
+	}
+
 	private File javaFile;
 
 	/**
@@ -18,9 +18,13 @@
  */
 package org.jsweet.transpiler;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -31,20 +35,33 @@ import org.jsweet.JSweetConfig;
 import org.jsweet.transpiler.util.DirectedGraph;
 import org.jsweet.transpiler.util.ReferenceGrabber;
 
+import com.sun.tools.javac.code.Symbol;
+import com.sun.tools.javac.code.Symbol.ClassSymbol;
 import com.sun.tools.javac.code.Symbol.PackageSymbol;
 import com.sun.tools.javac.code.Symbol.TypeSymbol;
+import com.sun.tools.javac.code.Symbol.VarSymbol;
 import com.sun.tools.javac.code.Type;
 import com.sun.tools.javac.tree.JCTree;
 import com.sun.tools.javac.tree.JCTree.JCBlock;
 import com.sun.tools.javac.tree.JCTree.JCClassDecl;
 import com.sun.tools.javac.tree.JCTree.JCCompilationUnit;
+import com.sun.tools.javac.tree.JCTree.JCFieldAccess;
+import com.sun.tools.javac.tree.JCTree.JCIdent;
 import com.sun.tools.javac.tree.JCTree.JCImport;
+import com.sun.tools.javac.tree.JCTree.JCMemberReference;
+import com.sun.tools.javac.tree.JCTree.JCMethodInvocation;
+import com.sun.tools.javac.tree.JCTree.JCNewClass;
+import com.sun.tools.javac.tree.JCTree.JCTypeApply;
+import com.sun.tools.javac.tree.JCTree.JCTypeCast;
 import com.sun.tools.javac.tree.JCTree.JCVariableDecl;
+import com.sun.tools.javac.tree.TreeInfo;
 import com.sun.tools.javac.tree.TreeScanner;
 
 /**
  * This AST scanner creates a class dependency graph for each package, based on
- * static field initializers.
+ * static field initializers. The graph is used to order the compilation units
+ * in bundles, and to find the static fields that can be initialized eagerly
+ * (see {@link #findEagerlyInitializableStatics(Collection)}).
  * 
  * @author Renaud Pawlak
  */
@@ -71,6 +88,10 @@ public class StaticInitilializerAnalyzer extends TreeScanner {
 	 */
 	public Map<TypeSymbol, JCCompilationUnit> typesToCompilationUnits = new HashMap<>();
 
+	private Map<VarSymbol, JCVariableDecl> staticFields = new HashMap<>();
+
+	private Map<JCCompilationUnit, Integer> initializationRanks;
+
 	/**
 	 * Creates the analyzer.
 	 */
@@ -95,13 +116,20 @@ public class StaticInitilializerAnalyzer extends TreeScanner {
 
 	@Override
 	public void visitTopLevel(JCCompilationUnit compilationUnit) {
+		if (enterTopLevel(compilationUnit)) {
+			super.visitTopLevel(compilationUnit);
+		}
+		currentTopLevel = null;
+	}
+
+	private boolean enterTopLevel(JCCompilationUnit compilationUnit) {
 		currentTopLevel = compilationUnit;
 		if (pass == 1) {
 			getGraph().add(compilationUnit);
 		} else {
 			if (compilationUnit.packge.getQualifiedName().toString().startsWith(JSweetConfig.LIBS_PACKAGE + ".")) {
 				// skip definitions
-				return;
+				return false;
 			}
 			currentTopLevelImportedTypes.clear();
 			for (JCImport i : compilationUnit.getImports()) {
@@ -121,14 +149,23 @@ public class StaticInitilializerAnalyzer extends TreeScanner {
 
 			}
 		}
-		super.visitTopLevel(compilationUnit);
-		currentTopLevel = null;
+		return true;
 	}
 
 	@Override
 	public void visitClassDef(JCClassDecl classdecl) {
+		analyzeClass(classdecl);
+		super.visitClassDef(classdecl);
+	}
+
+	private void analyzeClass(JCClassDecl classdecl) {
 		if (pass == 1) {
 			typesToCompilationUnits.put(classdecl.sym, currentTopLevel);
+			for (JCTree member : classdecl.defs) {
+				if (member instanceof JCVariableDecl && ((JCVariableDecl) member).sym.isStatic()) {
+					staticFields.put(((JCVariableDecl) member).sym, (JCVariableDecl) member);
+				}
+			}
 		} else {
 			if (classdecl.extending != null) {
 				JCCompilationUnit target = typesToCompilationUnits.get(classdecl.extending.type.tsym);
@@ -155,7 +192,6 @@ public class StaticInitilializerAnalyzer extends TreeScanner {
 				}
 			}
 		}
-		super.visitClassDef(classdecl);
 	}
 
 	private void acceptReferences(JCTree tree) {
@@ -200,16 +236,213 @@ public class StaticInitilializerAnalyzer extends TreeScanner {
 		return false;
 	}
 
+	// iterates over the class declarations indexed by the context (including
+	// the anonymous classes), instead of scanning the AST again
+	private void analyzeCompilationUnit(JCCompilationUnit compilationUnit) {
+		if (enterTopLevel(compilationUnit)) {
+			for (JCClassDecl classdecl : context.getClassDeclarations(compilationUnit)) {
+				analyzeClass(classdecl);
+			}
+		}
+		currentTopLevel = null;
+	}
+
 	/**
 	 * Processes all the given compilation units.
 	 */
 	public void process(Collection<JCCompilationUnit> compilationUnits) {
 		for (JCCompilationUnit cu : compilationUnits) {
-			scan(cu);
+			analyzeCompilationUnit(cu);
 		}
 		pass++;
 		for (JCCompilationUnit cu : compilationUnits) {
-			scan(cu);
+			analyzeCompilationUnit(cu);
+		}
+		initializationRanks = null;
+	}
+
+	/**
+	 * Gets the rank of the given compilation unit in the static initialization
+	 * order, or null if the unit's static initializers are in a dependency
+	 * cycle (or depend on a cycle).
+	 */
+	public Integer getInitializationRank(JCCompilationUnit compilationUnit) {
+		if (initializationRanks == null) {
+			initializationRanks = new HashMap<>();
+			Collection<DirectedGraph<JCCompilationUnit>> graphs = context.useModules
+					? staticInitializersDependencies.values()
+					: Collections.singletonList(globalStaticInitializersDependencies);
+			for (DirectedGraph<JCCompilationUnit> graph : graphs) {
+				List<JCCompilationUnit> orderedCompilationUnits = graph.topologicalSort(null);
+				for (int i = 0; i < orderedCompilationUnits.size(); i++) {
+					initializationRanks.put(orderedCompilationUnits.get(i), i);
+				}
+			}
+		}
+		return initializationRanks.get(compilationUnit);
+	}
+
+	/**
+	 * Finds, among the given static fields, the ones that can be initialized
+	 * eagerly with a plain static field initializer rather than with a lazy
+	 * initialization accessor. A field is eagerly initializable when its class
+	 * has no static initializer block and is not in a static initializer
+	 * dependency cycle, and when its initializer does not invoke any source
+	 * method or constructor, and only reads the static fields that are
+	 * declared before it in the same class or in the classes of the
+	 * compilation units it depends on (which are initialized first). Other
+	 * compilation units are only taken into account in bundle and module
+	 * modes, since the load order of separate files is not known otherwise.
+	 * 
+	 * @param candidates
+	 *            the static fields that need to be initialized lazily
+	 *            otherwise (this analyzer must have processed their
+	 *            compilation units)
+	 * @return the eagerly initializable fields
+	 */
+	public Set<VarSymbol> findEagerlyInitializableStatics(Collection<JCVariableDecl> candidates) {
+		Set<VarSymbol> candidateSymbols = new HashSet<>();
+		List<JCVariableDecl> sortedCandidates = new ArrayList<>();
+		for (JCVariableDecl field : candidates) {
+			candidateSymbols.add(field.sym);
+			ClassSymbol clazz = field.sym.enclClass();
+			JCCompilationUnit compilationUnit = typesToCompilationUnits.get(clazz);
+			if (field.init != null && compilationUnit != null && getInitializationRank(compilationUnit) != null
+					&& context.getStaticInitializerCount(clazz) == 0 && !context.isInterface(clazz)
+					&& !clazz.isEnum()
+					&& !JSweetConfig.GLOBALS_CLASS_NAME.equals(clazz.getSimpleName().toString())) {
+				sortedCandidates.add(field);
+			}
+		}
+		// the dependencies are decided first, in declaration order
+		sortedCandidates.sort(Comparator
+				.comparingInt((JCVariableDecl field) -> getInitializationRank(
+						typesToCompilationUnits.get(field.sym.enclClass())))
+				.thenComparingInt(field -> field.pos));
+		Set<VarSymbol> eagerStatics = new HashSet<>();
+		for (JCVariableDecl field : sortedCandidates) {
+			EagerInitializationChecker checker = new EagerInitializationChecker(field, candidateSymbols, eagerStatics);
+			checker.scan(field.init);
+			if (checker.eager) {
+				eagerStatics.add(field.sym);
+			}
+		}
+		logger.debug("eagerly initialized statics: " + eagerStatics.size() + "/" + candidates.size());
+		return eagerStatics;
+	}
+
+	private class EagerInitializationChecker extends TreeScanner {
+
+		boolean eager = true;
+		private JCVariableDecl field;
+		private ClassSymbol clazz;
+		private JCCompilationUnit compilationUnit;
+		private Set<VarSymbol> candidates;
+		private Set<VarSymbol> eagerStatics;
+
+		EagerInitializationChecker(JCVariableDecl field, Set<VarSymbol> candidates, Set<VarSymbol> eagerStatics) {
+			this.field = field;
+			this.clazz = field.sym.enclClass();
+			this.compilationUnit = typesToCompilationUnits.get(clazz);
+			this.candidates = candidates;
+			this.eagerStatics = eagerStatics;
+		}
+
+		@Override
+		public void scan(JCTree tree) {
+			if (eager) {
+				super.scan(tree);
+			}
+		}
+
+		private void checkType(TypeSymbol type) {
+			JCCompilationUnit target = typesToCompilationUnits.get(type);
+			if (target == null || type == clazz) {
+				return;
+			}
+			// the other classes of the unit may not be defined yet, and the
+			// other units are loaded in the initialization order only by
+			// bundles and modules
+			if (target == compilationUnit || (!context.useModules && !context.options.isBundle())
+					|| (context.useModules && !target.packge.equals(compilationUnit.packge))
+					|| getInitializationRank(target) == null) {
+				eager = false;
+				return;
+			}
+			DirectedGraph<JCCompilationUnit> graph = context.useModules
+					? staticInitializersDependencies.get(compilationUnit.packge)
+					: globalStaticInitializersDependencies;
+			if (!graph.hasEdge(target, compilationUnit)) {
+				eager = false;
+			}
+		}
+
+		private void checkSymbol(Symbol symbol) {
+			if (symbol instanceof ClassSymbol) {
+				checkType((ClassSymbol) symbol);
+			} else if (symbol instanceof VarSymbol && symbol.isStatic() && symbol.owner instanceof ClassSymbol) {
+				if (symbol.owner == clazz && !"class".equals(symbol.getSimpleName().toString())) {
+					JCVariableDecl declaration = staticFields.get(symbol);
+					if (declaration == null || declaration.pos >= field.pos
+							|| (candidates.contains(symbol) && !eagerStatics.contains(symbol))) {
+						eager = false;
+					}
+				} else {
+					checkType((ClassSymbol) symbol.owner);
+				}
+			}
+		}
+
+		@Override
+		public void visitIdent(JCIdent ident) {
+			checkSymbol(ident.sym);
+		}
+
+		@Override
+		public void visitSelect(JCFieldAccess fieldAccess) {
+			checkSymbol(fieldAccess.sym);
+			super.visitSelect(fieldAccess);
+		}
+
+		@Override
+		public void visitApply(JCMethodInvocation invocation) {
+			Symbol method = TreeInfo.symbol(invocation.meth);
+			if (method != null && typesToCompilationUnits.containsKey(method.enclClass())) {
+				eager = false;
+				return;
+			}
+			scan(invocation.args);
+			if (invocation.meth instanceof JCFieldAccess) {
+				scan(((JCFieldAccess) invocation.meth).selected);
+			}
+		}
+
+		@Override
+		public void visitNewClass(JCNewClass newClass) {
+			if (newClass.def != null || typesToCompilationUnits.containsKey(newClass.type.tsym)) {
+				eager = false;
+				return;
+			}
+			scan(newClass.args);
+		}
+
+		@Override
+		public void visitReference(JCMemberReference reference) {
+			if (reference.sym != null && typesToCompilationUnits.containsKey(reference.sym.enclClass())) {
+				eager = false;
+				return;
+			}
+			super.visitReference(reference);
+		}
+
+		@Override
+		public void visitTypeApply(JCTypeApply typeApply) {
+			scan(typeApply.clazz);
+		}
+
+		@Override
+		public void visitTypeCast(JCTypeCast typeCast) {
+			scan(typeCast.expr);
 		}
 	}
 
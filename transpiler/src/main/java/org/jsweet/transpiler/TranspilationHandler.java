@@ -18,7 +18,11 @@
  */
 package org.jsweet.transpiler;
 
+import java.io.File;
+import java.util.Set;
+
 import org.apache.log4j.Logger;
+import org.jsweet.transpiler.util.TranspilationMetrics;
 
 /**
  * Objects implementing this interface handle transpilation errors and warnings.
@@ -61,4 +65,65 @@ public interface TranspilationHandler {
 	 */
 	void onCompleted(JSweetTranspiler transpiler, boolean fullPass, SourceFile[] files);
 
+	/**
+	 * This method is invoked when the tranpilation process ends, with the
+	 * output files whose content changed during the transpilation (unchanged
+	 * files are not written again). By default, it delegates to
+	 * {@link #onCompleted(JSweetTranspiler, boolean, SourceFile[])}.
+	 * 
+	 * @param transpiler
+	 *            the transpiler that generates this event
+	 * @param fullPass
+	 *            true for a full transpilation, false for an incremental
+	 *            transpilation in the watch mode
+	 * @param files
+	 *            the files that were transpiled
+	 * @param changedOutputFiles
+	 *            the generated files that were written because their content
+	 *            changed (empty for a no-op rebuild)
+	 */
+	default void onCompleted(JSweetTranspiler transpiler, boolean fullPass, SourceFile[] files,
+			Set<File> changedOutputFiles) {
+		onCompleted(transpiler, fullPass, files);
+	}
+
+	/**
+	 * This method is invoked when a transpilation phase starts.
+	 * 
+	 * @param transpiler
+	 *            the transpiler that generates this event
+	 * @param phase
+	 *            the started phase
+	 */
+	default void onPhaseStarted(JSweetTranspiler transpiler, TranspilationMetrics.Phase phase) {
+	}
+
+	/**
+	 * This method is invoked when a transpilation phase ends.
+	 * 
+	 * @param transpiler
+	 *            the transpiler that generates this event
+	 * @param phase
+	 *            the ended phase
+	 * @param durationMillis
+	 *            the duration of the phase, in milliseconds
+	 */
+	default void onPhaseCompleted(JSweetTranspiler transpiler, TranspilationMetrics.Phase phase,
+			long durationMillis) {
+	}
+
+	/**
+	 * This method is invoked at the end of
+	 * {@link JSweetTranspiler#transpile(TranspilationHandler, SourceFile...)},
+	 * with the metrics of the transpilation (in the tsc watch mode, the
+	 * asynchronous TypeScript compilations are not included).
+	 * 
+	 * @param transpiler
+	 *            the transpiler that generates this event
+	 * @param metrics
+	 *            the phase durations and the counters of the transpilation
+	 */
+	default void onMetrics(JSweetTranspiler transpiler, TranspilationMetrics metrics) {
+	}
+
 }
\ No newline at end of file
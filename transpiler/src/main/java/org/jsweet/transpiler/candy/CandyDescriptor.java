@@ -19,6 +19,8 @@
 package org.jsweet.transpiler.candy;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Enumeration;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -34,7 +36,6 @@ import org.apache.commons.lang3.StringUtils;
 
 import com.google.gson.Gson;
 import java.io.InputStream;
-import java.util.Optional;
 import java.util.Properties;
 
 /**
@@ -48,6 +49,7 @@ import java.util.Properties;
 public class CandyDescriptor {
 
     public static final String UNKNOWN = "unknown";
+    private final static String WEBJARS_DIR_PATH = "META-INF/resources/webjars/";
     private final static Pattern MODEL_VERSION_PATTERN = Pattern
             .compile("[\\<]groupId[\\>]org[.]jsweet[.]candies[.](.*)[\\<]/groupId[\\>]");
     private final static Gson GSON = new Gson(); //todo : is this class really thread safe ?
@@ -98,8 +100,21 @@ public class CandyDescriptor {
 
     public static CandyDescriptor fromCandyJar(JarFile jarFile, String jsOutputDirPath) throws IOException {
         
-        final Optional<JarEntry> pomXmlEntry = jarFile.stream().filter((JarEntry t) -> t.getName().endsWith("pom.xml")).findFirst();
-        final Optional<JarEntry> pomPropertiesEntry = jarFile.stream().filter((JarEntry t) -> t.getName().endsWith("pom.properties")).findFirst();
+        // single pass over the jar's central directory
+        JarEntry pomXmlEntry = null;
+        JarEntry pomPropertiesEntry = null;
+        final List<String> webjarJsFilesPaths = new ArrayList<>();
+        for (Enumeration<JarEntry> entries = jarFile.entries(); entries.hasMoreElements();) {
+            final JarEntry entry = entries.nextElement();
+            final String entryName = entry.getName();
+            if (pomXmlEntry == null && entryName.endsWith("pom.xml")) {
+                pomXmlEntry = entry;
+            } else if (pomPropertiesEntry == null && entryName.endsWith("pom.properties")) {
+                pomPropertiesEntry = entry;
+            } else if (entryName.startsWith(WEBJARS_DIR_PATH) && entryName.endsWith(".js")) {
+                webjarJsFilesPaths.add(entryName);
+            }
+        }
         final ZipEntry metadataEntry = jarFile.getEntry("META-INF/candy-metadata.json");
         final long lastUpdateTimestamp = jarFile.getEntry("META-INF/MANIFEST.MF").getTime();
 
@@ -109,18 +124,18 @@ public class CandyDescriptor {
         String version = UNKNOWN;
         String transpilerVersion = null;
 
-        if (pomPropertiesEntry.isPresent()) {
+        if (pomPropertiesEntry != null) {
             final Properties props = new Properties();
-            try (InputStream in = jarFile.getInputStream(pomPropertiesEntry.get())) {
+            try (InputStream in = jarFile.getInputStream(pomPropertiesEntry)) {
                 props.load(in);
             }
             name = props.getProperty("artifactId");
             version = props.getProperty("version");
         }
         
-        if (pomXmlEntry.isPresent()) {
+        if (pomXmlEntry != null) {
             final String pomContent;
-            try (InputStream in = jarFile.getInputStream(pomXmlEntry.get())) {
+            try (InputStream in = jarFile.getInputStream(pomXmlEntry)) {
                 pomContent = IOUtils.toString(in);
             }
             
@@ -136,19 +151,22 @@ public class CandyDescriptor {
         }
 
         if (metadataEntry != null) {
-            final String metadataContent = IOUtils.toString(jarFile.getInputStream(metadataEntry));
+            final String metadataContent;
+            try (InputStream in = jarFile.getInputStream(metadataEntry)) {
+                metadataContent = IOUtils.toString(in);
+            }
             @SuppressWarnings("unchecked")
             final Map<String, ?> metadata = GSON.fromJson(metadataContent, Map.class);
             transpilerVersion = (String) metadata.get("transpilerVersion");
         }
 
-        final String jsDirPath = "META-INF/resources/webjars/" + (UNKNOWN.equals(version) ? "" : name + "/" + version);
+        final String jsDirPath = WEBJARS_DIR_PATH + (UNKNOWN.equals(version) ? "" : name + "/" + version);
         final ZipEntry jsDirEntry = jarFile.getEntry(jsDirPath);
         final List<String> jsFilesPaths = new LinkedList<>();
         if (jsDirEntry != null) {
             // collects js files
-            jarFile.stream().map(JarEntry::getName)
-                    .filter((String t) -> t.startsWith(jsDirPath) && t.endsWith(".js"))
+            webjarJsFilesPaths.stream()
+                    .filter((String t) -> t.startsWith(jsDirPath))
                     .forEach(jsFilesPaths::add);
         }
 
@@ -20,13 +20,22 @@ package org.jsweet.transpiler.candy;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Predicate;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
+import java.util.stream.Collectors;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.FilenameUtils;
@@ -71,6 +80,11 @@ public class CandyProcessor {
 	 */
 	public static final String CANDIES_STORE_FILE_NAME = CANDIES_DIR_NAME + File.separator
 			+ CandyStore.class.getSimpleName() + ".json";
+	/**
+	 * The name of the file that caches the scan of the classpath jars.
+	 */
+	public static final String CANDIES_SCAN_CACHE_FILE_NAME = CANDIES_DIR_NAME + File.separator
+			+ CandyScanCache.class.getSimpleName() + ".json";
 	/**
 	 * The name of the directory that contains the TypeScript source files.
 	 */
@@ -83,6 +97,7 @@ public class CandyProcessor {
 
 	private File candiesSourceDir;
 	private File candyStoreFile;
+	private File candyScanCacheFile;
 	private File candiesTsdefsDir;
 	private File candiesJavascriptOutDir;
 	private File workingDir;
@@ -114,6 +129,7 @@ public class CandyProcessor {
 		logger.info("candies processor classpath: " + this.classPath);
 		candiesSourceDir = new File(workingDir, CANDIES_SOURCES_DIR_NAME);
 		candyStoreFile = new File(workingDir, CANDIES_STORE_FILE_NAME);
+		candyScanCacheFile = new File(workingDir, CANDIES_SCAN_CACHE_FILE_NAME);
 		candiesTsdefsDir = new File(workingDir, CANDIES_TSDEFS_DIR_NAME);
 
 		setCandiesJavascriptOutDir(extractedCandiesJavascriptDir);
@@ -159,7 +175,7 @@ public class CandyProcessor {
 		logger.info("candies changed, processing candies: " + this.candyStore);
 
 		try {
-			extractCandies(newCandiesDescriptors);
+			extractCandies(newCandiesDescriptors, candiesStore, newStore);
 
 			writeCandyStore();
 
@@ -189,25 +205,41 @@ public class CandyProcessor {
 	private LinkedHashMap<File, CandyDescriptor> getCandiesDescriptorsFromClassPath(
 			TranspilationHandler transpilationHandler) throws IOException {
 		LinkedHashMap<File, CandyDescriptor> jarFilesCollector = new LinkedHashMap<>();
+		CandyScanCache scanCache = getCandyScanCache();
+		String jsOutputDirPath = candiesJavascriptOutDir.getAbsolutePath();
+		List<String> jarPaths = new ArrayList<>();
+		boolean scanCacheChanged = false;
 		for (String classPathEntry : classPath.split("[" + System.getProperty("path.separator") + "]")) {
 			if (classPathEntry.endsWith(".jar")) {
 				File jarFile = new File(classPathEntry);
-				try (JarFile jarFileHandle = new JarFile(jarFile)) {
-					JarEntry candySpecificEntry = jarFileHandle
-							.getJarEntry("META-INF/maven/" + JSweetConfig.MAVEN_CANDIES_GROUP);
-					JarEntry candySpecificEntry2 = jarFileHandle.getJarEntry("META-INF/candy-metadata.json");
-					boolean isCandy = candySpecificEntry != null || candySpecificEntry2 != null;
-					if (isCandy) {
-						CandyDescriptor descriptor = CandyDescriptor.fromCandyJar(jarFileHandle,
-								candiesJavascriptOutDir.getAbsolutePath());
-
-						checkCandyVersion(descriptor, transpilationHandler);
-						jarFilesCollector.put(jarFile, descriptor);
+				jarPaths.add(jarFile.getAbsolutePath());
+				CandyDescriptor descriptor;
+				CandyScanCache.Entry cacheEntry = scanCache.get(jarFile, jsOutputDirPath);
+				if (cacheEntry != null) {
+					descriptor = cacheEntry.getCandy();
+				} else {
+					descriptor = null;
+					try (JarFile jarFileHandle = new JarFile(jarFile)) {
+						JarEntry candySpecificEntry = jarFileHandle
+								.getJarEntry("META-INF/maven/" + JSweetConfig.MAVEN_CANDIES_GROUP);
+						JarEntry candySpecificEntry2 = jarFileHandle.getJarEntry("META-INF/candy-metadata.json");
+						boolean isCandy = candySpecificEntry != null || candySpecificEntry2 != null;
+						if (isCandy) {
+							descriptor = CandyDescriptor.fromCandyJar(jarFileHandle, jsOutputDirPath);
+						}
 					}
+					scanCache.put(jarFile, descriptor);
+					scanCacheChanged = true;
+				}
+				if (descriptor != null) {
+					checkCandyVersion(descriptor, transpilationHandler);
+					jarFilesCollector.put(jarFile, descriptor);
 				}
-
 			}
 		}
+		if (scanCache.retainAll(jarPaths) || scanCacheChanged) {
+			writeCandyScanCache();
+		}
 		logger.info(jarFilesCollector.keySet().size() + " candies found in classpath");
 
 		return jarFilesCollector;
@@ -240,15 +272,52 @@ public class CandyProcessor {
 		}
 	}
 
-	private void extractCandies(Map<File, CandyDescriptor> candies) throws IOException {
+	/**
+	 * Extracts the candies that were added or updated since the previous store
+	 * (in parallel), and removes the files of the candies that were removed or
+	 * updated. The files of the unchanged candies are left untouched.
+	 */
+	private void extractCandies(Map<File, CandyDescriptor> candies, CandyStore previousStore, CandyStore newStore)
+			throws IOException {
 		File extractedSourcesDir = candiesSourceDir;
 		File extractedTsDefsDir = candiesTsdefsDir;
-		FileUtils.deleteQuietly(extractedSourcesDir);
-		FileUtils.deleteQuietly(extractedTsDefsDir);
+		Map<String, List<String>> previousExtractedFiles = previousStore.getExtractedFiles();
+		if (previousExtractedFiles == null) {
+			// the extracted files are unknown: start from scratch
+			FileUtils.deleteQuietly(extractedSourcesDir);
+			FileUtils.deleteQuietly(extractedTsDefsDir);
+			previousExtractedFiles = new HashMap<>();
+		}
 		extractedSourcesDir.mkdirs();
 		extractedTsDefsDir.mkdirs();
+
+		Map<String, List<String>> extractedFiles = new HashMap<>();
+		Set<String> keptFiles = new HashSet<>();
+		List<Map.Entry<File, CandyDescriptor>> candiesToExtract = new ArrayList<>();
 		for (Map.Entry<File, CandyDescriptor> candy : candies.entrySet()) {
+			String key = CandyStore.getKey(candy.getValue());
+			List<String> files = previousExtractedFiles.get(key);
+			if (files != null) {
+				extractedFiles.put(key, files);
+				keptFiles.addAll(files);
+			} else {
+				candiesToExtract.add(candy);
+			}
+		}
 
+		for (Map.Entry<String, List<String>> previousCandy : previousExtractedFiles.entrySet()) {
+			if (!extractedFiles.containsKey(previousCandy.getKey())) {
+				logger.info("remove candy: " + previousCandy.getKey());
+				for (String file : previousCandy.getValue()) {
+					if (!keptFiles.contains(file)) {
+						FileUtils.deleteQuietly(new File(file));
+					}
+				}
+			}
+		}
+
+		logger.info("extracting " + candiesToExtract.size() + " candies (" + extractedFiles.size() + " up to date)");
+		List<List<String>> newExtractedFiles = candiesToExtract.parallelStream().map(candy -> {
 			CandyDescriptor candyDescriptor = candy.getValue();
 			File jarFile = candy.getKey();
 
@@ -259,18 +328,24 @@ public class CandyProcessor {
 				File candyExtractedSourcesDir = new File(extractedSourcesDir, candyJarName);
 				File candyExtractedJsDir = new File(candiesJavascriptOutDir, candyJarName);
 
-				extractCandy( //
+				return extractCandy( //
 						candyDescriptor, //
 						jarFileHandle, //
 						candyExtractedSourcesDir, //
 						extractedTsDefsDir, //
 						candyExtractedJsDir, //
 						isCore ? tsDefName -> false : null);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
 			}
+		}).collect(Collectors.toList());
+		for (int i = 0; i < candiesToExtract.size(); i++) {
+			extractedFiles.put(CandyStore.getKey(candiesToExtract.get(i).getValue()), newExtractedFiles.get(i));
 		}
+		newStore.setExtractedFiles(extractedFiles);
 	}
 
-	private void extractCandy( //
+	private List<String> extractCandy( //
 			CandyDescriptor descriptor, //
 			JarFile jarFile, //
 			File javaOutputDirectory, //
@@ -280,6 +355,7 @@ public class CandyProcessor {
 		logger.info("extract candy: " + jarFile.getName() + " javaOutputDirectory=" + javaOutputDirectory
 				+ " tsDefOutputDirectory=" + tsDefOutputDirectory + " jsOutputDir=" + jsOutputDirectory);
 
+		List<String> extractedFiles = new ArrayList<>();
 		jarFile.stream()
 				.filter(entry -> entry.getName().endsWith(".d.ts")
 						&& (entry.getName().startsWith("src/") || entry.getName().startsWith("META-INF/resources/"))) //
@@ -297,7 +373,7 @@ public class CandyProcessor {
 					} else {
 						out = null;
 					}
-					extractEntry(jarFile, entry, out);
+					extractEntry(jarFile, entry, out, extractedFiles);
 				});
 
 		for (String jsFilePath : descriptor.jsFilesPaths) {
@@ -305,17 +381,28 @@ public class CandyProcessor {
 			String relativeJsPath = jsFilePath.substring(descriptor.jsDirPath.length());
 
 			File out = new File(jsOutputDirectory, relativeJsPath);
-			extractEntry(jarFile, entry, out);
+			extractEntry(jarFile, entry, out, extractedFiles);
 		}
+		return extractedFiles;
 	}
 
-	private void extractEntry(JarFile jarFile, JarEntry entry, File out) {
+	private void extractEntry(JarFile jarFile, JarEntry entry, File out, List<String> extractedFiles) {
 		if (out == null) {
 			return;
 		}
-		out.getParentFile().mkdirs();
 		try {
-			FileUtils.copyInputStreamToFile(jarFile.getInputStream(entry), out);
+			Path target = out.getAbsoluteFile().toPath();
+			Files.createDirectories(target.getParent());
+			// candies are extracted in parallel: write to a temporary file so
+			// that a file provided by several candies is never half-written
+			Path tmp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+			try (InputStream in = jarFile.getInputStream(entry)) {
+				Files.copy(in, tmp, StandardCopyOption.REPLACE_EXISTING);
+				Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+			} finally {
+				Files.deleteIfExists(tmp);
+			}
+			extractedFiles.add(target.toString());
 		} catch (Exception e) {
 			throw new RuntimeException(e);
 		}
@@ -328,6 +415,7 @@ public class CandyProcessor {
 	 */
 	public void touch() {
 		candyStore = null;
+		candyScanCache = null;
 	}
 
 	private CandyStore getCandiesStore() {
@@ -358,6 +446,37 @@ public class CandyProcessor {
 		}
 	}
 
+	private CandyScanCache candyScanCache;
+
+	private CandyScanCache getCandyScanCache() {
+		if (candyScanCache == null) {
+			if (candyScanCacheFile.exists()) {
+				try {
+					candyScanCache = gson.fromJson(FileUtils.readFileToString(candyScanCacheFile),
+							CandyScanCache.class);
+				} catch (Exception e) {
+					logger.error("cannot read candies scan cache", e);
+				}
+			}
+
+			if (candyScanCache == null) {
+				candyScanCache = new CandyScanCache();
+			}
+		}
+
+		return candyScanCache;
+	}
+
+	private void writeCandyScanCache() {
+		if (candyScanCache != null) {
+			try {
+				FileUtils.write(candyScanCacheFile, gson.toJson(candyScanCache));
+			} catch (Exception e) {
+				logger.error("cannot write candies scan cache", e);
+			}
+		}
+	}
+
 	/**
 	 * Checks if the candy store contains a deprecated candy.
 	 */
@@ -0,0 +1,105 @@
+/*
+ * JSweet transpiler - http://www.jsweet.org
+ * Copyright (C) 2015 CINCHEO SAS <renaud.pawlak@cincheo.fr>
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package org.jsweet.transpiler.candy;
+
+import java.io.File;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * A class that is serialized to remember the result of the scan of the
+ * classpath jars, so that the jars that did not change (same size and last
+ * modification time) do not need to be opened again.
+ *
+ * @author Renaud Pawlak
+ */
+class CandyScanCache {
+
+	/**
+	 * The scan result for a jar.
+	 */
+	static class Entry {
+		private long size;
+		private long lastModified;
+		/**
+		 * The candy descriptor, or null if the jar is not a candy.
+		 */
+		private CandyDescriptor candy;
+
+		public CandyDescriptor getCandy() {
+			return candy;
+		}
+	}
+
+	private Map<String, Entry> jars = new HashMap<>();
+
+	/**
+	 * Gets the scan result of the given jar, or null if the jar was not
+	 * scanned or changed since it was scanned.
+	 *
+	 * @param jarFile
+	 *            the jar file
+	 * @param jsOutputDirPath
+	 *            the current candies JavaScript output directory (the cached
+	 *            candy descriptors depend on it)
+	 */
+	public Entry get(File jarFile, String jsOutputDirPath) {
+		Entry entry = jars.get(jarFile.getAbsolutePath());
+		if (entry == null || entry.size != jarFile.length() || entry.lastModified != jarFile.lastModified()) {
+			return null;
+		}
+		if (entry.candy != null && !StringUtils.equals(entry.candy.jsOutputDirPath, jsOutputDirPath)) {
+			return null;
+		}
+		return entry;
+	}
+
+	/**
+	 * Stores the scan result of the given jar.
+	 *
+	 * @param jarFile
+	 *            the jar file
+	 * @param candy
+	 *            the candy descriptor, or null if the jar is not a candy
+	 */
+	public void put(File jarFile, CandyDescriptor candy) {
+		Entry entry = new Entry();
+		entry.size = jarFile.length();
+		entry.lastModified = jarFile.lastModified();
+		entry.candy = candy;
+		jars.put(jarFile.getAbsolutePath(), entry);
+	}
+
+	/**
+	 * Removes the jars that are not in the given collection.
+	 *
+	 * @return true if some jars were removed
+	 */
+	public boolean retainAll(Collection<String> jarPaths) {
+		return jars.keySet().retainAll(jarPaths);
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + "=" + jars.keySet();
+	}
+}
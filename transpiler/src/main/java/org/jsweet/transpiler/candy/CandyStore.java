@@ -20,6 +20,7 @@ package org.jsweet.transpiler.candy;
 
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * A class that is serialized to store information on the processed candies.
@@ -28,6 +29,11 @@ import java.util.List;
  */
 class CandyStore {
 	private List<CandyDescriptor> candies = new LinkedList<>();
+	/**
+	 * The files extracted for each candy (see {@link #getKey(CandyDescriptor)}),
+	 * or null if unknown (stores written by previous versions).
+	 */
+	private Map<String, List<String>> extractedFiles;
 
 	public CandyStore() {
 		this(new LinkedList<CandyDescriptor>());
@@ -60,4 +66,19 @@ class CandyStore {
 	public List<CandyDescriptor> getCandies() {
 		return candies;
 	}
+
+	public Map<String, List<String>> getExtractedFiles() {
+		return extractedFiles;
+	}
+
+	public void setExtractedFiles(Map<String, List<String>> extractedFiles) {
+		this.extractedFiles = extractedFiles;
+	}
+
+	/**
+	 * Gets the key that identifies the extraction of the given candy.
+	 */
+	public static String getKey(CandyDescriptor candy) {
+		return candy.name + "-" + candy.version + "@" + candy.lastUpdateTimestamp + ":" + candy.jsOutputDirPath;
+	}
 }
\ No newline at end of file
@@ -68,6 +68,7 @@ import javax.lang.model.element.ElementKind;
 import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.Modifier;
 import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.ArrayType;
 import javax.lang.model.type.TypeMirror;
 
 import org.apache.commons.lang3.StringUtils;
@@ -189,7 +190,7 @@ public class Java2TypeScriptAdapter extends PrinterAdapter {
 		addTypeMapping(Byte.class.getName(), "number");
 		addTypeMapping(Double.class.getName(), "number");
 		addTypeMapping(Boolean.class.getName(), "boolean");
-		addTypeMapping(Character.class.getName(), "string");
+		addTypeMapping(Character.class.getName(), context.options.isNumericChars() ? "number" : "string");
 		addTypeMapping(CharSequence.class.getName(), "any");
 		addTypeMapping(Void.class.getName(), "void");
 		addTypeMapping("double", "number");
@@ -198,7 +199,7 @@ public class Java2TypeScriptAdapter extends PrinterAdapter {
 		addTypeMapping("long", "number");
 		addTypeMapping("byte", "number");
 		addTypeMapping("short", "number");
-		addTypeMapping("char", "string");
+		addTypeMapping("char", context.options.isNumericChars() ? "number" : "string");
 		addTypeMapping("Class", "any");
 		addTypeMapping(LANG_PACKAGE + ".Object", "Object");
 		addTypeMapping(LANG_PACKAGE + ".Boolean", "boolean");
@@ -362,14 +363,14 @@ public class Java2TypeScriptAdapter extends PrinterAdapter {
 				if ("System.out".equals(invocationElement.getTargetExpression().toString())) {
 					PrinterAdapter print = print("console.info(");
 					if (invocationElement.getArgumentCount() > 0)
-						print.print(invocationElement.getArgument(0));
+						printCharAsString(invocationElement.getArgument(0));
 					print.print(")");
 					return true;
 				}
 				if ("System.err".equals(invocationElement.getTargetExpression().toString())) {
 					PrinterAdapter print = print("console.error(");
 					if (invocationElement.getArgumentCount() > 0)
-						print.print(invocationElement.getArgument(0));
+						printCharAsString(invocationElement.getArgument(0));
 					print.print(")");
 					return true;
 				}
@@ -826,9 +827,17 @@ public class Java2TypeScriptAdapter extends PrinterAdapter {
 				switch (targetMethodName) {
 				case "valueOf":
 					printMacroName(targetMethodName);
-					if (invocationElement.getArgumentCount() == 3) {
+					if (context.options.isNumericChars() && invocationElement.getArgumentCount() == 3) {
+						print("((str, index, len) => String.fromCharCode.apply(null, str.slice(index, index + len)))(")
+								.printArgList(invocationElement.getArguments()).print(")");
+					} else if (invocationElement.getArgumentCount() == 3) {
 						print("((str, index, len) => str.join('').substring(index, index + len))(")
 								.printArgList(invocationElement.getArguments()).print(")");
+					} else if (context.isNumericChar(invocationElement.getArgument(0).getType())) {
+						print("String.fromCharCode(").print(invocationElement.getArgument(0)).print(")");
+					} else if (invocationElement.getArgument(0).getType() instanceof ArrayType && context
+							.isNumericChar(((ArrayType) invocationElement.getArgument(0).getType()).getComponentType())) {
+						print("String.fromCharCode.apply(null, ").print(invocationElement.getArgument(0)).print(")");
 					} else {
 						print("new String(").printArgList(invocationElement.getArguments()).print(").toString()");
 					}
@@ -902,10 +911,14 @@ public class Java2TypeScriptAdapter extends PrinterAdapter {
 				case "toCharArray":
 					printMacroName(targetMethodName);
 					print("(").print(invocationElement.getTargetExpression()).print(").split('')");
+					if (context.options.isNumericChars()) {
+						print(".map(s => s.charCodeAt(0))");
+					}
 					return true;
 				case "getChars":
 					printMacroName(targetMethodName);
-					print("((a, s, e, d, l) => { d.splice.apply(d, [l, e-s].concat(<any>a.substring(s, e).split(''))); })(")
+					print("((a, s, e, d, l) => { d.splice.apply(d, [l, e-s].concat(<any>a.substring(s, e).split('')"
+							+ (context.options.isNumericChars() ? ".map(c => c.charCodeAt(0))" : "") + ")); })(")
 							.print(invocationElement.getTargetExpression()).print(", ")
 							.printArgList(invocationElement.getArguments()).print(")");
 					return true;
@@ -917,23 +930,33 @@ public class Java2TypeScriptAdapter extends PrinterAdapter {
 					return true;
 				case "replace":
 					printMacroName(targetMethodName);
-					print(invocationElement.getTargetExpression()).print(".split(")
-							.print(invocationElement.getArguments().get(0)).print(").join(")
-							.print(invocationElement.getArguments().get(1)).print(")");
-					return true;
-				case "lastIndexOf":
-					print(invocationElement.getTargetExpression()).print(".lastIndexOf(")
-							.printArgList(invocationElement.getArguments()).print(")");
+					print(invocationElement.getTargetExpression()).print(".split(");
+					printCharAsString(invocationElement.getArguments().get(0)).print(").join(");
+					printCharAsString(invocationElement.getArguments().get(1)).print(")");
 					return true;
+				case "charAt":
+					if (context.options.isNumericChars()) {
+						printMacroName(targetMethodName);
+						print(invocationElement.getTargetExpression()).print(".charCodeAt(")
+								.printArgList(invocationElement.getArguments()).print(")");
+						return true;
+					}
+					break;
 				case "indexOf":
-					if (invocationElement.getArgumentCount() == 1
-							&& util().isNumber(invocationElement.getArgument(0).getType())) {
-						print(invocationElement.getTargetExpression()).print(".indexOf(String.fromCharCode(")
-								.print(invocationElement.getArgument(0)).print("))");
+				case "lastIndexOf":
+					print(invocationElement.getTargetExpression()).print("." + targetMethodName + "(");
+					if (util().isNumber(invocationElement.getArgument(0).getType())
+							|| context.isNumericChar(invocationElement.getArgument(0).getType())) {
+						// searching a character code (with or without a start
+						// index)
+						print("String.fromCharCode(").print(invocationElement.getArgument(0)).print(")");
 					} else {
-						print(invocationElement.getTargetExpression()).print(".indexOf(")
-								.printArgList(invocationElement.getArguments()).print(")");
+						print(invocationElement.getArgument(0));
+					}
+					if (invocationElement.getArgumentCount() > 1) {
+						print(", ").printArgList(invocationElement.getArgumentTail());
 					}
+					print(")");
 					return true;
 				case "toLowerCase":
 					if (invocationElement.getArgumentCount() > 0) {
@@ -1185,7 +1208,7 @@ public class Java2TypeScriptAdapter extends PrinterAdapter {
 			return true;
 		case "equals":
 			if (invocationElement.getTargetExpression() != null) {
-				MethodSymbol methSym = Util.findMethodDeclarationInType(context.types,
+				MethodSymbol methSym = context.getMemberResolutionCache().findMethodDeclarationInType(
 						(TypeSymbol) invocationElement.getTargetExpression().getTypeAsElement(), targetMethodName,
 						(MethodType) invocationElement.getMethod().asType());
 				if (methSym != null
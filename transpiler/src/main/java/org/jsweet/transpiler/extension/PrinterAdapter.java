@@ -216,6 +216,11 @@ public class PrinterAdapter {
 			}
 			break;
 		case ARRAY:
+			String typedArrayName = context.getTypedArrayName(type);
+			if (typedArrayName != null) {
+				stringBuilder.append(typedArrayName);
+				break;
+			}
 			buildMappedType(stringBuilder, ((javax.lang.model.type.ArrayType) type).getComponentType());
 			stringBuilder.append("[]");
 			break;
@@ -407,6 +412,17 @@ public class PrinterAdapter {
 		return this;
 	}
 
+	/**
+	 * Prints the given element, converted to a string if it is a char
+	 * represented as a number (see {@link JSweetOptions#isNumericChars()}).
+	 */
+	public PrinterAdapter printCharAsString(ExtendedElement element) {
+		if (context.isNumericChar(element.getType())) {
+			return print("String.fromCharCode(").print(element).print(")");
+		}
+		return print(element);
+	}
+
 	/**
 	 * Prints a string by delegating to the printer.
 	 */
@@ -556,7 +572,7 @@ public class PrinterAdapter {
 	 */
 	public final ExecutableElement findExecutableDeclarationInType(TypeElement type,
 			MethodInvocationElement invocation) {
-		return org.jsweet.transpiler.util.Util.findMethodDeclarationInType(context.types,
+		return context.getMemberResolutionCache().findMethodDeclarationInType(
 				(com.sun.tools.javac.code.Symbol.TypeSymbol) type,
 				((MethodInvocationElementSupport) invocation).getTree());
 	}
@@ -1002,7 +1018,8 @@ public class PrinterAdapter {
 	 *            a key to identify the header (see {@link #getHeader(String)})
 	 * @param header
 	 *            any string that will be printed at the beginning of the file
-	 *            (only when not in bundle mode)
+	 *            (in bundle mode, the headers of all the files are merged and
+	 *            printed at the beginning of the bundle)
 	 * 
 	 * @see #getHeader(String)
 	 */
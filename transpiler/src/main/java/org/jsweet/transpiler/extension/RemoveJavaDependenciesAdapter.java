@@ -21,16 +21,19 @@ package org.jsweet.transpiler.extension;
 import static org.jsweet.JSweetConfig.isJDKPath;
 
 import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.io.StringReader;
+import java.io.UncheckedIOException;
 import java.lang.ref.WeakReference;
 import java.lang.reflect.Method;
 import java.nio.charset.Charset;
 import java.text.Collator;
 import java.util.AbstractList;
 import java.util.AbstractMap;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Collection;
@@ -59,20 +62,26 @@ import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.Vector;
 import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.lang.model.element.Modifier;
 import javax.lang.model.element.TypeElement;
 import javax.lang.model.type.ArrayType;
 import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
 import javax.lang.model.type.TypeMirror;
 
+import org.apache.commons.io.IOUtils;
 import org.jsweet.transpiler.JSweetContext;
+import org.jsweet.transpiler.JSweetOptions;
 import org.jsweet.transpiler.Java2TypeScriptTranslator;
 import org.jsweet.transpiler.ModuleKind;
+import org.jsweet.transpiler.model.ArrayAccessElement;
 import org.jsweet.transpiler.model.BinaryOperatorElement;
 import org.jsweet.transpiler.model.ExtendedElement;
 import org.jsweet.transpiler.model.ExtendedElementFactory;
 import org.jsweet.transpiler.model.ForeachLoopElement;
+import org.jsweet.transpiler.model.IdentifierElement;
 import org.jsweet.transpiler.model.ImportElement;
 import org.jsweet.transpiler.model.LiteralElement;
 import org.jsweet.transpiler.model.MethodInvocationElement;
@@ -82,9 +91,12 @@ import org.jsweet.transpiler.model.VariableAccessElement;
 import org.jsweet.transpiler.model.support.ForeachLoopElementSupport;
 import org.jsweet.transpiler.util.Util;
 
+import com.sun.tools.javac.tree.JCTree;
+import com.sun.tools.javac.tree.JCTree.JCAssign;
 import com.sun.tools.javac.tree.JCTree.JCEnhancedForLoop;
 import com.sun.tools.javac.tree.JCTree.JCLiteral;
 import com.sun.tools.javac.tree.JCTree.JCTypeApply;
+import com.sun.tools.javac.tree.JCTree.JCVariableDecl;
 
 /**
  * An adapter that removes many uses of Java APIs and replace them with
@@ -98,6 +110,14 @@ public class RemoveJavaDependenciesAdapter extends Java2TypeScriptAdapter {
 	private final String ERASED_CLASS_HIERARCHY_FIELD = "__classes";
 	private Set<String> excludedJavaSuperTypes = new HashSet<>();
 
+	/**
+	 * The prefix of the header keys used for the runtime helpers (see
+	 * {@link #addRuntimeHelpers(String...)}).
+	 */
+	public static final String RUNTIME_HELPER_HEADER_PREFIX = "runtime.";
+
+	private static final Map<String, String> runtimeHelpers = new ConcurrentHashMap<>();
+
 	public RemoveJavaDependenciesAdapter(JSweetContext context) {
 		super(context);
 		init();
@@ -108,6 +128,40 @@ public class RemoveJavaDependenciesAdapter extends Java2TypeScriptAdapter {
 		init();
 	}
 
+	/**
+	 * Adds the given runtime helpers to the headers of the current file, unless
+	 * already added. The helpers are TypeScript resources (see the
+	 * <code>runtime</code> resource directory next to this class) that
+	 * implement the parts of the JDK emulation that are too large to be
+	 * inlined. In bundle mode, the helpers are printed once at the beginning of
+	 * the bundle. Otherwise, each file declares the helpers it uses, and only
+	 * the first declaration initializes them, so that the files loaded as
+	 * scripts share the same helpers (and state).
+	 * 
+	 * @param names
+	 *            the helper names, in dependency order
+	 */
+	protected void addRuntimeHelpers(String... names) {
+		for (String name : names) {
+			if (getHeader(RUNTIME_HELPER_HEADER_PREFIX + name) == null) {
+				addHeader(RUNTIME_HELPER_HEADER_PREFIX + name, getRuntimeHelper(name));
+			}
+		}
+	}
+
+	private static String getRuntimeHelper(String name) {
+		return runtimeHelpers.computeIfAbsent(name, n -> {
+			try (InputStream in = RemoveJavaDependenciesAdapter.class.getResourceAsStream("runtime/" + n + ".ts")) {
+				if (in == null) {
+					throw new RuntimeException("runtime helper not found: " + n);
+				}
+				return IOUtils.toString(in, "UTF-8");
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		});
+	}
+
 	private void init() {
 		addTypeMapping(Class.class.getName(), "any");
 		context.getLangTypeMappings().put(RuntimeException.class.getName(), "Error");
@@ -121,6 +175,7 @@ public class RemoveJavaDependenciesAdapter extends Java2TypeScriptAdapter {
 		extTypesMapping.put(Set.class.getName(), "Array");
 		extTypesMapping.put(EnumSet.class.getName(), "Array");
 		extTypesMapping.put(Deque.class.getName(), "Array");
+		extTypesMapping.put(ArrayDeque.class.getName(), "Array");
 		extTypesMapping.put(Queue.class.getName(), "Array");
 		extTypesMapping.put(Stack.class.getName(), "Array");
 		extTypesMapping.put(HashSet.class.getName(), "Array");
@@ -236,6 +291,7 @@ public class RemoveJavaDependenciesAdapter extends Java2TypeScriptAdapter {
 			case "java.util.AbstractCollection":
 			case "java.util.Queue":
 			case "java.util.Deque":
+			case "java.util.ArrayDeque":
 			case "java.util.LinkedList":
 			case "java.util.ArrayList":
 			case "java.util.Stack":
@@ -363,10 +419,26 @@ public class RemoveJavaDependenciesAdapter extends Java2TypeScriptAdapter {
 					return true;
 				case "copyOf":
 					printMacroName(targetMethodName);
+					String typedArrayName = getContext().getTypedArrayName(invocation.getArgument(0).getType());
+					if (typedArrayName != null) {
+						// typed arrays are padded with zeros
+						print("((a, n) => { if(n <= a.length) return a.slice(0, n); let r = new " + typedArrayName
+								+ "(n); r.set(a); return r; })(").printArgList(invocation.getArguments()).print(")");
+						return true;
+					}
 					print(invocation.getArgument(0)).print(".slice(0,").print(invocation.getArgument(1)).print(")");
 					return true;
 				case "fill":
 					printMacroName(targetMethodName);
+					if (getContext().getTypedArrayName(invocation.getArgument(0).getType()) != null) {
+						if (invocation.getArgumentCount() == 4) {
+							print("((a, from, to, v) => a.fill(v, from, to))(").printArgList(invocation.getArguments())
+									.print(")");
+						} else {
+							print(invocation.getArgument(0)).print(".fill(").print(invocation.getArgument(1)).print(")");
+						}
+						return true;
+					}
 					print("((a, v) => { for(let i=0;i<a.length;i++) a[i]=v; })(")
 							.printArgList(invocation.getArguments()).print(")");
 					// ES6 implementation
@@ -385,6 +457,16 @@ public class RemoveJavaDependenciesAdapter extends Java2TypeScriptAdapter {
 					return true;
 				case "sort":
 					printMacroName(targetMethodName);
+					if (getContext().getTypedArrayName(invocation.getArgument(0).getType()) != null) {
+						// typed arrays sort numerically (in place for sub-arrays)
+						print(invocation.getArgument(0));
+						if (invocation.getArgumentCount() == 3) {
+							print(".subarray(").print(invocation.getArgument(1)).print(", ")
+									.print(invocation.getArgument(2)).print(")");
+						}
+						print(".sort()");
+						return true;
+					}
 					if (invocation.getArgumentCount() > 2) {
 						print("((arr, start, end, f?) => ((arr1, arr2) => arr1.splice.apply(arr1, (<any[]>[start, arr2.length]).concat(arr2)))(")
 								.print(invocation.getArgument(0)).print(", ").print(invocation.getArgument(0))
@@ -402,6 +484,13 @@ public class RemoveJavaDependenciesAdapter extends Java2TypeScriptAdapter {
 				switch (targetMethodName) {
 				case "arraycopy":
 					printMacroName(targetMethodName);
+					if (getContext().getTypedArrayName(invocation.getArgument(0).getType()) != null
+							&& getContext().getTypedArrayName(invocation.getArgument(2).getType()) != null) {
+						// typed array copies handle overlapping ranges
+						print("((srcPts, srcOff, dstPts, dstOff, size) => dstPts.set(srcPts.subarray(srcOff, srcOff + size), dstOff))(")
+								.printArgList(invocation.getArguments()).print(")");
+						return true;
+					}
 					print("((srcPts, srcOff, dstPts, dstOff, size) => { if(srcPts !== dstPts || dstOff >= srcOff + size) { while (--size >= 0) dstPts[dstOff++] = srcPts[srcOff++];"
 							+ "} else { let tmp = srcPts.slice(srcOff, srcOff + size); for (let i = 0; i < size; i++) dstPts[dstOff++] = tmp[i]; }})(")
 									.printArgList(invocation.getArguments()).print(")");
@@ -669,54 +758,64 @@ public class RemoveJavaDependenciesAdapter extends Java2TypeScriptAdapter {
 		switch (targetMethodName) {
 		case "append":
 			printMacroName(targetMethodName);
-			if (invocation.getArgumentCount() == 1) {
-				print("(sb => { sb.str = sb.str.concat(<any>").printArgList(invocation.getArguments())
-						.print("); return sb; })(");
-				print(invocation.getTargetExpression(), delegate).print(")");
+			addRuntimeHelpers("builder");
+			if (isCharArray(invocation.getArgument(0).getType())) {
+				// append(char[]) and append(char[], int, int)
+				print(getContext().options.isNumericChars() ? "__jsweet_builder.appendCharCodes("
+						: "__jsweet_builder.appendChars(");
+				print(invocation.getTargetExpression(), delegate).print(", ").printArgList(invocation.getArguments())
+						.print(")");
+			} else if (invocation.getArgumentCount() == 1) {
+				print("__jsweet_builder.append(");
+				print(invocation.getTargetExpression(), delegate).print(", ")
+						.printCharAsString(invocation.getArgument(0)).print(")");
 			} else {
-				print("(sb => { sb.str = sb.str.concat((<any>").print(invocation.getArgument(0)).print(").substr(")
-						.printArgList(invocation.getArgumentTail()).print(")); return sb; })(");
-				print(invocation.getTargetExpression(), delegate).print(")");
+				print("__jsweet_builder.appendRange(");
+				print(invocation.getTargetExpression(), delegate).print(", ").printArgList(invocation.getArguments())
+						.print(")");
 			}
 			return true;
 		case "insert":
 			printMacroName(targetMethodName);
-			print("((sb, index, c) => { sb.str = sb.str.substr(0, index) + c + sb.str.substr(index); return sb; })(");
-			print(invocation.getTargetExpression(), delegate).print(", ").printArgList(invocation.getArguments())
-					.print(")");
+			addRuntimeHelpers("builder");
+			print("__jsweet_builder.insert(");
+			print(invocation.getTargetExpression(), delegate).print(", ").print(invocation.getArgument(0)).print(", ");
+			if (isCharArray(invocation.getArgument(1).getType())) {
+				if (getContext().options.isNumericChars()) {
+					print("String.fromCharCode.apply(null, ").print(invocation.getArgument(1)).print(")");
+				} else {
+					print(invocation.getArgument(1)).print(".join('')");
+				}
+			} else {
+				printCharAsString(invocation.getArgument(1));
+			}
+			print(")");
 			return true;
 		case "setCharAt":
 			printMacroName(targetMethodName);
-			print("((sb, index, c) => sb.str = sb.str.substr(0, index) + c + sb.str.substr(index + 1))(");
-			print(invocation.getTargetExpression(), delegate).print(", ").printArgList(invocation.getArguments())
-					.print(")");
+			addRuntimeHelpers("builder");
+			print("__jsweet_builder.setCharAt(");
+			print(invocation.getTargetExpression(), delegate).print(", ").print(invocation.getArgument(0)).print(", ")
+					.printCharAsString(invocation.getArgument(1)).print(")");
 			return true;
 		case "deleteCharAt":
-			printMacroName(targetMethodName);
-			print("((sb, index) => { sb.str = sb.str.substr(0, index) + sb.str.substr(index + 1); return sb; })(");
-			print(invocation.getTargetExpression(), delegate).print(", ").printArgList(invocation.getArguments())
-					.print(")");
-			return true;
 		case "delete":
-			printMacroName(targetMethodName);
-			print("((sb, i1, i2) => { sb.str = sb.str.substr(0, i1) + sb.str.substr(i2); return sb; })(");
-			print(invocation.getTargetExpression(), delegate).print(", ").printArgList(invocation.getArguments())
-					.print(")");
-			return true;
+		case "setLength":
 		case "length":
 			printMacroName(targetMethodName);
-			print(invocation.getTargetExpression(), delegate).print(".str.length");
+			addRuntimeHelpers("builder");
+			print("__jsweet_builder." + targetMethodName + "(");
+			print(invocation.getTargetExpression(), delegate);
+			if (invocation.getArgumentCount() > 0) {
+				print(", ").printArgList(invocation.getArguments());
+			}
+			print(")");
 			return true;
 		case "charAt":
 			printMacroName(targetMethodName);
-			print(invocation.getTargetExpression(), delegate).print(".str.charAt(").print(invocation.getArgument(0))
-					.print(")");
-			return true;
-		case "setLength":
-			printMacroName(targetMethodName);
-			print("((sb, length) => sb.str = sb.str.substring(0, length))(");
-			print(invocation.getTargetExpression(), delegate).print(", ").printArgList(invocation.getArguments())
-					.print(")");
+			addRuntimeHelpers("builder");
+			print(getContext().options.isNumericChars() ? "__jsweet_builder.charCodeAt(" : "__jsweet_builder.charAt(");
+			print(invocation.getTargetExpression(), delegate).print(", ").print(invocation.getArgument(0)).print(")");
 			return true;
 		case "toString":
 			printMacroName(targetMethodName);
@@ -726,6 +825,10 @@ public class RemoveJavaDependenciesAdapter extends Java2TypeScriptAdapter {
 		return false;
 	}
 
+	private static boolean isCharArray(TypeMirror type) {
+		return type instanceof ArrayType && ((ArrayType) type).getComponentType().getKind() == TypeKind.CHAR;
+	}
+
 	protected boolean substituteMethodInvocationOnCalendar(MethodInvocationElement invocation, String targetMethodName,
 			boolean delegate) {
 		switch (targetMethodName) {
@@ -917,79 +1020,49 @@ public class RemoveJavaDependenciesAdapter extends Java2TypeScriptAdapter {
 				return true;
 			}
 		} else {
-			String newEntry = "{key:k,value:v,getKey: function() { return this.key }, getValue: function() { return this.value }}";
+			String runtimeFunction;
 			switch (targetMethodName) {
 			case "put":
 			case "setProperty":
-				printMacroName(targetMethodName);
-				print("((m,k,v) => { if(m.entries==null) m.entries=[]; for(let i=0;i<m.entries.length;i++) if(m.entries[i].key.equals!=null && m.entries[i].key.equals(k) || m.entries[i].key===k) { m.entries[i].value=v; return; } m.entries.push("
-						+ newEntry + "); })(").print("<any>");
-				print(invocation.getTargetExpression(), delegate).print(", ").printArgList(invocation.getArguments())
-						.print(")");
-				return true;
+				runtimeFunction = "put";
+				break;
 			case "get":
 			case "getProperty":
-				printMacroName(targetMethodName);
-				print("((m,k) => { if(m.entries==null) m.entries=[]; for(let i=0;i<m.entries.length;i++) if(m.entries[i].key.equals!=null && m.entries[i].key.equals(k) || m.entries[i].key===k) { return m.entries[i].value; } return null; })(")
-						.print("<any>");
-				print(invocation.getTargetExpression(), delegate).print(", ").printArgList(invocation.getArguments())
-						.print(")");
-				return true;
-			case "containsKey":
-				printMacroName(targetMethodName);
-				print("((m,k) => { if(m.entries==null) m.entries=[]; for(let i=0;i<m.entries.length;i++) if(m.entries[i].key.equals!=null && m.entries[i].key.equals(k) || m.entries[i].key===k) { return true; } return false; })(")
-						.print("<any>");
-				print(invocation.getTargetExpression(), delegate).print(", ").printArgList(invocation.getArguments())
-						.print(")");
-				return true;
+				runtimeFunction = "get";
+				break;
 			case "keySet":
 			case "stringPropertyNames":
-				printMacroName(targetMethodName);
-				print("((m) => { let r=[]; if(m.entries==null) m.entries=[]; for(let i=0;i<m.entries.length;i++) r.push(m.entries[i].key); return r; })(")
-						.print("<any>");
-				print(invocation.getTargetExpression(), delegate).print(")");
-				return true;
+				runtimeFunction = "keySet";
+				break;
+			case "containsKey":
 			case "values":
-				printMacroName(targetMethodName);
-				print("((m) => { let r=[]; if(m.entries==null) m.entries=[]; for(let i=0;i<m.entries.length;i++) r.push(m.entries[i].value); return r; })(")
-						.print("<any>");
-				print(invocation.getTargetExpression(), delegate).print(")");
-				return true;
 			case "size":
-				printMacroName(targetMethodName);
-				print("((m) => { if(m.entries==null) m.entries=[]; return m.entries.length; })(").print("<any>");
-				print(invocation.getTargetExpression(), delegate).print(")");
-				return true;
-			case "isEmpty":
-				printMacroName(targetMethodName);
-				print("((m) => { if(m.entries==null) m.entries=[]; return m.entries.length == 0; })(").print("<any>");
-				print(invocation.getTargetExpression(), delegate).print(")");
-				return true;
 			case "remove":
-				printMacroName(targetMethodName);
-				print("((m,k) => { if(m.entries==null) m.entries=[]; for(let i=0;i<m.entries.length;i++) if(m.entries[i].key.equals!=null && m.entries[i].key.equals(k) || m.entries[i].key===k) { return m.entries.splice(i,1)[0]; } })(")
-						.print("<any>");
-				print(invocation.getTargetExpression(), delegate).print(", ").printArgList(invocation.getArguments())
-						.print(")");
-				return true;
 			case "clear":
-				printMacroName(targetMethodName);
-				print("(<any>");
-				print(invocation.getTargetExpression(), delegate).print(").entries=[]");
-				return true;
 			case "entrySet":
+				runtimeFunction = targetMethodName;
+				break;
+			case "isEmpty":
 				printMacroName(targetMethodName);
-				print("((m) => { if(m.entries==null) m.entries=[]; return m.entries; })(").print("<any>");
-				print(invocation.getTargetExpression(), delegate).print(")");
+				addRuntimeHelpers("hash", "map");
+				print("(__jsweet_map.size(<any>");
+				print(invocation.getTargetExpression(), delegate).print(") == 0)");
 				return true;
 			case "clone":
-				printMacroName(targetMethodName);
-				print("(m => { if(m.entries==null) m.entries=[]; let c = {entries: []}; for(let i=0;i<m.entries.length;i++) { let k = m.entries[i].key, v = m.entries[i].value; c.entries[i] = "
-						+ newEntry + "; } return c; })(");
-				print(invocation.getTargetExpression(), delegate).print(")");
-				return true;
-
+				runtimeFunction = "copy";
+				break;
+			default:
+				return false;
+			}
+			printMacroName(targetMethodName);
+			addRuntimeHelpers("hash", "map");
+			print("__jsweet_map." + runtimeFunction + "(<any>");
+			print(invocation.getTargetExpression(), delegate);
+			if (invocation.getArgumentCount() > 0) {
+				print(", ").printArgList(invocation.getArguments());
 			}
+			print(")");
+			return true;
 		}
 
 		return false;
@@ -997,29 +1070,35 @@ public class RemoveJavaDependenciesAdapter extends Java2TypeScriptAdapter {
 
 	protected boolean substituteMethodInvocationOnArray(MethodInvocationElement invocation, String targetMethodName,
 			String targetClassName, boolean delegate) {
+		if (context.options.isRingBufferDeques()) {
+			TypeMirror targetType = invocation.getTargetExpression().getType();
+			if (isDequeType(targetType)
+					|| (isLinkedListType(targetType) && isDequeMethod(invocation, targetMethodName))) {
+				return substituteMethodInvocationOnDeque(invocation, targetMethodName, delegate);
+			}
+		}
+		switch (targetClassName) {
+		case "java.util.Set":
+		case "java.util.AbstractSet":
+		case "java.util.HashSet":
+		case "java.util.TreeSet":
+			if (substituteMethodInvocationOnSet(invocation, targetMethodName, delegate)) {
+				return true;
+			}
+		}
 		switch (targetMethodName) {
 		case "add":
 		case "addLast":
 		case "push":
 		case "addElement":
 			printMacroName(targetMethodName);
-			switch (targetClassName) {
-			case "java.util.Set":
-			case "java.util.HashSet":
-			case "java.util.TreeSet":
-				print("((s, e) => { if(s.indexOf(e)==-1) { s.push(e); return true; } else { return false; } })(");
-				print(invocation.getTargetExpression(), delegate).print(", ").print(invocation.getArgument(0))
-						.print(")");
-				break;
-			default:
-				if (invocation.getArgumentCount() == 2) {
-					print(invocation.getTargetExpression(), delegate).print(".splice(").print(invocation.getArgument(0))
-							.print(", 0, ").print(invocation.getArgument(1)).print(")");
-				} else {
-					print("(");
-					print(invocation.getTargetExpression(), delegate).print(".push(")
-							.printArgList(invocation.getArguments()).print(")>0)");
-				}
+			if (invocation.getArgumentCount() == 2) {
+				print(invocation.getTargetExpression(), delegate).print(".splice(").print(invocation.getArgument(0))
+						.print(", 0, ").print(invocation.getArgument(1)).print(")");
+			} else {
+				print("(");
+				print(invocation.getTargetExpression(), delegate).print(".push(")
+						.printArgList(invocation.getArguments()).print(")>0)");
 			}
 			return true;
 		case "addAll":
@@ -1206,6 +1285,212 @@ public class RemoveJavaDependenciesAdapter extends Java2TypeScriptAdapter {
 		return false;
 	}
 
+	/**
+	 * Substitutes the set-specific operations on sets, which are implemented as
+	 * arrays indexed by the <code>__jsweet_set</code> runtime helper (so that
+	 * the elements are looked up using hash codes instead of
+	 * <code>indexOf</code> scans, and compared with <code>equals</code>). Tree
+	 * sets are kept sorted, and their elements are looked up by binary search
+	 * with their comparator.
+	 */
+	protected boolean substituteMethodInvocationOnSet(MethodInvocationElement invocation, String targetMethodName,
+			boolean delegate) {
+		if (invocation.getArgumentCount() != 1) {
+			return false;
+		}
+		switch (targetMethodName) {
+		case "add":
+		case "addAll":
+		case "remove":
+		case "removeAll":
+		case "retainAll":
+		case "contains":
+		case "containsAll":
+			printMacroName(targetMethodName);
+			addRuntimeHelpers("hash", "set");
+			print("__jsweet_set." + targetMethodName + "(<any>");
+			print(invocation.getTargetExpression(), delegate).print(", ").print(invocation.getArgument(0)).print(")");
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Tells if the given type is a deque type, which is implemented as a
+	 * circular buffer when the {@link JSweetOptions#isRingBufferDeques()}
+	 * option is on. Linked lists are not deque types because they are also
+	 * lists, which are implemented as arrays.
+	 */
+	protected boolean isDequeType(TypeMirror type) {
+		if (type == null || type.getKind() != TypeKind.DECLARED) {
+			return false;
+		}
+		switch (types().erasure(type).toString()) {
+		case "java.util.Queue":
+		case "java.util.Deque":
+		case "java.util.ArrayDeque":
+			return true;
+		}
+		return false;
+	}
+
+	private boolean isLinkedListType(TypeMirror type) {
+		return type != null && type.getKind() == TypeKind.DECLARED
+				&& LinkedList.class.getName().equals(types().erasure(type).toString());
+	}
+
+	/**
+	 * Tells if the given invocation is a deque operation that lists do not
+	 * have, so that it can be substituted with the deque runtime helper on a
+	 * linked list (which accepts arrays).
+	 */
+	protected boolean isDequeMethod(MethodInvocationElement invocation, String targetMethodName) {
+		switch (targetMethodName) {
+		case "remove":
+			return invocation.getArgumentCount() == 0;
+		case "offer":
+		case "offerFirst":
+		case "offerLast":
+		case "push":
+		case "pop":
+		case "poll":
+		case "pollFirst":
+		case "pollLast":
+		case "peek":
+		case "peekFirst":
+		case "peekLast":
+		case "element":
+		case "addFirst":
+		case "addLast":
+		case "getFirst":
+		case "getLast":
+		case "removeFirst":
+		case "removeLast":
+		case "removeFirstOccurrence":
+		case "removeLastOccurrence":
+		case "descendingIterator":
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Tells if the given new class element creates a deque that can be
+	 * implemented as a circular buffer, that is to say a deque assigned to a
+	 * variable of a deque type (see {@link #isDequeType(TypeMirror)}). The
+	 * buffer is then only accessed through deque types.
+	 */
+	protected boolean isDequeCreation(NewClassElement newClass) {
+		ExtendedElement parent = getParentElement();
+		if (parent == null) {
+			return false;
+		}
+		JCTree tree = ExtendedElementFactory.toTree(parent);
+		return (tree instanceof JCVariableDecl || tree instanceof JCAssign) && isDequeType(tree.type);
+	}
+
+	/**
+	 * Substitutes the operations on deques and queues, which are implemented
+	 * as circular buffers by the <code>__jsweet_deque</code> runtime helper
+	 * (see {@link JSweetOptions#isRingBufferDeques()}). The helper also
+	 * accepts plain arrays. All the invocations are substituted, so that the
+	 * buffers never reach the array substitutions.
+	 */
+	protected boolean substituteMethodInvocationOnDeque(MethodInvocationElement invocation, String targetMethodName,
+			boolean delegate) {
+		String runtimeFunction;
+		switch (targetMethodName) {
+		case "add":
+		case "offer":
+		case "offerLast":
+			runtimeFunction = "add";
+			break;
+		case "push":
+			runtimeFunction = "addFirst";
+			break;
+		case "pop":
+			runtimeFunction = "removeFirst";
+			break;
+		case "poll":
+			runtimeFunction = "pollFirst";
+			break;
+		case "peek":
+			runtimeFunction = "peekFirst";
+			break;
+		case "element":
+			runtimeFunction = "getFirst";
+			break;
+		case "remove":
+			runtimeFunction = invocation.getArgumentCount() == 0 ? "removeFirst" : "remove";
+			break;
+		case "removeFirstOccurrence":
+			runtimeFunction = "remove";
+			break;
+		case "addFirst":
+		case "addLast":
+		case "offerFirst":
+		case "pollFirst":
+		case "pollLast":
+		case "peekFirst":
+		case "peekLast":
+		case "getFirst":
+		case "getLast":
+		case "removeFirst":
+		case "removeLast":
+		case "removeLastOccurrence":
+		case "size":
+		case "isEmpty":
+		case "clear":
+		case "contains":
+		case "iterator":
+		case "addAll":
+		case "containsAll":
+		case "removeAll":
+		case "retainAll":
+		case "removeIf":
+		case "forEach":
+		case "equals":
+			runtimeFunction = targetMethodName;
+			break;
+		case "descendingIterator":
+			printMacroName(targetMethodName);
+			addRuntimeHelpers("deque");
+			print("__jsweet_deque.iterator(");
+			print(invocation.getTargetExpression(), delegate).print(", true)");
+			return true;
+		case "toArray":
+			printMacroName(targetMethodName);
+			addRuntimeHelpers("deque");
+			print("__jsweet_deque.toArray(");
+			print(invocation.getTargetExpression(), delegate).print(")");
+			return true;
+		case "toString":
+			printMacroName(targetMethodName);
+			addRuntimeHelpers("deque");
+			print("('[' + __jsweet_deque.toArray(");
+			print(invocation.getTargetExpression(), delegate).print(").join(', ') + ']')");
+			return true;
+		default:
+			// the other collection methods (such as stream) do not modify the
+			// deque, so they are invoked on an array copy
+			printMacroName(targetMethodName);
+			addRuntimeHelpers("deque");
+			print("__jsweet_deque.toArray(");
+			print(invocation.getTargetExpression(), delegate).print(")." + targetMethodName + "(")
+					.printArgList(invocation.getArguments()).print(")");
+			return true;
+		}
+		printMacroName(targetMethodName);
+		addRuntimeHelpers("deque");
+		print("__jsweet_deque." + runtimeFunction + "(");
+		print(invocation.getTargetExpression(), delegate);
+		if (invocation.getArgumentCount() > 0) {
+			print(", ").printArgList(invocation.getArguments());
+		}
+		print(")");
+		return true;
+	}
+
 	protected boolean substituteMethodInvocationOnNumber(MethodInvocationElement invocation, String targetMethodName) {
 		switch (targetMethodName) {
 		case "parseInt":
@@ -1255,6 +1540,9 @@ public class RemoveJavaDependenciesAdapter extends Java2TypeScriptAdapter {
 
 	protected boolean substituteMethodInvocationOnCharacter(MethodInvocationElement invocation,
 			String targetMethodName) {
+		if (getContext().options.isNumericChars()) {
+			return substituteMethodInvocationOnNumericCharacter(invocation, targetMethodName);
+		}
 		switch (targetMethodName) {
 		case "isDigit":
 			printMacroName(targetMethodName);
@@ -1297,6 +1585,141 @@ public class RemoveJavaDependenciesAdapter extends Java2TypeScriptAdapter {
 		return false;
 	}
 
+	/**
+	 * Substitutes the invocations on {@link Character} when chars are
+	 * represented as numbers (see {@link JSweetOptions#isNumericChars()}). The
+	 * character classes are tested with (ASCII) range checks on the code unit,
+	 * with no intermediate string or closure.
+	 */
+	protected boolean substituteMethodInvocationOnNumericCharacter(MethodInvocationElement invocation,
+			String targetMethodName) {
+		switch (targetMethodName) {
+		case "isDigit":
+			printMacroName(targetMethodName);
+			print("(");
+			printCharCodeRangeCheck(invocation.getArgument(0), '0', 10).print(")");
+			return true;
+		case "isLetter":
+		case "isAlphabetic":
+			printMacroName(targetMethodName);
+			// lower case letters are upper case letters with the 0x20 bit
+			print("((");
+			printCharCode(invocation.getArgument(0)).print(" | 32) - 97 >>> 0 < 26)");
+			return true;
+		case "isLowerCase":
+			printMacroName(targetMethodName);
+			print("(");
+			printCharCodeRangeCheck(invocation.getArgument(0), 'a', 26).print(")");
+			return true;
+		case "isUpperCase":
+			printMacroName(targetMethodName);
+			print("(");
+			printCharCodeRangeCheck(invocation.getArgument(0), 'A', 26).print(")");
+			return true;
+		case "isLetterOrDigit":
+			printMacroName(targetMethodName);
+			if (isRepeatable(invocation.getArgument(0))) {
+				print("((").print(invocation.getArgument(0)).print(" | 32) - 97 >>> 0 < 26 || ");
+				printCharCodeRangeCheck(invocation.getArgument(0), '0', 10).print(")");
+			} else {
+				print("/[a-zA-Z\\d]/.test(String.fromCharCode(").print(invocation.getArgument(0)).print("))");
+			}
+			return true;
+		case "isWhitespace":
+			printMacroName(targetMethodName);
+			if (isRepeatable(invocation.getArgument(0))) {
+				printWhitespaceCheck(() -> print(invocation.getArgument(0)));
+			} else {
+				// the argument is bound to a parameter to be evaluated once
+				print("(c => ");
+				printWhitespaceCheck(() -> print("c"));
+				print(")(").print(invocation.getArgument(0)).print(")");
+			}
+			return true;
+		case "toLowerCase":
+			printMacroName(targetMethodName);
+			print("String.fromCharCode(").print(invocation.getArgument(0)).print(").toLowerCase().charCodeAt(0)");
+			return true;
+		case "toUpperCase":
+			printMacroName(targetMethodName);
+			print("String.fromCharCode(").print(invocation.getArgument(0)).print(").toUpperCase().charCodeAt(0)");
+			return true;
+		case "toString":
+			printMacroName(targetMethodName);
+			print("String.fromCharCode(").print(invocation.getArgumentCount() > 0 ? invocation.getArgument(0)
+					: invocation.getTargetExpression()).print(")");
+			return true;
+		case "valueOf":
+		case "charValue":
+			printMacroName(targetMethodName);
+			print(invocation.getArgumentCount() > 0 ? invocation.getArgument(0) : invocation.getTargetExpression());
+			return true;
+		}
+
+		return false;
+	}
+
+	/**
+	 * Prints a test that the given char code is in the
+	 * <code>[first, first + length[</code> range. The char code expression is
+	 * evaluated once.
+	 */
+	protected PrinterAdapter printCharCodeRangeCheck(ExtendedElement charCode, char first, int length) {
+		return printCharCode(charCode).print(" - " + (int) first + " >>> 0 < " + length);
+	}
+
+	private static final String[] WHITESPACE_CHECK = { "(", " === 32 || ", " - 9 >>> 0 < 5 || ",
+			" - 28 >>> 0 < 4 || ", " > 5759 && (", " === 5760 || ", " - 8192 >>> 0 < 11 && ", " !== 8199 || ",
+			" - 8232 >>> 0 < 2 || ", " === 8287 || ", " === 12288))" };
+
+	/**
+	 * Prints a test that the printed char code is a whitespace, as defined by
+	 * {@link Character#isWhitespace(char)}: space, <code>\t</code> to
+	 * <code>\r</code>, the file/group/record/unit separators, and the Unicode
+	 * space, line and paragraph separators except the no-break spaces (U+00A0,
+	 * U+2007 and U+202F). The char code is printed several times.
+	 */
+	private PrinterAdapter printWhitespaceCheck(Runnable printCharCode) {
+		for (int i = 0; i < WHITESPACE_CHECK.length; i++) {
+			if (i > 0) {
+				printCharCode.run();
+			}
+			print(WHITESPACE_CHECK[i]);
+		}
+		return this;
+	}
+
+	private PrinterAdapter printCharCode(ExtendedElement charCode) {
+		if (isRepeatable(charCode)) {
+			return print(charCode);
+		} else {
+			return print("(").print(charCode).print(")");
+		}
+	}
+
+	/**
+	 * Tells if the given expression can be printed several times without
+	 * changing the program's behavior (literals, variables, and array accesses
+	 * or <code>String.charAt</code> invocations on such expressions).
+	 */
+	protected boolean isRepeatable(ExtendedElement expression) {
+		if (expression instanceof LiteralElement || expression instanceof IdentifierElement) {
+			return true;
+		} else if (expression instanceof VariableAccessElement) {
+			ExtendedElement target = ((VariableAccessElement) expression).getTargetExpression();
+			return target == null || isRepeatable(target);
+		} else if (expression instanceof ArrayAccessElement) {
+			return isRepeatable(((ArrayAccessElement) expression).getTarget())
+					&& isRepeatable(((ArrayAccessElement) expression).getIndex());
+		} else if (expression instanceof MethodInvocationElement) {
+			MethodInvocationElement invocation = (MethodInvocationElement) expression;
+			return "charAt".equals(invocation.getMethodName()) && invocation.getTargetExpression() != null
+					&& String.class.getName().equals(invocation.getMethod().getEnclosingElement().toString())
+					&& isRepeatable(invocation.getTargetExpression()) && isRepeatable(invocation.getArgument(0));
+		}
+		return false;
+	}
+
 	@Override
 	public boolean substituteVariableAccess(VariableAccessElement variableAccess) {
 		String targetClassName = variableAccess.getTargetElement().toString();
@@ -1360,12 +1783,43 @@ public class RemoveJavaDependenciesAdapter extends Java2TypeScriptAdapter {
 			print("new Number(").print(newClass.getArgument(0)).print(").valueOf()");
 			substitute = true;
 			break;
-		case "java.util.ArrayList":
+		case "java.util.TreeSet":
+			addRuntimeHelpers("hash", "set");
+			if (newClass.getArgumentCount() == 0) {
+				print("__jsweet_set.sorted()");
+			} else if (types().isAssignable(types().erasure(newClass.getArgument(0).getType()),
+					types().erasure(util().getType(Comparator.class)))) {
+				print("__jsweet_set.sorted(").print(newClass.getArgument(0)).print(")");
+			} else {
+				print("__jsweet_set.copy(").print(newClass.getArgument(0)).print(", true)");
+			}
+			substitute = true;
+			break;
+		case "java.util.HashSet":
+			if (newClass.getArgumentCount() == 0 || Util.isNumber(newClass.getArgument(0).getType())
+					|| (newClass.getArgument(0) instanceof LiteralElement)) {
+				print("[]");
+			} else {
+				addRuntimeHelpers("hash", "set");
+				print("__jsweet_set.copy(").print(newClass.getArgument(0)).print(")");
+			}
+			substitute = true;
+			break;
+		case "java.util.ArrayDeque":
 		case "java.util.LinkedList":
+			if (context.options.isRingBufferDeques() && isDequeCreation(newClass)) {
+				addRuntimeHelpers("deque");
+				if (newClass.getArgumentCount() == 0 || Util.isNumber(newClass.getArgument(0).getType())) {
+					print("__jsweet_deque.create()");
+				} else {
+					print("__jsweet_deque.create(").print(newClass.getArgument(0)).print(")");
+				}
+				substitute = true;
+				break;
+			}
+		case "java.util.ArrayList":
 		case "java.util.Vector":
 		case "java.util.Stack":
-		case "java.util.TreeSet":
-		case "java.util.HashSet":
 		case "java.util.AbstractSet":
 		case "java.util.AbstractCollection":
 		case "java.util.AbstractList":
@@ -1395,8 +1849,8 @@ public class RemoveJavaDependenciesAdapter extends Java2TypeScriptAdapter {
 					print("((o) => { let r = {}; for(let p in o) r[p]=o[p]; return r; })(")
 							.print(newClass.getArgument(0)).print(")");
 				} else {
-					print("((o) => { let r = {}; r['entries'] = o.entries!=null?o.entries.slice():null; return r; })(")
-							.print(newClass.getArgument(0)).print(")");
+					addRuntimeHelpers("hash", "map");
+					print("__jsweet_map.copy(").print(newClass.getArgument(0)).print(")");
 				}
 			}
 			substitute = true;
@@ -1408,7 +1862,8 @@ public class RemoveJavaDependenciesAdapter extends Java2TypeScriptAdapter {
 			} else {
 				ExtendedElement firstArgument = newClass.getArgument(0);
 				if (firstArgument.getType() instanceof ArrayType) {
-					if (util().isIntegral(((ArrayType) firstArgument.getType()).getComponentType())) {
+					if (util().isIntegral(((ArrayType) firstArgument.getType()).getComponentType())
+							|| getContext().isNumericChar(((ArrayType) firstArgument.getType()).getComponentType())) {
 						print("String.fromCharCode.apply(null, ").print(firstArgument).print(")");
 						if (newClass.getArgumentCount() >= 3 && util().isIntegral(newClass.getArgument(1).getType())
 								&& util().isIntegral(newClass.getArgument(2).getType())) {
@@ -1434,10 +1889,11 @@ public class RemoveJavaDependenciesAdapter extends Java2TypeScriptAdapter {
 			break;
 		case "java.lang.StringBuffer":
 		case "java.lang.StringBuilder":
+			addRuntimeHelpers("builder");
 			if (newClass.getArgumentCount() == 0 || Util.isNumber(newClass.getArgument(0).getType())) {
-				print("{ str: \"\", toString: function() { return this.str; } }");
+				print("__jsweet_builder.create()");
 			} else {
-				print("{ str: ").print(newClass.getArgument(0)).print(", toString: function() { return this.str; } }");
+				print("__jsweet_builder.create(").print(newClass.getArgument(0)).print(")");
 			}
 			substitute = true;
 			break;
@@ -1515,6 +1971,17 @@ public class RemoveJavaDependenciesAdapter extends Java2TypeScriptAdapter {
 	@Override
 	public boolean substituteForEachLoop(ForeachLoopElement foreachLoop, boolean targetHasLength, String indexVarName) {
 		JCEnhancedForLoop loop = ((ForeachLoopElementSupport) foreachLoop).getTree();
+		if (context.options.isRingBufferDeques() && isDequeType(loop.expr.type)) {
+			addRuntimeHelpers("deque");
+			print("for(" + Java2TypeScriptTranslator.VAR_DECL_KEYWORD + " " + indexVarName + "=__jsweet_deque.iterator(")
+					.print(foreachLoop.getIterableExpression()).print(");" + indexVarName + ".hasNext();) {").println()
+					.startIndent().printIndent();
+			print(Java2TypeScriptTranslator.VAR_DECL_KEYWORD + " " + loop.var.name.toString() + " = " + indexVarName
+					+ ".next();").println();
+			printIndent().print(foreachLoop.getBody());
+			endIndent().println().printIndent().print("}");
+			return true;
+		}
 		if (!targetHasLength && !isJDKPath(loop.expr.type.toString())
 				&& types().isSubtype(loop.expr.type, types().erasure(util().getType(Iterable.class)))) {
 			printForEachLoop(loop, indexVarName);
@@ -1602,14 +2069,15 @@ public class RemoveJavaDependenciesAdapter extends Java2TypeScriptAdapter {
 			if (types().isSameType(util().getType(String.class), binaryOperator.getOperatorType().getReturnType())) {
 				if ("Array".equals(
 						extTypesMapping.get(types().erasure(binaryOperator.getLeftHandSide().getType()).toString()))) {
-					print("/* implicit toString */ (a => a?'['+a.join(', ')+']':'null')(")
+					print("/* implicit toString */ " + getImplicitToString(binaryOperator.getLeftHandSide()) + "(")
 							.print(binaryOperator.getLeftHandSide()).print(") + ")
 							.print(binaryOperator.getRightHandSide());
 					return true;
 				} else if ("Array".equals(
 						extTypesMapping.get(types().erasure(binaryOperator.getRightHandSide().getType()).toString()))) {
 					print(binaryOperator.getLeftHandSide())
-							.print(" + /* implicit toString */ (a => a?'['+a.join(', ')+']':'null')(")
+							.print(" + /* implicit toString */ " + getImplicitToString(binaryOperator.getRightHandSide())
+									+ "(")
 							.print(binaryOperator.getRightHandSide()).print(")");
 					return true;
 				}
@@ -1618,4 +2086,12 @@ public class RemoveJavaDependenciesAdapter extends Java2TypeScriptAdapter {
 		return super.substituteBinaryOperator(binaryOperator);
 	}
 
+	private String getImplicitToString(ExtendedElement collection) {
+		if (context.options.isRingBufferDeques() && isDequeType(collection.getType())) {
+			addRuntimeHelpers("deque");
+			return "(a => a?'['+__jsweet_deque.toArray(a).join(', ')+']':'null')";
+		}
+		return "(a => a?'['+a.join(', ')+']':'null')";
+	}
+
 }
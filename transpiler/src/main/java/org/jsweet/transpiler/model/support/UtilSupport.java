@@ -26,6 +26,7 @@ import javax.lang.model.type.TypeMirror;
 import org.jsweet.transpiler.JSweetContext;
 import org.jsweet.transpiler.model.Util;
 
+import com.sun.tools.javac.code.Symbol.ClassSymbol;
 import com.sun.tools.javac.code.Type;
 
 /**
@@ -96,7 +97,8 @@ public class UtilSupport implements Util {
 		case "java.util.List":
 			return context.symtab.listType;
 		}
-		return null;
+		ClassSymbol classSymbol = org.jsweet.transpiler.util.Util.getTypeByName(context, clazz.getName());
+		return classSymbol == null ? null : classSymbol.type;
 	}
 
 	@Override
@@ -237,6 +237,7 @@ public abstract class AbstractTreeScanner extends TreeScanner {
 			tree.accept(this);
 		} catch (RollbackException rollback) {
 			if (rollback.getTarget() == tree) {
+				context.metrics.increment(TranspilationMetrics.Counter.ROLLBACKS);
 				onRollbacked(tree);
 				if (rollback.getOnRollbacked() != null) {
 					rollback.getOnRollbacked().accept(tree);
@@ -18,6 +18,9 @@
  */
 package org.jsweet.transpiler.util;
 
+import java.io.File;
+import java.util.Set;
+
 import org.jsweet.transpiler.JSweetProblem;
 import org.jsweet.transpiler.JSweetTranspiler;
 import org.jsweet.transpiler.SourceFile;
@@ -77,6 +80,27 @@ public class ErrorCountTranspilationHandler implements TranspilationHandler {
 		delegate.onCompleted(transpiler, fullPass, files);
 	}
 
+	@Override
+	public void onCompleted(JSweetTranspiler transpiler, boolean fullPass, SourceFile[] files,
+			Set<File> changedOutputFiles) {
+		delegate.onCompleted(transpiler, fullPass, files, changedOutputFiles);
+	}
+
+	@Override
+	public void onPhaseStarted(JSweetTranspiler transpiler, TranspilationMetrics.Phase phase) {
+		delegate.onPhaseStarted(transpiler, phase);
+	}
+
+	@Override
+	public void onPhaseCompleted(JSweetTranspiler transpiler, TranspilationMetrics.Phase phase, long durationMillis) {
+		delegate.onPhaseCompleted(transpiler, phase, durationMillis);
+	}
+
+	@Override
+	public void onMetrics(JSweetTranspiler transpiler, TranspilationMetrics metrics) {
+		delegate.onMetrics(transpiler, metrics);
+	}
+
 	/**
 	 * Returns the warning count.
 	 */
@@ -0,0 +1,195 @@
+/*
+ * JSweet transpiler - http://www.jsweet.org
+ * Copyright (C) 2015 CINCHEO SAS <renaud.pawlak@cincheo.fr>
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package org.jsweet.transpiler.util;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import javax.lang.model.element.ElementKind;
+
+import org.jsweet.transpiler.JSweetContext;
+
+import com.sun.tools.javac.code.Symbol;
+import com.sun.tools.javac.code.Symbol.ClassSymbol;
+import com.sun.tools.javac.code.Symbol.MethodSymbol;
+import com.sun.tools.javac.code.Symbol.TypeSymbol;
+import com.sun.tools.javac.code.Symbol.VarSymbol;
+import com.sun.tools.javac.code.Type;
+import com.sun.tools.javac.code.Type.MethodType;
+import com.sun.tools.javac.tree.JCTree.JCMethodInvocation;
+import com.sun.tools.javac.util.Name;
+
+/**
+ * A memoizing front end to the member lookup functions of {@link Util}, which
+ * walk the type hierarchy and check the signatures of all the candidates on
+ * each call.
+ *
+ * <p>
+ * Results (including unsuccessful lookups) are stored by type symbol, member
+ * name and erased signature. Since the symbols do not change once the
+ * compilation units are attributed, the cache lives as long as its
+ * {@link JSweetContext} (see {@link JSweetContext#getMemberResolutionCache()}).
+ * It is thread-safe.
+ *
+ * @author Renaud Pawlak
+ */
+public class MemberResolutionCache {
+
+	private static final class Key {
+		private final Symbol owner;
+		private final String name;
+		private final Object discriminator;
+		private final String signature;
+		private final int hashCode;
+
+		Key(Symbol owner, String name, Object discriminator, String signature) {
+			this.owner = owner;
+			this.name = name;
+			this.discriminator = discriminator;
+			this.signature = signature;
+			int h = System.identityHashCode(owner);
+			h = 31 * h + name.hashCode();
+			h = 31 * h + discriminator.hashCode();
+			h = 31 * h + (signature == null ? 0 : signature.hashCode());
+			this.hashCode = h;
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			Key key = (Key) obj;
+			return owner == key.owner && name.equals(key.name) && discriminator.equals(key.discriminator)
+					&& (signature == null ? key.signature == null : signature.equals(key.signature));
+		}
+	}
+
+	private static final String METHOD = "method";
+	private static final String OVERRIDDEN_METHOD = "overriddenMethod";
+	private static final String FIELD = "field";
+
+	private final JSweetContext context;
+
+	private final Map<Key, Optional<Symbol>> resolvedMembers = new ConcurrentHashMap<>();
+
+	/**
+	 * Creates a cache for the given context.
+	 */
+	public MemberResolutionCache(JSweetContext context) {
+		this.context = context;
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T extends Symbol> T resolve(Key key, Supplier<T> lookup) {
+		Optional<Symbol> result = resolvedMembers.get(key);
+		if (result == null) {
+			result = Optional.ofNullable(lookup.get());
+			resolvedMembers.putIfAbsent(key, result);
+		}
+		return (T) result.orElse(null);
+	}
+
+	/**
+	 * Gets the signature of the given method type, as used by
+	 * {@link Util#isInvocable(com.sun.tools.javac.code.Types, MethodType, MethodType)}
+	 * (erased parameter types).
+	 */
+	private String getErasedSignature(MethodType methodType) {
+		if (methodType == null) {
+			return null;
+		}
+		StringBuilder signature = new StringBuilder();
+		for (Type parameterType : methodType.getParameterTypes()) {
+			signature.append(context.types.erasure(parameterType)).append(';');
+		}
+		return signature.toString();
+	}
+
+	/**
+	 * Cached version of
+	 * {@link Util#findMethodDeclarationInType(com.sun.tools.javac.code.Types, TypeSymbol, JCMethodInvocation)}.
+	 */
+	public MethodSymbol findMethodDeclarationInType(TypeSymbol typeSymbol, JCMethodInvocation invocation) {
+		String meth = invocation.meth.toString();
+		String methName = meth.substring(meth.lastIndexOf('.') + 1);
+		return findMethodDeclarationInType(typeSymbol, methName, (MethodType) invocation.meth.type);
+	}
+
+	/**
+	 * Cached version of
+	 * {@link Util#findMethodDeclarationInType(com.sun.tools.javac.code.Types, TypeSymbol, String, MethodType)}.
+	 */
+	public MethodSymbol findMethodDeclarationInType(TypeSymbol typeSymbol, String methodName, MethodType methodType) {
+		return findMethodDeclarationInType(typeSymbol, methodName, methodType, false);
+	}
+
+	/**
+	 * Cached version of
+	 * {@link Util#findMethodDeclarationInType(com.sun.tools.javac.code.Types, TypeSymbol, String, MethodType, boolean)}.
+	 */
+	public MethodSymbol findMethodDeclarationInType(TypeSymbol typeSymbol, String methodName, MethodType methodType,
+			boolean overrides) {
+		if (typeSymbol == null) {
+			return null;
+		}
+		return resolve(
+				new Key(typeSymbol, methodName, overrides ? OVERRIDDEN_METHOD : METHOD,
+						getErasedSignature(methodType)),
+				() -> Util.findMethodDeclarationInType(context.types, typeSymbol, methodName, methodType, overrides));
+	}
+
+	/**
+	 * Cached version of
+	 * {@link Util#findFirstDeclarationInClassAndSuperClasses(TypeSymbol, String, ElementKind)}.
+	 */
+	public Symbol findFirstDeclarationInClassAndSuperClasses(TypeSymbol typeSymbol, String name, ElementKind kind) {
+		if (typeSymbol == null) {
+			return null;
+		}
+		return resolve(new Key(typeSymbol, name, kind, null),
+				() -> Util.findFirstDeclarationInClassAndSuperClasses(typeSymbol, name, kind));
+	}
+
+	/**
+	 * Cached version of {@link Util#findFieldDeclaration(ClassSymbol, Name)}.
+	 */
+	public VarSymbol findFieldDeclaration(ClassSymbol classSymbol, Name name) {
+		if (classSymbol == null) {
+			return null;
+		}
+		return resolve(new Key(classSymbol, name.toString(), FIELD, null),
+				() -> Util.findFieldDeclaration(classSymbol, name));
+	}
+
+	/**
+	 * Gets the number of cached lookups.
+	 */
+	public int size() {
+		return resolvedMembers.size();
+	}
+
+}
@@ -0,0 +1,226 @@
+/*
+ * JSweet transpiler - http://www.jsweet.org
+ * Copyright (C) 2015 CINCHEO SAS <renaud.pawlak@cincheo.fr>
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package org.jsweet.transpiler.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.log4j.Logger;
+
+import com.google.gson.Gson;
+
+/**
+ * A manifest of the content hashes of the generated files, stored in the
+ * transpiler's working directory, so that the files whose content did not
+ * change are not written again (and their timestamps are preserved for the
+ * downstream tools).
+ *
+ * <p>
+ * For each output file, the manifest holds the hash of its content, its
+ * timestamp (an output file modified by another tool is written again). It
+ * also holds the key of the last successful tsc compilation, so that tsc is
+ * not launched again when none of its inputs changed.
+ *
+ * @author Renaud Pawlak
+ */
+public class OutputManifest {
+
+	private final static Logger logger = Logger.getLogger(OutputManifest.class);
+
+	/**
+	 * The name of the manifest file in the working directory.
+	 */
+	public static final String FILE_NAME = "output-manifest.json";
+
+	private static class Content {
+		private Map<String, String> outputHashes = new HashMap<>();
+		private Map<String, Long> outputTimestamps = new HashMap<>();
+		private String tscKey;
+	}
+
+	private final File file;
+	private Content content;
+	private boolean dirty = false;
+	private final Set<File> changedFiles = new LinkedHashSet<>();
+
+	/**
+	 * Creates a manifest stored in the given file (it is loaded on first
+	 * access).
+	 */
+	public OutputManifest(File file) {
+		this.file = file;
+	}
+
+	/**
+	 * Hashes the given content.
+	 */
+	public static String hash(byte[] content) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-1");
+			StringBuilder sb = new StringBuilder();
+			for (byte b : digest.digest(content)) {
+				sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+			}
+			return sb.toString();
+		} catch (NoSuchAlgorithmException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	private static String key(File file) {
+		return file.getAbsolutePath();
+	}
+
+	private void record(File outputFile, String hash) {
+		getContent().outputHashes.put(key(outputFile), hash);
+		getContent().outputTimestamps.put(key(outputFile), outputFile.lastModified());
+		changedFiles.add(outputFile);
+		dirty = true;
+	}
+
+	private boolean isUnmodified(File outputFile) {
+		return outputFile.exists()
+				&& Long.valueOf(outputFile.lastModified()).equals(getContent().outputTimestamps.get(key(outputFile)));
+	}
+
+	private Content getContent() {
+		if (content == null) {
+			if (file.exists()) {
+				try {
+					content = new Gson().fromJson(FileUtils.readFileToString(file, StandardCharsets.UTF_8),
+							Content.class);
+				} catch (Exception e) {
+					logger.warn("cannot read output manifest " + file + ": " + e.getMessage());
+				}
+			}
+			if (content == null) {
+				content = new Content();
+			}
+		}
+		return content;
+	}
+
+	/**
+	 * Writes the given content to the given file (with the default charset),
+	 * unless the file already holds this content.
+	 *
+	 * @return true if the file was written
+	 */
+	public synchronized boolean write(File outputFile, String text) throws IOException {
+		byte[] bytes = text.getBytes(Charset.defaultCharset());
+		String hash = hash(bytes);
+		if (isUnmodified(outputFile) && outputFile.length() == bytes.length
+				&& hash.equals(getContent().outputHashes.get(key(outputFile)))) {
+			logger.debug("unchanged output: " + outputFile);
+			return false;
+		}
+		FileUtils.writeByteArrayToFile(outputFile, bytes);
+		record(outputFile, hash);
+		return true;
+	}
+
+	/**
+	 * Records the content of a file that was written by another tool (tsc).
+	 *
+	 * @return true if the file's content changed since it was last recorded
+	 */
+	public synchronized boolean update(File outputFile) throws IOException {
+		if (!outputFile.exists()) {
+			return false;
+		}
+		if (isUnmodified(outputFile)) {
+			return false;
+		}
+		String hash = hash(FileUtils.readFileToByteArray(outputFile));
+		boolean changed = !hash.equals(getContent().outputHashes.get(key(outputFile)));
+		if (changed) {
+			record(outputFile, hash);
+		} else {
+			getContent().outputTimestamps.put(key(outputFile), outputFile.lastModified());
+			dirty = true;
+		}
+		return changed;
+	}
+
+	/**
+	 * Tells if the given output file exists and was not modified since it was
+	 * recorded in this manifest.
+	 */
+	public synchronized boolean isRecorded(File outputFile) {
+		return isUnmodified(outputFile);
+	}
+
+	/**
+	 * Gets the key of the last successful tsc compilation (null if the
+	 * TypeScript files changed since).
+	 */
+	public synchronized String getTscKey() {
+		return getContent().tscKey;
+	}
+
+	/**
+	 * Sets the key of the last successful tsc compilation.
+	 */
+	public synchronized void setTscKey(String tscKey) {
+		if (tscKey == null ? getContent().tscKey != null : !tscKey.equals(getContent().tscKey)) {
+			getContent().tscKey = tscKey;
+			dirty = true;
+		}
+	}
+
+	/**
+	 * Gets the files that were written or changed since the last call to
+	 * {@link #clearChangedFiles()}.
+	 */
+	public synchronized Set<File> getChangedFiles() {
+		return new LinkedHashSet<>(changedFiles);
+	}
+
+	/**
+	 * Clears the changed files (typically when a transpilation starts).
+	 */
+	public synchronized void clearChangedFiles() {
+		changedFiles.clear();
+	}
+
+	/**
+	 * Saves the manifest, if modified.
+	 */
+	public synchronized void save() {
+		if (!dirty) {
+			return;
+		}
+		try {
+			FileUtils.write(file, new Gson().toJson(getContent()), StandardCharsets.UTF_8);
+			dirty = false;
+		} catch (IOException e) {
+			logger.warn("cannot save output manifest " + file + ": " + e.getMessage());
+		}
+	}
+
+}
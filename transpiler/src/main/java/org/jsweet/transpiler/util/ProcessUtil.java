@@ -20,6 +20,7 @@ package org.jsweet.transpiler.util;
 
 import java.io.BufferedReader;
 import java.io.File;
+import java.io.IOException;
 import java.io.InputStreamReader;
 import java.util.Arrays;
 import java.util.List;
@@ -102,6 +103,18 @@ public class ProcessUtil {
 		}
 	}
 
+	/**
+	 * Gets the directory of a node package installed globally with npm (see
+	 * {@link #installNodePackage(String, String, boolean)}).
+	 */
+	public static File getGlobalNodeModuleDir(String nodePackageName) {
+		if (System.getProperty("os.name").startsWith("Windows")) {
+			return new File(NPM_DIR, "node_modules" + File.separator + nodePackageName);
+		} else {
+			return new File(NPM_DIR, "lib" + File.separator + "node_modules" + File.separator + nodePackageName);
+		}
+	}
+
 	/**
 	 * Tells if this node command is installed.
 	 */
@@ -255,6 +268,58 @@ public class ProcessUtil {
 		return process[0];
 	}
 
+	/**
+	 * Starts a long-lived <code>node</code> process that runs the given script
+	 * and that is driven through its standard input and output streams. The
+	 * standard error stream is logged, and the process is destroyed if still
+	 * running when the JVM exits.
+	 * 
+	 * @param script
+	 *            the script to be run
+	 * @param directory
+	 *            the working directory of the created process
+	 * @param args
+	 *            the script arguments
+	 * @return the running process
+	 */
+	public static Process startNodeProcess(File script, File directory, String... args) throws IOException {
+		initNode();
+		String[] cmd = ArrayUtils.addAll(new String[] { NODE_COMMAND, script.getAbsolutePath() }, args);
+		logger.debug("start node process: " + StringUtils.join(cmd, " "));
+		ProcessBuilder processBuilder = new ProcessBuilder(cmd);
+		if (directory != null) {
+			processBuilder.directory(directory);
+		}
+		if (!StringUtils.isBlank(EXTRA_PATH)) {
+			processBuilder.environment().put("PATH",
+					processBuilder.environment().get("PATH") + File.pathSeparator + EXTRA_PATH);
+		}
+		Process process = processBuilder.start();
+		// the process would be orphaned if the JVM exits without stopping it
+		Thread shutdownHook = new Thread(process::destroy);
+		Runtime.getRuntime().addShutdownHook(shutdownHook);
+		Thread errorReader = new Thread(() -> {
+			try (BufferedReader in = new BufferedReader(new InputStreamReader(process.getErrorStream(), "UTF-8"))) {
+				String line;
+				while ((line = in.readLine()) != null) {
+					logger.warn(script.getName() + " - " + line);
+				}
+			} catch (IOException e) {
+				logger.debug(e.getMessage(), e);
+			} finally {
+				// the error stream is closed when the process exits
+				try {
+					Runtime.getRuntime().removeShutdownHook(shutdownHook);
+				} catch (IllegalStateException e) {
+					// the JVM is shutting down
+				}
+			}
+		});
+		errorReader.setDaemon(true);
+		errorReader.start();
+		return process;
+	}
+
 	/**
 	 * Installs a <code>node<code> package with <code>npm</code> (assumes that
 	 * <code>node</code> is installed).
@@ -19,6 +19,7 @@
 package org.jsweet.transpiler.util;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
 import java.util.SortedSet;
@@ -85,6 +86,8 @@ public class SourceMap {
 	private int minOutputLine = 0;
 	private int maxOutputLine = 0;
 
+	private volatile LineIndex lineIndex;
+
 	/**
 	 * Adds an entry to the source map (entry must be added in order).
 	 * 
@@ -98,6 +101,7 @@ public class SourceMap {
 		Entry entry = new Entry(inputPosition, outputPosition);
 		entries.add(entry);
 		insertionOrderEntries.add(entry);
+		lineIndex = null;
 		maxOutputLine = Math.max(maxOutputLine, outputPosition.getLine());
 		return entry;
 	}
@@ -116,6 +120,13 @@ public class SourceMap {
 	/**
 	 * Finds the input position from an output position.
 	 * 
+	 * <p>
+	 * When the output line holds entries, the first entry at or after the given
+	 * column is returned (or the last entry of the line). Otherwise, the last
+	 * entry of the closest preceding line is returned. The lookup is performed
+	 * in O(log n) on a line index that is lazily built and dropped when the
+	 * source map is modified.
+	 * 
 	 * @param outputLine
 	 *            a line in the output source file
 	 * @param outputColumn
@@ -132,20 +143,75 @@ public class SourceMap {
 		if (outputLine > maxOutputLine) {
 			return null;
 		}
-		if (entries != null) {
-			Entry[] e = entries.toArray(new Entry[0]);
-			for (int i = 0; i < entries.size(); i++) {
-				if (i == e.length - 1 || (e[i].getOutputPosition().getLine() == outputLine
-						|| e[i + 1].getOutputPosition().getLine() > outputLine)) {
-					while (i + 1 < e.length && e[i + 1].getOutputPosition().getLine() == outputLine
-							&& e[i].getOutputPosition().getColumn() < outputColumn) {
-						i++;
-					}
-					return e[i].getInputPosition();
+		return getLineIndex().find(outputLine, outputColumn);
+	}
+
+	private LineIndex getLineIndex() {
+		LineIndex index = lineIndex;
+		if (index == null) {
+			index = new LineIndex(entries);
+			lineIndex = index;
+		}
+		return index;
+	}
+
+	/**
+	 * An immutable index of the entries, sorted by output positions and
+	 * grouped by output lines.
+	 */
+	private static final class LineIndex {
+		private final int firstLine;
+		// entries of line l are in [lineStarts[l - firstLine],
+		// lineStarts[l - firstLine + 1])
+		private final int[] lineStarts;
+		private final int[] outputColumns;
+		private final Position[] inputPositions;
+
+		private LineIndex(SortedSet<Entry> entries) {
+			Entry[] sorted = entries.toArray(new Entry[entries.size()]);
+			Arrays.sort(sorted, (e1, e2) -> e1.getOutputPosition().compareTo(e2.getOutputPosition()));
+			firstLine = sorted[0].getOutputPosition().getLine();
+			int lastLine = sorted[sorted.length - 1].getOutputPosition().getLine();
+			lineStarts = new int[lastLine - firstLine + 2];
+			outputColumns = new int[sorted.length];
+			inputPositions = new Position[sorted.length];
+			int line = firstLine;
+			for (int i = 0; i < sorted.length; i++) {
+				Position outputPosition = sorted[i].getOutputPosition();
+				while (line < outputPosition.getLine()) {
+					lineStarts[++line - firstLine] = i;
+				}
+				outputColumns[i] = outputPosition.getColumn();
+				inputPositions[i] = sorted[i].getInputPosition();
+			}
+			lineStarts[lineStarts.length - 1] = sorted.length;
+		}
+
+		private Position find(int outputLine, int outputColumn) {
+			if (outputLine < firstLine) {
+				return inputPositions[0];
+			}
+			if (outputLine - firstLine >= lineStarts.length - 1) {
+				return inputPositions[inputPositions.length - 1];
+			}
+			int start = lineStarts[outputLine - firstLine];
+			int end = lineStarts[outputLine - firstLine + 1];
+			if (start == end) {
+				// no entry on this line: last entry of the previous lines
+				return inputPositions[start - 1];
+			}
+			int low = start;
+			int high = end - 1;
+			while (low < high) {
+				int middle = (low + high) >>> 1;
+				if (outputColumns[middle] < outputColumn) {
+					low = middle + 1;
+				} else {
+					high = middle;
 				}
 			}
+			return inputPositions[low];
 		}
-		return null;
 	}
 
 	/**
@@ -158,6 +224,7 @@ public class SourceMap {
 		}
 		minOutputLine += lineOffset;
 		maxOutputLine += lineOffset;
+		lineIndex = null;
 	}
 
 	@Override
@@ -189,6 +256,7 @@ public class SourceMap {
 		}
 		Entry e = insertionOrderEntries.remove(insertionOrderEntries.size() - 1);
 		entries.remove(e);
+		lineIndex = null;
 		maxOutputLine = 0;
 		for (Entry entry : entries) {
 			maxOutputLine = Math.max(maxOutputLine, entry.getOutputPosition().getLine());
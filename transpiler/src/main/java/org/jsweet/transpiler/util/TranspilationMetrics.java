@@ -0,0 +1,202 @@
+/*
+ * JSweet transpiler - http://www.jsweet.org
+ * Copyright (C) 2015 CINCHEO SAS <renaud.pawlak@cincheo.fr>
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package org.jsweet.transpiler.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.commons.io.FileUtils;
+
+import com.google.gson.GsonBuilder;
+
+/**
+ * The metrics of a transpilation: the durations of the transpilation phases
+ * and some counters that are incremented by the scanners and the printers.
+ *
+ * <p>
+ * The counters can be incremented concurrently. A
+ * phase can be started and ended several times during a transpilation, in
+ * which case its durations are summed.
+ *
+ * @see org.jsweet.transpiler.TranspilationHandler#onMetrics(org.jsweet.transpiler.JSweetTranspiler,
+ *      TranspilationMetrics)
+ * @author Renaud Pawlak
+ */
+public class TranspilationMetrics {
+
+	/**
+	 * The transpilation phases.
+	 */
+	public enum Phase {
+		/**
+		 * The extraction of the candies found in the classpath.
+		 */
+		CANDIES,
+		/**
+		 * The javac parsing (and entering) of the Java files.
+		 */
+		PARSING,
+		/**
+		 * The javac attribution of the Java files.
+		 */
+		ATTRIBUTION,
+		/**
+		 * The scanners that run before printing (declaration index,
+		 * before-translation scanner, overloads and static initializers).
+		 */
+		ANALYSIS,
+		/**
+		 * The printing of the TypeScript files (including their writing and
+		 * the TypeScript source maps).
+		 */
+		PRINTING,
+		/**
+		 * The TypeScript compilation.
+		 */
+		TSC,
+		/**
+		 * The redirection of the JavaScript source maps to the Java files.
+		 */
+		SOURCE_MAPS
+	}
+
+	/**
+	 * The transpilation counters.
+	 */
+	public enum Counter {
+		/**
+		 * The number of printed compilation units.
+		 */
+		UNITS_PRINTED,
+		/**
+		 * The number of printing rollbacks in the tree scanners.
+		 */
+		ROLLBACKS,
+		/**
+		 * The number of elements substituted by the adapters.
+		 */
+		ADAPTER_SUBSTITUTIONS,
+		/**
+		 * The number of calls to
+		 * {@link Util#lookupTree(org.jsweet.transpiler.JSweetContext, javax.lang.model.element.Element)}.
+		 */
+		LOOKUP_TREE_CALLS,
+		/**
+		 * The number of tsc output lines parsed.
+		 */
+		TSC_LINES
+	}
+
+	private final Map<Phase, Long> phaseStarts = new EnumMap<>(Phase.class);
+	private final Map<Phase, Long> phaseDurations = new EnumMap<>(Phase.class);
+	private final Map<Counter, LongAdder> counters = new EnumMap<>(Counter.class);
+
+	/**
+	 * Creates empty metrics.
+	 */
+	public TranspilationMetrics() {
+		for (Counter counter : Counter.values()) {
+			counters.put(counter, new LongAdder());
+		}
+	}
+
+	/**
+	 * Starts measuring the given phase.
+	 */
+	public synchronized void startPhase(Phase phase) {
+		phaseStarts.put(phase, System.nanoTime());
+	}
+
+	/**
+	 * Ends measuring the given phase.
+	 *
+	 * @return the duration of the phase since it was started, in milliseconds
+	 *         (-1 if the phase was not started)
+	 */
+	public synchronized long endPhase(Phase phase) {
+		Long start = phaseStarts.remove(phase);
+		if (start == null) {
+			return -1;
+		}
+		long duration = System.nanoTime() - start;
+		phaseDurations.merge(phase, duration, Long::sum);
+		return TimeUnit.NANOSECONDS.toMillis(duration);
+	}
+
+	/**
+	 * Gets the total duration of the given phase, in milliseconds.
+	 */
+	public synchronized long getPhaseDuration(Phase phase) {
+		return TimeUnit.NANOSECONDS.toMillis(phaseDurations.getOrDefault(phase, 0L));
+	}
+
+	/**
+	 * Increments the given counter.
+	 */
+	public void increment(Counter counter) {
+		counters.get(counter).increment();
+	}
+
+	/**
+	 * Gets the value of the given counter.
+	 */
+	public long getCount(Counter counter) {
+		return counters.get(counter).sum();
+	}
+
+	/**
+	 * Returns a JSON report of these metrics (phase durations in milliseconds
+	 * and counters).
+	 */
+	public String toJson() {
+		Map<String, Long> phases = new LinkedHashMap<>();
+		for (Phase phase : Phase.values()) {
+			phases.put(phase.name(), getPhaseDuration(phase));
+		}
+		Map<String, Long> counts = new LinkedHashMap<>();
+		for (Counter counter : Counter.values()) {
+			counts.put(counter.name(), getCount(counter));
+		}
+		Map<String, Object> report = new LinkedHashMap<>();
+		report.put("phases", phases);
+		report.put("counters", counts);
+		return new GsonBuilder().setPrettyPrinting().create().toJson(report);
+	}
+
+	/**
+	 * Writes the JSON report of these metrics to the given file.
+	 *
+	 * @see #toJson()
+	 */
+	public void writeReport(File file) throws IOException {
+		FileUtils.write(file, toJson(), StandardCharsets.UTF_8);
+	}
+
+	@Override
+	public String toString() {
+		return toJson();
+	}
+
+}
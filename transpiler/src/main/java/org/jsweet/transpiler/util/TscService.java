@@ -0,0 +1,210 @@
+/*
+ * JSweet transpiler - http://www.jsweet.org
+ * Copyright (C) 2015 CINCHEO SAS <renaud.pawlak@cincheo.fr>
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+package org.jsweet.transpiler.util;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.log4j.Logger;
+
+import com.google.gson.Gson;
+
+/**
+ * A long-lived TypeScript compiler, running in a <code>node</code> process
+ * that uses the TypeScript language service API. Compared to launching a
+ * <code>tsc</code> process for each compilation, it avoids the
+ * <code>node</code> startup and keeps the parsed files (including the default
+ * libraries) in memory between compilations.
+ *
+ * <p>
+ * The service takes regular <code>tsc</code> command-line arguments and
+ * reports diagnostics formatted as <code>tsc</code> does. It also supports
+ * in-memory sources and outputs.
+ *
+ * @author Renaud Pawlak
+ */
+public class TscService {
+
+	private final static Logger logger = Logger.getLogger(TscService.class);
+
+	private static final String SCRIPT_NAME = "tsc-service.js";
+
+	/**
+	 * The result of a compilation.
+	 */
+	public static class Result {
+		private Integer id;
+		private List<String> diagnostics = new ArrayList<>();
+		private int errorCount;
+		private boolean emitSkipped;
+		private Map<String, String> outputs = new HashMap<>();
+
+		/**
+		 * The diagnostics, formatted as <code>tsc</code> does.
+		 */
+		public List<String> getDiagnostics() {
+			return diagnostics;
+		}
+
+		/**
+		 * The number of errors in the diagnostics.
+		 */
+		public int getErrorCount() {
+			return errorCount;
+		}
+
+		/**
+		 * Tells if no output was generated.
+		 */
+		public boolean isEmitSkipped() {
+			return emitSkipped;
+		}
+
+		/**
+		 * The generated files (file name -&gt; content), when the outputs are
+		 * kept in memory.
+		 */
+		public Map<String, String> getOutputs() {
+			return outputs;
+		}
+	}
+
+	private static class Request {
+		@SuppressWarnings("unused")
+		private int id;
+		@SuppressWarnings("unused")
+		private String directory;
+		@SuppressWarnings("unused")
+		private String[] args;
+		@SuppressWarnings("unused")
+		private Map<String, String> sources;
+		@SuppressWarnings("unused")
+		private boolean inMemoryOutput;
+	}
+
+	private final File workingDir;
+	private final Gson gson = new Gson();
+	private Process process;
+	private Writer in;
+	private BufferedReader out;
+	private int requestCount = 0;
+
+	/**
+	 * Creates a service that will install its script in the given working
+	 * directory. The <code>node</code> process is started on the first
+	 * compilation.
+	 */
+	public TscService(File workingDir) {
+		this.workingDir = workingDir;
+	}
+
+	private void start() throws IOException {
+		File script = new File(workingDir, SCRIPT_NAME);
+		try (InputStream scriptContent = TscService.class.getResourceAsStream(SCRIPT_NAME)) {
+			FileUtils.copyInputStreamToFile(scriptContent, script);
+		}
+		logger.info("starting tsc service");
+		process = ProcessUtil.startNodeProcess(script, workingDir,
+				ProcessUtil.getGlobalNodeModuleDir("typescript").getAbsolutePath());
+		in = new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8);
+		out = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Tells if the <code>node</code> process is running.
+	 */
+	public synchronized boolean isAlive() {
+		return process != null && process.isAlive();
+	}
+
+	/**
+	 * Compiles the given files.
+	 *
+	 * @param directory
+	 *            the directory to which relative paths are resolved
+	 * @param sources
+	 *            in-memory sources (file name -&gt; content), which override
+	 *            the files on disk (can be null)
+	 * @param inMemoryOutput
+	 *            if true, the outputs are returned in the result instead of
+	 *            being written to disk
+	 * @param args
+	 *            the <code>tsc</code> command-line arguments (options and
+	 *            files)
+	 * @return the compilation result
+	 * @throws IOException
+	 *             if the service cannot be started or fails while compiling
+	 *             (the service is then stopped)
+	 */
+	public synchronized Result compile(File directory, Map<String, String> sources, boolean inMemoryOutput,
+			String... args) throws IOException {
+		if (!isAlive()) {
+			start();
+		}
+		Request request = new Request();
+		request.id = ++requestCount;
+		request.directory = directory == null ? null : directory.getAbsolutePath();
+		request.args = args;
+		request.sources = sources;
+		request.inMemoryOutput = inMemoryOutput;
+		try {
+			in.write(gson.toJson(request));
+			in.write("\n");
+			in.flush();
+			String line = out.readLine();
+			if (line == null) {
+				throw new IOException("tsc service terminated unexpectedly");
+			}
+			Result result = gson.fromJson(line, Result.class);
+			if (result.id == null || result.id != requestCount) {
+				throw new IOException("unexpected tsc service response: " + line);
+			}
+			return result;
+		} catch (IOException | RuntimeException e) {
+			stop();
+			throw e instanceof IOException ? (IOException) e : new IOException(e);
+		}
+	}
+
+	/**
+	 * Stops the <code>node</code> process (it will be restarted on the next
+	 * compilation).
+	 */
+	public synchronized void stop() {
+		if (process != null) {
+			logger.info("stopping tsc service");
+			process.destroy();
+			process = null;
+			in = null;
+			out = null;
+		}
+	}
+
+}
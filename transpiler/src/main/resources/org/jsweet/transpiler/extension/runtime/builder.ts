@@ -0,0 +1,102 @@
+/* JSweet runtime: string builder emulation buffering the appended chunks until the string is read */
+var __jsweet_builder: any = __jsweet_builder || {
+    proto: null,
+    create: function(s?: any): any {
+        var p = __jsweet_builder.proto;
+        if (p == null) {
+            p = { toString: function() { return this.str; } };
+            Object.defineProperty(p, 'str', {
+                get: function() { return __jsweet_builder.flush(this); },
+                set: function(v: string) { this.chunks = [v]; this.count = v.length; }
+            });
+            __jsweet_builder.proto = p;
+        }
+        var sb = Object.create(p);
+        sb.str = s == null ? '' : String(s);
+        return sb;
+    },
+    flush: function(sb: any): string {
+        if (sb.chunks.length > 1) sb.chunks = [sb.chunks.join('')];
+        return sb.chunks[0];
+    },
+    string: function(o: any): string {
+        return typeof o === 'string' ? o : String(o);
+    },
+    append: function(sb: any, o: any): any {
+        var s = __jsweet_builder.string(o);
+        if (s.length > 0) {
+            sb.chunks.push(s);
+            sb.count += s.length;
+        }
+        return sb;
+    },
+    appendRange: function(sb: any, o: any, start: number, end: number): any {
+        return __jsweet_builder.append(sb, __jsweet_builder.string(o).substring(start, end));
+    },
+    appendChars: function(sb: any, chars: string[], offset?: number, length?: number): any {
+        return __jsweet_builder.append(sb, (offset == null ? chars : chars.slice(offset, offset + length)).join(''));
+    },
+    appendCharCodes: function(sb: any, codes: number[], offset?: number, length?: number): any {
+        return __jsweet_builder.append(sb, String.fromCharCode.apply(null, offset == null ? codes : codes.slice(offset, offset + length)));
+    },
+    insert: function(sb: any, index: number, o: any): any {
+        var s = sb.str;
+        sb.str = s.substring(0, index) + __jsweet_builder.string(o) + s.substring(index);
+        return sb;
+    },
+    setCharAt: function(sb: any, index: number, c: any) {
+        var s = sb.str;
+        sb.str = s.substring(0, index) + __jsweet_builder.string(c) + s.substring(index + 1);
+    },
+    deleteCharAt: function(sb: any, index: number): any {
+        var s = sb.str;
+        sb.str = s.substring(0, index) + s.substring(index + 1);
+        return sb;
+    },
+    delete: function(sb: any, start: number, end: number): any {
+        var s = sb.str;
+        sb.str = s.substring(0, start) + s.substring(end);
+        return sb;
+    },
+    setLength: function(sb: any, length: number) {
+        var s = sb.str;
+        if (length <= s.length) {
+            sb.str = s.substring(0, length);
+        } else {
+            while (s.length < length) s += '\0';
+            sb.str = s;
+        }
+    },
+    length: function(sb: any): number {
+        return sb.count;
+    },
+    compact: function(sb: any) {
+        // merges the last chunks until each chunk is more than twice as long as the next one
+        var chunks = sb.chunks, tail = chunks.pop();
+        while (chunks.length > 0 && chunks[chunks.length - 1].length <= 2 * tail.length) tail = chunks.pop() + tail;
+        chunks.push(tail);
+    },
+    chunk: function(sb: any, index: number): string {
+        // returns the chunk holding the given index (and sets its start), without joining the whole buffer
+        var chunks = sb.chunks;
+        if (chunks.length > 1 && index >= chunks[0].length) {
+            __jsweet_builder.compact(sb);
+            var start = sb.count;
+            for (var i = chunks.length - 1; i > 0; i--) {
+                start -= chunks[i].length;
+                if (index >= start) {
+                    sb.start = start;
+                    return chunks[i];
+                }
+            }
+        }
+        sb.start = 0;
+        return chunks[0];
+    },
+    charAt: function(sb: any, index: number): string {
+        return __jsweet_builder.chunk(sb, index).charAt(index - sb.start);
+    },
+    charCodeAt: function(sb: any, index: number): number {
+        return __jsweet_builder.chunk(sb, index).charCodeAt(index - sb.start);
+    }
+};
@@ -0,0 +1,203 @@
+/* JSweet runtime: circular buffer emulation of the deques (plain arrays are also accepted) */
+var __jsweet_deque: any = __jsweet_deque || {
+    proto: null,
+    create: function(c?: any): any {
+        var p = __jsweet_deque.proto;
+        if (p == null) {
+            p = {
+                toString: function() { return '[' + __jsweet_deque.toArray(this).join(', ') + ']'; },
+                slice: function(start?: number, end?: number) { return __jsweet_deque.toArray(this).slice(start, end); }
+            };
+            Object.defineProperty(p, 'length', { get: function() { return this.count; } });
+            __jsweet_deque.proto = p;
+        }
+        var d = Object.create(p);
+        d.elements = new Array(16);
+        d.head = 0;
+        d.count = 0;
+        if (c != null) __jsweet_deque.addAll(d, c);
+        return d;
+    },
+    equals: function(a: any, b: any): boolean {
+        return a === b || (a != null && b != null && typeof a.equals === 'function' && a.equals(b));
+    },
+    grow: function(d: any) {
+        var a = d.elements, n = a.length, b = new Array(n * 2);
+        for (var i = 0; i < d.count; i++) b[i] = a[(d.head + i) & (n - 1)];
+        d.elements = b;
+        d.head = 0;
+    },
+    toArray: function(d: any): any[] {
+        if (Array.isArray(d)) return d.slice(0);
+        var a = new Array(d.count), mask = d.elements.length - 1;
+        for (var i = 0; i < d.count; i++) a[i] = d.elements[(d.head + i) & mask];
+        return a;
+    },
+    size: function(d: any): number {
+        return Array.isArray(d) ? d.length : d.count;
+    },
+    isEmpty: function(d: any): boolean {
+        return __jsweet_deque.size(d) == 0;
+    },
+    clear: function(d: any) {
+        if (Array.isArray(d)) { d.length = 0; return; }
+        d.elements = new Array(16);
+        d.head = 0;
+        d.count = 0;
+    },
+    get: function(d: any, i: number): any {
+        return Array.isArray(d) ? d[i] : d.elements[(d.head + i) & (d.elements.length - 1)];
+    },
+    set: function(d: any, i: number, e: any): any {
+        if (Array.isArray(d)) { var old = d[i]; d[i] = e; return old; }
+        var j = (d.head + i) & (d.elements.length - 1), previous = d.elements[j];
+        d.elements[j] = e;
+        return previous;
+    },
+    addFirst: function(d: any, e: any) {
+        if (Array.isArray(d)) { d.unshift(e); return; }
+        if (d.count === d.elements.length) __jsweet_deque.grow(d);
+        d.head = (d.head - 1) & (d.elements.length - 1);
+        d.elements[d.head] = e;
+        d.count++;
+    },
+    addLast: function(d: any, e: any) {
+        if (Array.isArray(d)) { d.push(e); return; }
+        if (d.count === d.elements.length) __jsweet_deque.grow(d);
+        d.elements[(d.head + d.count) & (d.elements.length - 1)] = e;
+        d.count++;
+    },
+    add: function(d: any, e: any): boolean {
+        __jsweet_deque.addLast(d, e);
+        return true;
+    },
+    offerFirst: function(d: any, e: any): boolean {
+        __jsweet_deque.addFirst(d, e);
+        return true;
+    },
+    addAll: function(d: any, c: any): boolean {
+        var a = Array.isArray(c) ? c : __jsweet_deque.toArray(c);
+        for (var i = 0; i < a.length; i++) __jsweet_deque.addLast(d, a[i]);
+        return a.length > 0;
+    },
+    pollFirst: function(d: any): any {
+        if (Array.isArray(d)) return d.length == 0 ? null : d.shift();
+        if (d.count == 0) return null;
+        var e = d.elements[d.head];
+        d.elements[d.head] = undefined;
+        d.head = (d.head + 1) & (d.elements.length - 1);
+        d.count--;
+        return e;
+    },
+    pollLast: function(d: any): any {
+        if (Array.isArray(d)) return d.length == 0 ? null : d.pop();
+        if (d.count == 0) return null;
+        var i = (d.head + d.count - 1) & (d.elements.length - 1), e = d.elements[i];
+        d.elements[i] = undefined;
+        d.count--;
+        return e;
+    },
+    peekFirst: function(d: any): any {
+        return __jsweet_deque.isEmpty(d) ? null : __jsweet_deque.get(d, 0);
+    },
+    peekLast: function(d: any): any {
+        return __jsweet_deque.isEmpty(d) ? null : __jsweet_deque.get(d, __jsweet_deque.size(d) - 1);
+    },
+    check: function(d: any) {
+        if (__jsweet_deque.isEmpty(d)) throw new Error('NoSuchElementException');
+    },
+    getFirst: function(d: any): any {
+        __jsweet_deque.check(d);
+        return __jsweet_deque.peekFirst(d);
+    },
+    getLast: function(d: any): any {
+        __jsweet_deque.check(d);
+        return __jsweet_deque.peekLast(d);
+    },
+    removeFirst: function(d: any): any {
+        __jsweet_deque.check(d);
+        return __jsweet_deque.pollFirst(d);
+    },
+    removeLast: function(d: any): any {
+        __jsweet_deque.check(d);
+        return __jsweet_deque.pollLast(d);
+    },
+    indexOf: function(d: any, o: any): number {
+        var n = __jsweet_deque.size(d);
+        for (var i = 0; i < n; i++) if (__jsweet_deque.equals(o, __jsweet_deque.get(d, i))) return i;
+        return -1;
+    },
+    lastIndexOf: function(d: any, o: any): number {
+        for (var i = __jsweet_deque.size(d) - 1; i >= 0; i--) if (__jsweet_deque.equals(o, __jsweet_deque.get(d, i))) return i;
+        return -1;
+    },
+    contains: function(d: any, o: any): boolean {
+        return __jsweet_deque.indexOf(d, o) >= 0;
+    },
+    removeAt: function(d: any, i: number): any {
+        if (Array.isArray(d)) return d.splice(i, 1)[0];
+        var e = __jsweet_deque.get(d, i);
+        if (i < d.count >> 1) {
+            for (var j = i; j > 0; j--) __jsweet_deque.set(d, j, __jsweet_deque.get(d, j - 1));
+            __jsweet_deque.pollFirst(d);
+        } else {
+            for (var j = i; j < d.count - 1; j++) __jsweet_deque.set(d, j, __jsweet_deque.get(d, j + 1));
+            __jsweet_deque.pollLast(d);
+        }
+        return e;
+    },
+    remove: function(d: any, o: any): boolean {
+        var i = __jsweet_deque.indexOf(d, o);
+        if (i < 0) return false;
+        __jsweet_deque.removeAt(d, i);
+        return true;
+    },
+    containsAll: function(d: any, c: any): boolean {
+        var a = Array.isArray(c) ? c : __jsweet_deque.toArray(c);
+        for (var i = 0; i < a.length; i++) if (!__jsweet_deque.contains(d, a[i])) return false;
+        return true;
+    },
+    removeIf: function(d: any, p: any): boolean {
+        // compacts the kept elements in place, then drops the tail
+        var n = __jsweet_deque.size(d), kept = 0;
+        for (var i = 0; i < n; i++) {
+            var e = __jsweet_deque.get(d, i);
+            if (!(typeof p === 'function' ? p(e) : p.test(e))) __jsweet_deque.set(d, kept++, e);
+        }
+        while (__jsweet_deque.size(d) > kept) __jsweet_deque.pollLast(d);
+        return kept < n;
+    },
+    removeAll: function(d: any, c: any): boolean {
+        var a = Array.isArray(c) && c !== d ? c : __jsweet_deque.toArray(c);
+        return __jsweet_deque.removeIf(d, function(e: any) { return __jsweet_deque.contains(a, e); });
+    },
+    retainAll: function(d: any, c: any): boolean {
+        var a = Array.isArray(c) && c !== d ? c : __jsweet_deque.toArray(c);
+        return __jsweet_deque.removeIf(d, function(e: any) { return !__jsweet_deque.contains(a, e); });
+    },
+    forEach: function(d: any, f: any) {
+        var n = __jsweet_deque.size(d);
+        for (var i = 0; i < n; i++) {
+            var e = __jsweet_deque.get(d, i);
+            if (typeof f === 'function') f(e); else f.accept(e);
+        }
+    },
+    removeLastOccurrence: function(d: any, o: any): boolean {
+        var i = __jsweet_deque.lastIndexOf(d, o);
+        if (i < 0) return false;
+        __jsweet_deque.removeAt(d, i);
+        return true;
+    },
+    iterator: function(d: any, descending?: boolean): any {
+        var i = 0;
+        return {
+            hasNext: function() { return i < __jsweet_deque.size(d); },
+            next: function() {
+                if (i >= __jsweet_deque.size(d)) throw new Error('NoSuchElementException');
+                i++;
+                return __jsweet_deque.get(d, descending ? __jsweet_deque.size(d) - i : i - 1);
+            },
+            remove: function() { __jsweet_deque.removeAt(d, descending ? __jsweet_deque.size(d) - i : i - 1); i--; }
+        };
+    }
+};
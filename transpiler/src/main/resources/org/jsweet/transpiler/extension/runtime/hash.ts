@@ -0,0 +1,27 @@
+/* JSweet runtime: hashing helpers for the emulation of the JDK collections */
+var __jsweet_hash: any = __jsweet_hash || {
+    lastId: 0,
+    define: function(o: any, name: string, value: any) {
+        try {
+            Object.defineProperty(o, name, { value: value, writable: true, configurable: true, enumerable: false });
+        } catch (e) {
+            o[name] = value;
+        }
+    },
+    code: function(o: any): string {
+        switch (typeof o) {
+            case 'string': return 's' + o;
+            case 'number': return 'n' + o;
+            case 'boolean': return 'b' + o;
+        }
+        if (o == null) return 'null';
+        if (typeof o.hashCode === 'function') return 'h' + o.hashCode();
+        // objects defining equals without hashCode all share the same bucket
+        if (typeof o.equals === 'function') return 'e';
+        if (!Object.prototype.hasOwnProperty.call(o, '__jsweet_id')) __jsweet_hash.define(o, '__jsweet_id', ++__jsweet_hash.lastId);
+        return 'i' + o.__jsweet_id;
+    },
+    equals: function(a: any, b: any): boolean {
+        return a === b || (a != null && b != null && typeof a.equals === 'function' && a.equals(b));
+    }
+};
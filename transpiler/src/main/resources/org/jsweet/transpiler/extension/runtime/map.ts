@@ -0,0 +1,106 @@
+/* JSweet runtime: hash map emulation for the maps with non-string keys (requires __jsweet_hash) */
+var __jsweet_map: any = __jsweet_map || {
+    getKey: function() { return this.key; },
+    getValue: function() { return this.value; },
+    setValue: function(v: any) { var old = this.value; this.value = v; return old; },
+    table: function(m: any): any {
+        if (m.entries == null) m.entries = [];
+        var t = m.__jsweet_table;
+        if (t == null || t.entries !== m.entries || t.records.length !== m.entries.length) {
+            t = { entries: m.entries, records: [], removed: 0, buckets: {} };
+            __jsweet_map.compact(t);
+            for (var i = 0; i < t.entries.length; i++) __jsweet_map.index(t, t.entries[i]);
+            __jsweet_hash.define(m, '__jsweet_table', t);
+        }
+        return t;
+    },
+    index: function(t: any, e: any) {
+        // the records hold the positions of the entries, so that an entry is removed without a scan
+        var h = __jsweet_hash.code(e.key), r = { e: e, i: t.records.length };
+        t.records.push(r);
+        if (!Object.prototype.hasOwnProperty.call(t.buckets, h)) t.buckets[h] = [r]; else t.buckets[h].push(r);
+    },
+    find: function(t: any, k: any): any {
+        var h = __jsweet_hash.code(k);
+        if (!Object.prototype.hasOwnProperty.call(t.buckets, h)) return null;
+        var bucket = t.buckets[h];
+        for (var i = 0; i < bucket.length; i++) if (bucket[i].e.key === k) return bucket[i];
+        for (var i = 0; i < bucket.length; i++) if (__jsweet_hash.equals(bucket[i].e.key, k)) return bucket[i];
+        return null;
+    },
+    compact: function(t: any) {
+        // removes the holes left by the removed entries, keeping the order of the other entries
+        var entries = t.entries, records = t.records, j = 0;
+        for (var i = 0; i < entries.length; i++) {
+            if (entries[i] != null) {
+                entries[j] = entries[i];
+                if (records.length > 0) (records[j] = records[i]).i = j;
+                j++;
+            }
+        }
+        entries.length = j;
+        if (records.length > 0) records.length = j;
+        t.removed = 0;
+    },
+    entries: function(m: any): any[] {
+        var t = __jsweet_map.table(m);
+        if (t.removed > 0) __jsweet_map.compact(t);
+        return t.entries;
+    },
+    put: function(m: any, k: any, v: any): any {
+        var t = __jsweet_map.table(m);
+        var r = __jsweet_map.find(t, k);
+        if (r != null) return r.e.setValue(v);
+        var e = { key: k, value: v, getKey: __jsweet_map.getKey, getValue: __jsweet_map.getValue, setValue: __jsweet_map.setValue };
+        __jsweet_map.index(t, e);
+        m.entries.push(e);
+        return null;
+    },
+    get: function(m: any, k: any): any {
+        var r = __jsweet_map.find(__jsweet_map.table(m), k);
+        return r == null ? null : r.e.value;
+    },
+    containsKey: function(m: any, k: any): boolean {
+        return __jsweet_map.find(__jsweet_map.table(m), k) != null;
+    },
+    remove: function(m: any, k: any): any {
+        var t = __jsweet_map.table(m);
+        var r = __jsweet_map.find(t, k);
+        if (r == null) return null;
+        var h = __jsweet_hash.code(r.e.key);
+        var bucket = t.buckets[h];
+        if (bucket.length == 1) delete t.buckets[h]; else bucket.splice(bucket.indexOf(r), 1);
+        m.entries[r.i] = t.records[r.i] = null;
+        if (++t.removed > 16 && t.removed * 2 > t.records.length) __jsweet_map.compact(t);
+        return r.e.value;
+    },
+    keySet: function(m: any): any[] {
+        var r = [], entries = __jsweet_map.entries(m);
+        for (var i = 0; i < entries.length; i++) r.push(entries[i].key);
+        return r;
+    },
+    values: function(m: any): any[] {
+        var r = [], entries = __jsweet_map.entries(m);
+        for (var i = 0; i < entries.length; i++) r.push(entries[i].value);
+        return r;
+    },
+    entrySet: function(m: any): any[] {
+        return __jsweet_map.entries(m);
+    },
+    size: function(m: any): number {
+        if (m.entries == null) return 0;
+        var t = __jsweet_map.table(m);
+        return t.records.length - t.removed;
+    },
+    clear: function(m: any) {
+        m.entries = [];
+    },
+    copy: function(m: any): any {
+        var c = { entries: [] };
+        if (m != null && m.entries != null) {
+            var entries = __jsweet_map.entries(m);
+            for (var i = 0; i < entries.length; i++) __jsweet_map.put(c, entries[i].key, entries[i].value);
+        }
+        return c;
+    }
+};
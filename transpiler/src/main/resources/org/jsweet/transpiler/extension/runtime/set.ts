@@ -0,0 +1,155 @@
+/* JSweet runtime: hash set emulation on arrays, kept sorted for tree sets (requires __jsweet_hash) */
+var __jsweet_set: any = __jsweet_set || {
+    sorted: function(comparator?: any): any[] {
+        var s = [];
+        __jsweet_hash.define(s, '__jsweet_comparator', comparator == null ? true : comparator);
+        return s;
+    },
+    copy: function(c: any, sorted?: boolean, comparator?: any): any[] {
+        var s = sorted ? __jsweet_set.sorted(comparator == null && c != null ? c.__jsweet_comparator : comparator) : [];
+        if (c != null) __jsweet_set.addAll(s, c);
+        return s;
+    },
+    compare: function(s: any, a: any, b: any): number {
+        var comparator = s.__jsweet_comparator;
+        if (typeof comparator === 'function') return comparator(a, b);
+        if (comparator != null && typeof comparator.compare === 'function') return comparator.compare(a, b);
+        if (a != null && typeof a.compareTo === 'function') return a.compareTo(b);
+        return a < b ? -1 : (a > b ? 1 : 0);
+    },
+    search: function(s: any, e: any): number {
+        // binary search with the comparator (-(insertion point) - 1 when not found)
+        var low = 0, high = s.length - 1;
+        while (low <= high) {
+            var middle = (low + high) >>> 1;
+            var c = __jsweet_set.compare(s, s[middle], e);
+            if (c < 0) low = middle + 1; else if (c > 0) high = middle - 1; else return middle;
+        }
+        return -(low + 1);
+    },
+    mutator: function(name: string): any {
+        var f = Array.prototype[name];
+        return function() {
+            this.__jsweet_table = null;
+            return f.apply(this, arguments);
+        };
+    },
+    watch: function(s: any) {
+        // the array methods used outside of the runtime drop the index of the set
+        if (Object.prototype.hasOwnProperty.call(s, 'splice')) return;
+        var names = ['push', 'pop', 'shift', 'unshift', 'splice', 'sort', 'reverse'];
+        for (var i = 0; i < names.length; i++) __jsweet_hash.define(s, names[i], __jsweet_set.mutator(names[i]));
+    },
+    table: function(s: any): any {
+        var t = s.__jsweet_table;
+        if (t == null || t.size !== s.length) {
+            t = { size: 0, buckets: {} };
+            for (var i = 0; i < s.length; i++) __jsweet_set.index(t, s[i], i);
+            __jsweet_hash.define(s, '__jsweet_table', t);
+            __jsweet_set.watch(s);
+        }
+        return t;
+    },
+    index: function(t: any, e: any, i: number) {
+        var h = __jsweet_hash.code(e), r = { e: e, i: i };
+        if (!Object.prototype.hasOwnProperty.call(t.buckets, h)) t.buckets[h] = [r]; else t.buckets[h].push(r);
+        t.size++;
+    },
+    find: function(t: any, e: any): any {
+        var h = __jsweet_hash.code(e);
+        if (!Object.prototype.hasOwnProperty.call(t.buckets, h)) return undefined;
+        var bucket = t.buckets[h];
+        for (var i = 0; i < bucket.length; i++) if (bucket[i].e === e) return bucket[i];
+        for (var i = 0; i < bucket.length; i++) if (__jsweet_hash.equals(bucket[i].e, e)) return bucket[i];
+        return undefined;
+    },
+    at: function(t: any, e: any, i: number): any {
+        var bucket = t.buckets[__jsweet_hash.code(e)];
+        for (var j = 0; j < bucket.length; j++) if (bucket[j].i === i) return bucket[j];
+    },
+    unindex: function(t: any, r: any) {
+        var h = __jsweet_hash.code(r.e);
+        var bucket = t.buckets[h];
+        if (bucket.length == 1) delete t.buckets[h]; else bucket.splice(bucket.indexOf(r), 1);
+        t.size--;
+    },
+    add: function(s: any, e: any): boolean {
+        if (s.__jsweet_comparator != null) {
+            var i = __jsweet_set.search(s, e);
+            if (i >= 0) return false;
+            s.splice(-i - 1, 0, e);
+            return true;
+        }
+        var t = __jsweet_set.table(s);
+        if (__jsweet_set.find(t, e) !== undefined) return false;
+        __jsweet_set.index(t, e, s.length);
+        s[s.length] = e;
+        return true;
+    },
+    addAll: function(s: any, c: any): boolean {
+        if (s.__jsweet_comparator != null && c.length > 1) return __jsweet_set.merge(s, c);
+        var changed = false;
+        for (var i = 0; i < c.length; i++) if (__jsweet_set.add(s, c[i])) changed = true;
+        return changed;
+    },
+    merge: function(s: any, c: any): boolean {
+        // sorts the added elements and merges them with the sorted set, in linear time
+        var added = Array.prototype.slice.call(c).sort(function(a: any, b: any) { return __jsweet_set.compare(s, a, b); });
+        var merged = [], i = 0;
+        for (var j = 0; j < added.length; j++) {
+            var e = added[j];
+            while (i < s.length && __jsweet_set.compare(s, s[i], e) <= 0) merged.push(s[i++]);
+            if (merged.length == 0 || __jsweet_set.compare(s, merged[merged.length - 1], e) != 0) merged.push(e);
+        }
+        while (i < s.length) merged.push(s[i++]);
+        var changed = merged.length > s.length;
+        for (var k = 0; k < merged.length; k++) s[k] = merged[k];
+        return changed;
+    },
+    contains: function(s: any, e: any): boolean {
+        if (s.__jsweet_comparator != null) return __jsweet_set.search(s, e) >= 0;
+        return __jsweet_set.find(__jsweet_set.table(s), e) !== undefined;
+    },
+    containsAll: function(s: any, c: any): boolean {
+        for (var i = 0; i < c.length; i++) if (!__jsweet_set.contains(s, c[i])) return false;
+        return true;
+    },
+    remove: function(s: any, e: any): boolean {
+        if (s.__jsweet_comparator != null) {
+            var i = __jsweet_set.search(s, e);
+            if (i < 0) return false;
+            s.splice(i, 1);
+            return true;
+        }
+        var t = __jsweet_set.table(s);
+        var r = __jsweet_set.find(t, e);
+        if (r === undefined) return false;
+        // moves the last element to the freed position
+        var last = s.length - 1;
+        __jsweet_set.unindex(t, r);
+        if (r.i < last) {
+            __jsweet_set.at(t, s[last], last).i = r.i;
+            s[r.i] = s[last];
+        }
+        s.length = last;
+        return true;
+    },
+    filter: function(s: any, c: any, retain: boolean): boolean {
+        var other = __jsweet_set.copy(c, s.__jsweet_comparator != null, s.__jsweet_comparator);
+        var j = 0;
+        for (var i = 0; i < s.length; i++) {
+            var e = s[i];
+            if (__jsweet_set.contains(other, e) === retain) s[j++] = e;
+        }
+        var changed = j < s.length;
+        s.length = j;
+        if (changed && s.__jsweet_table != null) s.__jsweet_table = null;
+        return changed;
+    },
+    removeAll: function(s: any, c: any): boolean {
+        return __jsweet_set.filter(s, c, false);
+    },
+    retainAll: function(s: any, c: any): boolean {
+        return __jsweet_set.filter(s, c, true);
+    }
+};
@@ -0,0 +1,198 @@
+/*
+ * JSweet transpiler - http://www.jsweet.org
+ * Copyright (C) 2015 CINCHEO SAS <renaud.pawlak@cincheo.fr>
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ */
+
+// A long-lived TypeScript compiler service, driven by the JSweet transpiler
+// (see org.jsweet.transpiler.util.TscService).
+//
+// Usage: node tsc-service.js <typescript module path>
+//
+// Reads one JSON request per line on stdin:
+// { "id": 1, "directory": "...", "args": [ tsc args ], "sources": { file: content }, "inMemoryOutput": false }
+// and writes one JSON response per line on stdout:
+// { "id": 1, "diagnostics": [ tsc-formatted lines ], "errorCount": 0, "emitSkipped": false, "outputs": { file: content } }
+//
+// The language service (and the document registry, which holds the parsed
+// default libraries) is kept between requests, so that only the files that
+// changed are parsed again.
+
+var fs = require('fs');
+var path = require('path');
+var readline = require('readline');
+var ts = require(process.argv[2]);
+
+var registry = ts.createDocumentRegistry();
+var service = null;
+var serviceKey = null;
+
+var currentDirectory = process.cwd();
+var rootFileNames = [];
+var options = {};
+var memory = {};
+var memoryVersions = {};
+
+function normalize(fileName) {
+	return path.resolve(currentDirectory, fileName).replace(/\\/g, '/');
+}
+
+function isInMemory(fileName) {
+	return Object.prototype.hasOwnProperty.call(memory, normalize(fileName));
+}
+
+var host = {
+	getScriptFileNames: function() {
+		return rootFileNames;
+	},
+	getScriptVersion: function(fileName) {
+		if (isInMemory(fileName)) {
+			return String(memoryVersions[normalize(fileName)]);
+		}
+		try {
+			return String(fs.statSync(fileName).mtime.getTime());
+		} catch (e) {
+			return '0';
+		}
+	},
+	getScriptSnapshot: function(fileName) {
+		var content = host.readFile(fileName);
+		return content === undefined ? undefined : ts.ScriptSnapshot.fromString(content);
+	},
+	getCurrentDirectory: function() {
+		return currentDirectory;
+	},
+	getCompilationSettings: function() {
+		return options;
+	},
+	getDefaultLibFileName: function(compilerOptions) {
+		return ts.getDefaultLibFilePath(compilerOptions);
+	},
+	fileExists: function(fileName) {
+		return isInMemory(fileName) || ts.sys.fileExists(fileName);
+	},
+	readFile: function(fileName) {
+		if (isInMemory(fileName)) {
+			return memory[normalize(fileName)];
+		}
+		return ts.sys.fileExists(fileName) ? ts.sys.readFile(fileName) : undefined;
+	},
+	directoryExists: function(directoryName) {
+		return ts.sys.directoryExists(directoryName);
+	},
+	getDirectories: function(directoryName) {
+		return ts.sys.getDirectories(directoryName);
+	}
+};
+
+function ensureDirectory(directoryName) {
+	if (!fs.existsSync(directoryName)) {
+		ensureDirectory(path.dirname(directoryName));
+		fs.mkdirSync(directoryName);
+	}
+}
+
+function formatDiagnostic(diagnostic) {
+	var message = ts.flattenDiagnosticMessageText(diagnostic.messageText, ' ').replace(/[\r\n]+/g, ' ');
+	var prefix = ts.DiagnosticCategory[diagnostic.category].toLowerCase() + ' TS' + diagnostic.code + ': ';
+	if (diagnostic.file) {
+		var position = diagnostic.file.getLineAndCharacterOfPosition(diagnostic.start);
+		return diagnostic.file.fileName + '(' + (position.line + 1) + ',' + (position.character + 1) + '): ' + prefix
+				+ message;
+	}
+	return prefix + message;
+}
+
+function compile(request) {
+	currentDirectory = request.directory || process.cwd();
+	var commandLine = ts.parseCommandLine(request.args || []);
+
+	var sources = request.sources || {};
+	var newMemory = {};
+	Object.keys(sources).forEach(function(fileName) {
+		var key = normalize(fileName);
+		newMemory[key] = sources[fileName];
+		if (memory[key] !== sources[fileName]) {
+			memoryVersions[key] = (memoryVersions[key] || 0) + 1;
+		}
+	});
+	memory = newMemory;
+	options = commandLine.options;
+	rootFileNames = commandLine.fileNames.map(normalize);
+
+	var key = JSON.stringify(options);
+	if (service === null || key !== serviceKey) {
+		if (service !== null) {
+			service.dispose();
+		}
+		service = ts.createLanguageService(host, registry);
+		serviceKey = key;
+	}
+
+	var program = service.getProgram();
+	var diagnostics = commandLine.errors.concat(program.getOptionsDiagnostics(), program.getSyntacticDiagnostics());
+	if (diagnostics.length === 0) {
+		diagnostics = program.getGlobalDiagnostics().concat(program.getSemanticDiagnostics());
+	}
+
+	var outputs = {};
+	var emitResult = program.emit(undefined, function(fileName, data) {
+		if (request.inMemoryOutput) {
+			outputs[fileName] = data;
+		} else {
+			ensureDirectory(path.dirname(path.resolve(currentDirectory, fileName)));
+			fs.writeFileSync(path.resolve(currentDirectory, fileName), data);
+		}
+	});
+	diagnostics = ts.sortAndDeduplicateDiagnostics(diagnostics.concat(emitResult.diagnostics));
+
+	return {
+		id: request.id,
+		diagnostics: diagnostics.map(formatDiagnostic),
+		errorCount: diagnostics.filter(function(diagnostic) {
+			return diagnostic.category === ts.DiagnosticCategory.Error;
+		}).length,
+		emitSkipped: emitResult.emitSkipped,
+		outputs: outputs
+	};
+}
+
+var input = readline.createInterface({ input: process.stdin, terminal: false });
+
+input.on('line', function(line) {
+	if (!line.trim()) {
+		return;
+	}
+	var request = null;
+	var response;
+	try {
+		request = JSON.parse(line);
+		response = compile(request);
+	} catch (e) {
+		response = {
+			id: request === null ? null : request.id,
+			diagnostics: [ 'error TS0: tsc service failure: ' + String(e && e.stack || e).replace(/[\r\n]+/g, ' ') ],
+			errorCount: 1,
+			emitSkipped: true,
+			outputs: {}
+		};
+	}
+	process.stdout.write(JSON.stringify(response) + '\n');
+});
+
+input.on('close', function() {
+	process.exit(0);
+});
@@ -16,10 +16,26 @@
  */
 package org.jsweet.test.transpiler;
 
-import java.io.File;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+import org.apache.commons.io.FileUtils;
+import org.jsweet.JSweetConfig;
 import org.jsweet.transpiler.ModuleKind;
 import org.jsweet.transpiler.SourceFile;
+import org.jsweet.transpiler.candy.CandyProcessor;
+import org.jsweet.transpiler.util.ConsoleTranspilationHandler;
 import org.junit.Test;
 
 import source.candies.Angular;
@@ -43,6 +59,89 @@ public class CandiesTests extends AbstractTest {
 		}, getSourceFile(GlobalsImport.class));
 	}
 
+	@Test
+	public void testCandyScanCache() throws Exception {
+		transpile(TestTranspilationHandler::assertNoProblems, getSourceFile(JQuery.class));
+		File scanCacheFile = new File(transpiler.getWorkingDirectory(), CandyProcessor.CANDIES_SCAN_CACHE_FILE_NAME);
+		assertTrue("Scan cache not written", scanCacheFile.exists());
+		assertTrue("Candy not cached", FileUtils.readFileToString(scanCacheFile).contains("jquery"));
+
+		// unchanged jars are not scanned again
+		scanCacheFile.setLastModified(1000);
+		transpile(TestTranspilationHandler::assertNoProblems, getSourceFile(JQuery.class));
+		assertEquals(1000, scanCacheFile.lastModified());
+	}
+
+	@Test
+	public void testCandyStore() throws Exception {
+		File workingDir = new File(transpiler.getWorkingDirectory(), "candy-store");
+		FileUtils.deleteQuietly(workingDir);
+		try {
+			File jarA = createCandyJar(new File(workingDir, "jars/candy-a.jar"), "candy-a", "1.0", 1000000);
+			File jarB = createCandyJar(new File(workingDir, "jars/candy-b.jar"), "candy-b", "1.0", 1000000);
+			String classPath = jarA.getPath() + File.pathSeparator + jarB.getPath();
+
+			// miss: all the candies are extracted
+			CandyProcessor processor = new CandyProcessor(workingDir, classPath, null);
+			processor.processCandies(new ConsoleTranspilationHandler());
+			File defA = new File(processor.getCandiesTsdefsDir(), "src/typings/candy-a/index.d.ts");
+			File defB = new File(processor.getCandiesTsdefsDir(), "src/typings/candy-b/index.d.ts");
+			assertEquals("declare var candy_a_1_0: any;", FileUtils.readFileToString(defA, StandardCharsets.UTF_8));
+			assertEquals("declare var candy_b_1_0: any;", FileUtils.readFileToString(defB, StandardCharsets.UTF_8));
+			File storeFile = new File(workingDir, CandyProcessor.CANDIES_STORE_FILE_NAME);
+			assertTrue(FileUtils.readFileToString(storeFile, StandardCharsets.UTF_8).contains("extractedFiles"));
+
+			// hit: unchanged candies are not extracted again
+			FileUtils.write(defA, "touched", StandardCharsets.UTF_8);
+			FileUtils.write(defB, "touched", StandardCharsets.UTF_8);
+			processor = new CandyProcessor(workingDir, classPath, null);
+			processor.processCandies(new ConsoleTranspilationHandler());
+			assertEquals("touched", FileUtils.readFileToString(defA, StandardCharsets.UTF_8));
+			assertEquals("touched", FileUtils.readFileToString(defB, StandardCharsets.UTF_8));
+
+			// invalidation: only the updated candy is extracted again
+			createCandyJar(jarB, "candy-b", "1.1", 2000000);
+			processor = new CandyProcessor(workingDir, classPath, null);
+			processor.processCandies(new ConsoleTranspilationHandler());
+			assertEquals("touched", FileUtils.readFileToString(defA, StandardCharsets.UTF_8));
+			assertEquals("declare var candy_b_1_1: any;", FileUtils.readFileToString(defB, StandardCharsets.UTF_8));
+
+			// invalidation: the files of a removed candy are deleted
+			processor = new CandyProcessor(workingDir, jarB.getPath(), null);
+			processor.processCandies(new ConsoleTranspilationHandler());
+			assertFalse(defA.exists());
+			assertTrue(defB.exists());
+		} finally {
+			FileUtils.deleteQuietly(workingDir);
+		}
+	}
+
+	/**
+	 * Creates a minimal candy jar that contains a single definition file.
+	 */
+	private File createCandyJar(File jarFile, String name, String version, long timestamp) throws IOException {
+		jarFile.getParentFile().mkdirs();
+		Manifest manifest = new Manifest();
+		manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+		try (JarOutputStream out = new JarOutputStream(new FileOutputStream(jarFile))) {
+			JarEntry entry = new JarEntry(JarFile.MANIFEST_NAME);
+			entry.setTime(timestamp);
+			out.putNextEntry(entry);
+			manifest.write(out);
+			out.putNextEntry(new JarEntry("META-INF/candy-metadata.json"));
+			out.write(("{\"transpilerVersion\":\"" + JSweetConfig.getVersionNumber() + "\"}")
+					.getBytes(StandardCharsets.UTF_8));
+			out.putNextEntry(new JarEntry("META-INF/maven/org.jsweet.candies/" + name + "/pom.properties"));
+			out.write(("artifactId=" + name + "\nversion=" + version + "\n").getBytes(StandardCharsets.UTF_8));
+			out.putNextEntry(new JarEntry("src/typings/" + name + "/index.d.ts"));
+			out.write(("declare var " + name.replace('-', '_') + "_" + version.replace('.', '_') + ": any;")
+					.getBytes(StandardCharsets.UTF_8));
+		}
+		// the scan cache relies on the modification date
+		jarFile.setLastModified(timestamp);
+		return jarFile;
+	}
+
 	@Test
 	public void testQualifiedNames() {
 		transpile(ModuleKind.commonjs, TestTranspilationHandler::assertNoProblems, getSourceFile(QualifiedNames.class));
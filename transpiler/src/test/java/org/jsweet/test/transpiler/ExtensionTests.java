@@ -33,6 +33,10 @@ import org.junit.Assert;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import com.sun.tools.javac.code.Symbol;
+import com.sun.tools.javac.tree.JCTree;
+import com.sun.tools.javac.tree.JCTree.JCClassDecl;
+
 import source.extension.A1;
 import source.extension.A2;
 import source.extension.AnnotationTest;
@@ -201,6 +205,41 @@ public class ExtensionTests extends AbstractTest {
 		}, getSourceFile(AnnotationTest.class));
 	}
 
+	@Test
+	public void testAnnotationCacheInvalidation() {
+		transpile(logHandler -> {
+			logHandler.assertNoProblems();
+			JSweetContext context = transpiler.getContext();
+			Symbol msg = null;
+			for (JCTree def : context.compilationUnits[0].defs) {
+				if (def instanceof JCClassDecl) {
+					for (Symbol member : ((JCClassDecl) def).sym.getEnclosedElements()) {
+						if (member.getSimpleName().contentEquals("msg")) {
+							msg = member;
+						}
+					}
+				}
+			}
+			Symbol field = msg;
+			Assert.assertEquals("msg", context.getActualName(field));
+			Assert.assertFalse(context.hasAnnotationType(field, JSweetConfig.ANNOTATION_ERASED));
+			// resolved annotations must follow new filters and managers
+			context.addAnnotation("@Name('message')", "!**.HelloWorldDto.date", "**.HelloWorldDto.msg");
+			Assert.assertEquals("message", context.getActualName(field));
+			AnnotationManager manager = new AnnotationManager() {
+				@Override
+				public Action manageAnnotation(Element element, String annotationType) {
+					return JSweetConfig.ANNOTATION_ERASED.equals(annotationType) && element == field ? Action.ADD
+							: Action.VOID;
+				}
+			};
+			context.addAnnotationManager(manager);
+			Assert.assertTrue(context.hasAnnotationType(field, JSweetConfig.ANNOTATION_ERASED));
+			context.removeAnnotationManager(manager);
+			Assert.assertFalse(context.hasAnnotationType(field, JSweetConfig.ANNOTATION_ERASED));
+		}, getSourceFile(HelloWorldDto.class));
+	}
+
 	@Test
 	public void testMaps() {
 		createTranspiler(new JSweetFactory() {
@@ -261,6 +300,7 @@ public class ExtensionTests extends AbstractTest {
 		});
 		transpile(logHandler -> {
 			logHandler.assertReportedProblems(JSweetProblem.USER_ERROR);
+			Assert.assertEquals(21, logHandler.getReportedSourcePositions().get(0).getStartLine());
 		}, getSourceFile(UseOfGlobalVariable.class));
 		createTranspiler(new JSweetFactory());
 
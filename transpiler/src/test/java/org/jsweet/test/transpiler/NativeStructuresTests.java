@@ -1,8 +1,14 @@
 package org.jsweet.test.transpiler;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.io.FileUtils;
 import org.jsweet.transpiler.ModuleKind;
+import org.jsweet.transpiler.SourceFile;
 import org.junit.Assert;
 import org.junit.Ignore;
 import org.junit.Test;
@@ -20,13 +26,19 @@ import source.nativestructures.Maps;
 import source.nativestructures.NativeArrays;
 import source.nativestructures.NativeStringBuilder;
 import source.nativestructures.NativeSystem;
+import source.nativestructures.NumericChars;
+import source.nativestructures.NumericCharsLoop;
 import source.nativestructures.Numbers;
 import source.nativestructures.ObjectMaps;
 import source.nativestructures.OverloadWithNative;
 import source.nativestructures.Properties;
 import source.nativestructures.Reflect;
+import source.nativestructures.RingBufferDeques;
 import source.nativestructures.Sets;
 import source.nativestructures.Strings;
+import source.nativestructures.TypedArrays;
+import source.nativestructures.ValueObjectMaps;
+import source.nativestructures.ValueObjectSets;
 import source.nativestructures.WeakReferences;
 
 public class NativeStructuresTests extends AbstractTest {
@@ -55,7 +67,8 @@ public class NativeStructuresTests extends AbstractTest {
 	public void testStringBuilder() {
 		eval((logHandler, result) -> {
 			Assert.assertEquals("There should be no errors", 0, logHandler.reportedProblems.size());
-			assertEquals("a,abc,a,abc,ab,X,tEst,E,4,tst,tt,:qqqq,:aaaaqqqq", result.get("trace"));
+			assertEquals("a,abc,a,abc,ab,X,tEst,E,4,tst,tt,:qqqq,:aaaaqqqq,100009,012yzb6,>1,2ok,"
+					+ "abcabcabcabcabcabcabcabcabcabcabcc33", result.get("trace"));
 		}, getSourceFile(NativeStringBuilder.class));
 	}
 
@@ -110,6 +123,38 @@ public class NativeStructuresTests extends AbstractTest {
 		}, getSourceFile(ObjectMaps.class));
 	}
 
+	@Test
+	public void testValueObjectMaps() {
+		eval((logHandler, result) -> {
+			Assert.assertEquals("There should be no errors", 0, logHandler.reportedProblems.size());
+			assertEquals("1000,500,500,-1,true,false,1,999,null,0,2,-2,true,1,0;3;6;9;96;99;1;,3599null",
+					result.get("trace"));
+		}, getSourceFile(ValueObjectMaps.class));
+	}
+
+	@Test
+	public void testRuntimeHelpersInScripts() throws Exception {
+		// each script declares the helpers it uses, but only the first
+		// declaration initializes them (and their state)
+		SourceFile[] files = { getSourceFile(ObjectMaps.class), getSourceFile(ValueObjectMaps.class) };
+		eval(ModuleKind.none, false, (logHandler, result) -> {
+			logHandler.assertNoProblems();
+		}, files);
+		for (SourceFile file : files) {
+			String generatedCode = FileUtils.readFileToString(file.getTsFile(), StandardCharsets.UTF_8);
+			assertTrue(generatedCode.contains("var __jsweet_hash: any = __jsweet_hash || {"));
+		}
+	}
+
+	@Test
+	public void testValueObjectSets() {
+		eval((logHandler, result) -> {
+			Assert.assertEquals("There should be no errors", 0, logHandler.reportedProblems.size());
+			assertEquals("500,false,true,true,false,true,497,false,2,true,false,1,135,531,false,true,true,1,truetruefalse3,"
+					+ "500truefalse250000,truefalse,-101234569", result.get("trace"));
+		}, getSourceFile(ValueObjectSets.class));
+	}
+
 	@Test
 	public void testNativeArrays() {
 		eval((logHandler, result) -> {
@@ -118,6 +163,67 @@ public class NativeStructuresTests extends AbstractTest {
 		}, getSourceFile(NativeArrays.class));
 	}
 
+	@Test
+	public void testTypedArrays() {
+		try {
+			transpiler.setTypedArrays(true);
+			eval((logHandler, result) -> {
+				logHandler.assertNoProblems();
+				assertEquals("30,2.5,350,truefalse,-2147483648,530,112,7227,1910,43201,6", result.get("trace"));
+			}, getSourceFile(TypedArrays.class));
+		} finally {
+			transpiler.setTypedArrays(false);
+		}
+	}
+
+	@Test
+	public void testNumericChars() {
+		try {
+			transpiler.setNumericChars(true);
+			eval((logHandler, result) -> {
+				logHandler.assertNoProblems();
+				assertEquals("26,bbc,h,Hello42,el,Xyz121,065,32-1,11111111011011101100000,11111111011011101100000",
+						result.get("trace"));
+			}, getSourceFile(NumericChars.class));
+		} finally {
+			transpiler.setNumericChars(false);
+		}
+	}
+
+	@Test
+	public void testNumericCharsLoop() throws Exception {
+		try {
+			transpiler.setNumericChars(true);
+			SourceFile file = getSourceFile(NumericCharsLoop.class);
+			eval((logHandler, result) -> {
+				logHandler.assertNoProblems();
+				assertEquals("10,1,9,9,17,13,225908", result.get("counts"));
+			}, file);
+			// char tests are plain number operations
+			String generatedCode = FileUtils.readFileToString(file.getTsFile(), StandardCharsets.UTF_8);
+			assertFalse(generatedCode.contains("=>"));
+			assertFalse(generatedCode.contains("fromCharCode"));
+			assertTrue(generatedCode.contains("(c - 65 >>> 0 < 26)"));
+		} finally {
+			transpiler.setNumericChars(false);
+		}
+	}
+
+	@Test
+	public void testRingBufferDeques() {
+		try {
+			transpiler.setRingBufferDeques(true);
+			eval((logHandler, result) -> {
+				logHandler.assertNoProblems();
+				assertEquals("truenullnull,403938,100383936,1999000,truetruefalsez3,zaccaz,xc13,0true,empty,3,"
+						+ "4false118[1, 2, 7, 8],2ab2,3truetrue5falsetruetrue",
+						result.get("trace"));
+			}, getSourceFile(RingBufferDeques.class));
+		} finally {
+			transpiler.setRingBufferDeques(false);
+		}
+	}
+
 	@Test
 	public void testSystem() {
 		eval((logHandler, result) -> {
@@ -17,11 +17,25 @@
 package org.jsweet.test.transpiler;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
+import javax.lang.model.element.ElementKind;
+
+import org.jsweet.transpiler.JSweetContext;
 import org.jsweet.transpiler.ModuleKind;
+import org.jsweet.transpiler.util.MemberResolutionCache;
+import org.jsweet.transpiler.util.Util;
 import org.junit.Test;
 
+import com.sun.tools.javac.code.Symbol;
+import com.sun.tools.javac.code.Symbol.ClassSymbol;
+import com.sun.tools.javac.code.Symbol.MethodSymbol;
+import com.sun.tools.javac.code.Type.MethodType;
+import com.sun.tools.javac.tree.JCTree;
+import com.sun.tools.javac.tree.JCTree.JCClassDecl;
+
 import def.test.AmbientWithOverload;
 import source.genericinterfaceperf.ImplementationA1;
 import source.genericinterfaceperf.ImplementationA10;
@@ -69,6 +83,7 @@ import source.overload.OverloadWithEnums;
 import source.overload.OverloadWithInterfaces;
 import source.overload.OverloadWithStaticAndInstanceMethods;
 import source.overload.OverloadWithSuperclass;
+import source.overload.StaticOverloadDispatch;
 import source.overload.WithAmbients;
 import source.overload.WrongOverload;
 import source.overload.WrongOverloadConstructor;
@@ -109,6 +124,47 @@ public class OverloadTests extends AbstractTest {
 		}, getSourceFile(OverloadWithSuperclass.class));
 	}
 
+	@Test
+	public void testMemberResolutionCache() {
+		transpile(logHandler -> {
+			logHandler.assertNoProblems();
+			JSweetContext context = transpiler.getContext();
+			MemberResolutionCache cache = context.getMemberResolutionCache();
+			ClassSymbol mainClass = null, c1 = null;
+			for (JCTree def : context.compilationUnits[0].defs) {
+				if (def instanceof JCClassDecl) {
+					ClassSymbol c = ((JCClassDecl) def).sym;
+					if (c.getSimpleName().contentEquals("OverloadWithSuperclass")) {
+						mainClass = c;
+					} else if (c.getSimpleName().contentEquals("C1")) {
+						c1 = c;
+					}
+				}
+			}
+			MethodSymbol m = null;
+			for (Symbol s : mainClass.getEnclosedElements()) {
+				if (s.getSimpleName().contentEquals("m") && ((MethodSymbol) s).getParameters().size() == 2) {
+					m = (MethodSymbol) s;
+				}
+			}
+			MethodType mType = (MethodType) m.type;
+			assertSame(m, cache.findMethodDeclarationInType(mainClass, "m", mType));
+			assertSame(m, cache.findMethodDeclarationInType(mainClass, "m", mType));
+			assertSame(Util.findMethodDeclarationInType(context.types, c1, "toString", null),
+					cache.findMethodDeclarationInType(c1, "toString", null));
+			assertSame(Util.findFirstDeclarationInClassAndSuperClasses(c1, "hashCode", ElementKind.METHOD),
+					cache.findFirstDeclarationInClassAndSuperClasses(c1, "hashCode", ElementKind.METHOD));
+			// misses are cached too
+			int size = cache.size();
+			assertNull(cache.findMethodDeclarationInType(c1, "m", mType));
+			assertNull(cache.findFieldDeclaration(c1, context.names.fromString("f")));
+			assertEquals(size + 2, cache.size());
+			assertNull(cache.findMethodDeclarationInType(c1, "m", mType));
+			assertNull(cache.findFieldDeclaration(c1, context.names.fromString("f")));
+			assertEquals(size + 2, cache.size());
+		}, getSourceFile(OverloadWithSuperclass.class));
+	}
+
 	@Test
 	public void testWrongOverload() {
 		eval((logHandler, r) -> {
@@ -117,6 +173,19 @@ public class OverloadTests extends AbstractTest {
 		}, getSourceFile(WrongOverload.class));
 	}
 
+	@Test
+	public void testStaticOverloadDispatch() {
+		try {
+			transpiler.setStaticOverloadDispatch(true);
+			eval((logHandler, r) -> {
+				logHandler.assertNoProblems();
+				assertEquals("20,2,102,5", r.get("trace"));
+			}, getSourceFile(StaticOverloadDispatch.class));
+		} finally {
+			transpiler.setStaticOverloadDispatch(false);
+		}
+	}
+
 	@Test
 	public void testWrongOverloads() {
 		eval((logHandler, r) -> {
@@ -16,11 +16,19 @@
  */
 package org.jsweet.test.transpiler;
 
+import org.apache.commons.io.FileUtils;
+import org.jsweet.transpiler.JSweetProblem;
+import org.jsweet.transpiler.ModuleKind;
+import org.jsweet.transpiler.SourceFile;
 import org.junit.Test;
 
 import source.statics.AnonymousClasses;
 import source.statics.Classes;
 import source.statics.DefaultValues;
+import source.statics.EagerStatics;
+import source.statics.EagerStaticsBase;
+import source.statics.EagerStaticsCycle;
+import source.statics.EagerStaticsCycleOther;
 import source.statics.InnerClasses;
 import source.statics.StaticsInInterfaces;
 import source.statics.StaticInitializer;
@@ -88,4 +96,52 @@ public class StaticsTests extends AbstractTest {
 		}, getSourceFile(DefaultValues.class));
 	}
 
+	@Test
+	public void testEagerStatics() {
+		SourceFile f = getSourceFile(EagerStatics.class);
+		eval((h, r) -> {
+			h.assertNoProblems();
+			Assert.assertEquals("total=6,12,41,46,42", r.get("trace"));
+			String generated = getGeneratedCode(f);
+			Assert.assertTrue(generated.contains("static total : number = "));
+			Assert.assertFalse(generated.contains("total_$LI$"));
+			Assert.assertFalse(generated.contains("label_$LI$"));
+			// source method invocations and the other classes of the unit
+			Assert.assertTrue(generated.contains("computed_$LI$()"));
+			Assert.assertTrue(generated.contains("other_$LI$()"));
+			// the other units are initialized first in bundles and modules
+			Assert.assertEquals(transpiler.getModuleKind() == ModuleKind.none && !transpiler.isBundle(),
+					generated.contains("base_$LI$()"));
+		}, getSourceFile(EagerStaticsBase.class), f);
+	}
+
+	@Test
+	public void testEagerStaticsCycle() {
+		SourceFile f1 = getSourceFile(EagerStaticsCycle.class);
+		SourceFile f2 = getSourceFile(EagerStaticsCycleOther.class);
+		transpile(h -> {
+			if (transpiler.isBundle()) {
+				// bundles are not generated for cycles
+				h.assertReportedProblems(JSweetProblem.CYCLE_IN_STATIC_INITIALIZER_DEPENDENCIES);
+				return;
+			}
+			h.assertNoProblems();
+			String generated = getGeneratedCode(f1) + getGeneratedCode(f2);
+			Assert.assertTrue(generated.contains("first_$LI$()"));
+			Assert.assertTrue(generated.contains("fromOther_$LI$()"));
+			Assert.assertTrue(generated.contains("second_$LI$()"));
+			Assert.assertTrue(generated.contains("fromCycle_$LI$()"));
+		}, f1, f2);
+	}
+
+	private String getGeneratedCode(SourceFile f) {
+		try {
+			return FileUtils.readFileToString(f.getTsFile());
+		} catch (Exception e) {
+			e.printStackTrace();
+			Assert.fail();
+			return null;
+		}
+	}
+
 }
@@ -240,6 +240,19 @@ public class StructuralTests extends AbstractTest {
 		}, getSourceFile(InstanceofForInterfaces.class));
 	}
 
+	@Test
+	public void testInstanceofForInterfacesWithInterfaceTables() {
+		try {
+			transpiler.setInterfaceTables(true);
+			eval((logHandler, r) -> {
+				logHandler.assertNoProblems();
+				Assert.assertEquals("1,2,1,3,4,5,6", r.get("trace"));
+			}, getSourceFile(InstanceofForInterfaces.class));
+		} finally {
+			transpiler.setInterfaceTables(false);
+		}
+	}
+
 	@Test
 	public void testNoConstructorInGlobalsClass() {
 		transpile(logHandler -> {
@@ -19,17 +19,41 @@ package org.jsweet.test.transpiler;
 import static java.util.stream.Collectors.joining;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.io.BufferedReader;
 import java.io.File;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.jsweet.JSweetCommandLineLauncher;
+import org.jsweet.JSweetConfig;
+import org.jsweet.JSweetDaemon;
+import org.jsweet.JSweetFileWatcher;
+import org.jsweet.TranspilationTask;
 import org.jsweet.transpiler.JSweetContext;
 import org.jsweet.transpiler.JSweetFactory;
 import org.jsweet.transpiler.JSweetTranspiler;
@@ -41,11 +65,16 @@ import org.jsweet.transpiler.extension.Java2TypeScriptAdapter;
 import org.jsweet.transpiler.extension.PrinterAdapter;
 import org.jsweet.transpiler.extension.RemoveJavaDependenciesFactory;
 import org.jsweet.transpiler.util.ProcessUtil;
+import org.jsweet.transpiler.util.TranspilationMetrics;
+import org.jsweet.transpiler.util.TranspilationMetrics.Counter;
+import org.jsweet.transpiler.util.TranspilationMetrics.Phase;
 import org.jsweet.transpiler.util.Util;
 import org.junit.Before;
 import org.junit.Ignore;
 import org.junit.Test;
 
+import com.google.gson.Gson;
+
 import source.blocksgame.Ball;
 import source.blocksgame.BlockElement;
 import source.blocksgame.Factory;
@@ -67,6 +96,9 @@ import source.structural.AbstractClass;
 import source.transpiler.CanvasDrawing;
 import source.transpiler.Extended;
 import source.transpiler.PrefixExtension;
+import source.transpiler.incremental.BaseElement;
+import source.transpiler.incremental.ElementUser;
+import source.transpiler.incremental.RelayElement;
 import source.transpiler.p.A;
 import source.transpiler.p.B;
 
@@ -157,6 +189,165 @@ public class TranspilerTests extends AbstractTest {
 		}
 	}
 
+	@Test
+	public void testIncrementalMode() throws Exception {
+		TestTranspilationHandler logHandler = new TestTranspilationHandler();
+		boolean generateJsFiles = transpiler.isGenerateJsFiles();
+		// work on copies, since the test touches the Java files
+		File sourceDir = new File(transpiler.getWorkingDirectory(), "incremental-sources");
+		FileUtils.deleteQuietly(sourceDir);
+		try {
+			transpiler.setIncremental(true);
+			transpiler.setGenerateJsFiles(false);
+			SourceFile point = copySourceFile(Point.class, sourceDir);
+			SourceFile rectangle = copySourceFile(Rectangle.class, sourceDir);
+			SourceFile mathApi = copySourceFile(MathApi.class, sourceDir);
+			SourceFile baseElement = copySourceFile(BaseElement.class, sourceDir);
+			SourceFile relayElement = copySourceFile(RelayElement.class, sourceDir);
+			SourceFile elementUser = copySourceFile(ElementUser.class, sourceDir);
+			SourceFile[] sourceFiles = { point, rectangle, mathApi, baseElement, relayElement, elementUser };
+			transpiler.transpile(logHandler, sourceFiles);
+			logHandler.assertNoProblems();
+			for (SourceFile sourceFile : sourceFiles) {
+				assertTrue("File not generated", sourceFile.getTsFile().exists());
+				sourceFile.getTsFile().setLastModified(1000);
+			}
+
+			// nothing changed: no file should be written
+			transpiler.transpile(logHandler, sourceFiles);
+			logHandler.assertNoProblems();
+			for (SourceFile sourceFile : sourceFiles) {
+				assertEquals(1000, sourceFile.getTsFile().lastModified());
+			}
+
+			// point changed: rectangle depends on point
+			point.getJavaFile().setLastModified(System.currentTimeMillis());
+			transpiler.transpile(logHandler, sourceFiles);
+			logHandler.assertNoProblems();
+			assertTrue("File not regenerated", point.getTsFile().lastModified() != 1000);
+			assertTrue("File not regenerated", rectangle.getTsFile().lastModified() != 1000);
+			assertEquals(1000, mathApi.getTsFile().lastModified());
+			assertEquals(1000, baseElement.getTsFile().lastModified());
+
+			// base element changed: element user depends on it through relay
+			// element
+			baseElement.getJavaFile().setLastModified(System.currentTimeMillis());
+			transpiler.transpile(logHandler, sourceFiles);
+			logHandler.assertNoProblems();
+			assertTrue("File not regenerated", baseElement.getTsFile().lastModified() != 1000);
+			assertTrue("File not regenerated", relayElement.getTsFile().lastModified() != 1000);
+			assertTrue("File not regenerated", elementUser.getTsFile().lastModified() != 1000);
+			assertEquals(1000, mathApi.getTsFile().lastModified());
+		} finally {
+			transpiler.setIncremental(false);
+			transpiler.setGenerateJsFiles(generateJsFiles);
+			FileUtils.deleteQuietly(sourceDir);
+		}
+	}
+
+	private SourceFile copySourceFile(Class<?> mainClass, File targetDirectory) throws Exception {
+		String path = mainClass.getName().replace(".", "/") + ".java";
+		File copy = new File(targetDirectory, path);
+		FileUtils.copyFile(new File(TEST_DIRECTORY_NAME, path), copy);
+		return new SourceFile(copy);
+	}
+
+	@Test
+	public void testTscService() throws Exception {
+		TestTranspilationHandler logHandler = new TestTranspilationHandler();
+		try {
+			transpiler.setTscService(true);
+			SourceFile point = getSourceFile(Point.class);
+			SourceFile rectangle = getSourceFile(Rectangle.class);
+			transpiler.transpile(logHandler, point, rectangle);
+			logHandler.assertNoProblems();
+			assertTrue("File not generated", point.getJsFile().exists());
+			assertTrue("File not generated", rectangle.getJsFile().exists());
+
+			// second compilation with the same service
+			FileUtils.deleteQuietly(point.getJsFile());
+			transpiler.transpile(logHandler, point, rectangle);
+			logHandler.assertNoProblems();
+			assertTrue("File not generated", point.getJsFile().exists());
+			assertTrue("Tsc service not enabled", transpiler.isTscService());
+		} finally {
+			transpiler.setTscService(false);
+		}
+	}
+
+	@Test
+	public void testOutputManifest() throws Exception {
+		Set<File> changedOutputFiles = new HashSet<>();
+		TestTranspilationHandler logHandler = new TestTranspilationHandler() {
+			@Override
+			public void onCompleted(JSweetTranspiler transpiler, boolean fullPass, SourceFile[] files,
+					Set<File> changedFiles) {
+				changedOutputFiles.clear();
+				changedOutputFiles.addAll(changedFiles);
+			}
+		};
+		SourceFile point = getSourceFile(Point.class);
+		SourceFile rectangle = getSourceFile(Rectangle.class);
+		transpiler.transpile(logHandler, point, rectangle);
+		logHandler.assertNoProblems();
+		long tsLastModified = point.getTsFile().lastModified();
+		long jsLastModified = point.getJsFile().lastModified();
+
+		// no-op rebuild: no file should be written
+		transpiler.transpile(logHandler, point, rectangle);
+		logHandler.assertNoProblems();
+		assertTrue("Files rewritten: " + changedOutputFiles, changedOutputFiles.isEmpty());
+		assertEquals(tsLastModified, point.getTsFile().lastModified());
+		assertEquals(jsLastModified, point.getJsFile().lastModified());
+		assertTrue("File not generated", point.getJsFile().exists());
+
+		// a modified output is written again
+		point.getTsFile().setLastModified(1000);
+		transpiler.transpile(logHandler, point, rectangle);
+		logHandler.assertNoProblems();
+		assertTrue("File not regenerated", changedOutputFiles.contains(point.getTsFile()));
+		assertTrue("File not regenerated", point.getTsFile().lastModified() != 1000);
+	}
+
+	@Test
+	public void testMetrics() throws Exception {
+		List<Phase> startedPhases = new ArrayList<>();
+		List<Phase> completedPhases = new ArrayList<>();
+		TranspilationMetrics[] reportedMetrics = { null };
+		TestTranspilationHandler logHandler = new TestTranspilationHandler() {
+			@Override
+			public void onPhaseStarted(JSweetTranspiler transpiler, Phase phase) {
+				startedPhases.add(phase);
+			}
+
+			@Override
+			public void onPhaseCompleted(JSweetTranspiler transpiler, Phase phase, long durationMillis) {
+				assertTrue(durationMillis >= 0);
+				completedPhases.add(phase);
+			}
+
+			@Override
+			public void onMetrics(JSweetTranspiler transpiler, TranspilationMetrics metrics) {
+				reportedMetrics[0] = metrics;
+			}
+		};
+		boolean generateJsFiles = transpiler.isGenerateJsFiles();
+		try {
+			transpiler.setGenerateJsFiles(false);
+			transpiler.transpile(logHandler, getSourceFile(Point.class), getSourceFile(Rectangle.class));
+			logHandler.assertNoProblems();
+			assertEquals(startedPhases, completedPhases);
+			assertTrue(completedPhases.containsAll(
+					Arrays.asList(Phase.CANDIES, Phase.PARSING, Phase.ATTRIBUTION, Phase.ANALYSIS, Phase.PRINTING)));
+			assertFalse(completedPhases.contains(Phase.TSC));
+			assertTrue(reportedMetrics[0] == transpiler.getMetrics());
+			assertEquals(2, reportedMetrics[0].getCount(Counter.UNITS_PRINTED));
+			assertTrue(reportedMetrics[0].toJson().contains("\"ADAPTER_SUBSTITUTIONS\""));
+		} finally {
+			transpiler.setGenerateJsFiles(generateJsFiles);
+		}
+	}
+
 	@Ignore
 	@Test
 	public void testTscInstallation() throws Exception {
@@ -315,6 +506,275 @@ public class TranspilerTests extends AbstractTest {
 		assertTrue(process.exitValue() == 1);
 	}
 
+	@Test
+	public void testDaemon() throws Throwable {
+		JSweetDaemon daemon = new JSweetDaemon(0, 1, new File(outDir, "daemon.token"));
+		Thread thread = startDaemon(daemon);
+		try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), daemon.getPort());
+				BufferedReader in = new BufferedReader(
+						new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+				Writer out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8)) {
+			String token = FileUtils.readFileToString(daemon.getTokenFile(), StandardCharsets.UTF_8);
+			JSweetDaemon.Request gameRequest = new JSweetDaemon.Request();
+			gameRequest.token = token;
+			gameRequest.directory = gameDir.getAbsolutePath();
+			gameRequest.args = new String[] { "--tsout", new File(outDir, "game").getAbsolutePath(), "--tsOnly",
+					"--factoryClassName", RemoveJavaDependenciesFactory.class.getName(), "-i", ".", "--includes",
+					"UselessClass.java:dummy" };
+			JSweetDaemon.Response response = sendDaemonRequest(in, out, gameRequest);
+			assertTrue(response.error, response.success);
+			assertEquals(0, response.errorCount);
+			assertFalse(response.warm);
+			assertTrue(response.outputFiles.stream().anyMatch(f -> f.endsWith("UselessClass.ts")));
+			assertTrue(response.timings.containsKey("transpilation"));
+
+			response = sendDaemonRequest(in, out, gameRequest);
+			assertTrue(response.success);
+			assertTrue(response.warm);
+
+			JSweetDaemon.Request statusRequest = new JSweetDaemon.Request();
+			statusRequest.token = token;
+			statusRequest.command = "status";
+			response = sendDaemonRequest(in, out, statusRequest);
+			assertEquals(1, response.projects.size());
+			assertTrue(response.projects.get(0).contains(gameDir.getName()));
+
+			// the idle game project is evicted (one project at most)
+			JSweetDaemon.Request calculusRequest = new JSweetDaemon.Request();
+			calculusRequest.token = token;
+			calculusRequest.directory = calculusDir.getAbsolutePath();
+			calculusRequest.args = new String[] { "--tsout", new File(outDir, "calculus").getAbsolutePath(),
+					"--tsOnly", "--factoryClassName", RemoveJavaDependenciesFactory.class.getName(), "-i", "." };
+			response = sendDaemonRequest(in, out, calculusRequest);
+			assertTrue(response.error, response.success);
+			assertFalse(response.warm);
+			response = sendDaemonRequest(in, out, statusRequest);
+			assertEquals(1, response.projects.size());
+			assertTrue(response.projects.get(0).contains(calculusDir.getName()));
+
+			JSweetDaemon.Request shutdownRequest = new JSweetDaemon.Request();
+			shutdownRequest.token = token;
+			shutdownRequest.command = "shutdown";
+			response = sendDaemonRequest(in, out, shutdownRequest);
+			assertTrue(response.success);
+			thread.join(10000);
+			assertFalse(thread.isAlive());
+			assertFalse(daemon.getTokenFile().exists());
+		} finally {
+			daemon.stop();
+		}
+	}
+
+	@Test
+	public void testDaemonClassPathChange() throws Throwable {
+		JSweetDaemon daemon = new JSweetDaemon(0, 1, new File(outDir, "daemon.token"));
+		Thread thread = startDaemon(daemon);
+		File classPathDir = new File(outDir, "daemon-classpath");
+		classPathDir.mkdirs();
+		try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), daemon.getPort());
+				BufferedReader in = new BufferedReader(
+						new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+				Writer out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8)) {
+			JSweetDaemon.Request request = new JSweetDaemon.Request();
+			request.token = FileUtils.readFileToString(daemon.getTokenFile(), StandardCharsets.UTF_8);
+			request.directory = gameDir.getAbsolutePath();
+			request.args = new String[] { "--tsout", new File(outDir, "game").getAbsolutePath(), "--tsOnly",
+					"--factoryClassName", RemoveJavaDependenciesFactory.class.getName(), "-i", ".", "--includes",
+					"UselessClass.java:dummy", "--classpath",
+					classPathDir.getAbsolutePath() + File.pathSeparator + System.getProperty("java.class.path") };
+			JSweetDaemon.Response response = sendDaemonRequest(in, out, request);
+			assertTrue(response.error, response.success);
+			assertFalse(response.warm);
+			response = sendDaemonRequest(in, out, request);
+			assertTrue(response.warm);
+
+			// the kept transpiler is created again when the classpath changes
+			assertTrue(classPathDir.setLastModified(classPathDir.lastModified() - 10000));
+			response = sendDaemonRequest(in, out, request);
+			assertTrue(response.error, response.success);
+			assertEquals(0, response.errorCount);
+			assertFalse(response.warm);
+			response = sendDaemonRequest(in, out, request);
+			assertTrue(response.warm);
+		} finally {
+			daemon.stop();
+		}
+		thread.join(10000);
+		assertFalse(thread.isAlive());
+	}
+
+	@Test
+	public void testDaemonToken() throws Throwable {
+		JSweetDaemon daemon = new JSweetDaemon(0, 1, new File(outDir, "daemon.token"));
+		Thread thread = startDaemon(daemon);
+		try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), daemon.getPort());
+				BufferedReader in = new BufferedReader(
+						new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+				Writer out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8)) {
+			if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+				assertEquals(PosixFilePermissions.fromString("rw-------"),
+						Files.getPosixFilePermissions(daemon.getTokenFile().toPath()));
+			}
+			JSweetDaemon.Request request = new JSweetDaemon.Request();
+			request.token = "invalid";
+			request.command = "status";
+			JSweetDaemon.Response response = sendDaemonRequest(in, out, request);
+			assertFalse(response.success);
+			assertNull(response.projects);
+			// the connection is closed after an invalid token
+			assertNull(in.readLine());
+		} finally {
+			daemon.stop();
+		}
+		thread.join(10000);
+		assertFalse(daemon.getTokenFile().exists());
+	}
+
+	private Thread startDaemon(JSweetDaemon daemon) throws Exception {
+		daemon.start();
+		Thread thread = new Thread(() -> {
+			try {
+				daemon.execute();
+			} catch (Exception e) {
+				e.printStackTrace();
+			}
+		});
+		thread.start();
+		return thread;
+	}
+
+	private JSweetDaemon.Response sendDaemonRequest(BufferedReader in, Writer out, JSweetDaemon.Request request)
+			throws Exception {
+		Gson gson = new Gson();
+		out.write(gson.toJson(request) + "\n");
+		out.flush();
+		return gson.fromJson(in.readLine(), JSweetDaemon.Response.class);
+	}
+
+	@Test
+	public void testFileWatcher() throws Exception {
+		File sourceDir = new File(transpiler.getWorkingDirectory(), "watched-sources");
+		FileUtils.deleteQuietly(sourceDir);
+		sourceDir.mkdirs();
+		BlockingQueue<Set<File>> runs = new LinkedBlockingQueue<>();
+		try {
+			startFileWatcher(sourceDir, 300, 5000, runs);
+
+			// a burst of events triggers a single run with all the files
+			List<File> files = new ArrayList<>();
+			for (int i = 0; i < 20; i++) {
+				File file = new File(sourceDir, "Burst" + i + ".java");
+				FileUtils.write(file, "class Burst" + i + " {}", StandardCharsets.UTF_8);
+				files.add(file);
+			}
+			Set<File> changedFiles = runs.poll(10, TimeUnit.SECONDS);
+			assertNotNull(changedFiles);
+			assertTrue(changedFiles.containsAll(files));
+			assertNull(runs.poll(2, TimeUnit.SECONDS));
+		} finally {
+			// deleting the watched directory stops the watcher
+			FileUtils.deleteQuietly(sourceDir);
+		}
+	}
+
+	@Test
+	public void testFileWatcherMaxDelay() throws Exception {
+		File sourceDir = new File(transpiler.getWorkingDirectory(), "watched-sources-max-delay");
+		FileUtils.deleteQuietly(sourceDir);
+		sourceDir.mkdirs();
+		BlockingQueue<Set<File>> runs = new LinkedBlockingQueue<>();
+		try {
+			startFileWatcher(sourceDir, 500, 1000, runs);
+
+			// continuous writes (faster than the debounce delay) do not
+			// postpone the runs beyond the maximum delay
+			File file = new File(sourceDir, "AutoSaved.java");
+			long end = System.currentTimeMillis() + 4000;
+			for (int i = 0; System.currentTimeMillis() < end; i++) {
+				FileUtils.write(file, "class AutoSaved {} // " + i, StandardCharsets.UTF_8);
+				Thread.sleep(100);
+			}
+			assertTrue("expected runs while writing, got " + runs.size(), runs.size() >= 2);
+		} finally {
+			FileUtils.deleteQuietly(sourceDir);
+		}
+	}
+
+	@Test
+	public void testFileWatcherWatchedFiles() throws Exception {
+		File sourceDir = new File(transpiler.getWorkingDirectory(), "watched-sources-files");
+		File projectDir = new File(transpiler.getWorkingDirectory(), "watched-project");
+		FileUtils.deleteQuietly(sourceDir);
+		FileUtils.deleteQuietly(projectDir);
+		sourceDir.mkdirs();
+		projectDir.mkdirs();
+		BlockingQueue<Set<File>> runs = new LinkedBlockingQueue<>();
+		try {
+			File configurationFile = new File(projectDir, JSweetConfig.CONFIGURATION_FILE_NAME);
+			startFileWatcher(sourceDir, 300, 5000, runs, Arrays.asList(configurationFile));
+
+			// the other files of the configuration file's directory are not
+			// watched
+			FileUtils.write(new File(projectDir, "notes.txt"), "not watched", StandardCharsets.UTF_8);
+			assertNull(runs.poll(2, TimeUnit.SECONDS));
+
+			FileUtils.write(configurationFile, "{ \"bundle\": true }", StandardCharsets.UTF_8);
+			Set<File> changedFiles = runs.poll(10, TimeUnit.SECONDS);
+			assertNotNull(changedFiles);
+			assertTrue(changedFiles.stream().anyMatch(f -> f.getName().equals(JSweetConfig.CONFIGURATION_FILE_NAME)));
+		} finally {
+			FileUtils.deleteQuietly(sourceDir);
+			FileUtils.deleteQuietly(projectDir);
+		}
+	}
+
+	private void startFileWatcher(File sourceDir, long debounceDelay, long maxDelay, BlockingQueue<Set<File>> runs)
+			throws Exception {
+		startFileWatcher(sourceDir, debounceDelay, maxDelay, runs, Collections.emptyList());
+	}
+
+	/**
+	 * Starts a file watcher that records its runs, and waits until it receives
+	 * the events of the given source directory.
+	 */
+	private void startFileWatcher(File sourceDir, long debounceDelay, long maxDelay, BlockingQueue<Set<File>> runs,
+			List<File> watchedFiles) throws Exception {
+		TranspilationTask task = new TranspilationTask() {
+			@Override
+			public void run() {
+			}
+
+			@Override
+			public void run(Set<File> changedFiles) {
+				runs.add(changedFiles);
+			}
+
+			@Override
+			public List<File> getInputDirList() {
+				return Arrays.asList(sourceDir);
+			}
+
+			@Override
+			public List<File> getWatchedFiles() {
+				return watchedFiles;
+			}
+		};
+		Thread watcherThread = new Thread(() -> new JSweetFileWatcher(task, debounceDelay, maxDelay).execute());
+		watcherThread.setDaemon(true);
+		watcherThread.start();
+
+		// touches a probe file until the watcher is registered
+		File probe = new File(sourceDir, "Probe.txt");
+		Set<File> probeRun = null;
+		for (int i = 0; i < 50 && probeRun == null; i++) {
+			FileUtils.write(probe, "" + i, StandardCharsets.UTF_8);
+			probeRun = runs.poll(200, TimeUnit.MILLISECONDS);
+		}
+		assertNotNull("file watcher not started", probeRun);
+		while (runs.poll(debounceDelay * 3, TimeUnit.MILLISECONDS) != null) {
+		}
+	}
+
 	@Test
 	public void testSourceMapsSimple() throws Throwable {
 		boolean sourceMaps = transpiler.isPreserveSourceLineNumbers();
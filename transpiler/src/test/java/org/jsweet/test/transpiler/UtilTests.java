@@ -17,7 +17,10 @@
 package org.jsweet.test.transpiler;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 
+import org.jsweet.transpiler.util.Position;
+import org.jsweet.transpiler.util.SourceMap;
 import org.jsweet.transpiler.util.Util;
 import org.junit.Test;
 
@@ -34,5 +37,31 @@ public class UtilTests {
 		assertEquals("../..", Util.getRelativePath("/a/b/c", "/a"));
 		assertEquals("..", Util.getRelativePath("/a/b/c", "/a/b"));
 	}
-	
+
+	@Test
+	public void testSourceMapFindInputPosition() {
+		SourceMap sourceMap = new SourceMap();
+		assertNull(sourceMap.findInputPosition(1, 0));
+		sourceMap.addEntry(new Position(10, 0), new Position(1, 0));
+		sourceMap.addEntry(new Position(10, 8), new Position(1, 12));
+		sourceMap.addEntry(new Position(12, 4), new Position(4, 2));
+		sourceMap.addEntry(new Position(13, 4), new Position(4, 20));
+		assertEquals(10, sourceMap.findInputPosition(1, 0).getLine());
+		assertEquals(0, sourceMap.findInputPosition(1, 0).getColumn());
+		assertEquals(8, sourceMap.findInputPosition(1, 5).getColumn());
+		assertEquals(8, sourceMap.findInputPosition(1, 30).getColumn());
+		// lines without entries map to the last entry of the previous lines
+		assertEquals(10, sourceMap.findInputPosition(2, 0).getLine());
+		assertEquals(8, sourceMap.findInputPosition(3, 40).getColumn());
+		assertEquals(12, sourceMap.findInputPosition(4, 0).getLine());
+		assertEquals(13, sourceMap.findInputPosition(4, 3).getLine());
+		assertNull(sourceMap.findInputPosition(5, 0));
+		// the index must follow modifications
+		sourceMap.shiftOutputPositions(2);
+		assertEquals(10, sourceMap.findInputPosition(3, 0).getLine());
+		assertEquals(13, sourceMap.findInputPosition(6, 3).getLine());
+		sourceMap.removeLastInsertedEntry();
+		assertEquals(12, sourceMap.findInputPosition(6, 3).getLine());
+	}
+
 }
@@ -2,6 +2,9 @@ package source.nativestructures;
 
 import static jsweet.util.Lang.$export;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import def.js.Array;
 
 /**
@@ -65,6 +68,28 @@ public class NativeStringBuilder {
 
 		result.insert(1, "aaaa");
 		trace.push(result.toString());
+
+		StringBuilder big = new StringBuilder();
+		for (int i = 0; i < 10000; i++) {
+			big.append(i % 10);
+		}
+		trace.push("" + big.length() + big.charAt(9999));
+
+		big.setLength(3);
+		big.append("xyz", 1, 3).append(new char[] { 'a', 'b', 'c' }, 1, 1);
+		trace.push(big.toString() + big.length());
+
+		List<Integer> numbers = new ArrayList<>();
+		numbers.add(1);
+		numbers.add(2);
+		trace.push(new StringBuilder().append(numbers).append(new char[] { 'o', 'k' }).insert(0, new char[] { '>' })
+				.toString());
+
+		StringBuilder alternating = new StringBuilder("abc");
+		for (int i = 0; i < 30; i++) {
+			alternating.append(alternating.charAt(i));
+		}
+		trace.push(alternating.toString() + alternating.charAt(17) + alternating.length());
 		
 		$export("trace", trace.join(","));
 
@@ -0,0 +1,69 @@
+package source.nativestructures;
+
+import static jsweet.util.Lang.$export;
+import static jsweet.util.Lang.array;
+
+public class NumericChars {
+
+	static String[] trace = {};
+
+	public static void main(String[] args) {
+		String s = "hello42";
+		int digits = 0;
+		int sum = 0;
+		for (int i = 0; i < s.length(); i++) {
+			char c = s.charAt(i);
+			if (c >= '0' && c <= '9') {
+				digits++;
+			}
+			if (Character.isDigit(c)) {
+				sum += c - '0';
+			}
+		}
+		array(trace).push("" + digits + sum);
+
+		char c = 'a';
+		c++;
+		String r = "" + c;
+		r += c;
+		r += (char) (c + 1);
+		array(trace).push(r);
+
+		switch (s.charAt(0)) {
+		case 'h':
+			array(trace).push("h");
+			break;
+		default:
+			array(trace).push("?");
+		}
+
+		char[] chars = s.toCharArray();
+		chars[0] = Character.toUpperCase(chars[0]);
+		array(trace).push(new String(chars));
+		array(trace).push(String.valueOf(chars, 1, 2));
+
+		StringBuilder sb = new StringBuilder();
+		for (char ch = 'x'; ch <= 'z'; ch++) {
+			sb.append(ch);
+		}
+		sb.setCharAt(0, 'X');
+		array(trace).push(sb.toString() + (int) sb.charAt(1));
+
+		char[] counts = new char[2];
+		array(trace).push("" + (int) counts[0] + (int) (char) 65601);
+		array(trace).push("" + s.indexOf('l', 3) + s.lastIndexOf('l', 2) + s.indexOf(108, 4));
+
+		int[] codes = { 32, 9, 10, 11, 12, 13, 28, 31, 0xA0, 0x1680, 0x2000, 0x2007, 0x200A, 0x2028, 0x2029, 0x202F,
+				0x205F, 0x3000, 0x85, 97, 8, 14, 27 };
+		String spaces = "", castSpaces = "";
+		for (int i = 0; i < codes.length; i++) {
+			char space = (char) codes[i];
+			spaces += Character.isWhitespace(space) ? "1" : "0";
+			castSpaces += Character.isWhitespace((char) codes[i]) ? "1" : "0";
+		}
+		array(trace).push(spaces);
+		array(trace).push(castSpaces);
+		$export("trace", array(trace).join());
+	}
+
+}
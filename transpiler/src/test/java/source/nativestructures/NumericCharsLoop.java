@@ -0,0 +1,32 @@
+package source.nativestructures;
+
+import static jsweet.util.Lang.$export;
+
+public class NumericCharsLoop {
+
+	public static void main(String[] args) {
+		String source = "let x1 = 42 + y_2;\n\tif (x1 >= 10) { Y = x1 * 3; }";
+		int letters = 0, upper = 0, lower = 0, digits = 0, spaces = 0, others = 0, hash = 0;
+		for (int i = 0; i < source.length(); i++) {
+			char c = source.charAt(i);
+			if (Character.isLetter(c)) {
+				letters++;
+				if (Character.isUpperCase(c)) {
+					upper++;
+				}
+				if (Character.isLowerCase(c)) {
+					lower++;
+				}
+			} else if (Character.isDigit(source.charAt(i))) {
+				digits++;
+			} else if (Character.isWhitespace(c)) {
+				spaces++;
+			} else if (!Character.isLetterOrDigit(c)) {
+				others++;
+			}
+			hash = (31 * hash + (c - 'a')) % 1000003;
+		}
+		$export("counts", letters + "," + upper + "," + lower + "," + digits + "," + spaces + "," + others + "," + hash);
+	}
+
+}
@@ -0,0 +1,135 @@
+package source.nativestructures;
+
+import static jsweet.util.Lang.$export;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+
+import def.js.Array;
+
+class DequeItem {
+	int value;
+
+	public DequeItem(int value) {
+		this.value = value;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		return obj instanceof DequeItem && ((DequeItem) obj).value == value;
+	}
+
+	@Override
+	public int hashCode() {
+		return value;
+	}
+}
+
+public class RingBufferDeques {
+
+	static Array<String> trace = new Array<>();
+
+	public static void main(String[] args) {
+		Deque<Integer> d = new ArrayDeque<>();
+		trace.push("" + d.isEmpty() + d.pollFirst() + d.peekLast());
+		for (int i = 0; i < 40; i++) {
+			if (i % 2 == 0) {
+				d.addLast(i);
+			} else {
+				d.addFirst(i);
+			}
+		}
+		trace.push("" + d.size() + d.peekFirst() + d.peekLast());
+		d.push(100);
+		trace.push("" + d.pop() + d.removeLast() + d.getFirst() + d.getLast());
+
+		Queue<Integer> q = new LinkedList<>();
+		q.offer(1);
+		int sum = 0;
+		while (!q.isEmpty()) {
+			int n = q.poll();
+			sum += n;
+			if (n < 1000) {
+				q.offer(2 * n);
+				q.offer(2 * n + 1);
+			}
+		}
+		trace.push("" + sum);
+
+		Deque<String> s = new ArrayDeque<>();
+		s.add("a");
+		s.add("b");
+		s.add("c");
+		s.offerFirst("z");
+		trace.push("" + s.contains("b") + s.remove("b") + s.contains("b") + s.element() + s.size());
+		String joined = "";
+		for (String e : s) {
+			joined += e;
+		}
+		Iterator<String> it = s.descendingIterator();
+		while (it.hasNext()) {
+			joined += it.next();
+		}
+		trace.push(joined);
+
+		LinkedList<String> l = new LinkedList<>(s);
+		l.add(1, "x");
+		l.remove(0);
+		trace.push(l.get(0) + l.get(2) + l.indexOf("a") + l.size());
+		l.clear();
+		trace.push("" + l.size() + (l.poll() == null));
+		try {
+			l.remove();
+		} catch (Exception e) {
+			trace.push("empty");
+		}
+		trace.push("" + new ArrayList<>(s).size());
+
+		Deque<Integer> numbers = new ArrayDeque<>();
+		for (int i = 0; i < 10; i++) {
+			numbers.add(i);
+		}
+		numbers.removeIf(n -> n % 3 == 0);
+		List<Integer> removed = new ArrayList<>();
+		removed.add(4);
+		removed.add(5);
+		numbers.removeAll(removed);
+		int[] total = { 0 };
+		numbers.forEach(n -> total[0] += n);
+		trace.push("" + numbers.size() + numbers.containsAll(removed) + numbers.peekFirst() + total[0] + numbers);
+
+		LinkedList<String> stack = new LinkedList<>();
+		stack.push("a");
+		stack.push("b");
+		stack.addLast("c");
+		int size = stack.subList(1, 3).size();
+		Collections.sort(stack);
+		trace.push("" + size + stack.pop() + stack.getFirst() + stack.size());
+
+		// membership in the given collection uses equals
+		Deque<DequeItem> items = new ArrayDeque<>();
+		for (int i = 0; i < 6; i++) {
+			items.add(new DequeItem(i));
+		}
+		List<DequeItem> removedItems = new ArrayList<>();
+		removedItems.add(new DequeItem(1));
+		removedItems.add(new DequeItem(4));
+		items.removeAll(removedItems);
+		List<DequeItem> retainedItems = new ArrayList<>();
+		retainedItems.add(new DequeItem(0));
+		retainedItems.add(new DequeItem(2));
+		retainedItems.add(new DequeItem(5));
+		boolean changed = items.retainAll(retainedItems);
+		trace.push("" + items.size() + changed + items.contains(new DequeItem(2)) + items.peekLast().value
+				+ items.retainAll(retainedItems) + items.removeAll(items) + items.isEmpty());
+
+		$export("trace", trace.join(","));
+	}
+
+}
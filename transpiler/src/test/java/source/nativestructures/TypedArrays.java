@@ -0,0 +1,54 @@
+package source.nativestructures;
+
+import static jsweet.util.Lang.$export;
+
+import java.util.Arrays;
+
+import def.js.Array;
+
+public class TypedArrays {
+
+	static Array<String> trace = new Array<>();
+
+	public static void main(String[] args) {
+		int[] ints = new int[3];
+		trace.push("" + ints.length + ints[2]);
+		double[] doubles = { 1.5, 2.5 };
+		trace.push("" + doubles[1]);
+		int[][] matrix = new int[2][3];
+		matrix[1][2] = 5;
+		trace.push("" + matrix[1].length + matrix[1][2] + matrix[0][2]);
+		Object o = ints;
+		trace.push("" + (o instanceof int[]) + (o instanceof double[]));
+		ints[0] = 2147483647;
+		ints[0] += 1;
+		trace.push("" + ints[0]);
+		byte[] bytes = new byte[] { 1, 2, 3 };
+		byte[] bytesCopy = Arrays.copyOf(bytes, 5);
+		trace.push("" + bytesCopy.length + bytesCopy[2] + bytesCopy[4]);
+		System.arraycopy(bytes, 0, bytes, 1, 2);
+		trace.push("" + bytes[0] + bytes[1] + bytes[2]);
+		short[] shorts = new short[4];
+		Arrays.fill(shorts, (short) 7);
+		Arrays.fill(shorts, 1, 3, (short) 2);
+		trace.push("" + shorts[0] + shorts[1] + shorts[2] + shorts[3]);
+		float[] floats = { 10, 9, 1 };
+		Arrays.sort(floats);
+		trace.push("" + (int) floats[0] + (int) floats[1] + (int) floats[2]);
+		double[] doublesToSort = { 4, 20, 3, 1 };
+		Arrays.sort(doublesToSort, 1, 3);
+		trace.push("" + (int) doublesToSort[0] + (int) doublesToSort[1] + (int) doublesToSort[2]
+				+ (int) doublesToSort[3]);
+		trace.push("" + sum(1, 2, 3));
+		$export("trace", trace.join(","));
+	}
+
+	static int sum(int... values) {
+		int sum = 0;
+		for (int value : values) {
+			sum += value;
+		}
+		return sum;
+	}
+
+}
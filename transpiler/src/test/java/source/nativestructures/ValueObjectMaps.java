@@ -0,0 +1,89 @@
+package source.nativestructures;
+
+import static jsweet.util.Lang.$export;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import def.js.Array;
+
+class ValuePoint {
+	int x;
+	int y;
+
+	public ValuePoint(int x, int y) {
+		this.x = x;
+		this.y = y;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		return obj instanceof ValuePoint && ((ValuePoint) obj).x == x && ((ValuePoint) obj).y == y;
+	}
+
+	@Override
+	public int hashCode() {
+		return x * 31 + y;
+	}
+}
+
+/**
+ * This test is executed without any Java runtime.
+ */
+public class ValueObjectMaps {
+
+	static Array<String> trace = new Array<>();
+
+	public static void main(String[] args) {
+		Map<ValuePoint, Integer> m = new HashMap<>();
+		for (int i = 0; i < 1000; i++) {
+			m.put(new ValuePoint(i, i % 10), i);
+		}
+		trace.push("" + m.size());
+		trace.push("" + m.get(new ValuePoint(500, 0)));
+		trace.push("" + m.put(new ValuePoint(500, 0), -1));
+		trace.push("" + m.get(new ValuePoint(500, 0)));
+		trace.push("" + m.containsKey(new ValuePoint(999, 9)));
+		trace.push("" + m.containsKey(new ValuePoint(999, 8)));
+		trace.push("" + m.remove(new ValuePoint(1, 1)));
+		trace.push("" + m.size());
+		trace.push("" + m.get(new ValuePoint(1, 1)));
+		for (ValuePoint p : m.keySet()) {
+			trace.push("" + p.x);
+			break;
+		}
+
+		Map<ValuePoint, Integer> copy = new HashMap<>(m);
+		copy.put(new ValuePoint(2, 2), -2);
+		trace.push("" + m.get(new ValuePoint(2, 2)));
+		trace.push("" + copy.get(new ValuePoint(2, 2)));
+
+		m.clear();
+		trace.push("" + m.isEmpty());
+		m.put(new ValuePoint(1, 1), 1);
+		trace.push("" + m.get(new ValuePoint(1, 1)));
+
+		Map<ValuePoint, Integer> ordered = new LinkedHashMap<>();
+		for (int i = 0; i < 100; i++) {
+			ordered.put(new ValuePoint(i, 0), i);
+		}
+		for (int i = 0; i < 100; i++) {
+			if (i % 3 != 0) {
+				ordered.remove(new ValuePoint(i, 0));
+			}
+		}
+		ordered.put(new ValuePoint(1, 0), 1);
+		String keys = "";
+		for (ValuePoint p : ordered.keySet()) {
+			if (p.x < 10 || p.x > 95) {
+				keys += p.x + ";";
+			}
+		}
+		trace.push(keys);
+		trace.push("" + ordered.size() + ordered.get(new ValuePoint(99, 0)) + ordered.get(new ValuePoint(98, 0)));
+
+		$export("trace", trace.join(","));
+	}
+
+}
@@ -0,0 +1,140 @@
+package source.nativestructures;
+
+import static jsweet.util.Lang.$export;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import def.js.Array;
+
+class ValueSetPoint implements Comparable<ValueSetPoint> {
+	int x;
+
+	public ValueSetPoint(int x) {
+		this.x = x;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		return obj instanceof ValueSetPoint && ((ValueSetPoint) obj).x == x;
+	}
+
+	@Override
+	public int hashCode() {
+		return x;
+	}
+
+	@Override
+	public int compareTo(ValueSetPoint o) {
+		return x - o.x;
+	}
+}
+
+/**
+ * This test is executed without any Java runtime.
+ */
+public class ValueObjectSets {
+
+	static Array<String> trace = new Array<>();
+
+	public static void main(String[] args) {
+		Set<ValueSetPoint> s = new HashSet<>();
+		for (int i = 0; i < 1000; i++) {
+			s.add(new ValueSetPoint(i % 500));
+		}
+		trace.push("" + s.size());
+		trace.push("" + s.add(new ValueSetPoint(1)));
+		trace.push("" + s.contains(new ValueSetPoint(499)));
+		trace.push("" + s.remove(new ValueSetPoint(0)));
+		trace.push("" + s.contains(new ValueSetPoint(0)));
+		List<ValueSetPoint> l = new ArrayList<>();
+		l.add(new ValueSetPoint(1));
+		l.add(new ValueSetPoint(2));
+		l.add(new ValueSetPoint(2));
+		trace.push("" + s.removeAll(l));
+		trace.push("" + s.size());
+		trace.push("" + s.containsAll(l));
+		trace.push("" + new HashSet<>(l).size());
+		s.clear();
+		trace.push("" + s.add(new ValueSetPoint(1)));
+		trace.push("" + s.retainAll(l));
+		trace.push("" + s.size());
+
+		Set<ValueSetPoint> t = new TreeSet<>();
+		t.add(new ValueSetPoint(5));
+		t.add(new ValueSetPoint(3));
+		t.add(new ValueSetPoint(9));
+		t.add(new ValueSetPoint(3));
+		t.add(new ValueSetPoint(1));
+		t.remove(new ValueSetPoint(9));
+		String sorted = "";
+		for (ValueSetPoint p : t) {
+			sorted += p.x;
+		}
+		trace.push(sorted);
+
+		Set<Integer> r = new TreeSet<>((a, b) -> b - a);
+		r.add(1);
+		r.add(5);
+		r.add(3);
+		r.add(5);
+		sorted = "";
+		for (int i : r) {
+			sorted += i;
+		}
+		trace.push(sorted);
+
+		Set<String> names = new TreeSet<>((a, b) -> a.toLowerCase().compareTo(b.toLowerCase()));
+		names.add("b");
+		names.add("a");
+		trace.push("" + names.add("A"));
+		trace.push("" + names.contains("B"));
+		trace.push("" + names.remove("B"));
+		trace.push("" + names.size());
+
+		Set<Integer> h = new HashSet<>();
+		h.add(1);
+		h.add(2);
+		h.add(3);
+		Collection<Integer> c = h;
+		c.remove(1);
+		c.add(4);
+		trace.push("" + h.contains(3) + h.contains(4) + h.add(4) + h.size());
+
+		Set<ValueSetPoint> v = new HashSet<>();
+		for (int i = 0; i < 1000; i++) {
+			v.add(new ValueSetPoint(i));
+		}
+		for (int i = 0; i < 1000; i += 2) {
+			v.remove(new ValueSetPoint(i));
+		}
+		int sum = 0;
+		for (ValueSetPoint p : v) {
+			sum += p.x;
+		}
+		trace.push("" + v.size() + v.contains(new ValueSetPoint(501)) + v.contains(new ValueSetPoint(500)) + sum);
+
+		Set<Integer> d = new TreeSet<>();
+		for (int i = 10; i > 0; i--) {
+			d.add(i % 7);
+		}
+		List<Integer> more = new ArrayList<>();
+		more.add(9);
+		more.add(3);
+		more.add(9);
+		more.add(-1);
+		trace.push("" + d.addAll(more) + d.addAll(more));
+		sorted = "";
+		for (int i : d) {
+			sorted += i;
+		}
+		trace.push(sorted);
+
+		$export("trace", trace.join(","));
+	}
+
+}
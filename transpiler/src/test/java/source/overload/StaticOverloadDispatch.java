@@ -0,0 +1,63 @@
+package source.overload;
+
+import static jsweet.util.Lang.$export;
+import static jsweet.util.Lang.array;
+
+public class StaticOverloadDispatch extends StaticOverloadDispatchBase {
+
+	static String[] trace = {};
+
+	static int s = st();
+
+	int f = calc(2);
+
+	public static void main(String[] args) {
+		StaticOverloadDispatch o = new StaticOverloadDispatch();
+		array(trace).push("" + o.f);
+		array(trace).push("" + o.calc());
+		array(trace).push("" + o.inner());
+		array(trace).push("" + s);
+		$export("trace", array(trace).join());
+	}
+
+	static int st() {
+		return 5;
+	}
+
+	static int st(int i) {
+		return i;
+	}
+
+	@Override
+	int calc() {
+		return super.calc() + 1;
+	}
+
+	@Override
+	int calc(int i) {
+		return i * 10;
+	}
+
+	int inner() {
+		return new Inner().m();
+	}
+
+	class Inner {
+		int m() {
+			return calc() + st(100);
+		}
+	}
+
+}
+
+class StaticOverloadDispatchBase {
+
+	int calc() {
+		return 1;
+	}
+
+	int calc(int i) {
+		return i;
+	}
+
+}
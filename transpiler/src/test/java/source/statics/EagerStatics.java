@@ -0,0 +1,45 @@
+package source.statics;
+
+import static jsweet.util.Lang.$export;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class EagerStatics {
+
+	static int[] values = { 1, 2, 3 };
+
+	static int total = values[0] + values[1] + values[2];
+
+	static List<String> trace = new ArrayList<>();
+
+	static String label = "total=" + EagerStatics.total;
+
+	static int computed = compute();
+
+	static int compute() {
+		return total * 2;
+	}
+
+	static int other = EagerOther.BASE + 1;
+
+	static int base = EagerStaticsBase.BASE * 2;
+
+	public static void main(String[] args) {
+		trace.add(label);
+		trace.add("" + computed);
+		trace.add("" + other);
+		trace.add("" + EagerOther.derived);
+		trace.add("" + base);
+		$export("trace", String.join(",", trace));
+	}
+
+}
+
+class EagerOther {
+
+	static int BASE = Integer.parseInt("40");
+
+	static int derived = EagerStatics.total + BASE;
+
+}
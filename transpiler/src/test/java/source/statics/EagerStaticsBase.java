@@ -0,0 +1,7 @@
+package source.statics;
+
+public class EagerStaticsBase {
+
+	public static int BASE = Integer.parseInt("21");
+
+}
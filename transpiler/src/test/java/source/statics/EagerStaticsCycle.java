@@ -0,0 +1,15 @@
+package source.statics;
+
+import static jsweet.util.Lang.$export;
+
+public class EagerStaticsCycle {
+
+	static int first = Integer.parseInt("1");
+
+	static int fromOther = EagerStaticsCycleOther.second + 1;
+
+	public static void main(String[] args) {
+		$export("trace", fromOther + "," + EagerStaticsCycleOther.fromCycle);
+	}
+
+}
@@ -0,0 +1,9 @@
+package source.statics;
+
+public class EagerStaticsCycleOther {
+
+	static int second = Integer.parseInt("10");
+
+	static int fromCycle = EagerStaticsCycle.first + 100;
+
+}
@@ -0,0 +1,11 @@
+package source.transpiler.incremental;
+
+public class BaseElement {
+
+	public int size = 1;
+
+	public int getSize() {
+		return size;
+	}
+
+}
@@ -0,0 +1,9 @@
+package source.transpiler.incremental;
+
+public class ElementUser {
+
+	public String describe(RelayElement element) {
+		return element.name;
+	}
+
+}
@@ -0,0 +1,7 @@
+package source.transpiler.incremental;
+
+public class RelayElement extends BaseElement {
+
+	public String name = "relay";
+
+}